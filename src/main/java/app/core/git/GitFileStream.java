@@ -0,0 +1,18 @@
+package app.core.git;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+public record GitFileStream(long size, InputStream content) implements Closeable {
+  public static GitFileStream of(byte[] content) {
+    byte[] safeContent = content == null ? new byte[0] : content;
+    return new GitFileStream(safeContent.length, new ByteArrayInputStream(safeContent));
+  }
+
+  @Override
+  public void close() throws IOException {
+    content.close();
+  }
+}
@@ -1,16 +1,48 @@
 package app.core.git;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface GitPort {
   String getHeadCommit();
 
+  String resolveCommit(String ref);
+
   List<String> listTrackedFiles();
 
+  default void forEachTrackedFile(Consumer<String> action) {
+    listTrackedFiles().forEach(action);
+  }
+
+  default String trackedFilesStamp() {
+    return null;
+  }
+
   byte[] readWorkingTreeFile(String repoRelativePath);
 
+  default GitFileStream openWorkingTreeFile(String repoRelativePath) {
+    return GitFileStream.of(readWorkingTreeFile(repoRelativePath));
+  }
+
   List<String> listTrackedFilesAtCommit(String commit);
 
+  default Map<String, Long> listFileSizesAtCommit(String commit) {
+    return Map.of();
+  }
+
+  default void forEachTrackedFileAtCommit(String commit, Consumer<GitTreeFile> action) {
+    Map<String, Long> sizes = listFileSizesAtCommit(commit);
+    for (String path : listTrackedFilesAtCommit(commit)) {
+      action.accept(new GitTreeFile(path, null, sizes.get(path)));
+    }
+  }
+
   byte[] readFileAtCommit(String commit, String repoRelativePath);
+
+  default GitFileStream openFileAtCommit(String commit, String repoRelativePath) {
+    return GitFileStream.of(readFileAtCommit(commit, repoRelativePath));
+  }
+
   List<GitDiffEntry> listChangedFiles(String fromCommit, String toCommit);
 }
@@ -0,0 +1,3 @@
+package app.core.git;
+
+public record GitTreeFile(String path, String blobId, Long size) {}
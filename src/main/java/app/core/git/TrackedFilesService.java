@@ -0,0 +1,41 @@
+package app.core.git;
+
+import java.util.List;
+
+public class TrackedFilesService {
+  private final GitPort gitPort;
+  private final Object refreshLock = new Object();
+  private volatile Entry current;
+
+  public TrackedFilesService(GitPort gitPort) {
+    this.gitPort = gitPort;
+  }
+
+  public TrackedFilesSnapshot snapshot() {
+    String stamp = gitPort.trackedFilesStamp();
+    Entry entry = current;
+    if (entry != null && entry.matches(stamp)) {
+      return entry.snapshot();
+    }
+
+    synchronized (refreshLock) {
+      entry = current;
+      if (entry != null && entry.matches(stamp)) {
+        return entry.snapshot();
+      }
+      List<String> paths = gitPort.listTrackedFiles();
+      TrackedFilesSnapshot snapshot =
+          entry != null && entry.snapshot().paths().equals(paths)
+              ? entry.snapshot()
+              : TrackedFilesSnapshot.of(entry == null ? 1 : entry.snapshot().version() + 1, paths);
+      current = new Entry(stamp, snapshot);
+      return snapshot;
+    }
+  }
+
+  private record Entry(String stamp, TrackedFilesSnapshot snapshot) {
+    private boolean matches(String otherStamp) {
+      return stamp != null && stamp.equals(otherStamp);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package app.core.git;
+
+import java.util.List;
+import java.util.Set;
+
+public record TrackedFilesSnapshot(long version, List<String> paths, Set<String> pathSet) {
+  public TrackedFilesSnapshot {
+    paths = List.copyOf(paths);
+    pathSet = Set.copyOf(pathSet);
+  }
+
+  public static TrackedFilesSnapshot of(long version, List<String> paths) {
+    return new TrackedFilesSnapshot(version, paths, Set.copyOf(paths));
+  }
+
+  public boolean contains(String path) {
+    return path != null && pathSet.contains(path);
+  }
+
+  public boolean isEmpty() {
+    return paths.isEmpty();
+  }
+}
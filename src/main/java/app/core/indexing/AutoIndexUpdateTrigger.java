@@ -0,0 +1,102 @@
+package app.core.indexing;
+
+import app.core.git.GitPort;
+import app.core.projectstate.ProjectStatePort;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+public class AutoIndexUpdateTrigger {
+  private static final String DEFAULT_REF = "HEAD";
+
+  private final StartInitialIndexUseCase startInitialIndexUseCase;
+  private final GitPort gitPort;
+  private final ProjectStatePort projectStatePort;
+  private final String ref;
+  private final Duration minInterval;
+  private final Clock clock;
+
+  private boolean pending;
+  private Instant lastTriggeredAt;
+  private String lastTriggeredCommit;
+
+  public AutoIndexUpdateTrigger(
+      StartInitialIndexUseCase startInitialIndexUseCase,
+      GitPort gitPort,
+      ProjectStatePort projectStatePort,
+      String ref,
+      Duration minInterval,
+      Clock clock) {
+    this.startInitialIndexUseCase = startInitialIndexUseCase;
+    this.gitPort = gitPort;
+    this.projectStatePort = projectStatePort;
+    this.ref = ref == null || ref.isBlank() ? DEFAULT_REF : ref.trim();
+    this.minInterval = minInterval == null ? Duration.ZERO : minInterval;
+    this.clock = clock == null ? Clock.systemUTC() : clock;
+  }
+
+  public AutoIndexUpdateTrigger forProject(
+      StartInitialIndexUseCase startInitialIndexUseCase,
+      GitPort gitPort,
+      ProjectStatePort projectStatePort) {
+    return new AutoIndexUpdateTrigger(
+        startInitialIndexUseCase, gitPort, projectStatePort, ref, minInterval, clock);
+  }
+
+  public synchronized void pollHead() {
+    if (lastTriggeredCommit != null
+        && startInitialIndexUseCase.getStatus().status() == IndexJobStatus.FAILED) {
+      lastTriggeredCommit = null;
+    }
+    String commit = resolveTarget();
+    String indexed = readLastIndexedCommit();
+    if (indexed != null && !commit.equals(indexed) && !commit.equals(lastTriggeredCommit)) {
+      pending = true;
+    }
+    flushPending();
+  }
+
+  public synchronized Optional<String> requestUpdate() {
+    pending = true;
+    return flushPending();
+  }
+
+  public synchronized Optional<String> flushPending() {
+    if (!pending) {
+      return Optional.empty();
+    }
+    Instant now = clock.instant();
+    if (lastTriggeredAt != null && now.isBefore(lastTriggeredAt.plus(minInterval))) {
+      return Optional.empty();
+    }
+    pending = false;
+
+    String indexed = readLastIndexedCommit();
+    if (indexed == null) {
+      return Optional.empty();
+    }
+    String commit = resolveTarget();
+    if (commit.equals(indexed)) {
+      return Optional.empty();
+    }
+
+    startInitialIndexUseCase.startUpdateIndex(commit);
+    lastTriggeredAt = now;
+    lastTriggeredCommit = commit;
+    return Optional.of(commit);
+  }
+
+  private String resolveTarget() {
+    return DEFAULT_REF.equals(ref) ? gitPort.getHeadCommit().trim() : gitPort.resolveCommit(ref);
+  }
+
+  private String readLastIndexedCommit() {
+    return projectStatePort
+        .readMetadata()
+        .map(m -> m.metadata() == null ? null : m.metadata().lastIndexedCommit())
+        .filter(c -> !c.isBlank())
+        .map(String::trim)
+        .orElse(null);
+  }
+}
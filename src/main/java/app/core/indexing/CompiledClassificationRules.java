@@ -0,0 +1,249 @@
+package app.core.indexing;
+
+import app.core.projectstate.ProjectMetadata;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+final class CompiledClassificationRules {
+  static final long NO_SIZE_LIMIT = Long.MAX_VALUE;
+  private static final int NO_MATCH = Integer.MAX_VALUE;
+  private static final Pattern EXTENSION_GLOB =
+      Pattern.compile("(?:\\*\\*/)?\\*\\.([A-Za-z0-9_+-]+)");
+  private static final Set<String> KNOWN_CODE_EXTENSIONS =
+      Set.of(
+          "java", "kt", "kts", "xml", "yml", "yaml", "properties", "json", "js", "ts", "tsx", "jsx",
+          "css", "scss", "html", "sql", "sh", "ps1", "bat");
+
+  private final List<CompiledRule> rules = new ArrayList<>();
+  private final TrieNode prefixRoot = new TrieNode();
+  private final Map<String, CompiledRule> extensionRules = new HashMap<>();
+  private final List<CompiledRule> globRules = new ArrayList<>();
+
+  private CompiledClassificationRules() {}
+
+  static CompiledClassificationRules compile(List<ProjectMetadata.ClassificationRule> rules) {
+    CompiledClassificationRules compiled = new CompiledClassificationRules();
+    if (rules != null) {
+      for (ProjectMetadata.ClassificationRule rule : rules) {
+        compiled.add(rule);
+      }
+    }
+    return compiled;
+  }
+
+  Optional<IndexUploadPipeline.FileClassification> classify(String repoRelativePath) {
+    if (repoRelativePath == null || repoRelativePath.isBlank()) {
+      return Optional.empty();
+    }
+
+    String normalized = IndexUploadPipeline.normalizePath(repoRelativePath);
+    String fileName = fileName(normalized);
+    int best = matchPrefix(normalized, fileName);
+    best = matchExtension(fileName, best);
+    best = matchGlob(normalized, fileName, best);
+
+    if (best != NO_MATCH) {
+      CompiledRule rule = rules.get(best);
+      if (rule.exclude()) {
+        return Optional.empty();
+      }
+      return Optional.of(
+          new IndexUploadPipeline.FileClassification(
+              Map.of("type", rule.type(), "subtype", rule.subtype(), "path", normalized),
+              rule.maxSizeBytes()));
+    }
+
+    String extension = extension(fileName);
+    if (extension != null && KNOWN_CODE_EXTENSIONS.contains(extension.toLowerCase())) {
+      return Optional.of(
+          IndexUploadPipeline.FileClassification.of(
+              Map.of("type", "code", "subtype", "other", "path", normalized)));
+    }
+
+    return Optional.empty();
+  }
+
+  private void add(ProjectMetadata.ClassificationRule rule) {
+    if (rule == null) {
+      return;
+    }
+    boolean exclude = Boolean.TRUE.equals(rule.exclude());
+    if (!exclude && (isBlank(rule.type()) || isBlank(rule.subtype()))) {
+      return;
+    }
+    String prefix =
+        isBlank(rule.pathPrefix()) ? null : IndexUploadPipeline.normalizePath(rule.pathPrefix());
+    String glob =
+        isBlank(rule.glob()) ? null : stripLeadingSlash(rule.glob().trim().replace('\\', '/'));
+    if (prefix == null && glob == null) {
+      return;
+    }
+
+    Pattern pattern = glob == null ? null : globToPattern(glob);
+    Long sizeLimit = rule.maxSizeBytes();
+    long maxSizeBytes = sizeLimit == null || sizeLimit < 0 ? NO_SIZE_LIMIT : sizeLimit;
+    CompiledRule compiled =
+        new CompiledRule(
+            rules.size(),
+            prefix == null ? 0 : prefix.length(),
+            rule.type(),
+            rule.subtype(),
+            exclude,
+            maxSizeBytes,
+            pattern,
+            glob != null && glob.indexOf('/') < 0);
+    rules.add(compiled);
+
+    if (prefix != null) {
+      TrieNode node = prefixRoot;
+      for (int i = 0; i < prefix.length(); i++) {
+        node = node.children.computeIfAbsent(prefix.charAt(i), ignored -> new TrieNode());
+      }
+      node.rules.add(compiled);
+      return;
+    }
+
+    var extensionMatch = EXTENSION_GLOB.matcher(glob);
+    if (extensionMatch.matches()) {
+      extensionRules.putIfAbsent(extensionMatch.group(1), compiled);
+      return;
+    }
+    globRules.add(compiled);
+  }
+
+  private int matchPrefix(String path, String fileName) {
+    int best = NO_MATCH;
+    TrieNode node = prefixRoot;
+    for (int i = 0; node != null; i++) {
+      for (CompiledRule rule : node.rules) {
+        if (rule.ordinal() >= best) {
+          break;
+        }
+        if (rule.matches(path, fileName)) {
+          best = rule.ordinal();
+          break;
+        }
+      }
+      if (i == path.length()) {
+        break;
+      }
+      node = node.children.get(path.charAt(i));
+    }
+    return best;
+  }
+
+  private int matchExtension(String fileName, int best) {
+    String extension = extension(fileName);
+    CompiledRule rule = extension == null ? null : extensionRules.get(extension);
+    return rule != null && rule.ordinal() < best ? rule.ordinal() : best;
+  }
+
+  private int matchGlob(String path, String fileName, int best) {
+    for (CompiledRule rule : globRules) {
+      if (rule.ordinal() >= best) {
+        break;
+      }
+      if (rule.matches(path, fileName)) {
+        return rule.ordinal();
+      }
+    }
+    return best;
+  }
+
+  static Pattern globToPattern(String glob) {
+    StringBuilder regex = new StringBuilder();
+    int braceDepth = 0;
+    for (int i = 0; i < glob.length(); i++) {
+      char c = glob.charAt(i);
+      switch (c) {
+        case '*' -> {
+          if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+            i++;
+            if (i + 1 < glob.length() && glob.charAt(i + 1) == '/') {
+              i++;
+              regex.append("(?:.*/)?");
+            } else {
+              regex.append(".*");
+            }
+          } else {
+            regex.append("[^/]*");
+          }
+        }
+        case '?' -> regex.append("[^/]");
+        case '{' -> {
+          braceDepth++;
+          regex.append("(?:");
+        }
+        case '}' -> {
+          if (braceDepth > 0) {
+            braceDepth--;
+            regex.append(')');
+          } else {
+            regex.append("\\}");
+          }
+        }
+        case ',' -> regex.append(braceDepth > 0 ? "|" : ",");
+        default -> {
+          if (Character.isLetterOrDigit(c) || c == '/' || c == '_' || c == '-') {
+            regex.append(c);
+          } else {
+            regex.append('\\').append(c);
+          }
+        }
+      }
+    }
+    if (braceDepth > 0) {
+      throw new IllegalArgumentException("Unbalanced braces in glob: " + glob);
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+  private static String fileName(String path) {
+    int slash = path.lastIndexOf('/');
+    return slash < 0 ? path : path.substring(slash + 1);
+  }
+
+  private static String extension(String fileName) {
+    int lastDot = fileName.lastIndexOf('.');
+    if (lastDot < 0 || lastDot == fileName.length() - 1) {
+      return null;
+    }
+    return fileName.substring(lastDot + 1);
+  }
+
+  private static String stripLeadingSlash(String glob) {
+    return glob.startsWith("/") ? glob.substring(1) : glob;
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private record CompiledRule(
+      int ordinal,
+      int prefixLength,
+      String type,
+      String subtype,
+      boolean exclude,
+      long maxSizeBytes,
+      Pattern glob,
+      boolean globMatchesFileName) {
+    private boolean matches(String path, String fileName) {
+      if (glob == null) {
+        return true;
+      }
+      String subject = globMatchesFileName ? fileName : path.substring(prefixLength);
+      return glob.matcher(subject).matches();
+    }
+  }
+
+  private static final class TrieNode {
+    private final Map<Character, TrieNode> children = new HashMap<>();
+    private final List<CompiledRule> rules = new ArrayList<>();
+  }
+}
@@ -0,0 +1,182 @@
+package app.core.indexing;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+final class FileChunker {
+  static final int BINARY_SNIFF_BYTES = 8192;
+  private static final int READ_BUFFER_CHARS = 8192;
+
+  private final int maxChunkChars;
+  private final int chunkOverlapChars;
+
+  FileChunker(int maxChunkChars, int chunkOverlapChars) {
+    if (maxChunkChars <= 0) {
+      throw new IllegalArgumentException("maxChunkChars must be > 0.");
+    }
+    this.maxChunkChars = maxChunkChars;
+    this.chunkOverlapChars = Math.max(0, Math.min(chunkOverlapChars, maxChunkChars / 2));
+  }
+
+  List<FileChunk> chunk(byte[] content) {
+    byte[] safeContent = content == null ? new byte[0] : content;
+    if (looksBinary(safeContent, safeContent.length)) {
+      return List.of(new FileChunk(0, null, null, safeContent));
+    }
+
+    String text = new String(safeContent, StandardCharsets.UTF_8);
+    if (text.length() <= maxChunkChars) {
+      return List.of(new FileChunk(0, 1, countLines(text), safeContent));
+    }
+
+    List<FileChunk> chunks = new ArrayList<>();
+    chunkText(new ByteArrayInputStream(safeContent), chunks::add);
+    return List.copyOf(chunks);
+  }
+
+  void chunkText(InputStream content, Consumer<FileChunk> consumer) {
+    ChunkWindow window = new ChunkWindow(consumer);
+    try {
+      Reader reader = new InputStreamReader(content, StandardCharsets.UTF_8);
+      char[] buffer = new char[READ_BUFFER_CHARS];
+      StringBuilder piece = new StringBuilder();
+      int line = 1;
+      int read;
+      while ((read = reader.read(buffer)) >= 0) {
+        for (int i = 0; i < read; i++) {
+          char c = buffer[i];
+          piece.append(c);
+          if (c == '\n') {
+            window.add(new Segment(line, piece.toString()));
+            piece.setLength(0);
+            line++;
+          } else if (piece.length() >= maxChunkChars) {
+            String carry = "";
+            if (piece.length() > 1 && Character.isHighSurrogate(c)) {
+              carry = String.valueOf(c);
+              piece.setLength(piece.length() - 1);
+            }
+            window.add(new Segment(line, piece.toString()));
+            piece.setLength(0);
+            piece.append(carry);
+          }
+        }
+      }
+      if (piece.length() > 0) {
+        window.add(new Segment(line, piece.toString()));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    window.finish();
+  }
+
+  static boolean looksBinary(byte[] bytes, int length) {
+    int max = Math.min(length, BINARY_SNIFF_BYTES);
+    for (int i = 0; i < max; i++) {
+      if (bytes[i] == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int countLines(String text) {
+    if (text.isEmpty()) {
+      return 1;
+    }
+    int lines = 1;
+    for (int i = 0; i < text.length() - 1; i++) {
+      if (text.charAt(i) == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  private final class ChunkWindow {
+    private final Consumer<FileChunk> consumer;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private int length;
+    private int emitted;
+
+    private ChunkWindow(Consumer<FileChunk> consumer) {
+      this.consumer = consumer;
+    }
+
+    private void add(Segment segment) {
+      if (!segments.isEmpty() && length + segment.text().length() > maxChunkChars) {
+        emit();
+        retainOverlap(segment.text().length());
+      }
+      segments.addLast(segment);
+      length += segment.text().length();
+    }
+
+    private void finish() {
+      if (!segments.isEmpty()) {
+        emit();
+      } else if (emitted == 0) {
+        consumer.accept(new FileChunk(0, 1, 1, new byte[0]));
+      }
+    }
+
+    private void emit() {
+      StringBuilder text = new StringBuilder(length);
+      for (Segment segment : segments) {
+        text.append(segment.text());
+      }
+      consumer.accept(
+          new FileChunk(
+              emitted++,
+              segments.peekFirst().line(),
+              segments.peekLast().line(),
+              text.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void retainOverlap(int nextLength) {
+      int overlap = 0;
+      int keep = 0;
+      for (var it = segments.descendingIterator(); it.hasNext(); ) {
+        int segmentLength = it.next().text().length();
+        if (keep + 1 >= segments.size()
+            || overlap + segmentLength > chunkOverlapChars
+            || overlap + segmentLength + nextLength > maxChunkChars) {
+          break;
+        }
+        overlap += segmentLength;
+        keep++;
+      }
+      while (segments.size() > keep) {
+        length -= segments.pollFirst().text().length();
+      }
+    }
+  }
+
+  private record Segment(int line, String text) {}
+
+  record FileChunk(int index, Integer startLine, Integer endLine, byte[] content) {
+    Map<String, String> attributes(Map<String, String> fileAttributes) {
+      Map<String, String> attributes =
+          new HashMap<>(fileAttributes == null ? Map.of() : fileAttributes);
+      attributes.put("chunkIndex", Integer.toString(index));
+      if (startLine != null && endLine != null) {
+        attributes.put("startLine", Integer.toString(startLine));
+        attributes.put("endLine", Integer.toString(endLine));
+      }
+      return Map.copyOf(attributes);
+    }
+  }
+}
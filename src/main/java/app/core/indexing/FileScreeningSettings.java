@@ -0,0 +1,44 @@
+package app.core.indexing;
+
+public record FileScreeningSettings(
+    long maxFileSizeBytes, boolean skipBinary, boolean skipMinified, int minifiedLineLength) {
+  private static final long DEFAULT_MAX_FILE_SIZE_BYTES = 10L * 1024 * 1024;
+  private static final int DEFAULT_MINIFIED_LINE_LENGTH = 1000;
+
+  public FileScreeningSettings {
+    maxFileSizeBytes = maxFileSizeBytes <= 0 ? Long.MAX_VALUE : maxFileSizeBytes;
+    minifiedLineLength =
+        minifiedLineLength <= 0 ? DEFAULT_MINIFIED_LINE_LENGTH : minifiedLineLength;
+  }
+
+  public static FileScreeningSettings defaults() {
+    return new FileScreeningSettings(
+        DEFAULT_MAX_FILE_SIZE_BYTES, true, true, DEFAULT_MINIFIED_LINE_LENGTH);
+  }
+
+  public static FileScreeningSettings disabled() {
+    return new FileScreeningSettings(0, false, false, DEFAULT_MINIFIED_LINE_LENGTH);
+  }
+
+  String screen(byte[] head, int length) {
+    if (skipBinary && FileChunker.looksBinary(head, length)) {
+      return IndexUploadPipeline.SKIP_BINARY;
+    }
+    if (skipMinified && hasLongLine(head, length)) {
+      return IndexUploadPipeline.SKIP_MINIFIED;
+    }
+    return null;
+  }
+
+  private boolean hasLongLine(byte[] head, int length) {
+    int lineLength = 0;
+    for (int i = 0; i < length; i++) {
+      if (head[i] == '\n') {
+        lineLength = 0;
+      } else if (++lineLength >= minifiedLineLength) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,27 @@
+package app.core.indexing;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public record IndexCheckpoint(
+    IndexJobKind kind,
+    String targetCommit,
+    Instant startedAt,
+    Map<String, List<String>> uploadedPathToFileIds,
+    Map<String, String> uploadedPathToContentHash,
+    Set<String> deletedPaths) {
+  public IndexCheckpoint {
+    uploadedPathToFileIds =
+        uploadedPathToFileIds == null ? Map.of() : Map.copyOf(uploadedPathToFileIds);
+    uploadedPathToContentHash =
+        uploadedPathToContentHash == null ? Map.of() : Map.copyOf(uploadedPathToContentHash);
+    deletedPaths = deletedPaths == null ? Set.of() : Set.copyOf(deletedPaths);
+  }
+
+  public boolean matches(IndexJobKind kind, String targetCommit) {
+    return this.kind == kind && Objects.equals(this.targetCommit, targetCommit);
+  }
+}
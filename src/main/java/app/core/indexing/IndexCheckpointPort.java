@@ -0,0 +1,17 @@
+package app.core.indexing;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface IndexCheckpointPort {
+  Optional<IndexCheckpoint> load();
+
+  void begin(IndexJobKind kind, String targetCommit, Instant startedAt);
+
+  void recordUpload(String path, List<String> fileIds, String contentHash);
+
+  void recordDelete(String path);
+
+  void clear();
+}
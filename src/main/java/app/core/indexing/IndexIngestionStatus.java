@@ -1,16 +1,18 @@
 package app.core.indexing;
 
 import java.util.List;
+import java.util.Map;
 
 public record IndexIngestionStatus(
     int uploaded,
     int processing,
     int ready,
     int failed,
+    Map<String, Integer> skipped,
     List<IngestionFailure> failures,
     String lastError) {
   public static IndexIngestionStatus empty() {
-    return new IndexIngestionStatus(0, 0, 0, 0, List.of(), null);
+    return new IndexIngestionStatus(0, 0, 0, 0, Map.of(), List.of(), null);
   }
 
   public record IngestionFailure(String fileId, String path, String status) {}
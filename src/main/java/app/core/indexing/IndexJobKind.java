@@ -0,0 +1,8 @@
+package app.core.indexing;
+
+public enum IndexJobKind {
+  INITIAL,
+  UPDATE,
+  RELOAD,
+  WORKING_TREE
+}
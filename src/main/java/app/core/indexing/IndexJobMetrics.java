@@ -0,0 +1,11 @@
+package app.core.indexing;
+
+import java.util.Map;
+
+public record IndexJobMetrics(
+    long durationMillis,
+    Map<String, IndexPhaseMetrics> phases,
+    long files,
+    long bytes,
+    double filesPerSecond,
+    double bytesPerSecond) {}
@@ -0,0 +1,28 @@
+package app.core.indexing;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record IndexJobRecord(
+    long id,
+    IndexJobKind kind,
+    String targetCommit,
+    IndexJobStatus status,
+    Instant requestedAt,
+    Instant startedAt,
+    Instant finishedAt,
+    String error) {
+  public Long durationMillis() {
+    if (startedAt == null || finishedAt == null) {
+      return null;
+    }
+    return Duration.between(startedAt, finishedAt).toMillis();
+  }
+
+  public Long queuedMillis() {
+    if (requestedAt == null || startedAt == null) {
+      return null;
+    }
+    return Duration.between(requestedAt, startedAt).toMillis();
+  }
+}
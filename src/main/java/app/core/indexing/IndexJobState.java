@@ -8,7 +8,18 @@ public record IndexJobState(
     Instant startedAt,
     Instant finishedAt,
     String error,
-    IndexIngestionStatus ingestion) {
+    IndexIngestionStatus ingestion,
+    IndexJobMetrics metrics) {
+  public IndexJobState(
+      IndexJobStatus status,
+      String progress,
+      Instant startedAt,
+      Instant finishedAt,
+      String error,
+      IndexIngestionStatus ingestion) {
+    this(status, progress, startedAt, finishedAt, error, ingestion, null);
+  }
+
   public static IndexJobState idle() {
     return new IndexJobState(
         IndexJobStatus.IDLE, "Idle", null, null, null, IndexIngestionStatus.empty());
@@ -4,6 +4,7 @@ public enum IndexJobStatus {
   IDLE,
   RUNNING,
   SUCCESS,
-  FAILED
+  FAILED,
+  CANCELLED
 }
 
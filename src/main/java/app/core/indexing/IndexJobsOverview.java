@@ -0,0 +1,6 @@
+package app.core.indexing;
+
+import java.util.List;
+
+public record IndexJobsOverview(
+    IndexJobState current, List<IndexJobRecord> queued, List<IndexJobRecord> history) {}
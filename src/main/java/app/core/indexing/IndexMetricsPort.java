@@ -0,0 +1,19 @@
+package app.core.indexing;
+
+import java.time.Duration;
+
+public interface IndexMetricsPort {
+  void recordPhase(IndexPhase phase, Duration duration, long files, long bytes);
+
+  void recordJob(IndexJobKind kind, IndexJobStatus status, IndexJobMetrics metrics);
+
+  static IndexMetricsPort noOp() {
+    return new IndexMetricsPort() {
+      @Override
+      public void recordPhase(IndexPhase phase, Duration duration, long files, long bytes) {}
+
+      @Override
+      public void recordJob(IndexJobKind kind, IndexJobStatus status, IndexJobMetrics metrics) {}
+    };
+  }
+}
@@ -0,0 +1,67 @@
+package app.core.indexing;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+final class IndexMetricsRecorder {
+  private final Map<IndexPhase, PhaseCounter> phases = new EnumMap<>(IndexPhase.class);
+
+  IndexMetricsRecorder() {
+    for (IndexPhase phase : IndexPhase.values()) {
+      phases.put(phase, new PhaseCounter());
+    }
+  }
+
+  void record(IndexPhase phase, long startedNanos, long files, long bytes) {
+    PhaseCounter counter = phases.get(phase);
+    counter.nanos.add(System.nanoTime() - startedNanos);
+    counter.files.add(files);
+    counter.bytes.add(bytes);
+  }
+
+  void publish(IndexMetricsPort metricsPort) {
+    for (Map.Entry<IndexPhase, PhaseCounter> entry : phases.entrySet()) {
+      PhaseCounter counter = entry.getValue();
+      long nanos = counter.nanos.sum();
+      if (nanos > 0) {
+        metricsPort.recordPhase(
+            entry.getKey(), Duration.ofNanos(nanos), counter.files.sum(), counter.bytes.sum());
+      }
+    }
+  }
+
+  IndexJobMetrics summary(Duration elapsed) {
+    Map<String, IndexPhaseMetrics> summaries = new LinkedHashMap<>();
+    for (Map.Entry<IndexPhase, PhaseCounter> entry : phases.entrySet()) {
+      PhaseCounter counter = entry.getValue();
+      long nanos = counter.nanos.sum();
+      if (nanos > 0) {
+        summaries.put(
+            entry.getKey().key(),
+            new IndexPhaseMetrics(
+                Duration.ofNanos(nanos).toMillis(), counter.files.sum(), counter.bytes.sum()));
+      }
+    }
+
+    PhaseCounter read = phases.get(IndexPhase.READ);
+    long files = read.files.sum();
+    long bytes = read.bytes.sum();
+    double seconds = elapsed == null ? 0 : elapsed.toNanos() / 1_000_000_000d;
+    return new IndexJobMetrics(
+        elapsed == null ? 0 : elapsed.toMillis(),
+        summaries,
+        files,
+        bytes,
+        seconds > 0 ? files / seconds : 0,
+        seconds > 0 ? bytes / seconds : 0);
+  }
+
+  private static final class PhaseCounter {
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+  }
+}
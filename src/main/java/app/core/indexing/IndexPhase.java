@@ -0,0 +1,21 @@
+package app.core.indexing;
+
+public enum IndexPhase {
+  ENUMERATE("enumerate"),
+  CLASSIFY("classify"),
+  READ("read"),
+  UPLOAD("upload"),
+  DELETE("delete"),
+  INGESTION_WAIT("ingestion_wait"),
+  METADATA_SAVE("metadata_save");
+
+  private final String key;
+
+  IndexPhase(String key) {
+    this.key = key;
+  }
+
+  public String key() {
+    return key;
+  }
+}
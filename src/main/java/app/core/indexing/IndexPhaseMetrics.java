@@ -0,0 +1,3 @@
+package app.core.indexing;
+
+public record IndexPhaseMetrics(long durationMillis, long files, long bytes) {}
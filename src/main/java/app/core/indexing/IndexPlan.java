@@ -0,0 +1,16 @@
+package app.core.indexing;
+
+import java.util.Map;
+
+public record IndexPlan(
+    IndexJobKind kind,
+    String fromCommit,
+    String targetCommit,
+    int filesToUpload,
+    int filesUnchanged,
+    Map<String, Integer> filesByType,
+    int skippedCount,
+    Map<String, Integer> skippedByReason,
+    int filesToDelete,
+    long totalBytes,
+    Long estimatedDurationMillis) {}
@@ -0,0 +1,7 @@
+package app.core.indexing;
+
+import java.time.Duration;
+
+public interface IndexSchedulerPort {
+  void schedule(Runnable task, Duration delay);
+}
@@ -0,0 +1,31 @@
+package app.core.indexing;
+
+import java.time.Duration;
+
+final class IndexThroughput {
+  private long bytes;
+  private long files;
+  private long nanos;
+
+  synchronized void record(long bytes, int files, Duration elapsed) {
+    if (files <= 0 || elapsed == null || elapsed.isNegative() || elapsed.isZero()) {
+      return;
+    }
+    this.bytes += Math.max(0, bytes);
+    this.files += files;
+    this.nanos += elapsed.toNanos();
+  }
+
+  synchronized Long estimateMillis(long bytes, int files) {
+    if (nanos == 0) {
+      return null;
+    }
+    double estimatedNanos;
+    if (bytes > 0 && this.bytes > 0) {
+      estimatedNanos = (double) bytes * nanos / this.bytes;
+    } else {
+      estimatedNanos = (double) files * nanos / this.files;
+    }
+    return Math.round(estimatedNanos / 1_000_000d);
+  }
+}
@@ -0,0 +1,771 @@
+package app.core.indexing;
+
+import app.core.git.GitFileStream;
+import app.core.git.GitTreeFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+final class IndexUploadPipeline {
+  static final String SKIP_UNCLASSIFIED = "unclassified";
+  static final String SKIP_TOO_LARGE = "too_large";
+  static final String SKIP_BINARY = "binary";
+  static final String SKIP_MINIFIED = "minified";
+  private static final GitTreeFile END_OF_PATHS = new GitTreeFile(null, null, null);
+  private static final ClassifiedFile END_OF_CLASSIFIED =
+      new ClassifiedFile(null, null, Map.of(), 0, null);
+  private static final LoadedFile END_OF_LOADED =
+      new LoadedFile(END_OF_CLASSIFIED, List.of(), null, false, 0);
+  private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+  private static final int MAX_FAILURES = 10;
+
+  private final IndexingPipelineSettings settings;
+  private final FileClassifier classifier;
+  private final FileReader reader;
+  private final FileChunker chunker;
+  private final FileUploader uploader;
+  private final UnchangedFileLookup unchangedFileLookup;
+  private final ProgressListener progressListener;
+  private final UploadListener uploadListener;
+  private final BooleanSupplier cancellation;
+  private final IndexMetricsRecorder metrics;
+
+  IndexUploadPipeline(
+      IndexingPipelineSettings settings,
+      FileClassifier classifier,
+      FileReader reader,
+      FileChunker chunker,
+      FileUploader uploader,
+      UnchangedFileLookup unchangedFileLookup,
+      ProgressListener progressListener,
+      UploadListener uploadListener,
+      BooleanSupplier cancellation) {
+    this(
+        settings,
+        classifier,
+        reader,
+        chunker,
+        uploader,
+        unchangedFileLookup,
+        progressListener,
+        uploadListener,
+        cancellation,
+        null);
+  }
+
+  IndexUploadPipeline(
+      IndexingPipelineSettings settings,
+      FileClassifier classifier,
+      FileReader reader,
+      FileChunker chunker,
+      FileUploader uploader,
+      UnchangedFileLookup unchangedFileLookup,
+      ProgressListener progressListener,
+      UploadListener uploadListener,
+      BooleanSupplier cancellation,
+      IndexMetricsRecorder metrics) {
+    this.settings = settings == null ? IndexingPipelineSettings.defaults() : settings;
+    this.classifier = classifier;
+    this.reader = reader;
+    this.chunker = chunker;
+    this.uploader = uploader;
+    this.unchangedFileLookup = unchangedFileLookup;
+    this.progressListener = progressListener;
+    this.uploadListener = uploadListener;
+    this.cancellation = cancellation == null ? () -> false : cancellation;
+    this.metrics = metrics;
+  }
+
+  Result run(List<String> repoRelativePaths) throws Exception {
+    return run(repoRelativePaths, Map.of());
+  }
+
+  Result run(List<String> repoRelativePaths, Map<String, Long> knownSizes) throws Exception {
+    List<String> paths = repoRelativePaths == null ? List.of() : repoRelativePaths;
+    Map<String, Long> sizes = knownSizes == null ? Map.of() : knownSizes;
+    return run(
+        paths.size(),
+        false,
+        (action) -> {
+          for (String path : paths) {
+            action.accept(new GitTreeFile(path, null, sizes.get(path)));
+          }
+        });
+  }
+
+  Result runFiles(List<GitTreeFile> files) throws Exception {
+    List<GitTreeFile> treeFiles = files == null ? List.of() : files;
+    return run(treeFiles.size(), false, treeFiles::forEach);
+  }
+
+  Result run(PathSource source) throws Exception {
+    return run(0, true, source);
+  }
+
+  private Result run(int expectedCount, boolean recordEnumeration, PathSource source)
+      throws Exception {
+    RunState runState = new RunState(expectedCount);
+
+    BlockingQueue<GitTreeFile> pathQueue = new ArrayBlockingQueue<>(settings.queueCapacity());
+    BlockingQueue<ClassifiedFile> classifiedQueue =
+        new ArrayBlockingQueue<>(settings.queueCapacity());
+    BlockingQueue<LoadedFile> loadedQueue = new ArrayBlockingQueue<>(settings.queueCapacity());
+    AtomicInteger classifyRemaining = new AtomicInteger(settings.classifyWorkers());
+    AtomicInteger readRemaining = new AtomicInteger(settings.readWorkers());
+
+    List<Runnable> tasks = new ArrayList<>();
+    tasks.add(
+        stageTask(
+            "enumerate",
+            1,
+            runState,
+            () -> enumerate(runState, source, recordEnumeration, pathQueue)));
+    for (int i = 1; i <= settings.classifyWorkers(); i++) {
+      tasks.add(
+          stageTask(
+              "classify",
+              i,
+              runState,
+              () -> classify(runState, pathQueue, classifiedQueue, classifyRemaining)));
+    }
+    for (int i = 1; i <= settings.readWorkers(); i++) {
+      tasks.add(
+          stageTask(
+              "read", i, runState, () -> read(runState, classifiedQueue, loadedQueue, readRemaining)));
+    }
+    for (int i = 1; i <= settings.uploadWorkers(); i++) {
+      tasks.add(stageTask("upload", i, runState, () -> upload(runState, loadedQueue)));
+    }
+
+    ExecutorService stages = Executors.newFixedThreadPool(tasks.size(), stageThreads());
+    runState.stages = stages;
+    try {
+      for (Runnable task : tasks) {
+        stages.execute(task);
+      }
+    } catch (RejectedExecutionException e) {
+      if (runState.fatal.get() == null) {
+        stages.shutdownNow();
+        throw e;
+      }
+    }
+    stages.shutdown();
+    try {
+      stages.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      runState.abort(e);
+      throw e;
+    }
+
+    Throwable fatal = runState.fatal.get();
+    if (fatal instanceof Exception exception) {
+      throw exception;
+    }
+    if (fatal instanceof Error error) {
+      throw error;
+    }
+
+    return new Result(
+        Map.copyOf(runState.pathToFileIds),
+        Map.copyOf(runState.fileIdToPath),
+        Map.copyOf(runState.pathToContentHash),
+        Map.copyOf(runState.pathToBlobId),
+        runState.uploaded.get(),
+        runState.unchanged.get(),
+        runState.skippedCount(),
+        runState.skippedByReason(),
+        runState.failed.get(),
+        List.copyOf(runState.failures),
+        Set.copyOf(runState.failedPaths),
+        runState.readBytes.get());
+  }
+
+  private void enumerate(
+      RunState runState,
+      PathSource source,
+      boolean recordEnumeration,
+      BlockingQueue<GitTreeFile> pathQueue)
+      throws InterruptedException {
+    long started = System.nanoTime();
+    try {
+      source.forEachFile(
+          (file) -> {
+            if (cancellation.getAsBoolean()) {
+              throw new StopEnumeration(null);
+            }
+            if (file == null || file.path() == null || file.path().isBlank()) {
+              return;
+            }
+            try {
+              pathQueue.put(file);
+            } catch (InterruptedException e) {
+              throw new StopEnumeration(e);
+            }
+            runState.enumerated.incrementAndGet();
+          });
+    } catch (StopEnumeration e) {
+      if (e.getCause() instanceof InterruptedException interrupted) {
+        throw interrupted;
+      }
+    }
+    if (recordEnumeration) {
+      recordPhase(IndexPhase.ENUMERATE, started, runState.enumerated.get(), 0);
+    }
+    for (int i = 0; i < settings.classifyWorkers(); i++) {
+      pathQueue.put(END_OF_PATHS);
+    }
+  }
+
+  private void classify(
+      RunState runState,
+      BlockingQueue<GitTreeFile> pathQueue,
+      BlockingQueue<ClassifiedFile> classifiedQueue,
+      AtomicInteger remainingWorkers)
+      throws InterruptedException {
+    GitTreeFile treeFile;
+    while ((treeFile = pathQueue.take()) != END_OF_PATHS) {
+      if (cancellation.getAsBoolean()) {
+        continue;
+      }
+      String repoRelativePath = treeFile.path();
+      long started = System.nanoTime();
+      Optional<FileClassification> classification = classifier.classify(repoRelativePath);
+      recordPhase(IndexPhase.CLASSIFY, started, 1, 0);
+      if (classification.isEmpty()) {
+        runState.recordSkip(SKIP_UNCLASSIFIED);
+        continue;
+      }
+      long maxSizeBytes = classification.get().sizeLimit(settings.screening());
+      Long knownSize = treeFile.size();
+      if (knownSize != null && knownSize > maxSizeBytes) {
+        runState.recordSkip(SKIP_TOO_LARGE);
+        continue;
+      }
+      Map<String, String> attributes = classification.get().attributes();
+      String path = normalizePath(attributes.get("path"));
+      ClassifiedFile file =
+          new ClassifiedFile(
+              repoRelativePath,
+              path,
+              attributes,
+              maxSizeBytes,
+              treeFile.blobId());
+      if (reuseUnchangedBlob(runState, file)) {
+        continue;
+      }
+      classifiedQueue.put(file);
+    }
+    if (remainingWorkers.decrementAndGet() == 0) {
+      for (int i = 0; i < settings.readWorkers(); i++) {
+        classifiedQueue.put(END_OF_CLASSIFIED);
+      }
+    }
+  }
+
+  private void read(
+      RunState runState,
+      BlockingQueue<ClassifiedFile> classifiedQueue,
+      BlockingQueue<LoadedFile> loadedQueue,
+      AtomicInteger remainingWorkers)
+      throws InterruptedException {
+    ClassifiedFile file;
+    while ((file = classifiedQueue.take()) != END_OF_CLASSIFIED) {
+      if (cancellation.getAsBoolean()) {
+        continue;
+      }
+      long started = System.nanoTime();
+      long readBytes = -1;
+      LoadedFile loaded;
+      try (GitFileStream opened = reader.open(file.repoRelativePath())) {
+        if (opened.size() > file.maxSizeBytes()) {
+          runState.recordSkip(SKIP_TOO_LARGE);
+          continue;
+        }
+        byte[] head = opened.content().readNBytes(FileChunker.BINARY_SNIFF_BYTES);
+        String skipReason = settings.screening().screen(head, head.length);
+        if (skipReason != null) {
+          runState.recordSkip(skipReason);
+          continue;
+        }
+        readBytes = opened.size();
+        runState.readBytes.addAndGet(readBytes);
+        loaded =
+            opened.size() > settings.streamingThresholdBytes()
+                ? scanLargeFile(runState, file, head, opened)
+                : loadFile(runState, file, head, opened);
+      } catch (IOException | RuntimeException e) {
+        runState.recordFailure(file, "read_failed");
+        continue;
+      } finally {
+        recordPhase(IndexPhase.READ, started, readBytes < 0 ? 0 : 1, Math.max(0, readBytes));
+      }
+      if (loaded != null) {
+        loadedQueue.put(loaded);
+      }
+    }
+    if (remainingWorkers.decrementAndGet() == 0) {
+      for (int i = 0; i < settings.uploadWorkers(); i++) {
+        loadedQueue.put(END_OF_LOADED);
+      }
+    }
+  }
+
+  private LoadedFile loadFile(
+      RunState runState, ClassifiedFile file, byte[] head, GitFileStream opened)
+      throws IOException {
+    byte[] rest = opened.content().readAllBytes();
+    byte[] content = head;
+    if (rest.length > 0) {
+      content = Arrays.copyOf(head, head.length + rest.length);
+      System.arraycopy(rest, 0, content, head.length, rest.length);
+    }
+    String contentHash = contentHash(content);
+    if (reuseUnchanged(runState, file, contentHash)) {
+      return null;
+    }
+    List<FileChunker.FileChunk> chunks;
+    try {
+      chunks =
+          chunker == null
+              ? List.of(new FileChunker.FileChunk(0, null, null, content))
+              : chunker.chunk(content);
+    } catch (RuntimeException e) {
+      runState.recordFailure(file, "chunk_failed");
+      return null;
+    }
+    return new LoadedFile(file, chunks, contentHash, false, content.length);
+  }
+
+  private LoadedFile scanLargeFile(
+      RunState runState, ClassifiedFile file, byte[] head, GitFileStream opened)
+      throws IOException {
+    MessageDigest digest = newDigest();
+    digest.update(head);
+    byte[] buffer = new byte[STREAM_BUFFER_BYTES];
+    int read;
+    while ((read = opened.content().read(buffer)) >= 0) {
+      digest.update(buffer, 0, read);
+    }
+    String contentHash = HexFormat.of().formatHex(digest.digest());
+    if (reuseUnchanged(runState, file, contentHash)) {
+      return null;
+    }
+    return new LoadedFile(
+        file, null, contentHash, FileChunker.looksBinary(head, head.length), opened.size());
+  }
+
+  private boolean reuseUnchanged(RunState runState, ClassifiedFile file, String contentHash) {
+    List<String> reusableFileIds =
+        unchangedFileLookup == null || file.path() == null
+            ? null
+            : unchangedFileLookup.reusableFileIds(file.path(), contentHash);
+    if (reusableFileIds == null || reusableFileIds.isEmpty()) {
+      return false;
+    }
+    runState.recordUnchanged(file, reusableFileIds, contentHash);
+    reportProgress(runState);
+    return true;
+  }
+
+  private boolean reuseUnchangedBlob(RunState runState, ClassifiedFile file) {
+    UnchangedBlob unchangedBlob =
+        unchangedFileLookup == null || file.path() == null || file.blobId() == null
+            ? null
+            : unchangedFileLookup.unchangedBlob(file.path(), file.blobId());
+    if (unchangedBlob == null
+        || unchangedBlob.fileIds().isEmpty()
+        || unchangedBlob.contentHash() == null) {
+      return false;
+    }
+    if (unchangedBlob.sourcePath() != null && !unchangedBlob.sourcePath().equals(file.path())) {
+      return copyUnchangedBlob(runState, file, unchangedBlob);
+    }
+    runState.recordUnchanged(file, unchangedBlob.fileIds(), unchangedBlob.contentHash());
+    reportProgress(runState);
+    return true;
+  }
+
+  private boolean copyUnchangedBlob(
+      RunState runState, ClassifiedFile file, UnchangedBlob unchangedBlob) {
+    List<String> copiedFileIds;
+    try {
+      copiedFileIds = uploader.copy(file, unchangedBlob.sourcePath(), unchangedBlob.fileIds());
+    } catch (RuntimeException e) {
+      copiedFileIds = null;
+    }
+    if (copiedFileIds == null) {
+      return false;
+    }
+    runState.recordCopy(file, copiedFileIds, unchangedBlob.contentHash());
+    if (uploadListener != null) {
+      uploadListener.onUploaded(
+          file.path(), List.copyOf(copiedFileIds), unchangedBlob.contentHash());
+    }
+    reportProgress(runState);
+    return true;
+  }
+
+  private String streamUpload(LoadedFile loaded, List<String> storedFileIds) throws IOException {
+    ClassifiedFile file = loaded.file();
+    try (GitFileStream reopened = reader.open(file.repoRelativePath())) {
+      MessageDigest digest = newDigest();
+      InputStream content = new DigestInputStream(reopened.content(), digest);
+      if (loaded.binary() || chunker == null) {
+        storedFileIds.add(
+            uploader.uploadStream(
+                file, new FileChunker.FileChunk(0, null, null, null), content, reopened.size()));
+      } else {
+        chunker.chunkText(content, chunk -> storedFileIds.add(uploader.upload(file, chunk)));
+      }
+      content.transferTo(OutputStream.nullOutputStream());
+      return HexFormat.of().formatHex(digest.digest());
+    }
+  }
+
+  private void upload(RunState runState, BlockingQueue<LoadedFile> loadedQueue)
+      throws InterruptedException {
+    LoadedFile loaded;
+    while ((loaded = loadedQueue.take()) != END_OF_LOADED) {
+      if (cancellation.getAsBoolean()) {
+        continue;
+      }
+      ClassifiedFile file = loaded.file();
+      List<String> storedFileIds = new ArrayList<>();
+      String contentHash = loaded.contentHash();
+      long started = System.nanoTime();
+      boolean uploaded = false;
+      try {
+        if (loaded.chunks() == null) {
+          contentHash = streamUpload(loaded, storedFileIds);
+        } else {
+          for (FileChunker.FileChunk chunk : loaded.chunks()) {
+            storedFileIds.add(uploader.upload(file, chunk));
+          }
+        }
+        uploaded = true;
+      } catch (IOException | UncheckedIOException e) {
+        discardPartialUpload(storedFileIds);
+        runState.recordFailure(file, "read_failed");
+        continue;
+      } catch (RuntimeException e) {
+        discardPartialUpload(storedFileIds);
+        runState.recordFailure(file, "upload_failed");
+        continue;
+      } finally {
+        recordPhase(IndexPhase.UPLOAD, started, uploaded ? 1 : 0, uploaded ? loaded.size() : 0);
+      }
+      runState.recordUpload(file, storedFileIds, contentHash);
+      if (uploadListener != null && file.path() != null && !file.path().isBlank()) {
+        uploadListener.onUploaded(file.path(), List.copyOf(storedFileIds), contentHash);
+      }
+      reportProgress(runState);
+    }
+  }
+
+  private void discardPartialUpload(List<String> storedFileIds) {
+    if (storedFileIds.isEmpty()) {
+      return;
+    }
+    try {
+      uploader.discard(List.copyOf(storedFileIds));
+    } catch (RuntimeException ignored) {
+    }
+  }
+
+  private void recordPhase(IndexPhase phase, long startedNanos, long files, long bytes) {
+    if (metrics != null) {
+      metrics.record(phase, startedNanos, files, bytes);
+    }
+  }
+
+  private void reportProgress(RunState runState) {
+    if (progressListener != null) {
+      progressListener.onProgress(
+          runState.uploaded.get(), runState.unchanged.get(), runState.totalCount());
+    }
+  }
+
+  static String contentHash(byte[] content) {
+    return HexFormat.of().formatHex(newDigest().digest(content == null ? new byte[0] : content));
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Missing SHA-256 MessageDigest.", e);
+    }
+  }
+
+  private static Runnable stageTask(String stage, int index, RunState runState, StageBody body) {
+    return () -> {
+      Thread current = Thread.currentThread();
+      current.setName("index-" + stage + "-" + index);
+      try {
+        body.run();
+      } catch (InterruptedException e) {
+        current.interrupt();
+        runState.abort(e);
+      } catch (RuntimeException | Error e) {
+        runState.abort(e);
+      }
+    };
+  }
+
+  private static ThreadFactory stageThreads() {
+    AtomicInteger counter = new AtomicInteger();
+    return (runnable) -> {
+      Thread thread = new Thread(runnable, "index-stage-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  static String normalizePath(String path) {
+    if (path == null) {
+      return null;
+    }
+    String normalized = path.replace('\\', '/');
+    if (normalized.startsWith("./")) {
+      normalized = normalized.substring(2);
+    }
+    return normalized;
+  }
+
+  @FunctionalInterface
+  interface FileClassifier {
+    Optional<FileClassification> classify(String repoRelativePath);
+  }
+
+  @FunctionalInterface
+  interface FileReader {
+    GitFileStream open(String repoRelativePath);
+  }
+
+  @FunctionalInterface
+  interface FileUploader {
+    String upload(ClassifiedFile file, FileChunker.FileChunk chunk);
+
+    default String uploadStream(
+        ClassifiedFile file, FileChunker.FileChunk chunk, InputStream content, long length)
+        throws IOException {
+      return upload(
+          file,
+          new FileChunker.FileChunk(
+              chunk.index(), chunk.startLine(), chunk.endLine(), content.readAllBytes()));
+    }
+
+    default List<String> copy(
+        ClassifiedFile file, String sourcePath, List<String> sourceFileIds) {
+      return null;
+    }
+
+    default void discard(List<String> fileIds) {}
+  }
+
+  @FunctionalInterface
+  interface UnchangedFileLookup {
+    List<String> reusableFileIds(String path, String contentHash);
+
+    default UnchangedBlob unchangedBlob(String path, String blobId) {
+      return null;
+    }
+  }
+
+  record UnchangedBlob(List<String> fileIds, String contentHash, String sourcePath) {
+    UnchangedBlob(List<String> fileIds, String contentHash) {
+      this(fileIds, contentHash, null);
+    }
+  }
+
+  @FunctionalInterface
+  interface PathSource {
+    void forEachFile(Consumer<GitTreeFile> action);
+  }
+
+  @FunctionalInterface
+  interface ProgressListener {
+    void onProgress(int uploadedCount, int unchangedCount, int totalCount);
+  }
+
+  @FunctionalInterface
+  interface UploadListener {
+    void onUploaded(String path, List<String> storedFileIds, String contentHash);
+  }
+
+  private static final class StopEnumeration extends RuntimeException {
+    private StopEnumeration(InterruptedException cause) {
+      super(null, cause, false, false);
+    }
+  }
+
+  @FunctionalInterface
+  private interface StageBody {
+    void run() throws InterruptedException;
+  }
+
+  record FileClassification(Map<String, String> attributes, long maxSizeBytes) {
+    static FileClassification of(Map<String, String> attributes) {
+      return new FileClassification(attributes, CompiledClassificationRules.NO_SIZE_LIMIT);
+    }
+
+    long sizeLimit(FileScreeningSettings screening) {
+      return Math.min(maxSizeBytes, screening.maxFileSizeBytes());
+    }
+  }
+
+  record ClassifiedFile(
+      String repoRelativePath,
+      String path,
+      Map<String, String> attributes,
+      long maxSizeBytes,
+      String blobId) {
+    String pathForStatus() {
+      return path == null || path.isBlank() ? normalizePath(repoRelativePath) : path;
+    }
+  }
+
+  private record LoadedFile(
+      ClassifiedFile file,
+      List<FileChunker.FileChunk> chunks,
+      String contentHash,
+      boolean binary,
+      long size) {}
+
+  record Result(
+      Map<String, List<String>> pathToFileIds,
+      Map<String, String> fileIdToPath,
+      Map<String, String> pathToContentHash,
+      Map<String, String> pathToBlobId,
+      int uploadedCount,
+      int unchangedCount,
+      int skippedCount,
+      Map<String, Integer> skippedByReason,
+      int failedCount,
+      List<IndexIngestionStatus.IngestionFailure> failures,
+      Set<String> failedPaths,
+      long readBytes) {}
+
+  private static final class RunState {
+    private final int expectedCount;
+    private final AtomicInteger enumerated = new AtomicInteger();
+    private final Map<String, List<String>> pathToFileIds = new ConcurrentHashMap<>();
+    private final Map<String, String> fileIdToPath = new ConcurrentHashMap<>();
+    private final Map<String, String> pathToContentHash = new ConcurrentHashMap<>();
+    private final Map<String, String> pathToBlobId = new ConcurrentHashMap<>();
+    private final List<IndexIngestionStatus.IngestionFailure> failures =
+        Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> failedPaths = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger uploaded = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final Map<String, AtomicInteger> skipped = new ConcurrentHashMap<>();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicReference<Throwable> fatal = new AtomicReference<>();
+    private volatile ExecutorService stages;
+
+    private RunState(int expectedCount) {
+      this.expectedCount = expectedCount;
+    }
+
+    private int totalCount() {
+      return Math.max(expectedCount, enumerated.get());
+    }
+
+    private void recordUpload(ClassifiedFile file, List<String> storedFileIds, String contentHash) {
+      for (String storedFileId : storedFileIds) {
+        if (storedFileId != null && !storedFileId.isBlank()) {
+          fileIdToPath.put(storedFileId, file.pathForStatus());
+        }
+      }
+      if (file.path() != null && !file.path().isBlank()) {
+        pathToFileIds.put(file.path(), List.copyOf(storedFileIds));
+        pathToContentHash.put(file.path(), contentHash);
+        recordBlobId(file);
+      }
+      uploaded.incrementAndGet();
+    }
+
+    private void recordUnchanged(ClassifiedFile file, List<String> fileIds, String contentHash) {
+      pathToFileIds.put(file.path(), List.copyOf(fileIds));
+      pathToContentHash.put(file.path(), contentHash);
+      recordBlobId(file);
+      unchanged.incrementAndGet();
+    }
+
+    private void recordCopy(ClassifiedFile file, List<String> fileIds, String contentHash) {
+      for (String fileId : fileIds) {
+        fileIdToPath.put(fileId, file.pathForStatus());
+      }
+      recordUnchanged(file, fileIds, contentHash);
+    }
+
+    private void recordBlobId(ClassifiedFile file) {
+      if (file.blobId() != null) {
+        pathToBlobId.put(file.path(), file.blobId());
+      }
+    }
+
+    private void recordSkip(String reason) {
+      skipped.computeIfAbsent(reason, ignored -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private int skippedCount() {
+      int count = 0;
+      for (AtomicInteger reasonCount : skipped.values()) {
+        count += reasonCount.get();
+      }
+      return count;
+    }
+
+    private Map<String, Integer> skippedByReason() {
+      Map<String, Integer> counts = new TreeMap<>();
+      skipped.forEach((reason, count) -> counts.put(reason, count.get()));
+      return Collections.unmodifiableMap(counts);
+    }
+
+    private void recordFailure(ClassifiedFile file, String status) {
+      if (file.path() != null && !file.path().isBlank()) {
+        failedPaths.add(file.path());
+      }
+      if (failed.incrementAndGet() <= MAX_FAILURES) {
+        failures.add(new IndexIngestionStatus.IngestionFailure(null, file.pathForStatus(), status));
+      }
+    }
+
+    private void abort(Throwable throwable) {
+      if (!fatal.compareAndSet(null, throwable)) {
+        return;
+      }
+      if (stages != null) {
+        stages.shutdownNow();
+      }
+    }
+  }
+}
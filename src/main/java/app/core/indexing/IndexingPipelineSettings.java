@@ -0,0 +1,59 @@
+package app.core.indexing;
+
+public record IndexingPipelineSettings(
+    int classifyWorkers,
+    int readWorkers,
+    int uploadWorkers,
+    int queueCapacity,
+    long streamingThresholdBytes,
+    FileScreeningSettings screening) {
+  private static final int DEFAULT_CLASSIFY_WORKERS = 1;
+  private static final int DEFAULT_READ_WORKERS = 4;
+  private static final int DEFAULT_UPLOAD_WORKERS = 4;
+  private static final int DEFAULT_QUEUE_CAPACITY = 64;
+  private static final long DEFAULT_STREAMING_THRESHOLD_BYTES = 1024 * 1024;
+
+  public IndexingPipelineSettings {
+    classifyWorkers = Math.max(1, classifyWorkers);
+    readWorkers = Math.max(1, readWorkers);
+    uploadWorkers = Math.max(1, uploadWorkers);
+    queueCapacity = Math.max(1, queueCapacity);
+    streamingThresholdBytes = Math.max(0, streamingThresholdBytes);
+    screening = screening == null ? FileScreeningSettings.defaults() : screening;
+  }
+
+  public IndexingPipelineSettings(
+      int classifyWorkers,
+      int readWorkers,
+      int uploadWorkers,
+      int queueCapacity,
+      long streamingThresholdBytes) {
+    this(
+        classifyWorkers,
+        readWorkers,
+        uploadWorkers,
+        queueCapacity,
+        streamingThresholdBytes,
+        FileScreeningSettings.defaults());
+  }
+
+  public IndexingPipelineSettings(
+      int classifyWorkers, int readWorkers, int uploadWorkers, int queueCapacity) {
+    this(
+        classifyWorkers,
+        readWorkers,
+        uploadWorkers,
+        queueCapacity,
+        DEFAULT_STREAMING_THRESHOLD_BYTES);
+  }
+
+  public static IndexingPipelineSettings defaults() {
+    return new IndexingPipelineSettings(
+        DEFAULT_CLASSIFY_WORKERS,
+        DEFAULT_READ_WORKERS,
+        DEFAULT_UPLOAD_WORKERS,
+        DEFAULT_QUEUE_CAPACITY,
+        DEFAULT_STREAMING_THRESHOLD_BYTES,
+        FileScreeningSettings.defaults());
+  }
+}
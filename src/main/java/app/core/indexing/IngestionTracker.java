@@ -0,0 +1,148 @@
+package app.core.indexing;
+
+import app.core.vectorstore.VectorStoreFileSummary;
+import app.core.vectorstore.VectorStorePort;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+final class IngestionTracker {
+  private static final int MAX_FAILURES = 10;
+  private static final int LISTING_THRESHOLD = 100;
+
+  private final VectorStorePort vectorStorePort;
+  private final int uploaded;
+  private final Map<String, Integer> skipped;
+  private final Map<String, String> pendingFileIdToPath;
+  private final List<IndexIngestionStatus.IngestionFailure> failures;
+  private int ready;
+  private int failed;
+
+  IngestionTracker(VectorStorePort vectorStorePort, IndexUploadPipeline.Result uploadResult) {
+    this.vectorStorePort = vectorStorePort;
+    Map<String, String> fileIdToPath =
+        uploadResult.fileIdToPath() == null ? Map.of() : uploadResult.fileIdToPath();
+    this.uploaded = fileIdToPath.size();
+    this.skipped =
+        uploadResult.skippedByReason() == null ? Map.of() : uploadResult.skippedByReason();
+    this.pendingFileIdToPath = new LinkedHashMap<>(fileIdToPath);
+    this.pendingFileIdToPath.remove(null);
+    this.failures = new ArrayList<>(uploadResult.failures());
+    this.failed = uploadResult.failedCount();
+  }
+
+  synchronized boolean isDone() {
+    return pendingFileIdToPath.isEmpty();
+  }
+
+  synchronized IndexIngestionStatus poll() {
+    Map<String, VectorStoreFileSummary> listed = null;
+    if (pendingFileIdToPath.size() > LISTING_THRESHOLD) {
+      try {
+        listed = new HashMap<>();
+        for (VectorStoreFileSummary summary : vectorStorePort.listFiles()) {
+          if (summary != null && summary.fileId() != null) {
+            listed.put(summary.fileId(), summary);
+          }
+        }
+      } catch (RuntimeException e) {
+        return status();
+      }
+    }
+
+    Iterator<Map.Entry<String, String>> iterator = pendingFileIdToPath.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, String> entry = iterator.next();
+      String fileId = entry.getKey();
+
+      Optional<VectorStoreFileSummary> summary;
+      if (listed != null) {
+        summary = Optional.ofNullable(listed.get(fileId));
+      } else {
+        try {
+          summary = vectorStorePort.findFile(fileId);
+        } catch (RuntimeException e) {
+          continue;
+        }
+      }
+
+      String path = entry.getValue();
+      if (summary.isEmpty()) {
+        iterator.remove();
+        recordFailure(fileId, path, "missing");
+        continue;
+      }
+
+      String status = normalizeStatus(summary.get().status());
+      switch (toIngestionState(status)) {
+        case READY -> {
+          iterator.remove();
+          ready++;
+        }
+        case FAILED -> {
+          iterator.remove();
+          recordFailure(fileId, path, status);
+        }
+        case PROCESSING -> {}
+      }
+    }
+    return status();
+  }
+
+  synchronized IndexIngestionStatus status() {
+    if (uploaded == 0 && failed == 0 && skipped.isEmpty()) {
+      return IndexIngestionStatus.empty();
+    }
+    String lastError =
+        failed > 0 ? "Vector store ingestion failed for " + failed + " file(s)." : null;
+    return new IndexIngestionStatus(
+        uploaded,
+        pendingFileIdToPath.size(),
+        ready,
+        failed,
+        skipped,
+        List.copyOf(failures),
+        lastError);
+  }
+
+  private void recordFailure(String fileId, String path, String status) {
+    failed++;
+    if (failures.size() < MAX_FAILURES) {
+      failures.add(new IndexIngestionStatus.IngestionFailure(fileId, path, status));
+    }
+  }
+
+  private static String normalizeStatus(String status) {
+    if (status == null) {
+      return null;
+    }
+    String trimmed = status.trim().toLowerCase();
+    return trimmed.isBlank() ? null : trimmed;
+  }
+
+  private static IngestionState toIngestionState(String status) {
+    if (status == null) {
+      return IngestionState.PROCESSING;
+    }
+    if ("completed".equals(status) || "ready".equals(status) || "succeeded".equals(status)) {
+      return IngestionState.READY;
+    }
+    if ("failed".equals(status)
+        || "error".equals(status)
+        || "cancelled".equals(status)
+        || "canceled".equals(status)) {
+      return IngestionState.FAILED;
+    }
+    return IngestionState.PROCESSING;
+  }
+
+  private enum IngestionState {
+    READY,
+    PROCESSING,
+    FAILED
+  }
+}
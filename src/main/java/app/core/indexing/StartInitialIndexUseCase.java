@@ -2,84 +2,128 @@ package app.core.indexing;
 
 import app.core.git.GitDiffEntry;
 import app.core.git.GitPort;
+import app.core.git.GitTreeFile;
+import app.core.git.TrackedFilesService;
 import app.core.projectstate.ProjectMetadata;
 import app.core.projectstate.ProjectMetadataState;
 import app.core.projectstate.ProjectStatePort;
 import app.core.vectorstore.VectorStoreFileSummary;
 import app.core.vectorstore.VectorStorePort;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HexFormat;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import org.springframework.core.task.TaskExecutor;
 
 public class StartInitialIndexUseCase {
-  private static final Duration PROGRESS_STEP_DELAY = Duration.ofMillis(250);
-  private static final Duration INGESTION_POLL_INTERVAL = Duration.ofSeconds(1);
-  private static final Duration INGESTION_TIMEOUT = Duration.ofSeconds(60);
-  private static final int MAX_INGESTION_FAILURES = 10;
+  private static final int MAX_JOB_HISTORY = 20;
+  private static final Duration INGESTION_INITIAL_BACKOFF = Duration.ofMillis(500);
+  private static final Duration INGESTION_MAX_BACKOFF = Duration.ofSeconds(30);
+  private static final Duration INGESTION_TRACKING_LIMIT = Duration.ofHours(6);
+  private static final Duration SLOT_POLL_INTERVAL = Duration.ofMillis(200);
 
   private final GitPort gitPort;
+  private final TrackedFilesService trackedFilesService;
   private final ProjectStatePort projectStatePort;
   private final VectorStorePort vectorStorePort;
   private final TrackedFileClassifier trackedFileClassifier;
   private final TaskExecutor taskExecutor;
+  private final IndexSchedulerPort ingestionScheduler;
+  private final IndexingPipelineSettings pipelineSettings;
+  private final IndexCheckpointPort checkpointPort;
+  private final Semaphore jobSlots;
+  private final IndexMetricsPort metricsPort;
 
   private final AtomicReference<IndexJobState> state = new AtomicReference<>(IndexJobState.idle());
-  private final AtomicReference<CompletableFuture<Void>> running = new AtomicReference<>();
+  private final Deque<QueuedJob> queue = new ArrayDeque<>();
+  private final Deque<IndexJobRecord> history = new ArrayDeque<>();
+  private final AtomicLong nextJobId = new AtomicLong();
+  private final Map<String, Boolean> pendingWorkingTreeChanges = new LinkedHashMap<>();
+  private volatile QueuedJob current;
+  private final AtomicLong jobSequence = new AtomicLong();
+  private final List<Consumer<IndexJobState>> stateListeners = new CopyOnWriteArrayList<>();
+  private final IndexThroughput throughput = new IndexThroughput();
+  private final Object resumeLock = new Object();
+  private volatile boolean resumeChecked;
+  private boolean resuming;
 
   public StartInitialIndexUseCase(
       GitPort gitPort,
+      TrackedFilesService trackedFilesService,
       ProjectStatePort projectStatePort,
       VectorStorePort vectorStorePort,
       TrackedFileClassifier trackedFileClassifier,
-      TaskExecutor taskExecutor) {
+      TaskExecutor taskExecutor,
+      IndexSchedulerPort ingestionScheduler,
+      IndexingPipelineSettings pipelineSettings,
+      IndexCheckpointPort checkpointPort,
+      Semaphore jobSlots,
+      IndexMetricsPort metricsPort) {
     this.gitPort = gitPort;
+    this.trackedFilesService =
+        Objects.requireNonNull(trackedFilesService, "trackedFilesService must not be null.");
     this.projectStatePort = projectStatePort;
     this.vectorStorePort = vectorStorePort;
     this.trackedFileClassifier = trackedFileClassifier;
     this.taskExecutor = taskExecutor;
+    this.ingestionScheduler =
+        Objects.requireNonNull(ingestionScheduler, "ingestionScheduler must not be null.");
+    this.pipelineSettings =
+        pipelineSettings == null ? IndexingPipelineSettings.defaults() : pipelineSettings;
+    this.checkpointPort =
+        Objects.requireNonNull(checkpointPort, "checkpointPort must not be null.");
+    this.jobSlots = Objects.requireNonNull(jobSlots, "jobSlots must not be null.");
+    this.metricsPort = Objects.requireNonNull(metricsPort, "metricsPort must not be null.");
   }
 
   public IndexJobState startInitialIndex() {
     return startJob(
+        IndexJobKind.INITIAL,
+        null,
         "Starting initial index…",
         "Completed.",
-        () -> {
+        (resumeFrom) -> {
           updateProgress("Reading repository HEAD…");
-          sleep(PROGRESS_STEP_DELAY);
 
           String headCommit = gitPort.getHeadCommit();
 
           updateProgress("Enumerating tracked files…");
-          sleep(PROGRESS_STEP_DELAY);
-
-          List<String> trackedFiles = gitPort.listTrackedFiles();
-          UploadResult uploadResult =
-              uploadTrackedFiles(
-                  trackedFiles, (path) -> gitPort.readWorkingTreeFile(path), "");
-
-          waitForIngestion(uploadResult, "");
 
-          updateProgress("Updating metadata…");
-          sleep(PROGRESS_STEP_DELAY);
-
-          ProjectMetadataState existingMetadata = projectStatePort.getOrCreateMetadata();
-          ProjectMetadata updated =
-              existingMetadata.metadata().withIndexingUpdate(headCommit, uploadResult.pathToFileIds());
-          projectStatePort.saveMetadata(updated);
+          reconcileTrackedFiles(
+              headCommit,
+              (action) ->
+                  gitPort.forEachTrackedFile(
+                      (path) -> action.accept(new GitTreeFile(path, null, null))),
+              (path) -> gitPort.openWorkingTreeFile(path),
+              "",
+              resumeFrom);
         });
   }
 
@@ -89,28 +133,32 @@ public class StartInitialIndexUseCase {
     }
 
     String trimmedTarget = targetCommit.trim();
-    String fromCommit = readLastIndexedCommit();
-    String startingProgress =
-        fromCommit == null
-            ? "Starting index update to " + trimmedTarget + "…"
-            : "Starting index update from " + fromCommit + " to " + trimmedTarget + "…";
+    String startingProgress = "Starting index update to " + trimmedTarget + "…";
 
     return startJob(
+        IndexJobKind.UPDATE,
+        trimmedTarget,
         startingProgress,
         "Completed update.",
-        () -> {
+        (resumeFrom) -> {
+          String fromCommit = readLastIndexedCommit();
           if (fromCommit == null) {
             updateProgress("Update: no prior index, running full reload...");
-            sleep(PROGRESS_STEP_DELAY);
-            runFullReloadIndex(trimmedTarget, "Update: ");
+            runFullReloadIndex(trimmedTarget, "Update: ", resumeFrom);
             return;
           }
 
           updateProgress("Update: reading changes from " + fromCommit + " to " + trimmedTarget + "...");
-          sleep(PROGRESS_STEP_DELAY);
 
+          long enumerateStarted = System.nanoTime();
           List<GitDiffEntry> diffEntries = gitPort.listChangedFiles(fromCommit, trimmedTarget);
           DiffPlan diffPlan = buildDiffPlan(diffEntries);
+          Map<String, GitTreeFile> treeFiles = listTreeFiles(trimmedTarget);
+          recordPhase(
+              IndexPhase.ENUMERATE,
+              enumerateStarted,
+              diffPlan.toUpload().size() + diffPlan.toDelete().size(),
+              0);
 
           updateProgress(
               "Update: "
@@ -118,29 +166,14 @@ public class StartInitialIndexUseCase {
                   + " file(s) to upload, "
                   + diffPlan.toDelete().size()
                   + " file(s) to delete...");
-          sleep(PROGRESS_STEP_DELAY);
-
-          ProjectMetadataState existingMetadata = projectStatePort.getOrCreateMetadata();
-          Map<String, List<String>> pathToFileIds =
-              new HashMap<>(existingMetadata.metadata().pathToFileIdsOrEmpty());
-
-          deletePaths(diffPlan.toDelete(), pathToFileIds, "Update: ");
-
-          UploadResult uploadResult =
-              uploadTrackedFiles(
-                  new ArrayList<>(diffPlan.toUpload()),
-                  (path) -> gitPort.readFileAtCommit(trimmedTarget, path),
-                  "Update: ");
-          pathToFileIds.putAll(uploadResult.pathToFileIds());
-
-          waitForIngestion(uploadResult, "Update: ");
-
-          updateProgress("Update: updating metadata...");
-          sleep(PROGRESS_STEP_DELAY);
 
-          ProjectMetadata updated =
-              existingMetadata.metadata().withIndexingUpdate(trimmedTarget, Map.copyOf(pathToFileIds));
-          projectStatePort.saveMetadata(updated);
+          applyPathChanges(
+              trimmedTarget,
+              diffPlan,
+              treeFiles,
+              (path) -> gitPort.openFileAtCommit(trimmedTarget, path),
+              "Update: ",
+              resumeFrom);
         });
   }
 
@@ -153,17 +186,198 @@ public class StartInitialIndexUseCase {
     String startingProgress = "Starting full reload at " + trimmedTarget + "...";
 
     return startJob(
+        IndexJobKind.RELOAD,
+        trimmedTarget,
         startingProgress,
         "Completed reload.",
-        () -> {
-          runFullReloadIndex(trimmedTarget, "Reload: ");
+        (resumeFrom) -> {
+          runFullReloadIndex(trimmedTarget, "Reload: ", resumeFrom);
         });
   }
 
+  public IndexJobState syncWorkingTreeChanges(
+      Collection<String> changedPaths, Collection<String> deletedPaths) {
+    synchronized (queue) {
+      addWorkingTreeChanges(changedPaths, false);
+      addWorkingTreeChanges(deletedPaths, true);
+      if (pendingWorkingTreeChanges.isEmpty()) {
+        return state.get();
+      }
+    }
+    return startJob(
+        IndexJobKind.WORKING_TREE,
+        null,
+        "Starting working tree sync…",
+        "Completed working tree sync.",
+        (resumeFrom) -> {
+          Map<String, Boolean> changes = drainWorkingTreeChanges();
+          String indexedCommit = readLastIndexedCommit();
+          if (indexedCommit == null) {
+            updateProgress("Watch: no prior index, skipping working tree changes.");
+            return;
+          }
+
+          long enumerateStarted = System.nanoTime();
+          DiffPlan plan = buildWorkingTreePlan(changes);
+          recordPhase(IndexPhase.ENUMERATE, enumerateStarted, changes.size(), 0);
+          if (plan.toUpload().isEmpty() && plan.toDelete().isEmpty()) {
+            updateProgress("Watch: no indexed files changed.");
+            return;
+          }
+
+          updateProgress(
+              "Watch: "
+                  + plan.toUpload().size()
+                  + " file(s) to upload, "
+                  + plan.toDelete().size()
+                  + " file(s) to delete...");
+
+          applyPathChanges(
+              indexedCommit,
+              plan,
+              Map.of(),
+              gitPort::openWorkingTreeFile,
+              "Watch: ",
+              resumeFrom);
+        });
+  }
+
+  public Optional<IndexJobState> resumeInterruptedJob() {
+    synchronized (resumeLock) {
+      if (resuming) {
+        return Optional.empty();
+      }
+      resuming = true;
+      try {
+        return resumeFromCheckpoint();
+      } finally {
+        resuming = false;
+        resumeChecked = true;
+      }
+    }
+  }
+
+  private Optional<IndexJobState> resumeFromCheckpoint() {
+    Optional<IndexCheckpoint> checkpoint = checkpointPort.load();
+    if (checkpoint.isEmpty()) {
+      return Optional.empty();
+    }
+    IndexCheckpoint interrupted = checkpoint.get();
+    if (interrupted.kind() == IndexJobKind.WORKING_TREE
+        || (interrupted.kind() != IndexJobKind.INITIAL
+            && (interrupted.targetCommit() == null || interrupted.targetCommit().isBlank()))) {
+      deleteJournaledUploads(interrupted);
+      checkpointPort.clear();
+      return Optional.empty();
+    }
+    return Optional.of(
+        switch (interrupted.kind()) {
+          case INITIAL -> startInitialIndex();
+          case UPDATE -> startUpdateIndex(interrupted.targetCommit());
+          case RELOAD -> startFullReloadIndex(interrupted.targetCommit());
+          case WORKING_TREE -> throw new IllegalStateException("Unexpected job kind.");
+        });
+  }
+
+  public IndexPlan planIndex(IndexJobKind kind, String targetCommit) {
+    if (kind != IndexJobKind.UPDATE && kind != IndexJobKind.RELOAD) {
+      throw new IllegalArgumentException("Only update and reload jobs can be planned.");
+    }
+    String target =
+        targetCommit == null || targetCommit.isBlank()
+            ? gitPort.getHeadCommit()
+            : targetCommit.trim();
+
+    ProjectMetadata metadata =
+        projectStatePort.readMetadata().map(ProjectMetadataState::metadata).orElse(null);
+    CompiledClassificationRules classificationRules = trackedFileClassifier.compile(metadata);
+    Map<String, Long> knownSizes = gitPort.listFileSizesAtCommit(target);
+    Map<String, GitTreeFile> treeFiles = listTreeFiles(target);
+    IndexedFileLookup indexedFiles =
+        metadata == null
+            ? IndexedFileLookup.of(Map.of(), Map.of(), Map.of())
+            : IndexedFileLookup.of(
+                metadata.pathToFileIdsOrEmpty(),
+                metadata.pathToContentHashOrEmpty(),
+                metadata.pathToBlobIdOrEmpty());
+    String fromCommit = kind == IndexJobKind.UPDATE ? readLastIndexedCommit() : null;
+
+    PlannedUploads uploads;
+    Set<String> toDelete;
+    if (fromCommit == null) {
+      uploads =
+          planUploads(
+              treeFiles.keySet(), knownSizes, treeFiles, indexedFiles, classificationRules);
+      toDelete =
+          new HashSet<>(metadata == null ? Set.of() : metadata.pathToFileIdsOrEmpty().keySet());
+      toDelete.removeAll(uploads.paths());
+      toDelete.removeAll(uploads.unchangedPaths());
+    } else {
+      DiffPlan diffPlan = buildDiffPlan(gitPort.listChangedFiles(fromCommit, target));
+      uploads =
+          planUploads(
+              diffPlan.toUpload(), knownSizes, treeFiles, indexedFiles, classificationRules);
+      toDelete = diffPlan.toDelete();
+    }
+
+    int skippedCount = uploads.skippedByReason().values().stream().mapToInt(i -> i).sum();
+    return new IndexPlan(
+        fromCommit == null ? IndexJobKind.RELOAD : IndexJobKind.UPDATE,
+        fromCommit,
+        target,
+        uploads.paths().size(),
+        uploads.unchangedPaths().size(),
+        uploads.filesByType(),
+        skippedCount,
+        uploads.skippedByReason(),
+        toDelete.size(),
+        uploads.totalBytes(),
+        throughput.estimateMillis(uploads.totalBytes(), uploads.paths().size()));
+  }
+
   public IndexJobState getStatus() {
     return state.get();
   }
 
+  public IndexJobState cancelCurrentJob() {
+    synchronized (queue) {
+      if (current == null || !current.cancelRequested().compareAndSet(false, true)) {
+        return state.get();
+      }
+    }
+    updateProgress("Cancelling…");
+    return state.get();
+  }
+
+  public IndexJobsOverview getJobs() {
+    synchronized (queue) {
+      List<IndexJobRecord> queued = new ArrayList<>();
+      for (QueuedJob job : queue) {
+        queued.add(
+            new IndexJobRecord(
+                job.id(),
+                job.kind(),
+                job.targetCommit(),
+                IndexJobStatus.IDLE,
+                job.requestedAt(),
+                null,
+                null,
+                null));
+      }
+      return new IndexJobsOverview(state.get(), List.copyOf(queued), List.copyOf(history));
+    }
+  }
+
+  public void addStateListener(Consumer<IndexJobState> listener) {
+    if (listener != null) {
+      stateListeners.add(listener);
+    }
+  }
+
+  public void removeStateListener(Consumer<IndexJobState> listener) {
+    stateListeners.remove(listener);
+  }
+
   private String readLastIndexedCommit() {
     return projectStatePort
         .readMetadata()
@@ -172,204 +386,328 @@ public class StartInitialIndexUseCase {
         .orElse(null);
   }
 
-  private IndexJobState startJob(String startingProgress, String successProgress, JobRunner job) {
-    CompletableFuture<Void> existing = running.get();
-    if (existing != null && !existing.isDone()) {
+  private IndexJobState startJob(
+      IndexJobKind kind,
+      String targetCommit,
+      String startingProgress,
+      String successProgress,
+      JobRunner job) {
+    if (!resumeChecked) {
+      resumeInterruptedJob();
+    }
+    QueuedJob requested =
+        new QueuedJob(
+            nextJobId.incrementAndGet(),
+            kind,
+            targetCommit,
+            startingProgress,
+            successProgress,
+            job,
+            Instant.now(),
+            new AtomicBoolean(),
+            new IndexMetricsRecorder());
+    synchronized (queue) {
+      if (current != null) {
+        return enqueue(requested);
+      }
+      runJob(requested);
+    }
+    notifyStateListeners(state.get());
+    return state.get();
+  }
+
+  private IndexJobState enqueue(QueuedJob requested) {
+    IndexJobKind kind = requested.kind();
+    String targetCommit = requested.targetCommit();
+    synchronized (queue) {
+      if (kind != IndexJobKind.WORKING_TREE
+          && current.matches(kind, targetCommit)
+          && !current.cancelRequested().get()) {
+        return state.get();
+      }
+      if (kind == IndexJobKind.UPDATE) {
+        queue.removeIf(queued -> queued.kind() == IndexJobKind.UPDATE);
+      } else if (kind == IndexJobKind.WORKING_TREE) {
+        if (queue.stream().anyMatch(queued -> queued.kind() == IndexJobKind.WORKING_TREE)) {
+          return state.get();
+        }
+      } else {
+        queue.removeIf(queued -> queued.matches(kind, targetCommit));
+      }
+      queue.addLast(requested);
       return state.get();
     }
+  }
 
+  private void runJob(QueuedJob job) {
+    current = job;
     IndexJobState runningState =
         new IndexJobState(
             IndexJobStatus.RUNNING,
-            startingProgress,
+            job.startingProgress(),
             Instant.now(),
             null,
             null,
             IndexIngestionStatus.empty());
+    jobSequence.incrementAndGet();
     state.set(runningState);
 
-    CompletableFuture<Void> future = new CompletableFuture<>();
-    running.set(future);
-
     taskExecutor.execute(
         () -> {
+          boolean slotAcquired = false;
           try {
-            job.run();
-            IndexJobState current = state.get();
-            state.set(
-                new IndexJobState(
-                    IndexJobStatus.SUCCESS,
-                    successProgress,
-                    current.startedAt(),
-                    Instant.now(),
-                    current.error(),
-                    current.ingestion()));
-            future.complete(null);
+            IndexCheckpoint previous = checkpointPort.load().orElse(null);
+            IndexCheckpoint resumeFrom =
+                previous != null && previous.matches(job.kind(), job.targetCommit())
+                    ? previous
+                    : null;
+            if (resumeFrom != null) {
+              updateProgress("Resuming: " + job.startingProgress());
+            }
+            acquireJobSlot();
+            slotAcquired = true;
+            if (resumeFrom == null) {
+              if (previous != null) {
+                deleteJournaledUploads(previous);
+              }
+              checkpointPort.begin(job.kind(), job.targetCommit(), runningState.startedAt());
+            }
+            job.runner().run(resumeFrom);
+            checkpointPort.clear();
+            finishJob(job, IndexJobStatus.SUCCESS, job.successProgress(), null);
+          } catch (CancellationException e) {
+            discardCancelledJob(job);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finishJob(job, IndexJobStatus.FAILED, "Failed.", "Interrupted.");
           } catch (Exception e) {
-            IndexJobState current = state.get();
-            state.set(
-                new IndexJobState(
-                    IndexJobStatus.FAILED,
-                    "Failed.",
-                    current.startedAt(),
-                    Instant.now(),
-                    e.getMessage(),
-                    current.ingestion()));
-            future.completeExceptionally(e);
+            finishJob(job, IndexJobStatus.FAILED, "Failed.", e.getMessage());
           } finally {
-            running.set(null);
+            if (slotAcquired) {
+              jobSlots.release();
+            }
           }
         });
-
-    return state.get();
   }
 
-  private UploadResult uploadTrackedFiles(
-      List<String> trackedFiles, FileReader fileReader, String prefix) {
-    String safePrefix = prefix == null ? "" : prefix;
-
-    updateProgress(safePrefix + "Found " + trackedFiles.size() + " tracked files…");
-    sleep(PROGRESS_STEP_DELAY);
-
-    updateProgress(safePrefix + "Uploading tracked files…");
-    sleep(PROGRESS_STEP_DELAY);
-
-    int uploadedCount = 0;
-    int skippedCount = 0;
-    Map<String, List<String>> pathToFileIds = new HashMap<>();
-    Map<String, String> fileIdToPath = new HashMap<>();
-    for (int i = 0; i < trackedFiles.size(); i++) {
-      String repoRelativePath = trackedFiles.get(i);
-      Optional<Map<String, String>> attributes = trackedFileClassifier.classify(repoRelativePath);
-      if (attributes.isEmpty()) {
-        skippedCount++;
-        continue;
+  private void finishJob(QueuedJob job, IndexJobStatus status, String progress, String error) {
+    IndexJobState finished;
+    QueuedJob next;
+    synchronized (queue) {
+      Instant finishedAt = Instant.now();
+      finished =
+          state.updateAndGet(
+              current ->
+                  new IndexJobState(
+                      status,
+                      progress,
+                      current.startedAt(),
+                      finishedAt,
+                      error == null ? current.error() : error,
+                      current.ingestion(),
+                      job.metrics()
+                          .summary(
+                              current.startedAt() == null
+                                  ? null
+                                  : Duration.between(current.startedAt(), finishedAt))));
+      job.metrics().publish(metricsPort);
+      metricsPort.recordJob(job.kind(), status, finished.metrics());
+
+      history.addFirst(
+          new IndexJobRecord(
+              job.id(),
+              job.kind(),
+              job.targetCommit(),
+              status,
+              job.requestedAt(),
+              finished.startedAt(),
+              finished.finishedAt(),
+              finished.error()));
+      while (history.size() > MAX_JOB_HISTORY) {
+        history.removeLast();
       }
 
-      updateProgress(
-          safePrefix + "Uploading " + (uploadedCount + 1) + " / " + trackedFiles.size() + "…");
-      byte[] content = fileReader.read(repoRelativePath);
-      String path = normalizePath(attributes.get().get("path"));
-      String fileId = computeFileId(path == null ? repoRelativePath : path);
-      String storedFileId = vectorStorePort.createFile(fileId, content, attributes.get());
-      if (storedFileId != null && !storedFileId.isBlank()) {
-        String pathForStatus =
-            path == null || path.isBlank() ? normalizePath(repoRelativePath) : path;
-        fileIdToPath.put(storedFileId, pathForStatus);
-      }
-      if (path != null && !path.isBlank()) {
-        pathToFileIds.put(path, List.of(storedFileId));
+      current = null;
+      next = queue.pollFirst();
+      if (next != null) {
+        runJob(next);
       }
-      uploadedCount++;
     }
-
-    updateProgress(
-        safePrefix
-            + "Uploaded "
-            + uploadedCount
-            + " file(s); skipped "
-            + skippedCount
-            + " file(s)…");
-    sleep(PROGRESS_STEP_DELAY);
-    return new UploadResult(
-        Map.copyOf(pathToFileIds),
-        Map.copyOf(fileIdToPath),
-        uploadedCount,
-        skippedCount);
+    notifyStateListeners(finished);
+    if (next != null) {
+      notifyStateListeners(state.get());
+    }
   }
 
-  private void waitForIngestion(UploadResult uploadResult, String progressPrefix) {
-    if (uploadResult == null || uploadResult.uploadedCount() == 0) {
-      updateIngestionStatus(IndexIngestionStatus.empty(), null);
+  private void discardCancelledJob(QueuedJob job) {
+    try {
+      checkpointPort.load().ifPresent(this::deleteJournaledUploads);
+      checkpointPort.clear();
+    } catch (RuntimeException e) {
+      finishJob(job, IndexJobStatus.FAILED, "Failed.", e.getMessage());
       return;
     }
+    finishJob(job, IndexJobStatus.CANCELLED, "Cancelled.", null);
+  }
 
-    String safePrefix = progressPrefix == null ? "" : progressPrefix;
-    IndexIngestionStatus status = buildIngestionStatus(uploadResult);
-    updateIngestionStatus(status, formatIngestionProgress(safePrefix, status));
-
-    if (status.processing() == 0) {
-      recordIngestionError(status);
-      return;
+  private void deleteJournaledUploads(IndexCheckpoint checkpoint) {
+    List<String> fileIds = new ArrayList<>();
+    for (List<String> uploaded : checkpoint.uploadedPathToFileIds().values()) {
+      fileIds.addAll(uploaded);
     }
+    deleteUnreferencedFiles(fileIds);
+  }
 
-    Instant deadline = Instant.now().plus(INGESTION_TIMEOUT);
-    while (Instant.now().isBefore(deadline) && status.processing() > 0) {
-      sleep(INGESTION_POLL_INTERVAL);
-      status = buildIngestionStatus(uploadResult);
-      updateIngestionStatus(status, formatIngestionProgress(safePrefix, status));
+  private void deleteUnreferencedFiles(Collection<String> fileIds) {
+    Set<String> referenced = new HashSet<>();
+    projectStatePort
+        .readMetadata()
+        .filter(m -> m.metadata() != null)
+        .ifPresent(m -> m.metadata().pathToFileIdsOrEmpty().values().forEach(referenced::addAll));
+    Set<String> unreferenced = new LinkedHashSet<>();
+    for (String fileId : fileIds) {
+      if (fileId != null && !fileId.isBlank() && !referenced.contains(fileId)) {
+        unreferenced.add(fileId);
+      }
     }
+    if (!unreferenced.isEmpty()) {
+      vectorStorePort.deleteFiles(unreferenced);
+    }
+  }
 
-    if (status.processing() > 0) {
-      updateError("Timed out waiting for vector store ingestion.");
+  private void acquireJobSlot() throws InterruptedException {
+    if (jobSlots.tryAcquire()) {
       return;
     }
-
-    recordIngestionError(status);
+    String startingProgress = state.get().progress();
+    updateProgress("Waiting for an indexing slot…");
+    while (!jobSlots.tryAcquire(SLOT_POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)) {
+      throwIfCancelled();
+    }
+    updateProgress(startingProgress);
   }
 
-  private void recordIngestionError(IndexIngestionStatus status) {
-    if (status != null && status.failed() > 0) {
-      updateError("Vector store ingestion failed for " + status.failed() + " file(s).");
+  private void recordPhase(IndexPhase phase, long startedNanos, long files, long bytes) {
+    QueuedJob running = current;
+    if (running != null) {
+      running.metrics().record(phase, startedNanos, files, bytes);
     }
   }
 
-  private IndexIngestionStatus buildIngestionStatus(UploadResult uploadResult) {
-    Map<String, String> fileIdToPath = uploadResult.fileIdToPath();
-    if (fileIdToPath == null || fileIdToPath.isEmpty()) {
-      return IndexIngestionStatus.empty();
-    }
+  private boolean isCancelRequested() {
+    QueuedJob running = current;
+    return running != null && running.cancelRequested().get();
+  }
 
-    Map<String, VectorStoreFileSummary> summaryById = new HashMap<>();
-    for (VectorStoreFileSummary summary : vectorStorePort.listFiles()) {
-      if (summary != null && summary.fileId() != null) {
-        summaryById.put(summary.fileId(), summary);
-      }
+  private void throwIfCancelled() {
+    if (isCancelRequested()) {
+      throw new CancellationException("Indexing job cancelled.");
     }
+  }
 
-    int uploaded = fileIdToPath.size();
-    int processing = 0;
-    int ready = 0;
-    int failed = 0;
-    List<IndexIngestionStatus.IngestionFailure> failures = new ArrayList<>();
+  private IndexUploadPipeline.Result uploadTrackedFiles(
+      List<GitTreeFile> trackedFiles,
+      IndexUploadPipeline.FileReader fileReader,
+      FileChunker chunker,
+      IndexUploadPipeline.UnchangedFileLookup unchangedFileLookup,
+      CompiledClassificationRules classificationRules,
+      String prefix)
+      throws Exception {
+    String safePrefix = prefix == null ? "" : prefix;
+    updateProgress(safePrefix + "Found " + trackedFiles.size() + " tracked files…");
+    return uploadTrackedFiles(
+        (pipeline) -> pipeline.runFiles(trackedFiles),
+        fileReader,
+        chunker,
+        unchangedFileLookup,
+        classificationRules,
+        prefix);
+  }
 
-    for (Map.Entry<String, String> entry : fileIdToPath.entrySet()) {
-      String fileId = entry.getKey();
-      if (fileId == null) {
-        continue;
-      }
+  private IndexUploadPipeline.Result uploadTrackedFiles(
+      PipelineRun pipelineRun,
+      IndexUploadPipeline.FileReader fileReader,
+      FileChunker chunker,
+      IndexUploadPipeline.UnchangedFileLookup unchangedFileLookup,
+      CompiledClassificationRules classificationRules,
+      String prefix)
+      throws Exception {
+    String safePrefix = prefix == null ? "" : prefix;
 
-      VectorStoreFileSummary summary = summaryById.get(fileId);
-      String path = entry.getValue();
-      if ((path == null || path.isBlank()) && summary != null && summary.attributes() != null) {
-        path = normalizePath(summary.attributes().get("path"));
-      }
+    updateProgress(safePrefix + "Uploading tracked files…");
 
-      if (summary == null) {
-        failed++;
-        if (failures.size() < MAX_INGESTION_FAILURES) {
-          failures.add(new IndexIngestionStatus.IngestionFailure(fileId, path, "missing"));
-        }
-        continue;
-      }
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            pipelineSettings,
+            classificationRules::classify,
+            fileReader,
+            chunker,
+            new VectorStoreUploader(),
+            unchangedFileLookup,
+            (uploadedCount, unchangedCount, totalCount) ->
+                updateProgress(
+                    safePrefix
+                        + "Uploading "
+                        + uploadedCount
+                        + " / "
+                        + totalCount
+                        + " ("
+                        + unchangedCount
+                        + " unchanged)…"),
+            checkpointPort::recordUpload,
+            this::isCancelRequested,
+            current == null ? null : current.metrics());
+    Instant uploadStartedAt = Instant.now();
+    IndexUploadPipeline.Result result = pipelineRun.run(pipeline);
+    throwIfCancelled();
+    throughput.record(
+        result.readBytes(),
+        result.uploadedCount() + result.unchangedCount(),
+        Duration.between(uploadStartedAt, Instant.now()));
 
-      String status = normalizeStatus(summary.status());
-      IngestionState state = toIngestionState(status);
-      switch (state) {
-        case READY -> ready++;
-        case PROCESSING -> processing++;
-        case FAILED -> {
-          failed++;
-          if (failures.size() < MAX_INGESTION_FAILURES) {
-            failures.add(new IndexIngestionStatus.IngestionFailure(fileId, path, status));
-          }
-        }
-      }
+    updateProgress(
+        safePrefix
+            + "Uploaded "
+            + result.uploadedCount()
+            + " file(s); unchanged "
+            + result.unchangedCount()
+            + " file(s); skipped "
+            + result.skippedCount()
+            + " file(s); failed "
+            + result.failedCount()
+            + " file(s)…");
+    return result;
+  }
+
+  private void waitForIngestion(IndexUploadPipeline.Result uploadResult, String progressPrefix) {
+    if (uploadResult == null) {
+      updateIngestionStatus(IndexIngestionStatus.empty(), null);
+      return;
+    }
+
+    String safePrefix = progressPrefix == null ? "" : progressPrefix;
+    long ingestionStarted = System.nanoTime();
+    IngestionTracker tracker = new IngestionTracker(vectorStorePort, uploadResult);
+    IndexIngestionStatus status = tracker.poll();
+    recordPhase(IndexPhase.INGESTION_WAIT, ingestionStarted, status.uploaded(), 0);
+    updateIngestionStatus(
+        status, status.uploaded() == 0 ? null : formatIngestionProgress(safePrefix, status));
+
+    if (tracker.isDone()) {
+      recordIngestionError(status);
+      return;
     }
+    trackIngestionInBackground(jobSequence.get(), tracker);
+  }
 
-    String lastError =
-        failed > 0 ? "Vector store ingestion failed for " + failed + " file(s)." : null;
-    return new IndexIngestionStatus(uploaded, processing, ready, failed, failures, lastError);
+  private void trackIngestionInBackground(long jobId, IngestionTracker tracker) {
+    new IngestionPoll(jobId, tracker).schedule();
+  }
+
+  private void recordIngestionError(IndexIngestionStatus status) {
+    if (status != null && status.failed() > 0) {
+      updateError("Vector store ingestion failed for " + status.failed() + " file(s).");
+    }
   }
 
   private static String formatIngestionProgress(String prefix, IndexIngestionStatus status) {
@@ -386,78 +724,86 @@ public class StartInitialIndexUseCase {
         + "...";
   }
 
-  private static String normalizeStatus(String status) {
-    if (status == null) {
-      return null;
-    }
-    String trimmed = status.trim().toLowerCase();
-    return trimmed.isBlank() ? null : trimmed;
+  private void updateProgress(String progress) {
+    updateState(
+        current ->
+            new IndexJobState(
+                current.status(),
+                progress,
+                current.startedAt(),
+                current.finishedAt(),
+                current.error(),
+                current.ingestion(),
+                current.metrics()));
   }
 
-  private static IngestionState toIngestionState(String status) {
-    if (status == null) {
-      return IngestionState.PROCESSING;
-    }
-    if ("completed".equals(status) || "ready".equals(status) || "succeeded".equals(status)) {
-      return IngestionState.READY;
-    }
-    if ("failed".equals(status)
-        || "error".equals(status)
-        || "cancelled".equals(status)
-        || "canceled".equals(status)) {
-      return IngestionState.FAILED;
-    }
-    if (status.contains("progress")
-        || status.contains("process")
-        || status.contains("queued")
-        || status.contains("pending")) {
-      return IngestionState.PROCESSING;
-    }
-    return IngestionState.PROCESSING;
+  private void updateIngestionStatus(IndexIngestionStatus ingestion, String progress) {
+    updateState(
+        current ->
+            new IndexJobState(
+                current.status(),
+                progress == null ? current.progress() : progress,
+                current.startedAt(),
+                current.finishedAt(),
+                current.error(),
+                ingestion,
+                current.metrics()));
   }
 
-  private void updateProgress(String progress) {
-    IndexJobState current = state.get();
-    state.set(
-        new IndexJobState(
-            current.status(),
-            progress,
-            current.startedAt(),
-            current.finishedAt(),
-            current.error(),
-            current.ingestion()));
+  private void updateError(String error) {
+    updateState(
+        current ->
+            new IndexJobState(
+                current.status(),
+                current.progress(),
+                current.startedAt(),
+                current.finishedAt(),
+                error,
+                current.ingestion(),
+                current.metrics()));
   }
 
-  private void updateIngestionStatus(IndexIngestionStatus ingestion, String progress) {
-    IndexJobState current = state.get();
-    String nextProgress = progress == null ? current.progress() : progress;
-    state.set(
-        new IndexJobState(
-            current.status(),
-            nextProgress,
-            current.startedAt(),
-            current.finishedAt(),
-            current.error(),
-            ingestion));
+  private void updateIngestionStatusForJob(long jobId, IndexIngestionStatus ingestion) {
+    updateState(
+        current ->
+            jobSequence.get() != jobId
+                ? current
+                : new IndexJobState(
+                    current.status(),
+                    current.progress(),
+                    current.startedAt(),
+                    current.finishedAt(),
+                    current.error(),
+                    ingestion,
+                    current.metrics()));
   }
 
-  private void updateError(String error) {
-    IndexJobState current = state.get();
-    state.set(
-        new IndexJobState(
-            current.status(),
-            current.progress(),
-            current.startedAt(),
-            current.finishedAt(),
-            error,
-            current.ingestion()));
+  private void updateErrorForJob(long jobId, String error) {
+    updateState(
+        current ->
+            jobSequence.get() != jobId
+                ? current
+                : new IndexJobState(
+                    current.status(),
+                    current.progress(),
+                    current.startedAt(),
+                    current.finishedAt(),
+                    error,
+                    current.ingestion(),
+                    current.metrics()));
   }
 
-  private static void sleep(Duration duration) {
-    try {
-      Thread.sleep(duration.toMillis());
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
+  private void updateState(UnaryOperator<IndexJobState> update) {
+    notifyStateListeners(state.updateAndGet(update));
+  }
+
+  private void notifyStateListeners(IndexJobState updated) {
+    for (Consumer<IndexJobState> listener : stateListeners) {
+      try {
+        listener.accept(updated);
+      } catch (RuntimeException e) {
+        stateListeners.remove(listener);
+      }
     }
   }
 
@@ -472,34 +818,289 @@ public class StartInitialIndexUseCase {
     return "repo_" + HexFormat.of().formatHex(digest);
   }
 
-  private void runFullReloadIndex(String targetCommit, String progressPrefix) {
+  private static String computeChunkFileId(String repoRelativePath, int chunkIndex) {
+    String fileId = computeFileId(repoRelativePath);
+    return chunkIndex == 0 ? fileId : fileId + "_" + chunkIndex;
+  }
+
+  private void runFullReloadIndex(
+      String targetCommit, String progressPrefix, IndexCheckpoint resumeFrom) throws Exception {
     String safePrefix = progressPrefix == null ? "" : progressPrefix;
 
     updateProgress(safePrefix + "Enumerating tracked files at " + targetCommit + "...");
-    sleep(PROGRESS_STEP_DELAY);
 
-    List<String> trackedFiles = gitPort.listTrackedFilesAtCommit(targetCommit);
-    UploadResult uploadResult =
-        uploadTrackedFiles(
-            trackedFiles, (path) -> gitPort.readFileAtCommit(targetCommit, path), safePrefix);
+    reconcileTrackedFiles(
+        targetCommit,
+        (action) -> gitPort.forEachTrackedFileAtCommit(targetCommit, action),
+        (path) -> gitPort.openFileAtCommit(targetCommit, path),
+        safePrefix,
+        resumeFrom);
+  }
 
+  private void reconcileTrackedFiles(
+      String commit,
+      IndexUploadPipeline.PathSource trackedFiles,
+      IndexUploadPipeline.FileReader fileReader,
+      String safePrefix,
+      IndexCheckpoint resumeFrom)
+      throws Exception {
     ProjectMetadataState existingMetadata = projectStatePort.getOrCreateMetadata();
     Map<String, List<String>> existingPathToFileIds =
         new HashMap<>(existingMetadata.metadata().pathToFileIdsOrEmpty());
+    Map<String, String> existingPathToContentHash =
+        existingMetadata.metadata().pathToContentHashOrEmpty();
+    Map<String, String> existingPathToBlobId = existingMetadata.metadata().pathToBlobIdOrEmpty();
+
+    IndexUploadPipeline.Result uploadResult =
+        uploadTrackedFiles(
+            (pipeline) -> pipeline.run(trackedFiles),
+            fileReader,
+            chunkerFor(existingMetadata.metadata()),
+            resumableFileLookup(
+                Map.copyOf(existingPathToFileIds),
+                existingPathToContentHash,
+                existingPathToBlobId,
+                resumeFrom),
+            trackedFileClassifier.compile(existingMetadata.metadata()),
+            safePrefix);
+    deleteStaleChunks(existingPathToFileIds, uploadResult.pathToFileIds(), safePrefix);
+
     Set<String> removedPaths = new HashSet<>(existingPathToFileIds.keySet());
     removedPaths.removeAll(uploadResult.pathToFileIds().keySet());
+    removedPaths.removeAll(uploadResult.failedPaths());
     if (!removedPaths.isEmpty()) {
-      deletePaths(removedPaths, existingPathToFileIds, safePrefix);
+      deletePaths(removedPaths, existingPathToFileIds, safePrefix, resumeFrom);
     }
 
     waitForIngestion(uploadResult, safePrefix);
+    throwIfCancelled();
 
     updateProgress(safePrefix + "Updating metadata...");
-    sleep(PROGRESS_STEP_DELAY);
 
+    Map<String, List<String>> pathToFileIds = new HashMap<>(uploadResult.pathToFileIds());
+    Map<String, String> pathToContentHash = new HashMap<>(uploadResult.pathToContentHash());
+    Map<String, String> pathToBlobId = new HashMap<>(uploadResult.pathToBlobId());
+    for (String failedPath : uploadResult.failedPaths()) {
+      List<String> previousFileIds = existingPathToFileIds.get(failedPath);
+      if (previousFileIds != null && !pathToFileIds.containsKey(failedPath)) {
+        pathToFileIds.put(failedPath, previousFileIds);
+        String previousHash = existingPathToContentHash.get(failedPath);
+        if (previousHash != null) {
+          pathToContentHash.put(failedPath, previousHash);
+        }
+        String previousBlobId = existingPathToBlobId.get(failedPath);
+        if (previousBlobId != null) {
+          pathToBlobId.put(failedPath, previousBlobId);
+        }
+      }
+    }
+    long saveStarted = System.nanoTime();
     ProjectMetadata updated =
-        existingMetadata.metadata().withIndexingUpdate(targetCommit, uploadResult.pathToFileIds());
+        existingMetadata
+            .metadata()
+            .withIndexingUpdate(commit, pathToFileIds, pathToContentHash, pathToBlobId);
     projectStatePort.saveMetadata(updated);
+    recordPhase(IndexPhase.METADATA_SAVE, saveStarted, pathToFileIds.size(), 0);
+  }
+
+  private void applyPathChanges(
+      String commit,
+      DiffPlan plan,
+      Map<String, GitTreeFile> treeFiles,
+      IndexUploadPipeline.FileReader fileReader,
+      String progressPrefix,
+      IndexCheckpoint resumeFrom)
+      throws Exception {
+    ProjectMetadataState existingMetadata = projectStatePort.getOrCreateMetadata();
+    Map<String, List<String>> existingPathToFileIds =
+        existingMetadata.metadata().pathToFileIdsOrEmpty();
+    Map<String, String> existingPathToContentHash =
+        existingMetadata.metadata().pathToContentHashOrEmpty();
+    Map<String, String> existingPathToBlobId = existingMetadata.metadata().pathToBlobIdOrEmpty();
+    Map<String, List<String>> pathToFileIds = new HashMap<>(existingPathToFileIds);
+    Map<String, String> pathToContentHash = new HashMap<>(existingPathToContentHash);
+    Map<String, String> pathToBlobId = new HashMap<>(existingPathToBlobId);
+
+    List<GitTreeFile> toUpload = new ArrayList<>();
+    for (String path : plan.toUpload()) {
+      toUpload.add(treeFiles.getOrDefault(path, new GitTreeFile(path, null, null)));
+    }
+    IndexUploadPipeline.Result uploadResult =
+        uploadTrackedFiles(
+            toUpload,
+            fileReader,
+            chunkerFor(existingMetadata.metadata()),
+            resumableFileLookup(
+                existingPathToFileIds, existingPathToContentHash, existingPathToBlobId, resumeFrom),
+            trackedFileClassifier.compile(existingMetadata.metadata()),
+            progressPrefix);
+    deleteStaleChunks(existingPathToFileIds, uploadResult.pathToFileIds(), progressPrefix);
+    pathToFileIds.putAll(uploadResult.pathToFileIds());
+    pathToContentHash.putAll(uploadResult.pathToContentHash());
+    pathToBlobId.keySet().removeAll(uploadResult.pathToFileIds().keySet());
+    pathToBlobId.putAll(uploadResult.pathToBlobId());
+
+    Set<String> toDelete = new LinkedHashSet<>(plan.toDelete());
+    toDelete.removeAll(uploadResult.pathToFileIds().keySet());
+    deletePaths(toDelete, pathToFileIds, progressPrefix, resumeFrom);
+    pathToContentHash.keySet().retainAll(pathToFileIds.keySet());
+    pathToBlobId.keySet().retainAll(pathToFileIds.keySet());
+
+    waitForIngestion(uploadResult, progressPrefix);
+    throwIfCancelled();
+
+    updateProgress(progressPrefix + "updating metadata...");
+
+    long saveStarted = System.nanoTime();
+    ProjectMetadata updated =
+        existingMetadata
+            .metadata()
+            .withIndexingUpdate(commit, pathToFileIds, pathToContentHash, pathToBlobId);
+    projectStatePort.saveMetadata(updated);
+    recordPhase(IndexPhase.METADATA_SAVE, saveStarted, pathToFileIds.size(), 0);
+  }
+
+  private void addWorkingTreeChanges(Collection<String> paths, boolean deleted) {
+    if (paths == null) {
+      return;
+    }
+    for (String path : paths) {
+      String normalized = normalizePath(path);
+      if (normalized != null && !normalized.isBlank()) {
+        pendingWorkingTreeChanges.put(normalized, deleted);
+      }
+    }
+  }
+
+  private Map<String, Boolean> drainWorkingTreeChanges() {
+    synchronized (queue) {
+      Map<String, Boolean> changes = new LinkedHashMap<>(pendingWorkingTreeChanges);
+      pendingWorkingTreeChanges.clear();
+      return changes;
+    }
+  }
+
+  private DiffPlan buildWorkingTreePlan(Map<String, Boolean> changes) {
+    Set<String> trackedFiles = new HashSet<>();
+    for (String trackedFile : trackedFilesService.snapshot().paths()) {
+      addNormalizedPath(trackedFile, trackedFiles);
+    }
+    Set<String> indexedPaths =
+        projectStatePort.getOrCreateMetadata().metadata().pathToFileIdsOrEmpty().keySet();
+
+    Set<String> toUpload = new LinkedHashSet<>();
+    Set<String> toDelete = new LinkedHashSet<>();
+    for (Map.Entry<String, Boolean> change : changes.entrySet()) {
+      String path = change.getKey();
+      if (!change.getValue()) {
+        if (trackedFiles.contains(path)) {
+          toUpload.add(path);
+        }
+        continue;
+      }
+      String directoryPrefix = path + "/";
+      for (String indexedPath : indexedPaths) {
+        if (indexedPath.equals(path) || indexedPath.startsWith(directoryPrefix)) {
+          toDelete.add(indexedPath);
+        }
+      }
+    }
+    return new DiffPlan(toUpload, toDelete);
+  }
+
+  private Map<String, GitTreeFile> listTreeFiles(String commit) {
+    Map<String, GitTreeFile> treeFiles = new HashMap<>();
+    gitPort.forEachTrackedFileAtCommit(commit, (file) -> treeFiles.put(file.path(), file));
+    return treeFiles;
+  }
+
+  private static FileChunker chunkerFor(ProjectMetadata metadata) {
+    return new FileChunker(metadata.maxChunkCharsOrDefault(), metadata.chunkOverlapCharsOrDefault());
+  }
+
+  private void deleteStaleChunks(
+      Map<String, List<String>> previousPathToFileIds,
+      Map<String, List<String>> currentPathToFileIds,
+      String progressPrefix) {
+    List<String> staleFileIds = new ArrayList<>();
+    for (Map.Entry<String, List<String>> entry : currentPathToFileIds.entrySet()) {
+      List<String> previousFileIds = previousPathToFileIds.get(entry.getKey());
+      if (previousFileIds == null) {
+        continue;
+      }
+      for (String fileId : previousFileIds) {
+        if (fileId != null && !fileId.isBlank() && !entry.getValue().contains(fileId)) {
+          staleFileIds.add(fileId);
+        }
+      }
+    }
+    if (staleFileIds.isEmpty()) {
+      return;
+    }
+
+    String safePrefix = progressPrefix == null ? "" : progressPrefix;
+    updateProgress(safePrefix + "Deleting " + staleFileIds.size() + " stale chunk(s)...");
+    long deleteStarted = System.nanoTime();
+    vectorStorePort.deleteFiles(staleFileIds);
+    recordPhase(IndexPhase.DELETE, deleteStarted, staleFileIds.size(), 0);
+  }
+
+  private static IndexUploadPipeline.UnchangedFileLookup resumableFileLookup(
+      Map<String, List<String>> pathToFileIds,
+      Map<String, String> pathToContentHash,
+      Map<String, String> pathToBlobId,
+      IndexCheckpoint resumeFrom) {
+    if (resumeFrom == null) {
+      return IndexedFileLookup.of(pathToFileIds, pathToContentHash, pathToBlobId);
+    }
+    Map<String, List<String>> fileIds = new HashMap<>(pathToFileIds);
+    fileIds.putAll(resumeFrom.uploadedPathToFileIds());
+    Map<String, String> contentHashes = new HashMap<>(pathToContentHash);
+    contentHashes.putAll(resumeFrom.uploadedPathToContentHash());
+    Map<String, String> blobIds = new HashMap<>(pathToBlobId);
+    blobIds.keySet().removeAll(resumeFrom.uploadedPathToFileIds().keySet());
+    return IndexedFileLookup.of(fileIds, contentHashes, blobIds);
+  }
+
+  private PlannedUploads planUploads(
+      Collection<String> candidates,
+      Map<String, Long> knownSizes,
+      Map<String, GitTreeFile> treeFiles,
+      IndexUploadPipeline.UnchangedFileLookup indexedFiles,
+      CompiledClassificationRules classificationRules) {
+    Set<String> paths = new HashSet<>();
+    Set<String> unchangedPaths = new HashSet<>();
+    Map<String, Integer> filesByType = new TreeMap<>();
+    Map<String, Integer> skippedByReason = new TreeMap<>();
+    long totalBytes = 0;
+    for (String candidate : candidates) {
+      Optional<IndexUploadPipeline.FileClassification> classification =
+          classificationRules.classify(candidate);
+      if (classification.isEmpty()) {
+        skippedByReason.merge(IndexUploadPipeline.SKIP_UNCLASSIFIED, 1, Integer::sum);
+        continue;
+      }
+      Long size = knownSizes.get(candidate);
+      if (size != null && size > classification.get().sizeLimit(pipelineSettings.screening())) {
+        skippedByReason.merge(IndexUploadPipeline.SKIP_TOO_LARGE, 1, Integer::sum);
+        continue;
+      }
+      Map<String, String> attributes = classification.get().attributes();
+      String path = normalizePath(attributes.get("path"));
+      GitTreeFile treeFile = treeFiles.get(candidate);
+      IndexUploadPipeline.UnchangedBlob unchangedBlob =
+          path == null || treeFile == null || treeFile.blobId() == null
+              ? null
+              : indexedFiles.unchangedBlob(path, treeFile.blobId());
+      if (unchangedBlob != null && !unchangedBlob.fileIds().isEmpty()) {
+        unchangedPaths.add(path);
+        continue;
+      }
+      filesByType.merge(attributes.get("type") + "/" + attributes.get("subtype"), 1, Integer::sum);
+      paths.add(path);
+      totalBytes += size == null ? 0 : size;
+    }
+    return new PlannedUploads(paths, unchangedPaths, filesByType, skippedByReason, totalBytes);
   }
 
   private DiffPlan buildDiffPlan(List<GitDiffEntry> diffEntries) {
@@ -532,42 +1133,63 @@ public class StartInitialIndexUseCase {
   }
 
   private void deletePaths(
-      Set<String> pathsToDelete, Map<String, List<String>> pathToFileIds, String progressPrefix) {
+      Set<String> pathsToDelete,
+      Map<String, List<String>> pathToFileIds,
+      String progressPrefix,
+      IndexCheckpoint resumeFrom) {
     if (pathsToDelete == null || pathsToDelete.isEmpty()) {
       return;
     }
 
     String safePrefix = progressPrefix == null ? "" : progressPrefix;
     updateProgress(safePrefix + "Deleting " + pathsToDelete.size() + " file(s)...");
-    sleep(PROGRESS_STEP_DELAY);
+    long deleteStarted = System.nanoTime();
 
-    Map<String, List<String>> fallbackPathToFileIds =
-        buildPathToFileIds(vectorStorePort.listFiles());
-
-    int deletedCount = 0;
+    Set<String> normalizedPaths = new LinkedHashSet<>();
+    Set<String> missingIdPaths = new HashSet<>();
     for (String path : pathsToDelete) {
       String normalized = normalizePath(path);
       if (normalized == null || normalized.isBlank()) {
         continue;
       }
+      if (resumeFrom != null && resumeFrom.deletedPaths().contains(normalized)) {
+        pathToFileIds.remove(normalized);
+        continue;
+      }
+      normalizedPaths.add(normalized);
       List<String> fileIds = pathToFileIds.get(normalized);
       if (fileIds == null || fileIds.isEmpty()) {
-        fileIds = fallbackPathToFileIds.get(normalized);
+        missingIdPaths.add(normalized);
       }
-      if (fileIds != null) {
-        for (String fileId : fileIds) {
-          if (fileId == null || fileId.isBlank()) {
-            continue;
-          }
-          vectorStorePort.deleteFile(fileId);
-          deletedCount++;
+    }
+
+    Map<String, List<String>> fallbackPathToFileIds =
+        missingIdPaths.isEmpty() ? Map.of() : buildPathToFileIds(vectorStorePort.listFiles());
+
+    Set<String> fileIdsToDelete = new LinkedHashSet<>();
+    for (String path : normalizedPaths) {
+      List<String> fileIds =
+          missingIdPaths.contains(path) ? fallbackPathToFileIds.get(path) : pathToFileIds.get(path);
+      if (fileIds == null) {
+        continue;
+      }
+      for (String fileId : fileIds) {
+        if (fileId != null && !fileId.isBlank()) {
+          fileIdsToDelete.add(fileId);
         }
       }
-      pathToFileIds.remove(normalized);
+    }
+
+    throwIfCancelled();
+    vectorStorePort.deleteFiles(fileIdsToDelete);
+    int deletedCount = fileIdsToDelete.size();
+    recordPhase(IndexPhase.DELETE, deleteStarted, deletedCount, 0);
+    for (String path : normalizedPaths) {
+      pathToFileIds.remove(path);
+      checkpointPort.recordDelete(path);
     }
 
     updateProgress(safePrefix + "Deleted " + deletedCount + " file(s)...");
-    sleep(PROGRESS_STEP_DELAY);
   }
 
   private static Map<String, List<String>> buildPathToFileIds(
@@ -600,27 +1222,200 @@ public class StartInitialIndexUseCase {
     return normalized;
   }
 
+  private final class VectorStoreUploader implements IndexUploadPipeline.FileUploader {
+    private final Map<String, Object> pathLocks = new ConcurrentHashMap<>();
+    private final Set<String> rewrittenPaths = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public String upload(IndexUploadPipeline.ClassifiedFile file, FileChunker.FileChunk chunk) {
+      markRewritten(file);
+      return vectorStorePort.createFile(
+          chunkFileId(file, chunk), chunk.content(), chunk.attributes(file.attributes()));
+    }
+
+    @Override
+    public String uploadStream(
+        IndexUploadPipeline.ClassifiedFile file,
+        FileChunker.FileChunk chunk,
+        InputStream content,
+        long length) {
+      markRewritten(file);
+      return vectorStorePort.createFile(
+          chunkFileId(file, chunk), content, length, chunk.attributes(file.attributes()));
+    }
+
+    @Override
+    public List<String> copy(
+        IndexUploadPipeline.ClassifiedFile file, String sourcePath, List<String> sourceFileIds) {
+      markRewritten(file);
+      List<String> copied = new ArrayList<>();
+      synchronized (lockFor(sourcePath)) {
+        if (rewrittenPaths.contains(sourcePath)) {
+          return null;
+        }
+        try {
+          for (int i = 0; i < sourceFileIds.size(); i++) {
+            copied.add(
+                vectorStorePort.copyFile(
+                    sourceFileIds.get(i),
+                    computeChunkFileId(uploadPath(file), i),
+                    file.attributes()));
+          }
+        } catch (RuntimeException e) {
+          discard(copied);
+          return null;
+        }
+      }
+      return copied;
+    }
+
+    @Override
+    public void discard(List<String> fileIds) {
+      deleteUnreferencedFiles(fileIds);
+    }
+
+    private void markRewritten(IndexUploadPipeline.ClassifiedFile file) {
+      String path = uploadPath(file);
+      synchronized (lockFor(path)) {
+        rewrittenPaths.add(path);
+      }
+    }
+
+    private Object lockFor(String path) {
+      return pathLocks.computeIfAbsent(path, ignored -> new Object());
+    }
+
+    private String uploadPath(IndexUploadPipeline.ClassifiedFile file) {
+      return file.path() == null ? file.repoRelativePath() : file.path();
+    }
+
+    private String chunkFileId(
+        IndexUploadPipeline.ClassifiedFile file, FileChunker.FileChunk chunk) {
+      return computeChunkFileId(uploadPath(file), chunk.index());
+    }
+  }
+
+  private record IndexedFileLookup(
+      Map<String, List<String>> pathToFileIds,
+      Map<String, String> pathToContentHash,
+      Map<String, String> pathToBlobId,
+      Map<String, String> blobIdToPath)
+      implements IndexUploadPipeline.UnchangedFileLookup {
+    static IndexedFileLookup of(
+        Map<String, List<String>> pathToFileIds,
+        Map<String, String> pathToContentHash,
+        Map<String, String> pathToBlobId) {
+      Map<String, String> blobIdToPath = new HashMap<>();
+      for (Map.Entry<String, String> entry : new TreeMap<>(pathToBlobId).entrySet()) {
+        String path = entry.getKey();
+        if (pathToFileIds.containsKey(path) && pathToContentHash.containsKey(path)) {
+          blobIdToPath.putIfAbsent(entry.getValue(), path);
+        }
+      }
+      return new IndexedFileLookup(pathToFileIds, pathToContentHash, pathToBlobId, blobIdToPath);
+    }
+
+    @Override
+    public List<String> reusableFileIds(String path, String contentHash) {
+      return contentHash != null && contentHash.equals(pathToContentHash.get(path))
+          ? pathToFileIds.get(path)
+          : null;
+    }
+
+    @Override
+    public IndexUploadPipeline.UnchangedBlob unchangedBlob(String path, String blobId) {
+      String sourcePath = blobId.equals(pathToBlobId.get(path)) ? path : blobIdToPath.get(blobId);
+      if (sourcePath == null) {
+        return null;
+      }
+      List<String> fileIds = pathToFileIds.get(sourcePath);
+      String contentHash = pathToContentHash.get(sourcePath);
+      if (fileIds == null || contentHash == null) {
+        return null;
+      }
+      return new IndexUploadPipeline.UnchangedBlob(fileIds, contentHash, sourcePath);
+    }
+  }
+
   @FunctionalInterface
-  private interface JobRunner {
-    void run() throws Exception;
+  private interface PipelineRun {
+    IndexUploadPipeline.Result run(IndexUploadPipeline pipeline) throws Exception;
   }
 
   @FunctionalInterface
-  private interface FileReader {
-    byte[] read(String repoRelativePath);
+  private interface JobRunner {
+    void run(IndexCheckpoint resumeFrom) throws Exception;
   }
 
-  private enum IngestionState {
-    READY,
-    PROCESSING,
-    FAILED
+  private final class IngestionPoll implements Runnable {
+    private final long jobId;
+    private final IngestionTracker tracker;
+    private final Instant startedAt = Instant.now();
+    private final Instant deadline = startedAt.plus(INGESTION_TRACKING_LIMIT);
+    private Duration backoff = INGESTION_INITIAL_BACKOFF;
+
+    private IngestionPoll(long jobId, IngestionTracker tracker) {
+      this.jobId = jobId;
+      this.tracker = tracker;
+    }
+
+    private void schedule() {
+      ingestionScheduler.schedule(() -> taskExecutor.execute(this), backoff);
+    }
+
+    @Override
+    public void run() {
+      if (jobSequence.get() != jobId) {
+        return;
+      }
+      if (Instant.now().isAfter(deadline)) {
+        updateErrorForJob(
+            jobId,
+            "Stopped tracking vector store ingestion after " + INGESTION_TRACKING_LIMIT + ".");
+        return;
+      }
+
+      updateIngestionStatusForJob(jobId, tracker.poll());
+      if (!tracker.isDone()) {
+        backoff = backoff.multipliedBy(2);
+        if (backoff.compareTo(INGESTION_MAX_BACKOFF) > 0) {
+          backoff = INGESTION_MAX_BACKOFF;
+        }
+        schedule();
+        return;
+      }
+
+      metricsPort.recordPhase(
+          IndexPhase.INGESTION_WAIT, Duration.between(startedAt, Instant.now()), 0, 0);
+      IndexIngestionStatus status = tracker.status();
+      if (status.failed() > 0) {
+        updateErrorForJob(
+            jobId, "Vector store ingestion failed for " + status.failed() + " file(s).");
+      }
+    }
   }
 
-  private record UploadResult(
-      Map<String, List<String>> pathToFileIds,
-      Map<String, String> fileIdToPath,
-      int uploadedCount,
-      int skippedCount) {}
+  private record QueuedJob(
+      long id,
+      IndexJobKind kind,
+      String targetCommit,
+      String startingProgress,
+      String successProgress,
+      JobRunner runner,
+      Instant requestedAt,
+      AtomicBoolean cancelRequested,
+      IndexMetricsRecorder metrics) {
+    boolean matches(IndexJobKind kind, String targetCommit) {
+      return this.kind == kind && Objects.equals(this.targetCommit, targetCommit);
+    }
+  }
 
   private record DiffPlan(Set<String> toUpload, Set<String> toDelete) {}
+
+  private record PlannedUploads(
+      Set<String> paths,
+      Set<String> unchangedPaths,
+      Map<String, Integer> filesByType,
+      Map<String, Integer> skippedByReason,
+      long totalBytes) {}
 }
@@ -0,0 +1,49 @@
+package app.core.projects;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+public class ProjectRegistry {
+  public static final String DEFAULT_PROJECT = "default";
+  private static final Pattern PROJECT_KEY = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]*");
+
+  private final Map<String, ProjectWorkspace> workspaces = new LinkedHashMap<>();
+
+  public ProjectRegistry(List<ProjectWorkspace> workspaces) {
+    for (ProjectWorkspace workspace : workspaces) {
+      String key = workspace.key();
+      if (key == null || !PROJECT_KEY.matcher(key).matches()) {
+        throw new IllegalArgumentException("Invalid project key: " + key);
+      }
+      if (this.workspaces.putIfAbsent(key, workspace) != null) {
+        throw new IllegalArgumentException("Duplicate project key: " + key);
+      }
+    }
+    if (!this.workspaces.containsKey(DEFAULT_PROJECT)) {
+      throw new IllegalArgumentException("Missing default project.");
+    }
+  }
+
+  public Optional<ProjectWorkspace> find(String key) {
+    if (key == null || key.isBlank()) {
+      return Optional.of(getDefault());
+    }
+    return Optional.ofNullable(workspaces.get(key.trim()));
+  }
+
+  public ProjectWorkspace getDefault() {
+    return workspaces.get(DEFAULT_PROJECT);
+  }
+
+  public List<String> keys() {
+    return List.copyOf(workspaces.keySet());
+  }
+
+  public Collection<ProjectWorkspace> all() {
+    return List.copyOf(workspaces.values());
+  }
+}
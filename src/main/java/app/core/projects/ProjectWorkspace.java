@@ -0,0 +1,21 @@
+package app.core.projects;
+
+import app.core.git.GitPort;
+import app.core.git.TrackedFilesService;
+import app.core.indexing.StartInitialIndexUseCase;
+import app.core.observations.ObservationsPort;
+import app.core.projectconfig.ProjectConfigPort;
+import app.core.projectstate.ProjectStatePort;
+import app.core.search.SemanticSearchPort;
+import app.core.search.TextSearchPort;
+
+public record ProjectWorkspace(
+    String key,
+    ProjectConfigPort projectConfigPort,
+    GitPort gitPort,
+    TrackedFilesService trackedFiles,
+    ProjectStatePort projectStatePort,
+    StartInitialIndexUseCase indexUseCase,
+    TextSearchPort textSearchPort,
+    SemanticSearchPort semanticSearchPort,
+    ObservationsPort observationsPort) {}
@@ -15,7 +15,9 @@ public record ProjectMetadata(
     OpenAiSettings openai,
     IndexingSettings indexing,
     List<ClassificationRule> classificationRules,
-    Map<String, List<String>> pathToOpenAiFileIds) {
+    Map<String, List<String>> pathToOpenAiFileIds,
+    Map<String, String> pathToContentHash,
+    Map<String, String> pathToBlobId) {
   public static final int CURRENT_SCHEMA_VERSION = 2;
   private static final int DEFAULT_MAX_CHUNK_CHARS = 12000;
   private static final int DEFAULT_CHUNK_OVERLAP_CHARS = 800;
@@ -31,6 +33,8 @@ public record ProjectMetadata(
         defaultOpenAiSettings(config),
         defaultIndexingSettings(null),
         defaultClassificationRules(),
+        Map.of(),
+        Map.of(),
         Map.of());
   }
 
@@ -44,11 +48,23 @@ public record ProjectMetadata(
         defaultOpenAiSettings(config),
         defaultIndexingSettings(lastIndexedCommit),
         defaultClassificationRules(),
-        pathMap);
+        pathMap,
+        Map.of(),
+        Map.of());
   }
 
   public ProjectMetadata withIndexingUpdate(
-      String lastIndexedCommit, Map<String, List<String>> pathToFileIds) {      
+      String lastIndexedCommit,
+      Map<String, List<String>> pathToFileIds,
+      Map<String, String> pathToContentHash) {
+    return withIndexingUpdate(lastIndexedCommit, pathToFileIds, pathToContentHash, Map.of());
+  }
+
+  public ProjectMetadata withIndexingUpdate(
+      String lastIndexedCommit,
+      Map<String, List<String>> pathToFileIds,
+      Map<String, String> pathToContentHash,
+      Map<String, String> pathToBlobId) {
     IndexingSettings updatedIndexing =
         new IndexingSettings(
             normalizeOptional(lastIndexedCommit),
@@ -60,8 +76,11 @@ public record ProjectMetadata(
             : classificationRules;
     Map<String, List<String>> pathMap =
         pathToFileIds == null ? Map.of() : Map.copyOf(pathToFileIds);
+    Map<String, String> hashMap =
+        pathToContentHash == null ? Map.of() : Map.copyOf(pathToContentHash);
+    Map<String, String> blobMap = pathToBlobId == null ? Map.of() : Map.copyOf(pathToBlobId);
     return new ProjectMetadata(
-        CURRENT_SCHEMA_VERSION, project, openai, updatedIndexing, rules, pathMap);
+        CURRENT_SCHEMA_VERSION, project, openai, updatedIndexing, rules, pathMap, hashMap, blobMap);
   }
 
   public ProjectMetadata withProjectConfig(ProjectConfig config) {
@@ -73,7 +92,14 @@ public record ProjectMetadata(
     Map<String, List<String>> pathMap =
         pathToOpenAiFileIds == null ? Map.of() : Map.copyOf(pathToOpenAiFileIds);
     return new ProjectMetadata(
-        CURRENT_SCHEMA_VERSION, updatedProject, updatedOpenAi, updatedIndexing, rules, pathMap);
+        CURRENT_SCHEMA_VERSION,
+        updatedProject,
+        updatedOpenAi,
+        updatedIndexing,
+        rules,
+        pathMap,
+        pathToContentHashOrEmpty(),
+        pathToBlobIdOrEmpty());
   }
 
   @JsonIgnore
@@ -81,11 +107,35 @@ public record ProjectMetadata(
     return indexing == null ? null : indexing.lastIndexedCommit();
   }
 
+  @JsonIgnore
+  public int maxChunkCharsOrDefault() {
+    return indexing == null || indexing.maxChunkChars() <= 0
+        ? DEFAULT_MAX_CHUNK_CHARS
+        : indexing.maxChunkChars();
+  }
+
+  @JsonIgnore
+  public int chunkOverlapCharsOrDefault() {
+    return indexing == null || indexing.chunkOverlapChars() < 0
+        ? DEFAULT_CHUNK_OVERLAP_CHARS
+        : indexing.chunkOverlapChars();
+  }
+
   @JsonIgnore
   public Map<String, List<String>> pathToFileIdsOrEmpty() {
     return pathToOpenAiFileIds == null ? Map.of() : pathToOpenAiFileIds;
   }
 
+  @JsonIgnore
+  public Map<String, String> pathToContentHashOrEmpty() {
+    return pathToContentHash == null ? Map.of() : pathToContentHash;
+  }
+
+  @JsonIgnore
+  public Map<String, String> pathToBlobIdOrEmpty() {
+    return pathToBlobId == null ? Map.of() : pathToBlobId;
+  }
+
   @JsonIgnore
   public List<ClassificationRule> classificationRulesOrDefault() {
     return classificationRules == null || classificationRules.isEmpty()
@@ -166,5 +216,15 @@ public record ProjectMetadata(
   public record IndexingSettings(String lastIndexedCommit, int maxChunkChars, int chunkOverlapChars) {}
 
   @JsonInclude(Include.NON_NULL)
-  public record ClassificationRule(String pathPrefix, String type, String subtype) {}
+  public record ClassificationRule(
+      String pathPrefix,
+      String type,
+      String subtype,
+      String glob,
+      Boolean exclude,
+      Long maxSizeBytes) {
+    public ClassificationRule(String pathPrefix, String type, String subtype) {
+      this(pathPrefix, type, subtype, null, null, null);
+    }
+  }
 }
@@ -1,4 +1,8 @@
 package app.core.search;
 
-public record SemanticSearchResult(String path, double score, String preview) {}
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
+@JsonInclude(Include.NON_NULL)
+public record SemanticSearchResult(
+    String path, double score, String preview, Integer startLine, Integer endLine) {}
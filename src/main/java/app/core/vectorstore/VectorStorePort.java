@@ -1,5 +1,9 @@
 package app.core.vectorstore;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -9,11 +13,41 @@ public interface VectorStorePort {
 
   String createFile(String fileId, byte[] content, Map<String, String> attributes);
 
+  default String createFile(
+      String fileId, InputStream content, long length, Map<String, String> attributes) {
+    if (length < 0 || length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("length out of range: " + length);
+    }
+    try {
+      return createFile(fileId, content.readNBytes((int) length), attributes);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read content for " + fileId, e);
+    }
+  }
+
   VectorStoreFile readFile(String fileId);
 
+  default String copyFile(String sourceFileId, String fileId, Map<String, String> attributes) {
+    VectorStoreFile source = readFile(sourceFileId);
+    Map<String, String> merged =
+        new HashMap<>(source.attributes() == null ? Map.of() : source.attributes());
+    merged.putAll(attributes);
+    return createFile(fileId, source.content(), merged);
+  }
+
   List<VectorStoreFileSummary> listFiles();
 
+  default Optional<VectorStoreFileSummary> findFile(String fileId) {
+    return listFiles().stream().filter(f -> f.fileId().equals(fileId)).findFirst();
+  }
+
   default void deleteFile(String fileId) {
     throw new UnsupportedOperationException("deleteFile not supported by " + getClass().getName());
   }
+
+  default void deleteFiles(Collection<String> fileIds) {
+    for (String fileId : fileIds) {
+      deleteFile(fileId);
+    }
+  }
 }
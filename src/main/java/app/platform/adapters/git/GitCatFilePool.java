@@ -0,0 +1,273 @@
+package app.platform.adapters.git;
+
+import app.core.git.GitFileStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+final class GitCatFilePool implements AutoCloseable {
+  private static final int STDOUT_BUFFER_BYTES = 64 * 1024;
+  private static final int MAX_HEADER_BYTES = 4096;
+  private static final int MEMORY_BUFFER_BYTES = 1024 * 1024;
+  private static final List<String> COMMAND = List.of("git", "cat-file", "--batch");
+
+  private final Path repoPath;
+  private final List<String> command;
+  private final Duration timeout;
+  private final Semaphore permits;
+  private final BlockingDeque<CatFileProcess> idle = new LinkedBlockingDeque<>();
+  private final Set<CatFileProcess> processes = ConcurrentHashMap.newKeySet();
+  private volatile boolean closed;
+
+  GitCatFilePool(Path repoPath, int maxProcesses, Duration timeout) {
+    this(repoPath, maxProcesses, timeout, COMMAND);
+  }
+
+  GitCatFilePool(Path repoPath, int maxProcesses, Duration timeout, List<String> command) {
+    if (maxProcesses <= 0) {
+      throw new IllegalArgumentException("maxProcesses must be > 0.");
+    }
+    this.repoPath = repoPath;
+    this.command = List.copyOf(command);
+    this.timeout = timeout;
+    this.permits = new Semaphore(maxProcesses, true);
+  }
+
+  Path repoPath() {
+    return repoPath;
+  }
+
+  int processCount() {
+    return processes.size();
+  }
+
+  GitFileStream open(String object) {
+    if (object.indexOf('\n') >= 0) {
+      throw new IllegalArgumentException("git cat-file --batch cannot read: " + object);
+    }
+    acquirePermit();
+    CatFileProcess process = null;
+    try {
+      process = lease();
+      GitFileStream stream = process.read(object, timeout);
+      release(process);
+      return stream;
+    } catch (GitObjectException e) {
+      release(process);
+      throw new IllegalStateException(e.getMessage(), e);
+    } catch (IOException | RuntimeException e) {
+      discard(process);
+      permits.release();
+      if (e instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("Failed to read " + object + " through git cat-file.", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    CatFileProcess process;
+    while ((process = idle.pollFirst()) != null) {
+      discard(process);
+    }
+  }
+
+  private void acquirePermit() {
+    try {
+      if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new IllegalStateException("Timed out waiting for a git cat-file process.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a git cat-file process.", e);
+    }
+  }
+
+  private CatFileProcess lease() throws IOException {
+    if (closed) {
+      throw new IllegalStateException("git cat-file pool is closed.");
+    }
+    CatFileProcess process;
+    while ((process = idle.pollFirst()) != null) {
+      if (process.isAlive()) {
+        return process;
+      }
+      discard(process);
+    }
+    process = new CatFileProcess(repoPath, command);
+    processes.add(process);
+    return process;
+  }
+
+  private void release(CatFileProcess process) {
+    if (process != null) {
+      if (closed || !process.isAlive()) {
+        discard(process);
+      } else {
+        idle.addFirst(process);
+      }
+    }
+    permits.release();
+  }
+
+  private void discard(CatFileProcess process) {
+    if (process != null) {
+      processes.remove(process);
+      process.destroy();
+    }
+  }
+
+  private static final class GitObjectException extends Exception {
+    private GitObjectException(String message) {
+      super(message);
+    }
+  }
+
+  private static final class CatFileProcess {
+    private final Process process;
+    private final OutputStream stdin;
+    private final InputStream stdout;
+    private volatile boolean timedOut;
+
+    private CatFileProcess(Path repoPath, List<String> command) throws IOException {
+      process =
+          new ProcessBuilder(command)
+              .directory(repoPath.toFile())
+              .redirectError(ProcessBuilder.Redirect.DISCARD)
+              .start();
+      stdin = process.getOutputStream();
+      stdout = new BufferedInputStream(process.getInputStream(), STDOUT_BUFFER_BYTES);
+    }
+
+    private boolean isAlive() {
+      return !timedOut && process.isAlive();
+    }
+
+    private void destroy() {
+      process.destroyForcibly();
+    }
+
+    private void timeOut() {
+      timedOut = true;
+      process.destroyForcibly();
+    }
+
+    private GitFileStream read(String object, Duration timeout)
+        throws IOException, GitObjectException {
+      ScheduledFuture<?> watchdog =
+          GitCommand.WATCHDOG.schedule(this::timeOut, timeout.toMillis(), TimeUnit.MILLISECONDS);
+      try {
+        long size = request(object);
+        return new GitFileStream(size, buffer(size));
+      } catch (IOException | RuntimeException e) {
+        if (timedOut) {
+          throw new IllegalStateException(
+              "Timed out while reading " + object + " through git cat-file.", e);
+        }
+        throw e;
+      } finally {
+        watchdog.cancel(false);
+      }
+    }
+
+    private long request(String object) throws IOException, GitObjectException {
+      stdin.write((object + "\n").getBytes(StandardCharsets.UTF_8));
+      stdin.flush();
+      String header = readHeader();
+      if (header == null) {
+        throw new IllegalStateException("git cat-file closed its output.");
+      }
+      if (header.endsWith(" missing") || header.endsWith(" ambiguous")) {
+        throw new GitObjectException("git object not found: " + object);
+      }
+
+      String[] fields = header.split(" ");
+      if (fields.length != 3) {
+        throw new IllegalStateException("Unexpected git cat-file header: " + header);
+      }
+      long size = Long.parseLong(fields[2]);
+      if (!"blob".equals(fields[1])) {
+        skip(size + 1);
+        throw new GitObjectException("git object is not a blob: " + object);
+      }
+      return size;
+    }
+
+    private String readHeader() throws IOException {
+      ByteArrayOutputStream header = new ByteArrayOutputStream();
+      int b;
+      while ((b = stdout.read()) >= 0) {
+        if (b == '\n') {
+          return header.toString(StandardCharsets.UTF_8);
+        }
+        if (header.size() >= MAX_HEADER_BYTES) {
+          throw new IOException("git cat-file header is too long.");
+        }
+        header.write(b);
+      }
+      return null;
+    }
+
+    private InputStream buffer(long size) throws IOException {
+      if (size <= MEMORY_BUFFER_BYTES) {
+        byte[] content = stdout.readNBytes((int) size);
+        if (content.length < size) {
+          throw new IOException("git cat-file output ended early.");
+        }
+        skip(1);
+        return new ByteArrayInputStream(content);
+      }
+
+      Path spooled = Files.createTempFile("codeassistant-blob", ".tmp");
+      try {
+        try (OutputStream out = Files.newOutputStream(spooled)) {
+          byte[] chunk = new byte[STDOUT_BUFFER_BYTES];
+          long remaining = size;
+          while (remaining > 0) {
+            int read = stdout.read(chunk, 0, (int) Math.min(chunk.length, remaining));
+            if (read < 0) {
+              throw new IOException("git cat-file output ended early.");
+            }
+            out.write(chunk, 0, read);
+            remaining -= read;
+          }
+        }
+        skip(1);
+        return Files.newInputStream(spooled, StandardOpenOption.DELETE_ON_CLOSE);
+      } catch (IOException | RuntimeException e) {
+        Files.deleteIfExists(spooled);
+        throw e;
+      }
+    }
+
+    private void skip(long count) throws IOException {
+      byte[] buffer = new byte[(int) Math.min(count, STDOUT_BUFFER_BYTES)];
+      long remaining = count;
+      while (remaining > 0) {
+        int read = stdout.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+        if (read < 0) {
+          throw new IOException("git cat-file output ended early.");
+        }
+        remaining -= read;
+      }
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package app.platform.adapters.git;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+final class GitCommand {
+  static final ScheduledExecutorService WATCHDOG =
+      Executors.newSingleThreadScheduledExecutor(daemonThreads("git-watchdog"));
+  private static final ExecutorService STDERR_READERS =
+      Executors.newCachedThreadPool(daemonThreads("git-stderr-reader"));
+  private static final int STDOUT_BUFFER_BYTES = 64 * 1024;
+  private static final long MIN_WATCHDOG_PERIOD_MILLIS = 100;
+
+  private GitCommand() {}
+
+  @FunctionalInterface
+  interface OutputHandler<T> {
+    T handle(InputStream stdout) throws IOException;
+  }
+
+  static byte[] readAll(Path repoPath, Duration timeout, String... args) {
+    return run(repoPath, timeout, InputStream::readAllBytes, args);
+  }
+
+  static void forEachRecord(
+      Path repoPath, Duration timeout, Consumer<String> action, String... args) {
+    run(
+        repoPath,
+        timeout,
+        stdout -> {
+          NulSeparatedReader reader = new NulSeparatedReader(stdout);
+          String record;
+          while ((record = reader.next()) != null) {
+            if (!record.isEmpty()) {
+              action.accept(record);
+            }
+          }
+          return null;
+        },
+        args);
+  }
+
+  static List<String> records(Path repoPath, Duration timeout, String... args) {
+    List<String> records = new ArrayList<>();
+    forEachRecord(repoPath, timeout, records::add, args);
+    return records;
+  }
+
+  static <T> T run(Path repoPath, Duration timeout, OutputHandler<T> handler, String... args) {
+    List<String> command = new ArrayList<>(args.length + 1);
+    command.add("git");
+    command.addAll(Arrays.asList(args));
+
+    Process process;
+    try {
+      process = new ProcessBuilder(command).directory(repoPath.toFile()).start();
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to start git process.", e);
+    }
+
+    Future<byte[]> stderr =
+        STDERR_READERS.submit(
+            () -> {
+              try (InputStream errors = process.getErrorStream()) {
+                return errors.readAllBytes();
+              }
+            });
+    StallTrackingInputStream stdout = new StallTrackingInputStream(process.getInputStream());
+    long timeoutNanos = timeout.toNanos();
+    long period = Math.max(MIN_WATCHDOG_PERIOD_MILLIS, timeout.toMillis() / 4);
+    ScheduledFuture<?> watchdog =
+        WATCHDOG.scheduleAtFixedRate(
+            () -> {
+              if (stdout.stalledNanos() > timeoutNanos) {
+                stdout.timedOut = true;
+                process.destroyForcibly();
+              }
+            },
+            period,
+            period,
+            TimeUnit.MILLISECONDS);
+
+    T result;
+    try (stdout) {
+      result = handler.handle(stdout);
+    } catch (IOException | RuntimeException e) {
+      process.destroyForcibly();
+      if (stdout.timedOut) {
+        throw new IllegalStateException("Timed out while running git in " + repoPath, e);
+      }
+      if (e instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("Failed to read git output in " + repoPath, e);
+    } finally {
+      watchdog.cancel(false);
+    }
+
+    try {
+      if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS) || stdout.timedOut) {
+        process.destroyForcibly();
+        throw new IllegalStateException("Timed out while running git in " + repoPath);
+      }
+      byte[] errors = stderr.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      if (process.exitValue() != 0) {
+        String stderrText = new String(errors, StandardCharsets.UTF_8);
+        throw new IllegalStateException(
+            "git failed (exit="
+                + process.exitValue()
+                + ") in "
+                + repoPath
+                + ": "
+                + stderrText.trim());
+      }
+    } catch (InterruptedException e) {
+      process.destroyForcibly();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for git.", e);
+    } catch (ExecutionException | TimeoutException e) {
+      throw new IllegalStateException("Failed to read git errors in " + repoPath, e);
+    }
+    return result;
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private static final class StallTrackingInputStream extends FilterInputStream {
+    private volatile long waitingSince;
+    private volatile boolean timedOut;
+
+    private StallTrackingInputStream(InputStream in) {
+      super(in);
+    }
+
+    private long stalledNanos() {
+      long since = waitingSince;
+      return since == 0 ? 0 : System.nanoTime() - since;
+    }
+
+    @Override
+    public int read() throws IOException {
+      waitingSince = System.nanoTime();
+      try {
+        return super.read();
+      } finally {
+        waitingSince = 0;
+      }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      waitingSince = System.nanoTime();
+      try {
+        return super.read(buffer, offset, length);
+      } finally {
+        waitingSince = 0;
+      }
+    }
+  }
+
+  static final class NulSeparatedReader {
+    private final InputStream in;
+    private final byte[] buffer = new byte[STDOUT_BUFFER_BYTES];
+    private byte[] pending = new byte[256];
+    private int position;
+    private int limit;
+
+    NulSeparatedReader(InputStream in) {
+      this.in = in;
+    }
+
+    String next() throws IOException {
+      int pendingLength = 0;
+      while (true) {
+        if (position == limit) {
+          int read = in.read(buffer, 0, buffer.length);
+          if (read <= 0) {
+            position = 0;
+            limit = 0;
+            return pendingLength == 0 ? null : decode(pending, 0, pendingLength);
+          }
+          position = 0;
+          limit = read;
+        }
+
+        int start = position;
+        while (position < limit && buffer[position] != 0) {
+          position++;
+        }
+        if (position < limit) {
+          int end = position++;
+          if (pendingLength == 0) {
+            return decode(buffer, start, end - start);
+          }
+          pendingLength = append(start, end - start, pendingLength);
+          return decode(pending, 0, pendingLength);
+        }
+        pendingLength = append(start, position - start, pendingLength);
+      }
+    }
+
+    private int append(int start, int length, int pendingLength) {
+      if (pendingLength + length > pending.length) {
+        pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + length));
+      }
+      System.arraycopy(buffer, start, pending, pendingLength, length);
+      return pendingLength + length;
+    }
+
+    private static String decode(byte[] bytes, int offset, int length) {
+      return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,574 @@
+package app.platform.adapters.git;
+
+import app.core.git.GitFileStream;
+import app.core.git.GitTreeFile;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.zip.InflaterInputStream;
+
+final class GitObjectDatabase {
+  private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-f]{40}");
+  private static final Pattern SHA256_FORMAT =
+      Pattern.compile("(?im)^\\s*objectformat\\s*=\\s*sha256\\s*$");
+  private static final Pattern UNSUPPORTED_REV = Pattern.compile("[~^:@{}\\s*?\\[\\\\]|\\.\\.");
+  private static final int MAX_SYMREF_DEPTH = 5;
+  private static final long CACHE_BYTES = 64L * 1024 * 1024;
+  private static final int MAX_LOOSE_HEADER_BYTES = 64;
+  private static final int MAX_TREE_DEPTH = 256;
+  private static final String GITLINK_MODE = "160000";
+
+  private final Path repoPath;
+  private final Path gitDir;
+  private final Path commonDir;
+  private final List<Path> objectDirs;
+  private final ObjectCache cache = new ObjectCache(CACHE_BYTES);
+  private final Object packsLock = new Object();
+  private volatile List<GitPackFile> packs = List.of();
+
+  private GitObjectDatabase(Path repoPath, Path gitDir, Path commonDir, List<Path> objectDirs) {
+    this.repoPath = repoPath;
+    this.gitDir = gitDir;
+    this.commonDir = commonDir;
+    this.objectDirs = objectDirs;
+  }
+
+  static GitObjectDatabase open(Path repoPath) {
+    try {
+      Path gitDir = locateGitDir(repoPath);
+      Path commonDir = gitDir;
+      Path commonDirFile = gitDir.resolve("commondir");
+      if (Files.isRegularFile(commonDirFile)) {
+        commonDir = gitDir.resolve(Files.readString(commonDirFile).trim()).normalize();
+      }
+      Path config = commonDir.resolve("config");
+      if (Files.isRegularFile(config) && SHA256_FORMAT.matcher(Files.readString(config)).find()) {
+        throw new IllegalStateException(
+            "SHA-256 repositories are not supported by the in-process git reader: " + repoPath);
+      }
+
+      List<Path> objectDirs = new ArrayList<>();
+      objectDirs.add(commonDir.resolve("objects"));
+      Path alternates = commonDir.resolve("objects/info/alternates");
+      if (Files.isRegularFile(alternates)) {
+        for (String line : Files.readAllLines(alternates)) {
+          String trimmed = line.trim();
+          if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+            objectDirs.add(commonDir.resolve("objects").resolve(trimmed).normalize());
+          }
+        }
+      }
+      GitObjectDatabase database =
+          new GitObjectDatabase(repoPath, gitDir, commonDir, List.copyOf(objectDirs));
+      database.rescanPacks();
+      return database;
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to open git repository: " + repoPath, e);
+    }
+  }
+
+  Path repoPath() {
+    return repoPath;
+  }
+
+  String resolve(String rev) {
+    String trimmed = rev.trim();
+    if (OBJECT_ID.matcher(trimmed).matches()) {
+      return trimmed;
+    }
+    if (trimmed.isEmpty() || UNSUPPORTED_REV.matcher(trimmed).find()) {
+      return null;
+    }
+    try {
+      for (String candidate :
+          List.of(
+              trimmed,
+              "refs/" + trimmed,
+              "refs/tags/" + trimmed,
+              "refs/heads/" + trimmed,
+              "refs/remotes/" + trimmed,
+              "refs/remotes/" + trimmed + "/HEAD")) {
+        String id = readRef(candidate, 0);
+        if (id != null) {
+          return id;
+        }
+      }
+      return null;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  String peelToCommit(String id) {
+    GitObject object = readObject(id);
+    String current = id;
+    for (int depth = 0; object.type() == GitPackFile.OBJ_TAG; depth++) {
+      if (depth > MAX_SYMREF_DEPTH) {
+        throw new IllegalStateException("Tag chain is too deep: " + id);
+      }
+      current = header(object, "object");
+      object = readObject(current);
+    }
+    if (object.type() != GitPackFile.OBJ_COMMIT) {
+      throw new IllegalStateException("git object is not a commit: " + id);
+    }
+    return current;
+  }
+
+  List<String> listFiles(String treeIsh) {
+    List<String> paths = new ArrayList<>();
+    walk(rootTree(treeIsh), "", 0, (path, entry) -> paths.add(path));
+    return paths;
+  }
+
+  void forEachFile(String treeIsh, Consumer<GitTreeFile> action) {
+    walk(
+        rootTree(treeIsh),
+        "",
+        0,
+        (path, entry) ->
+            action.accept(
+                entry.isGitlink()
+                    ? new GitTreeFile(path, null, null)
+                    : new GitTreeFile(path, entry.id(), objectSize(entry.id()))));
+  }
+
+  GitFileStream openFile(String treeIsh, String repoRelativePath) {
+    String treeId = rootTree(treeIsh);
+    String[] segments = repoRelativePath.replace('\\', '/').split("/");
+    TreeEntry entry = null;
+    for (int i = 0; i < segments.length; i++) {
+      if (segments[i].isEmpty()) {
+        continue;
+      }
+      if (entry != null && !entry.isTree()) {
+        entry = null;
+        break;
+      }
+      entry = findEntry(entry == null ? treeId : entry.id(), segments[i]);
+      if (entry == null) {
+        break;
+      }
+    }
+    if (entry == null || entry.isTree() || entry.isGitlink()) {
+      throw new IllegalStateException(
+          "git object not found: " + treeIsh + ":" + repoRelativePath);
+    }
+    return openBlob(entry.id());
+  }
+
+  GitFileStream openBlob(String id) {
+    try {
+      byte[] rawId = HexFormat.of().parseHex(id);
+      for (int attempt = 0; attempt < 2; attempt++) {
+        for (GitPackFile pack : packs) {
+          long offset = pack.findOffset(rawId);
+          if (offset >= 0) {
+            InputStream stream = pack.openUndeltified(offset, GitPackFile.OBJ_BLOB);
+            if (stream != null) {
+              return new GitFileStream(pack.size(offset), stream);
+            }
+            return blobStream(id, pack.read(offset, this));
+          }
+        }
+        for (Path objectDir : objectDirs) {
+          Path loose = looseObjectPath(objectDir, id);
+          if (Files.isRegularFile(loose)) {
+            return openLooseBlob(id, loose);
+          }
+        }
+        if (attempt == 0 && !rescanPacks()) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read git object: " + id, e);
+    }
+    throw new IllegalStateException("git object not found: " + id);
+  }
+
+  GitObject readObject(String id) {
+    GitObject cached = cache.get(id);
+    if (cached != null) {
+      return cached;
+    }
+    try {
+      byte[] rawId = HexFormat.of().parseHex(id);
+      for (int attempt = 0; attempt < 2; attempt++) {
+        for (GitPackFile pack : packs) {
+          long offset = pack.findOffset(rawId);
+          if (offset >= 0) {
+            GitObject object = pack.read(offset, this);
+            cacheObject(id, object);
+            return object;
+          }
+        }
+        for (Path objectDir : objectDirs) {
+          Path loose = looseObjectPath(objectDir, id);
+          if (Files.isRegularFile(loose)) {
+            GitObject object = readLoose(loose);
+            cacheObject(id, object);
+            return object;
+          }
+        }
+        if (attempt == 0 && !rescanPacks()) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read git object: " + id, e);
+    }
+    throw new IllegalStateException("git object not found: " + id);
+  }
+
+  GitObject cachedPackObject(GitPackFile pack, long offset) {
+    return cache.get(pack.name() + "@" + offset);
+  }
+
+  void cachePackObject(GitPackFile pack, long offset, GitObject object) {
+    cache.put(pack.name() + "@" + offset, object);
+  }
+
+  private long objectSize(String id) {
+    try {
+      byte[] rawId = HexFormat.of().parseHex(id);
+      for (int attempt = 0; attempt < 2; attempt++) {
+        for (GitPackFile pack : packs) {
+          long offset = pack.findOffset(rawId);
+          if (offset >= 0) {
+            return pack.size(offset);
+          }
+        }
+        for (Path objectDir : objectDirs) {
+          Path loose = looseObjectPath(objectDir, id);
+          if (Files.isRegularFile(loose)) {
+            try (InputStream in = new InflaterInputStream(Files.newInputStream(loose))) {
+              return readLooseHeader(in, loose).size();
+            }
+          }
+        }
+        if (attempt == 0 && !rescanPacks()) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read git object: " + id, e);
+    }
+    throw new IllegalStateException("git object not found: " + id);
+  }
+
+  private void cacheObject(String id, GitObject object) {
+    if (object.type() != GitPackFile.OBJ_BLOB) {
+      cache.put(id, object);
+    }
+  }
+
+  private String rootTree(String treeIsh) {
+    String id = resolve(treeIsh);
+    if (id == null) {
+      throw new IllegalArgumentException("Unsupported revision for in-process reader: " + treeIsh);
+    }
+    GitObject object = readObject(id);
+    for (int depth = 0; depth <= MAX_SYMREF_DEPTH; depth++) {
+      switch (object.type()) {
+        case GitPackFile.OBJ_TREE:
+          return id;
+        case GitPackFile.OBJ_COMMIT:
+          return header(object, "tree");
+        case GitPackFile.OBJ_TAG:
+          id = header(object, "object");
+          object = readObject(id);
+          break;
+        default:
+          throw new IllegalStateException("git object is not a tree-ish: " + treeIsh);
+      }
+    }
+    throw new IllegalStateException("Tag chain is too deep: " + treeIsh);
+  }
+
+  private void walk(String treeId, String prefix, int depth, TreeVisitor visitor) {
+    if (depth > MAX_TREE_DEPTH) {
+      throw new IllegalStateException("git tree is too deep at: " + prefix);
+    }
+    for (TreeEntry entry : parseTree(treeId)) {
+      String path = prefix + entry.name();
+      if (entry.isTree()) {
+        walk(entry.id(), path + "/", depth + 1, visitor);
+      } else {
+        visitor.visit(path, entry);
+      }
+    }
+  }
+
+  private TreeEntry findEntry(String treeId, String name) {
+    for (TreeEntry entry : parseTree(treeId)) {
+      if (entry.name().equals(name)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private List<TreeEntry> parseTree(String treeId) {
+    GitObject tree = readObject(treeId);
+    if (tree.type() != GitPackFile.OBJ_TREE) {
+      throw new IllegalStateException("git object is not a tree: " + treeId);
+    }
+    byte[] data = tree.data();
+    List<TreeEntry> entries = new ArrayList<>();
+    int position = 0;
+    while (position < data.length) {
+      int space = indexOf(data, (byte) ' ', position);
+      int nul = indexOf(data, (byte) 0, space + 1);
+      if (space < 0 || nul < 0 || nul + 21 > data.length) {
+        throw new IllegalStateException("Corrupt git tree: " + treeId);
+      }
+      String mode = new String(data, position, space - position, StandardCharsets.US_ASCII);
+      String name = new String(data, space + 1, nul - space - 1, StandardCharsets.UTF_8);
+      String id = HexFormat.of().formatHex(data, nul + 1, nul + 21);
+      entries.add(new TreeEntry(mode, name, id));
+      position = nul + 21;
+    }
+    return entries;
+  }
+
+  private String readRef(String name, int depth) throws IOException {
+    if (depth > MAX_SYMREF_DEPTH) {
+      throw new IllegalStateException("Symbolic ref chain is too deep: " + name);
+    }
+    Path base = name.startsWith("refs/") && !name.startsWith("refs/bisect/") ? commonDir : gitDir;
+    Path loose = base.resolve(name).normalize();
+    String value = null;
+    if (loose.startsWith(base.normalize()) && Files.isRegularFile(loose)) {
+      value = Files.readString(loose, StandardCharsets.UTF_8).trim();
+    } else if (name.startsWith("refs/")) {
+      value = readPackedRef(name);
+    }
+    if (value == null) {
+      return null;
+    }
+    if (value.startsWith("ref:")) {
+      return readRef(value.substring(4).trim(), depth + 1);
+    }
+    return OBJECT_ID.matcher(value).matches() ? value : null;
+  }
+
+  private String readPackedRef(String name) throws IOException {
+    Path packedRefs = commonDir.resolve("packed-refs");
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(packedRefs, StandardCharsets.UTF_8);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    for (String line : lines) {
+      if (line.startsWith("#") || line.startsWith("^")) {
+        continue;
+      }
+      int space = line.indexOf(' ');
+      if (space == 40 && line.substring(41).equals(name)) {
+        return line.substring(0, 40);
+      }
+    }
+    return null;
+  }
+
+  private boolean rescanPacks() throws IOException {
+    synchronized (packsLock) {
+      Map<String, GitPackFile> existing = new LinkedHashMap<>();
+      for (GitPackFile pack : packs) {
+        existing.put(pack.name(), pack);
+      }
+      List<GitPackFile> scanned = new ArrayList<>();
+      boolean changed = false;
+      for (Path objectDir : objectDirs) {
+        Path packDir = objectDir.resolve("pack");
+        if (!Files.isDirectory(packDir)) {
+          continue;
+        }
+        try (DirectoryStream<Path> idxFiles = Files.newDirectoryStream(packDir, "*.idx")) {
+          for (Path idx : idxFiles) {
+            String baseName = idx.getFileName().toString();
+            Path pack = packDir.resolve(baseName.substring(0, baseName.length() - 4) + ".pack");
+            if (!Files.isRegularFile(pack)) {
+              continue;
+            }
+            GitPackFile opened = existing.remove(pack.getFileName().toString());
+            if (opened == null) {
+              opened = new GitPackFile(idx, pack);
+              changed = true;
+            }
+            scanned.add(opened);
+          }
+        }
+      }
+      changed |= !existing.isEmpty();
+      packs = List.copyOf(scanned);
+      return changed;
+    }
+  }
+
+  private GitObject readLoose(Path loose) throws IOException {
+    try (InputStream in = new InflaterInputStream(Files.newInputStream(loose))) {
+      LooseHeader header = readLooseHeader(in, loose);
+      byte[] data = in.readNBytes((int) header.size());
+      if (data.length != header.size()) {
+        throw new IOException("Truncated loose object: " + loose);
+      }
+      return new GitObject(header.type(), data);
+    }
+  }
+
+  private GitFileStream openLooseBlob(String id, Path loose) throws IOException {
+    InputStream in = new InflaterInputStream(Files.newInputStream(loose));
+    try {
+      LooseHeader header = readLooseHeader(in, loose);
+      if (header.type() != GitPackFile.OBJ_BLOB) {
+        throw new IllegalStateException("git object is not a blob: " + id);
+      }
+      return new GitFileStream(header.size(), in);
+    } catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  private static LooseHeader readLooseHeader(InputStream in, Path loose) throws IOException {
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) > 0) {
+      if (header.size() >= MAX_LOOSE_HEADER_BYTES) {
+        throw new IOException("Corrupt loose object header: " + loose);
+      }
+      header.write(b);
+    }
+    String[] fields = header.toString(StandardCharsets.US_ASCII).split(" ");
+    if (b < 0 || fields.length != 2) {
+      throw new IOException("Corrupt loose object header: " + loose);
+    }
+    int type =
+        switch (fields[0]) {
+          case "commit" -> GitPackFile.OBJ_COMMIT;
+          case "tree" -> GitPackFile.OBJ_TREE;
+          case "blob" -> GitPackFile.OBJ_BLOB;
+          case "tag" -> GitPackFile.OBJ_TAG;
+          default -> throw new IOException("Unknown loose object type: " + fields[0]);
+        };
+    return new LooseHeader(type, Long.parseLong(fields[1]));
+  }
+
+  private static GitFileStream blobStream(String id, GitObject object) {
+    if (object.type() != GitPackFile.OBJ_BLOB) {
+      throw new IllegalStateException("git object is not a blob: " + id);
+    }
+    return GitFileStream.of(object.data());
+  }
+
+  private static String header(GitObject object, String field) {
+    String text = new String(object.data(), StandardCharsets.UTF_8);
+    String prefix = field + " ";
+    for (String line : text.split("\n")) {
+      if (line.isEmpty()) {
+        break;
+      }
+      if (line.startsWith(prefix)) {
+        return line.substring(prefix.length()).trim();
+      }
+    }
+    throw new IllegalStateException("git object has no `" + field + "` header.");
+  }
+
+  private static Path looseObjectPath(Path objectDir, String id) {
+    return objectDir.resolve(id.substring(0, 2)).resolve(id.substring(2));
+  }
+
+  static Path locateGitDir(Path repoPath) throws IOException {
+    Path dotGit = repoPath.resolve(".git");
+    if (Files.isDirectory(dotGit)) {
+      return dotGit;
+    }
+    if (Files.isRegularFile(dotGit)) {
+      String content = Files.readString(dotGit, StandardCharsets.UTF_8).trim();
+      if (content.startsWith("gitdir:")) {
+        return repoPath.resolve(content.substring("gitdir:".length()).trim()).normalize();
+      }
+    }
+    if (Files.isRegularFile(repoPath.resolve("HEAD"))
+        && Files.isDirectory(repoPath.resolve("objects"))) {
+      return repoPath;
+    }
+    throw new IllegalStateException("Not a git repository: " + repoPath);
+  }
+
+  private static int indexOf(byte[] data, byte value, int from) {
+    for (int i = from; i < data.length; i++) {
+      if (data[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  record GitObject(int type, byte[] data) {}
+
+  private record LooseHeader(int type, long size) {}
+
+  private record TreeEntry(String mode, String name, String id) {
+    private boolean isTree() {
+      return "40000".equals(mode);
+    }
+
+    private boolean isGitlink() {
+      return GITLINK_MODE.equals(mode);
+    }
+  }
+
+  @FunctionalInterface
+  private interface TreeVisitor {
+    void visit(String path, TreeEntry entry);
+  }
+
+  private static final class ObjectCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, GitObject> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    private ObjectCache(long maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    private synchronized GitObject get(String key) {
+      return entries.get(key);
+    }
+
+    private synchronized void put(String key, GitObject object) {
+      long size = object.data().length;
+      if (size > maxBytes / 16) {
+        return;
+      }
+      GitObject previous = entries.put(key, object);
+      if (previous != null) {
+        bytes -= previous.data().length;
+      }
+      bytes += size;
+      var iterator = entries.values().iterator();
+      while (bytes > maxBytes && iterator.hasNext()) {
+        bytes -= iterator.next().data().length;
+        iterator.remove();
+      }
+    }
+  }
+}
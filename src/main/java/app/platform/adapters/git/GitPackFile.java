@@ -0,0 +1,404 @@
+package app.platform.adapters.git;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+final class GitPackFile {
+  static final int OBJ_COMMIT = 1;
+  static final int OBJ_TREE = 2;
+  static final int OBJ_BLOB = 3;
+  static final int OBJ_TAG = 4;
+  static final int OBJ_OFS_DELTA = 6;
+  static final int OBJ_REF_DELTA = 7;
+
+  private static final int ID_BYTES = 20;
+  private static final int IDX_V2_MAGIC = 0xff744f63;
+  private static final int IDX_HEADER_BYTES = 8 + 256 * 4;
+  private static final int INFLATE_INPUT_BYTES = 64 * 1024;
+  private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+
+  private final String name;
+  private final MappedFile idx;
+  private final MappedFile pack;
+  private final int objectCount;
+
+  GitPackFile(Path idxPath, Path packPath) throws IOException {
+    this.name = packPath.getFileName().toString();
+    this.idx = MappedFile.map(idxPath);
+    this.pack = MappedFile.map(packPath);
+    if (idx.getInt(0) != IDX_V2_MAGIC || idx.getInt(4) != 2) {
+      throw new IOException("Unsupported pack index version: " + idxPath);
+    }
+    if (pack.getInt(0) != 0x5041434b) {
+      throw new IOException("Not a pack file: " + packPath);
+    }
+    this.objectCount = idx.getInt(8 + 255 * 4);
+  }
+
+  String name() {
+    return name;
+  }
+
+  long findOffset(byte[] id) {
+    int first = id[0] & 0xff;
+    int low = first == 0 ? 0 : idx.getInt(8 + (first - 1) * 4);
+    int high = idx.getInt(8 + first * 4);
+    byte[] candidate = new byte[ID_BYTES];
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      idx.read(IDX_HEADER_BYTES + (long) mid * ID_BYTES, candidate, 0, ID_BYTES);
+      int cmp = Arrays.compareUnsigned(candidate, id);
+      if (cmp == 0) {
+        return offsetAt(mid);
+      }
+      if (cmp < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return -1;
+  }
+
+  GitObjectDatabase.GitObject read(long offset, GitObjectDatabase database) throws IOException {
+    Deque<Long> deltaOffsets = new ArrayDeque<>();
+    Deque<byte[]> deltas = new ArrayDeque<>();
+    GitObjectDatabase.GitObject base;
+    long current = offset;
+    while (true) {
+      GitObjectDatabase.GitObject cached = database.cachedPackObject(this, current);
+      if (cached != null) {
+        base = cached;
+        break;
+      }
+      EntryHeader header = header(current);
+      if (header.type() == OBJ_OFS_DELTA || header.type() == OBJ_REF_DELTA) {
+        deltaOffsets.push(current);
+        deltas.push(inflate(header.dataOffset(), header.size()));
+        if (header.type() == OBJ_OFS_DELTA) {
+          current = header.baseOffset();
+          continue;
+        }
+        base = database.readObject(header.baseId());
+        break;
+      }
+      base = new GitObjectDatabase.GitObject(header.type(), inflate(header.dataOffset(), header.size()));
+      database.cachePackObject(this, current, base);
+      break;
+    }
+
+    GitObjectDatabase.GitObject result = base;
+    while (!deltas.isEmpty()) {
+      result =
+          new GitObjectDatabase.GitObject(result.type(), applyDelta(result.data(), deltas.pop()));
+      database.cachePackObject(this, deltaOffsets.pop(), result);
+    }
+    return result;
+  }
+
+  long size(long offset) throws IOException {
+    EntryHeader header = header(offset);
+    if (header.type() != OBJ_OFS_DELTA && header.type() != OBJ_REF_DELTA) {
+      return header.size();
+    }
+    byte[] deltaHead = inflatePrefix(header.dataOffset(), 32);
+    int[] position = {0};
+    readVarint(deltaHead, position);
+    return readVarint(deltaHead, position);
+  }
+
+  int type(long offset, GitObjectDatabase database) throws IOException {
+    EntryHeader header = header(offset);
+    if (header.type() == OBJ_OFS_DELTA) {
+      return type(header.baseOffset(), database);
+    }
+    if (header.type() == OBJ_REF_DELTA) {
+      return database.readObject(header.baseId()).type();
+    }
+    return header.type();
+  }
+
+  InputStream openUndeltified(long offset, int expectedType) throws IOException {
+    EntryHeader header = header(offset);
+    if (header.type() != expectedType) {
+      return null;
+    }
+    Inflater inflater = new Inflater();
+    return new InflaterInputStream(pack.stream(header.dataOffset()), inflater, 8192) {
+      private boolean closed;
+
+      @Override
+      public void close() throws IOException {
+        if (!closed) {
+          closed = true;
+          inflater.end();
+          super.close();
+        }
+      }
+    };
+  }
+
+  private long offsetAt(int index) {
+    long offsetTable = IDX_HEADER_BYTES + (long) objectCount * (ID_BYTES + 4);
+    int offset32 = idx.getInt(offsetTable + (long) index * 4);
+    if (offset32 >= 0) {
+      return offset32;
+    }
+    long largeTable = offsetTable + (long) objectCount * 4;
+    return idx.getLong(largeTable + (long) (offset32 & 0x7fffffff) * 8);
+  }
+
+  private EntryHeader header(long offset) throws IOException {
+    long position = offset;
+    int c = pack.get(position++);
+    int type = (c >> 4) & 7;
+    long size = c & 0x0f;
+    int shift = 4;
+    while ((c & 0x80) != 0) {
+      c = pack.get(position++);
+      size |= (long) (c & 0x7f) << shift;
+      shift += 7;
+    }
+    if (size > Integer.MAX_VALUE - 8) {
+      throw new IOException("Object at " + offset + " in " + name + " is too large.");
+    }
+
+    if (type == OBJ_OFS_DELTA) {
+      c = pack.get(position++);
+      long distance = c & 0x7f;
+      while ((c & 0x80) != 0) {
+        c = pack.get(position++);
+        distance = ((distance + 1) << 7) | (c & 0x7f);
+      }
+      return new EntryHeader(type, (int) size, position, offset - distance, null);
+    }
+    if (type == OBJ_REF_DELTA) {
+      byte[] baseId = new byte[ID_BYTES];
+      pack.read(position, baseId, 0, ID_BYTES);
+      return new EntryHeader(
+          type, (int) size, position + ID_BYTES, -1, HexFormat.of().formatHex(baseId));
+    }
+    if (type < OBJ_COMMIT || type > OBJ_TAG) {
+      throw new IOException("Unknown object type " + type + " at " + offset + " in " + name);
+    }
+    return new EntryHeader(type, (int) size, position, -1, null);
+  }
+
+  private byte[] inflate(long position, int size) throws IOException {
+    byte[] output = new byte[size];
+    Inflater inflater = INFLATERS.get();
+    inflater.reset();
+    try {
+      int produced = 0;
+      long next = position;
+      while (produced < size) {
+        if (inflater.needsInput()) {
+          ByteBuffer input = pack.slice(next, INFLATE_INPUT_BYTES);
+          if (!input.hasRemaining()) {
+            throw new IOException("Unexpected end of pack " + name);
+          }
+          next += input.remaining();
+          inflater.setInput(input);
+        }
+        int inflated = inflater.inflate(output, produced, size - produced);
+        if (inflated == 0 && !inflater.needsInput()) {
+          throw new IOException("Corrupt object data at " + position + " in " + name);
+        }
+        produced += inflated;
+      }
+      return output;
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt object data at " + position + " in " + name, e);
+    }
+  }
+
+  private byte[] inflatePrefix(long position, int maxBytes) throws IOException {
+    byte[] output = new byte[maxBytes];
+    Inflater inflater = INFLATERS.get();
+    inflater.reset();
+    try {
+      inflater.setInput(pack.slice(position, INFLATE_INPUT_BYTES));
+      int produced = inflater.inflate(output);
+      return Arrays.copyOf(output, produced);
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt delta data at " + position + " in " + name, e);
+    }
+  }
+
+  static byte[] applyDelta(byte[] base, byte[] delta) throws IOException {
+    int[] position = {0};
+    long baseSize = readVarint(delta, position);
+    long resultSize = readVarint(delta, position);
+    if (baseSize != base.length || resultSize > Integer.MAX_VALUE - 8) {
+      throw new IOException("Delta does not match its base object.");
+    }
+
+    byte[] result = new byte[(int) resultSize];
+    int written = 0;
+    int p = position[0];
+    while (p < delta.length) {
+      int op = delta[p++] & 0xff;
+      if ((op & 0x80) != 0) {
+        long copyOffset = 0;
+        int copySize = 0;
+        if ((op & 0x01) != 0) copyOffset |= delta[p++] & 0xffL;
+        if ((op & 0x02) != 0) copyOffset |= (delta[p++] & 0xffL) << 8;
+        if ((op & 0x04) != 0) copyOffset |= (delta[p++] & 0xffL) << 16;
+        if ((op & 0x08) != 0) copyOffset |= (delta[p++] & 0xffL) << 24;
+        if ((op & 0x10) != 0) copySize |= delta[p++] & 0xff;
+        if ((op & 0x20) != 0) copySize |= (delta[p++] & 0xff) << 8;
+        if ((op & 0x40) != 0) copySize |= (delta[p++] & 0xff) << 16;
+        if (copySize == 0) {
+          copySize = 0x10000;
+        }
+        if (copyOffset + copySize > base.length || written + copySize > result.length) {
+          throw new IOException("Delta copy is out of range.");
+        }
+        System.arraycopy(base, (int) copyOffset, result, written, copySize);
+        written += copySize;
+      } else if (op != 0) {
+        if (p + op > delta.length || written + op > result.length) {
+          throw new IOException("Delta insert is out of range.");
+        }
+        System.arraycopy(delta, p, result, written, op);
+        p += op;
+        written += op;
+      } else {
+        throw new IOException("Invalid delta opcode.");
+      }
+    }
+    if (written != result.length) {
+      throw new IOException("Delta produced " + written + " of " + result.length + " bytes.");
+    }
+    return result;
+  }
+
+  private static long readVarint(byte[] data, int[] position) throws IOException {
+    long value = 0;
+    int shift = 0;
+    int c;
+    do {
+      if (position[0] >= data.length) {
+        throw new IOException("Truncated delta header.");
+      }
+      c = data[position[0]++] & 0xff;
+      value |= (long) (c & 0x7f) << shift;
+      shift += 7;
+    } while ((c & 0x80) != 0);
+    return value;
+  }
+
+  private record EntryHeader(
+      int type, int size, long dataOffset, long baseOffset, String baseId) {}
+
+  private static final class MappedFile {
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+
+    private final MappedByteBuffer[] segments;
+    private final long length;
+
+    private MappedFile(MappedByteBuffer[] segments, long length) {
+      this.segments = segments;
+      this.length = length;
+    }
+
+    private static MappedFile map(Path path) throws IOException {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        long length = channel.size();
+        int count = (int) ((length + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] segments = new MappedByteBuffer[Math.max(count, 1)];
+        for (int i = 0; i < count; i++) {
+          long start = (long) i << SEGMENT_SHIFT;
+          segments[i] =
+              channel.map(
+                  FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_BYTES, length - start));
+        }
+        if (count == 0) {
+          segments[0] = channel.map(FileChannel.MapMode.READ_ONLY, 0, 0);
+        }
+        return new MappedFile(segments, length);
+      }
+    }
+
+    private int get(long position) throws IOException {
+      if (position < 0 || position >= length) {
+        throw new IOException("Read past end of mapped file.");
+      }
+      return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & (SEGMENT_BYTES - 1)))
+          & 0xff;
+    }
+
+    private int getInt(long position) {
+      byte[] bytes = new byte[4];
+      read(position, bytes, 0, 4);
+      return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    private long getLong(long position) {
+      byte[] bytes = new byte[8];
+      read(position, bytes, 0, 8);
+      return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    private int read(long position, byte[] target, int offset, int count) {
+      int copied = 0;
+      while (copied < count && position + copied < length) {
+        long current = position + copied;
+        MappedByteBuffer segment = segments[(int) (current >>> SEGMENT_SHIFT)];
+        int segmentOffset = (int) (current & (SEGMENT_BYTES - 1));
+        int chunk = Math.min(count - copied, segment.limit() - segmentOffset);
+        segment.get(segmentOffset, target, offset + copied, chunk);
+        copied += chunk;
+      }
+      return copied;
+    }
+
+    private ByteBuffer slice(long position, int maxBytes) {
+      if (position >= length) {
+        return ByteBuffer.allocate(0);
+      }
+      MappedByteBuffer segment = segments[(int) (position >>> SEGMENT_SHIFT)];
+      int segmentOffset = (int) (position & (SEGMENT_BYTES - 1));
+      return segment.slice(segmentOffset, Math.min(maxBytes, segment.limit() - segmentOffset));
+    }
+
+    private InputStream stream(long start) {
+      return new InputStream() {
+        private long position = start;
+
+        @Override
+        public int read() {
+          if (position >= length) {
+            return -1;
+          }
+          byte[] single = new byte[1];
+          MappedFile.this.read(position++, single, 0, 1);
+          return single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) {
+          if (position >= length) {
+            return -1;
+          }
+          int read = MappedFile.this.read(position, buffer, offset, count);
+          position += read;
+          return read;
+        }
+      };
+    }
+  }
+}
@@ -1,29 +1,41 @@
 package app.platform.adapters.git;
 
 import app.core.git.GitDiffEntry;
+import app.core.git.GitFileStream;
 import app.core.git.GitPort;
+import app.core.git.GitTreeFile;
 import app.core.projectconfig.ProjectConfig;
 import app.core.projectconfig.ProjectConfigPort;
-import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import org.springframework.stereotype.Component;
+import java.util.function.Consumer;
 
-@Component
-public class LocalGitAdapter implements GitPort {
+public class LocalGitAdapter implements GitPort, AutoCloseable {
   private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+  private static final int DEFAULT_CAT_FILE_PROCESSES = 4;
 
   private final ProjectConfigPort projectConfigPort;
+  private final int catFileProcesses;
+  private GitCatFilePool catFilePool;
 
   public LocalGitAdapter(ProjectConfigPort projectConfigPort) {
+    this(projectConfigPort, DEFAULT_CAT_FILE_PROCESSES);
+  }
+
+  public LocalGitAdapter(ProjectConfigPort projectConfigPort, int catFileProcesses) {
     this.projectConfigPort = projectConfigPort;
+    this.catFileProcesses = catFileProcesses;
   }
 
   @Override
@@ -32,11 +44,42 @@ public class LocalGitAdapter implements GitPort {
     return runGitText(repoPath, DEFAULT_TIMEOUT, "rev-parse", "HEAD").trim();
   }
 
+  @Override
+  public String resolveCommit(String ref) {
+    if (ref == null || ref.isBlank()) {
+      throw new IllegalArgumentException("ref must be non-blank.");
+    }
+
+    Path repoPath = resolveLocalRepoPath();
+    return runGitText(repoPath, DEFAULT_TIMEOUT, "rev-parse", "--verify", ref.trim() + "^{commit}")
+        .trim();
+  }
+
   @Override
   public List<String> listTrackedFiles() {
+    return GitCommand.records(resolveLocalRepoPath(), DEFAULT_TIMEOUT, "ls-files", "-z");
+  }
+
+  @Override
+  public void forEachTrackedFile(Consumer<String> action) {
+    GitCommand.forEachRecord(resolveLocalRepoPath(), DEFAULT_TIMEOUT, action, "ls-files", "-z");
+  }
+
+  @Override
+  public String trackedFilesStamp() {
     Path repoPath = resolveLocalRepoPath();
-    String stdout = runGitText(repoPath, DEFAULT_TIMEOUT, "ls-files", "-z");
-    return parseNullSeparatedList(stdout);
+    try {
+      Path gitDir = GitObjectDatabase.locateGitDir(repoPath);
+      return repoPath.toAbsolutePath()
+          + "|"
+          + fileStamp(gitDir.resolve("index"))
+          + "|"
+          + fileStamp(gitDir.resolve("HEAD"))
+          + "|"
+          + Files.readString(gitDir.resolve("HEAD"), StandardCharsets.UTF_8).trim();
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
   }
 
   @Override
@@ -54,16 +97,62 @@ public class LocalGitAdapter implements GitPort {
     }
   }
 
+  @Override
+  public GitFileStream openWorkingTreeFile(String repoRelativePath) {
+    if (repoRelativePath == null || repoRelativePath.isBlank()) {
+      throw new IllegalArgumentException("repoRelativePath must be non-blank.");
+    }
+
+    Path filePath = resolveLocalRepoPath().resolve(repoRelativePath);
+    try {
+      return new GitFileStream(Files.size(filePath), Files.newInputStream(filePath));
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to open repo file: " + repoRelativePath, e);
+    }
+  }
+
   @Override
   public List<String> listTrackedFilesAtCommit(String commit) {
     if (commit == null || commit.isBlank()) {
       throw new IllegalArgumentException("commit must be non-blank.");
     }
 
-    Path repoPath = resolveLocalRepoPath();
-    String stdout =
-        runGitText(repoPath, DEFAULT_TIMEOUT, "ls-tree", "-r", "-z", "--name-only", commit.trim());
-    return parseNullSeparatedList(stdout);
+    return GitCommand.records(
+        resolveLocalRepoPath(), DEFAULT_TIMEOUT, "ls-tree", "-r", "-z", "--name-only", commit.trim());
+  }
+
+  @Override
+  public Map<String, Long> listFileSizesAtCommit(String commit) {
+    if (commit == null || commit.isBlank()) {
+      throw new IllegalArgumentException("commit must be non-blank.");
+    }
+
+    Map<String, Long> results = new LinkedHashMap<>();
+    forEachTrackedFileAtCommit(
+        commit,
+        file -> {
+          if (file.size() != null) {
+            results.put(file.path(), file.size());
+          }
+        });
+    return results;
+  }
+
+  @Override
+  public void forEachTrackedFileAtCommit(String commit, Consumer<GitTreeFile> action) {
+    if (commit == null || commit.isBlank()) {
+      throw new IllegalArgumentException("commit must be non-blank.");
+    }
+
+    GitCommand.forEachRecord(
+        resolveLocalRepoPath(),
+        DEFAULT_TIMEOUT,
+        record -> acceptTreeRecord(record, action),
+        "ls-tree",
+        "-r",
+        "-z",
+        "-l",
+        commit.trim());
   }
 
   @Override
@@ -75,8 +164,43 @@ public class LocalGitAdapter implements GitPort {
       throw new IllegalArgumentException("repoRelativePath must be non-blank.");
     }
 
+    try (GitFileStream opened = openFileAtCommit(commit, repoRelativePath)) {
+      return opened.content().readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public GitFileStream openFileAtCommit(String commit, String repoRelativePath) {
+    if (commit == null || commit.isBlank()) {
+      throw new IllegalArgumentException("commit must be non-blank.");
+    }
+    if (repoRelativePath == null || repoRelativePath.isBlank()) {
+      throw new IllegalArgumentException("repoRelativePath must be non-blank.");
+    }
+
     Path repoPath = resolveLocalRepoPath();
-    return runGitBytes(repoPath, DEFAULT_TIMEOUT, "show", commit.trim() + ":" + repoRelativePath);
+    String object = commit.trim() + ":" + repoRelativePath;
+    GitCatFilePool pool = catFilePool(repoPath);
+    if (pool != null && object.indexOf('\n') < 0) {
+      return pool.open(object);
+    }
+
+    long size =
+        Long.parseLong(runGitText(repoPath, DEFAULT_TIMEOUT, "cat-file", "-s", object).trim());
+
+    Process process;
+    try {
+      process =
+          new ProcessBuilder("git", "cat-file", "blob", object)
+              .directory(repoPath.toFile())
+              .redirectError(ProcessBuilder.Redirect.DISCARD)
+              .start();
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to start git process.", e);
+    }
+    return new GitFileStream(size, new ProcessInputStream(process));
   }
 
   @Override
@@ -89,8 +213,8 @@ public class LocalGitAdapter implements GitPort {
     }
 
     Path repoPath = resolveLocalRepoPath();
-    String stdout =
-        runGitText(
+    List<String> tokens =
+        GitCommand.records(
             repoPath,
             DEFAULT_TIMEOUT,
             "diff",
@@ -98,10 +222,29 @@ public class LocalGitAdapter implements GitPort {
             "-M",
             "-z",
             fromCommit.trim() + ".." + toCommit.trim());
-    return parseDiffNameStatus(stdout);
+    return parseDiffNameStatus(tokens);
   }
 
-  private Path resolveLocalRepoPath() {
+  @Override
+  public synchronized void close() {
+    if (catFilePool != null) {
+      catFilePool.close();
+      catFilePool = null;
+    }
+  }
+
+  private synchronized GitCatFilePool catFilePool(Path repoPath) {
+    if (catFileProcesses <= 0) {
+      return null;
+    }
+    if (catFilePool == null || !catFilePool.repoPath().equals(repoPath)) {
+      close();
+      catFilePool = new GitCatFilePool(repoPath, catFileProcesses, DEFAULT_TIMEOUT);
+    }
+    return catFilePool;
+  }
+
+  Path resolveLocalRepoPath() {
     ProjectConfig config =
         projectConfigPort
             .load()
@@ -118,42 +261,52 @@ public class LocalGitAdapter implements GitPort {
     return repoPath;
   }
 
-  private static List<String> parseNullSeparatedList(String stdout) {
-    if (stdout == null || stdout.isEmpty()) {
-      return List.of();
+  private static String fileStamp(Path path) throws IOException {
+    if (!Files.exists(path)) {
+      return "-";
     }
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+        + ":"
+        + attributes.size()
+        + ":"
+        + attributes.fileKey();
+  }
 
-    String[] entries = stdout.split("\u0000", -1);
-    List<String> results = new ArrayList<>(entries.length);
-    for (String entry : entries) {
-      if (entry != null && !entry.isBlank()) {
-        results.add(entry);
+  private static void acceptTreeRecord(String record, Consumer<GitTreeFile> action) {
+    int tab = record.indexOf('\t');
+    if (tab < 0) {
+      return;
+    }
+    String[] fields = record.substring(0, tab).trim().split("\\s+");
+    String blobId = null;
+    Long size = null;
+    if (fields.length >= 4 && "blob".equals(fields[1])) {
+      blobId = fields[2];
+      try {
+        size = Long.parseLong(fields[3]);
+      } catch (NumberFormatException ignored) {
       }
     }
-    return results;
+    action.accept(new GitTreeFile(record.substring(tab + 1), blobId, size));
   }
 
-  private static List<GitDiffEntry> parseDiffNameStatus(String stdout) {
-    if (stdout == null || stdout.isEmpty()) {
-      return List.of();
-    }
-
-    String[] tokens = stdout.split("\u0000", -1);
+  private static List<GitDiffEntry> parseDiffNameStatus(List<String> tokens) {
     List<GitDiffEntry> results = new ArrayList<>();
     int index = 0;
-    while (index < tokens.length) {
-      String status = tokens[index++];
+    while (index < tokens.size()) {
+      String status = tokens.get(index++);
       if (status == null || status.isBlank()) {
         continue;
       }
 
       char code = status.charAt(0);
       if (code == 'R') {
-        if (index + 1 >= tokens.length) {
+        if (index + 1 >= tokens.size()) {
           break;
         }
-        String fromPath = tokens[index++];
-        String toPath = tokens[index++];
+        String fromPath = tokens.get(index++);
+        String toPath = tokens.get(index++);
         if (fromPath != null && !fromPath.isBlank() && toPath != null && !toPath.isBlank()) {
           results.add(new GitDiffEntry(GitDiffEntry.Type.RENAMED, toPath, fromPath));
         }
@@ -161,21 +314,21 @@ public class LocalGitAdapter implements GitPort {
       }
 
       if (code == 'C') {
-        if (index + 1 >= tokens.length) {
+        if (index + 1 >= tokens.size()) {
           break;
         }
-        String fromPath = tokens[index++];
-        String toPath = tokens[index++];
+        String fromPath = tokens.get(index++);
+        String toPath = tokens.get(index++);
         if (toPath != null && !toPath.isBlank()) {
           results.add(new GitDiffEntry(GitDiffEntry.Type.ADDED, toPath, fromPath));
         }
         continue;
       }
 
-      if (index >= tokens.length) {
+      if (index >= tokens.size()) {
         break;
       }
-      String path = tokens[index++];
+      String path = tokens.get(index++);
       if (path == null || path.isBlank()) {
         continue;
       }
@@ -194,105 +347,23 @@ public class LocalGitAdapter implements GitPort {
   }
 
   private static String runGitText(Path repoPath, Duration timeout, String... args) {
-    GitOutput output = runGitRaw(repoPath, timeout, args);
-    return new String(output.stdout(), StandardCharsets.UTF_8);
+    return new String(GitCommand.readAll(repoPath, timeout, args), StandardCharsets.UTF_8);
   }
 
-  private static byte[] runGitBytes(Path repoPath, Duration timeout, String... args) {
-    GitOutput output = runGitRaw(repoPath, timeout, args);
-    return output.stdout();
-  }
+  private static final class ProcessInputStream extends FilterInputStream {
+    private final Process process;
 
-  private static GitOutput runGitRaw(Path repoPath, Duration timeout, String... args) {
-    List<String> command = new ArrayList<>();
-    command.add("git");
-    for (String arg : args) {
-      command.add(arg);
-    }
-
-    Process process;
-    try {
-      process = new ProcessBuilder(command).directory(repoPath.toFile()).start();
-    } catch (IOException e) {
-      throw new IllegalStateException("Failed to start git process.", e);
-    }
-
-    StreamReader stdoutReader = new StreamReader(process.getInputStream());
-    StreamReader stderrReader = new StreamReader(process.getErrorStream());
-
-    Thread stdoutThread = new Thread(stdoutReader, "git-stdout-reader");
-    Thread stderrThread = new Thread(stderrReader, "git-stderr-reader");
-    stdoutThread.setDaemon(true);
-    stderrThread.setDaemon(true);
-    stdoutThread.start();
-    stderrThread.start();
-
-    boolean finished;
-    try {
-      finished = process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new IllegalStateException("Interrupted while waiting for git.", e);
-    }
-
-    if (!finished) {
-      process.destroyForcibly();
-      throw new IllegalStateException("Timed out while running git in " + repoPath);
-    }
-
-    try {
-      stdoutThread.join();
-      stderrThread.join();
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new IllegalStateException("Interrupted while reading git output.", e);
-    }
-
-    stdoutReader.throwIfFailed();
-    stderrReader.throwIfFailed();
-
-    byte[] stdout = stdoutReader.bytes();
-    byte[] stderr = stderrReader.bytes();
-
-    if (process.exitValue() != 0) {
-      String stderrText = new String(stderr, StandardCharsets.UTF_8);
-      String message =
-          "git failed (exit=" + process.exitValue() + ") in " + repoPath + ": " + stderrText.trim();
-      throw new IllegalStateException(message);
-    }
-
-    return new GitOutput(stdout, stderr);
-  }
-
-  private record GitOutput(byte[] stdout, byte[] stderr) {}
-
-  private static final class StreamReader implements Runnable {
-    private final java.io.InputStream inputStream;
-    private volatile byte[] bytes;
-    private volatile RuntimeException failure;
-
-    private StreamReader(java.io.InputStream inputStream) {
-      this.inputStream = inputStream;
+    private ProcessInputStream(Process process) {
+      super(process.getInputStream());
+      this.process = process;
     }
 
     @Override
-    public void run() {
-      try (inputStream) {
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        inputStream.transferTo(output);
-        bytes = output.toByteArray();
-      } catch (IOException e) {
-        failure = new UncheckedIOException(e);
-      }
-    }
-
-    public byte[] bytes() {
-      return bytes == null ? new byte[0] : bytes;
-    }
-
-    public void throwIfFailed() {
-      if (failure != null) {
-        throw failure;
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        process.destroy();
       }
     }
   }
@@ -0,0 +1,148 @@
+package app.platform.adapters.git;
+
+import app.core.git.GitDiffEntry;
+import app.core.git.GitFileStream;
+import app.core.git.GitPort;
+import app.core.git.GitTreeFile;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class ObjectDatabaseGitAdapter implements GitPort, AutoCloseable {
+  private final LocalGitAdapter processAdapter;
+  private GitObjectDatabase database;
+
+  public ObjectDatabaseGitAdapter(LocalGitAdapter processAdapter) {
+    this.processAdapter = processAdapter;
+  }
+
+  @Override
+  public String getHeadCommit() {
+    GitObjectDatabase db = database();
+    String head = db.resolve("HEAD");
+    return head == null ? processAdapter.getHeadCommit() : db.peelToCommit(head);
+  }
+
+  @Override
+  public String resolveCommit(String ref) {
+    if (ref == null || ref.isBlank()) {
+      throw new IllegalArgumentException("ref must be non-blank.");
+    }
+
+    GitObjectDatabase db = database();
+    String id = db.resolve(ref);
+    return id == null ? processAdapter.resolveCommit(ref) : db.peelToCommit(id);
+  }
+
+  @Override
+  public List<String> listTrackedFiles() {
+    return processAdapter.listTrackedFiles();
+  }
+
+  @Override
+  public void forEachTrackedFile(Consumer<String> action) {
+    processAdapter.forEachTrackedFile(action);
+  }
+
+  @Override
+  public String trackedFilesStamp() {
+    return processAdapter.trackedFilesStamp();
+  }
+
+  @Override
+  public byte[] readWorkingTreeFile(String repoRelativePath) {
+    return processAdapter.readWorkingTreeFile(repoRelativePath);
+  }
+
+  @Override
+  public GitFileStream openWorkingTreeFile(String repoRelativePath) {
+    return processAdapter.openWorkingTreeFile(repoRelativePath);
+  }
+
+  @Override
+  public List<String> listTrackedFilesAtCommit(String commit) {
+    if (commit == null || commit.isBlank()) {
+      throw new IllegalArgumentException("commit must be non-blank.");
+    }
+
+    GitObjectDatabase db = database();
+    return db.listFiles(resolveTreeIsh(db, commit));
+  }
+
+  @Override
+  public Map<String, Long> listFileSizesAtCommit(String commit) {
+    if (commit == null || commit.isBlank()) {
+      throw new IllegalArgumentException("commit must be non-blank.");
+    }
+
+    Map<String, Long> sizes = new LinkedHashMap<>();
+    forEachTrackedFileAtCommit(
+        commit,
+        file -> {
+          if (file.size() != null) {
+            sizes.put(file.path(), file.size());
+          }
+        });
+    return sizes;
+  }
+
+  @Override
+  public void forEachTrackedFileAtCommit(String commit, Consumer<GitTreeFile> action) {
+    if (commit == null || commit.isBlank()) {
+      throw new IllegalArgumentException("commit must be non-blank.");
+    }
+
+    GitObjectDatabase db = database();
+    db.forEachFile(resolveTreeIsh(db, commit), action);
+  }
+
+  @Override
+  public byte[] readFileAtCommit(String commit, String repoRelativePath) {
+    try (GitFileStream opened = openFileAtCommit(commit, repoRelativePath)) {
+      return opened.content().readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public GitFileStream openFileAtCommit(String commit, String repoRelativePath) {
+    if (commit == null || commit.isBlank()) {
+      throw new IllegalArgumentException("commit must be non-blank.");
+    }
+    if (repoRelativePath == null || repoRelativePath.isBlank()) {
+      throw new IllegalArgumentException("repoRelativePath must be non-blank.");
+    }
+
+    GitObjectDatabase db = database();
+    return db.openFile(resolveTreeIsh(db, commit), repoRelativePath);
+  }
+
+  @Override
+  public List<GitDiffEntry> listChangedFiles(String fromCommit, String toCommit) {
+    return processAdapter.listChangedFiles(fromCommit, toCommit);
+  }
+
+  @Override
+  public synchronized void close() {
+    database = null;
+    processAdapter.close();
+  }
+
+  private String resolveTreeIsh(GitObjectDatabase db, String commit) {
+    String id = db.resolve(commit);
+    return id == null ? processAdapter.resolveCommit(commit) : id;
+  }
+
+  private synchronized GitObjectDatabase database() {
+    Path repoPath = processAdapter.resolveLocalRepoPath();
+    if (database == null || !database.repoPath().equals(repoPath)) {
+      database = GitObjectDatabase.open(repoPath);
+    }
+    return database;
+  }
+}
@@ -0,0 +1,173 @@
+package app.platform.adapters.indexing;
+
+import app.core.indexing.IndexCheckpoint;
+import app.core.indexing.IndexCheckpointPort;
+import app.core.indexing.IndexJobKind;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class FileIndexCheckpointAdapter implements IndexCheckpointPort {
+  private static final String JOB = "job";
+  private static final String UPLOAD = "upload";
+  private static final String DELETE = "delete";
+
+  private final ObjectMapper objectMapper;
+  private final Path journalFile;
+  private FileChannel channel;
+
+  public FileIndexCheckpointAdapter(ObjectMapper objectMapper, String journalPath) {
+    this.objectMapper = objectMapper;
+    this.journalFile = Path.of(journalPath);
+  }
+
+  @Override
+  public synchronized Optional<IndexCheckpoint> load() {
+    if (!Files.exists(journalFile)) {
+      return Optional.empty();
+    }
+
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(journalFile, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read index checkpoint from " + journalFile, e);
+    }
+
+    JournalEntry job = null;
+    Map<String, List<String>> uploadedPathToFileIds = new HashMap<>();
+    Map<String, String> uploadedPathToContentHash = new HashMap<>();
+    Set<String> deletedPaths = new HashSet<>();
+    for (String line : lines) {
+      if (line.isBlank()) {
+        continue;
+      }
+      JournalEntry entry;
+      try {
+        entry = objectMapper.readValue(line, JournalEntry.class);
+      } catch (IOException e) {
+        continue;
+      }
+      if (JOB.equals(entry.type())) {
+        job = entry;
+      } else if (UPLOAD.equals(entry.type()) && entry.path() != null && entry.fileIds() != null) {
+        uploadedPathToFileIds.put(entry.path(), entry.fileIds());
+        if (entry.contentHash() != null) {
+          uploadedPathToContentHash.put(entry.path(), entry.contentHash());
+        }
+      } else if (DELETE.equals(entry.type()) && entry.path() != null) {
+        deletedPaths.add(entry.path());
+      }
+    }
+
+    if (job == null || job.kind() == null) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new IndexCheckpoint(
+            job.kind(),
+            job.targetCommit(),
+            job.startedAt(),
+            uploadedPathToFileIds,
+            uploadedPathToContentHash,
+            deletedPaths));
+  }
+
+  @Override
+  public synchronized void begin(IndexJobKind kind, String targetCommit, Instant startedAt) {
+    closeChannel();
+    try {
+      Path parent = journalFile.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      channel =
+          FileChannel.open(
+              journalFile,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to open index checkpoint at " + journalFile, e);
+    }
+    append(new JournalEntry(JOB, kind, targetCommit, startedAt, null, null, null));
+  }
+
+  @Override
+  public synchronized void recordUpload(String path, List<String> fileIds, String contentHash) {
+    append(new JournalEntry(UPLOAD, null, null, null, path, fileIds, contentHash));
+  }
+
+  @Override
+  public synchronized void recordDelete(String path) {
+    append(new JournalEntry(DELETE, null, null, null, path, null, null));
+  }
+
+  @Override
+  public synchronized void clear() {
+    closeChannel();
+    try {
+      Files.deleteIfExists(journalFile);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to delete index checkpoint at " + journalFile, e);
+    }
+  }
+
+  private void append(JournalEntry entry) {
+    try {
+      if (channel == null) {
+        channel =
+            FileChannel.open(
+                journalFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+      }
+      ByteBuffer line =
+          ByteBuffer.wrap(
+              (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+      while (line.hasRemaining()) {
+        channel.write(line);
+      }
+      channel.force(false);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to write index checkpoint to " + journalFile, e);
+    }
+  }
+
+  private void closeChannel() {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+    } finally {
+      channel = null;
+    }
+  }
+
+  @JsonInclude(Include.NON_NULL)
+  record JournalEntry(
+      String type,
+      IndexJobKind kind,
+      String targetCommit,
+      Instant startedAt,
+      String path,
+      List<String> fileIds,
+      String contentHash) {}
+}
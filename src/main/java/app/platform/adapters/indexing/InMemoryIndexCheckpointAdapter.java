@@ -0,0 +1,71 @@
+package app.platform.adapters.indexing;
+
+import app.core.indexing.IndexCheckpoint;
+import app.core.indexing.IndexCheckpointPort;
+import app.core.indexing.IndexJobKind;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile({"test", "e2etest"})
+public class InMemoryIndexCheckpointAdapter implements IndexCheckpointPort {
+  private final Map<String, List<String>> uploadedPathToFileIds = new HashMap<>();
+  private final Map<String, String> uploadedPathToContentHash = new HashMap<>();
+  private final Set<String> deletedPaths = new HashSet<>();
+  private IndexJobKind kind;
+  private String targetCommit;
+  private Instant startedAt;
+
+  @Override
+  public synchronized Optional<IndexCheckpoint> load() {
+    if (kind == null) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new IndexCheckpoint(
+            kind,
+            targetCommit,
+            startedAt,
+            uploadedPathToFileIds,
+            uploadedPathToContentHash,
+            deletedPaths));
+  }
+
+  @Override
+  public synchronized void begin(IndexJobKind kind, String targetCommit, Instant startedAt) {
+    clear();
+    this.kind = kind;
+    this.targetCommit = targetCommit;
+    this.startedAt = startedAt;
+  }
+
+  @Override
+  public synchronized void recordUpload(String path, List<String> fileIds, String contentHash) {
+    uploadedPathToFileIds.put(path, List.copyOf(fileIds));
+    if (contentHash != null) {
+      uploadedPathToContentHash.put(path, contentHash);
+    }
+  }
+
+  @Override
+  public synchronized void recordDelete(String path) {
+    deletedPaths.add(path);
+  }
+
+  @Override
+  public synchronized void clear() {
+    uploadedPathToFileIds.clear();
+    uploadedPathToContentHash.clear();
+    deletedPaths.clear();
+    kind = null;
+    targetCommit = null;
+    startedAt = null;
+  }
+}
@@ -0,0 +1,76 @@
+package app.platform.adapters.indexing;
+
+import app.core.indexing.IndexJobKind;
+import app.core.indexing.IndexJobMetrics;
+import app.core.indexing.IndexJobStatus;
+import app.core.indexing.IndexMetricsPort;
+import app.core.indexing.IndexPhase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MicrometerIndexMetricsAdapter implements IndexMetricsPort {
+  private final MeterRegistry meterRegistry;
+  private final String project;
+  private final AtomicReference<IndexJobMetrics> lastJob = new AtomicReference<>();
+
+  public MicrometerIndexMetricsAdapter(MeterRegistry meterRegistry, String project) {
+    this.meterRegistry = meterRegistry;
+    this.project = project;
+    Gauge.builder(
+            "codeassistant.indexing.throughput.files",
+            lastJob,
+            job -> job.get() == null ? 0 : job.get().filesPerSecond())
+        .description("Files read per second by the last finished indexing job.")
+        .tag("project", project)
+        .register(meterRegistry);
+    Gauge.builder(
+            "codeassistant.indexing.throughput.bytes",
+            lastJob,
+            job -> job.get() == null ? 0 : job.get().bytesPerSecond())
+        .description("Bytes read per second by the last finished indexing job.")
+        .tag("project", project)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void recordPhase(IndexPhase phase, Duration duration, long files, long bytes) {
+    Timer.builder("codeassistant.indexing.phase.duration")
+        .description("Time spent in an indexing phase, summed across workers.")
+        .tag("project", project)
+        .tag("phase", phase.key())
+        .register(meterRegistry)
+        .record(duration);
+    Counter.builder("codeassistant.indexing.phase.files")
+        .tag("project", project)
+        .tag("phase", phase.key())
+        .register(meterRegistry)
+        .increment(files);
+    Counter.builder("codeassistant.indexing.phase.bytes")
+        .baseUnit("bytes")
+        .tag("project", project)
+        .tag("phase", phase.key())
+        .register(meterRegistry)
+        .increment(bytes);
+  }
+
+  @Override
+  public void recordJob(IndexJobKind kind, IndexJobStatus status, IndexJobMetrics metrics) {
+    if (metrics == null) {
+      return;
+    }
+    Timer.builder("codeassistant.indexing.job.duration")
+        .tag("project", project)
+        .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+        .tag("status", status.name().toLowerCase(Locale.ROOT))
+        .register(meterRegistry)
+        .record(Duration.ofMillis(metrics.durationMillis()));
+    if (status == IndexJobStatus.SUCCESS) {
+      lastJob.set(metrics);
+    }
+  }
+}
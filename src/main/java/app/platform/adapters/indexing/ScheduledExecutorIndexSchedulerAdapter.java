@@ -0,0 +1,38 @@
+package app.platform.adapters.indexing;
+
+import app.core.indexing.IndexSchedulerPort;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ScheduledExecutorIndexSchedulerAdapter implements IndexSchedulerPort, AutoCloseable {
+  private final ScheduledExecutorService scheduler;
+
+  public ScheduledExecutorIndexSchedulerAdapter(String threadName) {
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, threadName);
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @Override
+  public void schedule(Runnable task, Duration delay) {
+    try {
+      scheduler.schedule(task, delay.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      if (!scheduler.isShutdown()) {
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
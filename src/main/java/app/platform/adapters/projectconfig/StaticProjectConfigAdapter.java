@@ -0,0 +1,26 @@
+package app.platform.adapters.projectconfig;
+
+import app.core.projectconfig.ProjectConfig;
+import app.core.projectconfig.ProjectConfigPort;
+import java.util.Optional;
+
+public class StaticProjectConfigAdapter implements ProjectConfigPort {
+  private final String projectKey;
+  private final ProjectConfig config;
+
+  public StaticProjectConfigAdapter(String projectKey, ProjectConfig config) {
+    this.projectKey = projectKey;
+    this.config = config;
+  }
+
+  @Override
+  public Optional<ProjectConfig> load() {
+    return Optional.ofNullable(config);
+  }
+
+  @Override
+  public void save(ProjectConfig config) {
+    throw new IllegalStateException(
+        "Project " + projectKey + " is configured through application properties.");
+  }
+}
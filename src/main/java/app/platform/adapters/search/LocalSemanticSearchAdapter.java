@@ -10,6 +10,7 @@ import app.core.vectorstore.VectorStorePort;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -49,7 +50,7 @@ public class LocalSemanticSearchAdapter implements SemanticSearchPort {
       return new SemanticSearchResponse(query, List.of(), null);
     }
 
-    List<ScoredDoc> scored = new ArrayList<>();
+    Map<String, ScoredDoc> bestByPath = new HashMap<>();
     for (VectorStoreFileSummary summary : vectorStorePort.listFiles()) {        
       Map<String, String> attributes = summary.attributes();
       String path = attributes.get("path");
@@ -74,17 +75,32 @@ public class LocalSemanticSearchAdapter implements SemanticSearchPort {
       double score = cosine(queryVector, queryNorm, docVector);
       if (score <= 0) continue;
 
+      ScoredDoc best = bestByPath.get(path);
+      if (best != null && best.score() >= score) continue;
+
       String preview = buildPreview(content, queryTokens);
-      scored.add(new ScoredDoc(path, score, preview));
+      bestByPath.put(
+          path,
+          new ScoredDoc(
+              path,
+              score,
+              preview,
+              parseLine(attributes.get("startLine")),
+              parseLine(attributes.get("endLine"))));
     }
 
+    List<ScoredDoc> scored = new ArrayList<>(bestByPath.values());
+
     scored.sort(
         Comparator.comparingDouble(ScoredDoc::score).reversed().thenComparing(ScoredDoc::path));
 
     List<SemanticSearchResult> results =
         scored.stream()
             .limit(effectiveK)
-            .map(d -> new SemanticSearchResult(d.path(), d.score(), d.preview()))
+            .map(
+                d ->
+                    new SemanticSearchResult(
+                        d.path(), d.score(), d.preview(), d.startLine(), d.endLine()))
             .toList();
 
     return new SemanticSearchResponse(query, results, null);
@@ -108,6 +124,15 @@ public class LocalSemanticSearchAdapter implements SemanticSearchPort {
     return true;
   }
 
+  private static Integer parseLine(String value) {
+    if (value == null || value.isBlank()) return null;
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
   private static int normalizeK(int k) {
     if (k <= 0) return 10;
     return Math.min(k, MAX_K);
@@ -226,5 +251,6 @@ public class LocalSemanticSearchAdapter implements SemanticSearchPort {
     return out.toString();
   }
 
-  private record ScoredDoc(String path, double score, String preview) {}
+  private record ScoredDoc(
+      String path, double score, String preview, Integer startLine, Integer endLine) {}
 }
@@ -123,7 +123,9 @@ public class OpenAIResponsesSemanticSearchAdapter implements SemanticSearchPort
       if (!Double.isFinite(score)) continue;
 
       String preview = sanitizePreview(result.preview());
-      sanitized.add(new SemanticSearchResult(safePath, score, preview));
+      sanitized.add(
+          new SemanticSearchResult(
+              safePath, score, preview, result.startLine(), result.endLine()));
       if (sanitized.size() >= k) break;
     }
     return sanitized.isEmpty() ? List.of() : List.copyOf(sanitized);
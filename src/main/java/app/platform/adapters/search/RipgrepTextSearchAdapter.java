@@ -1,6 +1,7 @@
 package app.platform.adapters.search;
 
 import app.core.git.GitPort;
+import app.core.git.TrackedFilesService;
 import app.core.projectconfig.ProjectConfig;
 import app.core.projectconfig.ProjectConfigPort;
 import app.core.search.InvalidRegexException;
@@ -37,15 +38,18 @@ public class RipgrepTextSearchAdapter implements TextSearchPort {
 
   private final ProjectConfigPort projectConfigPort;
   private final GitPort gitPort;
+  private final TrackedFilesService trackedFilesService;
   private final boolean forceJavaFallback;
   private final AtomicReference<Boolean> rgAvailable = new AtomicReference<>();
 
   public RipgrepTextSearchAdapter(
       ProjectConfigPort projectConfigPort,
       GitPort gitPort,
+      TrackedFilesService trackedFilesService,
       @Value("${codeassistant.textsearch.forceJavaFallback:false}") boolean forceJavaFallback) {
     this.projectConfigPort = projectConfigPort;
     this.gitPort = gitPort;
+    this.trackedFilesService = trackedFilesService;
     this.forceJavaFallback = forceJavaFallback;
   }
 
@@ -59,7 +63,7 @@ public class RipgrepTextSearchAdapter implements TextSearchPort {
       validateRegexOrThrow(query);
     }
 
-    List<String> trackedFiles = gitPort.listTrackedFiles();
+    List<String> trackedFiles = trackedFilesService.snapshot().paths();
     if (trackedFiles.isEmpty()) {
       return new TextSearchResponse(query, List.of(), null);
     }
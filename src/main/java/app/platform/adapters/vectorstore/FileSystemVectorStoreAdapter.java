@@ -5,90 +5,199 @@ import app.core.vectorstore.VectorStoreFileSummary;
 import app.core.vectorstore.VectorStorePort;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 public class FileSystemVectorStoreAdapter implements VectorStorePort {
   private static final TypeReference<Map<String, String>> STRING_MAP =
       new TypeReference<>() {};
+  private static final String DOC_SUFFIX = ".doc.json";
+  private static final String DOC_TEMP_SUFFIX = ".doc.tmp";
+  private static final String ATTRS_SUFFIX = ".attrs.json";
+  private static final String BLOBS_DIR = "blobs";
+  private static final String DEFLATE_SUFFIX = ".deflate";
+  private static final int DOCUMENT_LOCK_STRIPES = 64;
 
   private final ObjectMapper objectMapper;
   private final Path root;
+  private final Path blobsRoot;
+  private final boolean compress;
+  private final long compressionMinBytes;
+  private final Object blobLock = new Object();
+  private final Object[] documentLocks = new Object[DOCUMENT_LOCK_STRIPES];
+  private final Map<String, Integer> blobReferences = new HashMap<>();
+  private volatile VectorStoreManifest<ManifestEntry> manifest;
 
   public FileSystemVectorStoreAdapter(
       ObjectMapper objectMapper,
       String rootPath) {
+    this(objectMapper, rootPath, false, 0);
+  }
+
+  public FileSystemVectorStoreAdapter(
+      ObjectMapper objectMapper, String rootPath, boolean compress, long compressionMinBytes) {
+    if (compressionMinBytes < 0) {
+      throw new IllegalArgumentException("compressionMinBytes must be >= 0");
+    }
     this.objectMapper = objectMapper;
     this.root = Path.of(rootPath);
+    this.blobsRoot = root.resolve(BLOBS_DIR);
+    this.compress = compress;
+    this.compressionMinBytes = compressionMinBytes;
+    for (int i = 0; i < documentLocks.length; i++) {
+      documentLocks[i] = new Object();
+    }
   }
 
   @Override
   public Optional<String> findByAttributes(Map<String, String> requiredAttributes) {
-    if (!Files.exists(root)) {
-      return Optional.empty();
-    }
+    return manifest().find(requiredAttributes);
+  }
 
-    try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, "*.attrs.json")) {
-      for (Path attrsPath : stream) {
-        Map<String, String> attributes = readAttributes(attrsPath);
-        if (matchesRequired(attributes, requiredAttributes)) {
-          String attrsFileName = attrsPath.getFileName().toString();
-          String fileId = attrsFileName.substring(0, attrsFileName.length() - ".attrs.json".length());
-          return Optional.of(fileId);
+  @Override
+  public String createFile(String fileId, byte[] content, Map<String, String> attributes) {
+    validateFileId(fileId);
+    VectorStoreManifest<ManifestEntry> files = manifest();
+
+    String hash = HexFormat.of().formatHex(newDigest().digest(content));
+    String blob = knownBlob(hash);
+    try {
+      byte[] compressed = null;
+      if (blob == null) {
+        compressed = shouldCompress(content.length) ? deflate(content) : null;
+        if (compressed != null && !worthCompressing(compressed.length, content.length)) {
+          compressed = null;
         }
+        blob = compressed == null ? hash : hash + DEFLATE_SUFFIX;
       }
-      return Optional.empty();
+
+      boolean deflated = blob.endsWith(DEFLATE_SUFFIX);
+      byte[] precompressed = compressed;
+      acquireBlob(blob, () -> {
+        Path tmpBlob = newBlobTempFile();
+        Files.write(
+            tmpBlob,
+            !deflated ? content : precompressed != null ? precompressed : deflate(content));
+        return tmpBlob;
+      });
     } catch (IOException e) {
-      throw new IllegalStateException("Failed to search vector store at " + root, e);
+      throw new IllegalStateException(
+          "Failed to write vector store file " + fileId + " to " + root, e);
     }
+    return putDocument(files, fileId, blob, content.length, attributes);
   }
 
   @Override
-  public String createFile(String fileId, byte[] content, Map<String, String> attributes) {
+  public String createFile(
+      String fileId, InputStream content, long length, Map<String, String> attributes) {
     validateFileId(fileId);
+    VectorStoreManifest<ManifestEntry> files = manifest();
 
+    String blob;
+    long sizeBytes;
+    Path tmpBlob = null;
+    Path tmpCompressed = null;
     try {
-      Files.createDirectories(root);
-
-      Path contentPath = root.resolve(fileId);
-      Path attrsPath = root.resolve(fileId + ".attrs.json");
+      tmpBlob = newBlobTempFile();
+      MessageDigest digest = newDigest();
+      sizeBytes =
+          Files.copy(
+              new DigestInputStream(content, digest), tmpBlob, StandardCopyOption.REPLACE_EXISTING);
+      String hash = HexFormat.of().formatHex(digest.digest());
+      blob = knownBlob(hash);
+      if (blob == null) {
+        if (shouldCompress(sizeBytes)) {
+          tmpCompressed = deflate(tmpBlob);
+          if (!worthCompressing(Files.size(tmpCompressed), sizeBytes)) {
+            Files.deleteIfExists(tmpCompressed);
+            tmpCompressed = null;
+          }
+        }
+        blob = tmpCompressed == null ? hash : hash + DEFLATE_SUFFIX;
+      }
 
-      Path tmpContent = Files.createTempFile(root, fileId.replace('.', '_'), ".tmp");
-      Files.write(tmpContent, content);
-      Files.move(tmpContent, contentPath, StandardCopyOption.REPLACE_EXISTING);
+      Path raw = tmpBlob;
+      Path precompressed = tmpCompressed;
+      boolean deflated = blob.endsWith(DEFLATE_SUFFIX);
+      acquireBlob(
+          blob, () -> !deflated ? raw : precompressed != null ? precompressed : deflate(raw));
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to write vector store file " + fileId + " to " + root, e);
+    } finally {
+      deleteTempQuietly(tmpBlob);
+      deleteTempQuietly(tmpCompressed);
+    }
+    return putDocument(files, fileId, blob, sizeBytes, attributes);
+  }
 
-      Path tmpAttrs = Files.createTempFile(root, fileId.replace('.', '_'), ".attrs.tmp");
-      Files.writeString(tmpAttrs, objectMapper.writeValueAsString(attributes));
-      Files.move(tmpAttrs, attrsPath, StandardCopyOption.REPLACE_EXISTING);
+  @Override
+  public String copyFile(String sourceFileId, String fileId, Map<String, String> attributes) {
+    validateFileId(sourceFileId);
+    validateFileId(fileId);
+    VectorStoreManifest<ManifestEntry> files = manifest();
 
-      return fileId;
+    ManifestEntry source = files.get(sourceFileId);
+    if (source == null || source.blob() == null) {
+      return VectorStorePort.super.copyFile(sourceFileId, fileId, attributes);
+    }
+    Map<String, String> merged = new HashMap<>(source.attributes());
+    merged.putAll(attributes);
+    try {
+      acquireBlob(
+          source.blob(),
+          () -> {
+            throw new NoSuchFileException(blobPath(source.blob()).toString());
+          });
     } catch (IOException e) {
-      throw new IllegalStateException("Failed to write vector store file " + fileId + " to " + root, e);
+      throw new IllegalStateException(
+          "Failed to copy vector store file " + sourceFileId + " to " + fileId, e);
     }
+    return putDocument(files, fileId, source.blob(), source.sizeBytes(), merged);
   }
 
   @Override
   public VectorStoreFile readFile(String fileId) {
     validateFileId(fileId);
 
-    Path contentPath = root.resolve(fileId);
-    Path attrsPath = root.resolve(fileId + ".attrs.json");
-    if (!Files.exists(contentPath) || !Files.exists(attrsPath)) {
+    ManifestEntry entry = manifest().get(fileId);
+    if (entry == null) {
       throw new IllegalStateException("Vector store file not found: " + fileId);
     }
 
+    Path contentPath = entry.blob() == null ? root.resolve(fileId) : blobPath(entry.blob());
     try {
-      byte[] content = Files.readAllBytes(contentPath);
-      Map<String, String> attributes = readAttributes(attrsPath);
-      return new VectorStoreFile(fileId, content, attributes);
+      byte[] content;
+      if (entry.blob() != null && entry.blob().endsWith(DEFLATE_SUFFIX)) {
+        try (InputStream in = new InflaterInputStream(Files.newInputStream(contentPath))) {
+          content = in.readAllBytes();
+        }
+      } else {
+        content = Files.readAllBytes(contentPath);
+      }
+      return new VectorStoreFile(fileId, content, entry.attributes());
+    } catch (NoSuchFileException e) {
+      throw new IllegalStateException("Vector store file not found: " + fileId, e);
     } catch (IOException e) {
       throw new IllegalStateException("Failed to read vector store file " + fileId + " from " + root, e);
     }
@@ -96,65 +205,332 @@ public class FileSystemVectorStoreAdapter implements VectorStorePort {
 
   @Override
   public List<VectorStoreFileSummary> listFiles() {
-    if (!Files.exists(root)) {
-      return List.of();
+    List<VectorStoreFileSummary> results = new ArrayList<>();
+    manifest().forEach((fileId, entry) -> results.add(summary(fileId, entry)));
+    results.sort(Comparator.comparing(VectorStoreFileSummary::fileId));
+    return results;
+  }
+
+  @Override
+  public Optional<VectorStoreFileSummary> findFile(String fileId) {
+    validateFileId(fileId);
+
+    return Optional.ofNullable(manifest().get(fileId)).map(entry -> summary(fileId, entry));
+  }
+
+  @Override
+  public void deleteFile(String fileId) {
+    validateFileId(fileId);
+    removeDocument(manifest(), fileId);
+  }
+
+  @Override
+  public void deleteFiles(Collection<String> fileIds) {
+    fileIds.forEach(FileSystemVectorStoreAdapter::validateFileId);
+    if (fileIds.isEmpty() || !Files.exists(root)) {
+      return;
     }
 
-    List<VectorStoreFileSummary> results = new ArrayList<>();
-    try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, "*.attrs.json")) {
-      for (Path attrsPath : stream) {
-        String attrsFileName = attrsPath.getFileName().toString();
-        String fileId = attrsFileName.substring(0, attrsFileName.length() - ".attrs.json".length());
-        validateFileId(fileId);
+    VectorStoreManifest<ManifestEntry> files = manifest();
+    for (String fileId : fileIds) {
+      removeDocument(files, fileId);
+    }
+  }
 
-        Path contentPath = root.resolve(fileId);
-        if (!Files.exists(contentPath)) {
-          continue;
+  private String putDocument(
+      VectorStoreManifest<ManifestEntry> files,
+      String fileId,
+      String blob,
+      long sizeBytes,
+      Map<String, String> attributes) {
+    ManifestEntry entry =
+        new ManifestEntry(VectorStoreManifest.copyOf(attributes), sizeBytes, blob);
+    ManifestEntry previous;
+    synchronized (documentLock(fileId)) {
+      if (entry.equals(files.get(fileId))) {
+        releaseBlob(blob);
+        return fileId;
+      }
+
+      Path tmpDoc = null;
+      try {
+        tmpDoc = Files.createTempFile(root, fileId.replace('.', '_'), DOC_TEMP_SUFFIX);
+        Files.write(
+            tmpDoc,
+            objectMapper.writeValueAsBytes(
+                new StoredDocument(blob, sizeBytes, entry.attributes())));
+        Files.move(
+            tmpDoc, root.resolve(fileId + DOC_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        tmpDoc = null;
+        Files.deleteIfExists(root.resolve(fileId));
+        Files.deleteIfExists(root.resolve(fileId + ATTRS_SUFFIX));
+      } catch (IOException e) {
+        deleteTempQuietly(tmpDoc);
+        releaseBlob(blob);
+        throw new IllegalStateException(
+            "Failed to write vector store file " + fileId + " to " + root, e);
+      }
+      previous = files.put(fileId, entry);
+    }
+
+    if (previous != null) {
+      releaseBlob(previous.blob());
+    }
+    return fileId;
+  }
+
+  private void removeDocument(VectorStoreManifest<ManifestEntry> files, String fileId) {
+    ManifestEntry previous;
+    synchronized (documentLock(fileId)) {
+      try {
+        Files.deleteIfExists(root.resolve(fileId + DOC_SUFFIX));
+        Files.deleteIfExists(root.resolve(fileId));
+        Files.deleteIfExists(root.resolve(fileId + ATTRS_SUFFIX));
+      } catch (IOException e) {
+        throw new IllegalStateException(
+            "Failed to delete vector store file " + fileId + " from " + root, e);
+      }
+      previous = files.remove(fileId);
+    }
+    if (previous != null) {
+      releaseBlob(previous.blob());
+    }
+  }
+
+  private Object documentLock(String fileId) {
+    return documentLocks[Math.floorMod(fileId.hashCode(), documentLocks.length)];
+  }
+
+  private void acquireBlob(String blob, BlobSource source) throws IOException {
+    Path tmpBlob = null;
+    try {
+      boolean known;
+      synchronized (blobLock) {
+        known = blobReferences.containsKey(blob);
+      }
+      if (!known) {
+        tmpBlob = source.write();
+      }
+      synchronized (blobLock) {
+        if (!blobReferences.containsKey(blob)) {
+          if (tmpBlob == null) {
+            tmpBlob = source.write();
+          }
+          Path blobPath = blobPath(blob);
+          Files.createDirectories(blobPath.getParent());
+          Files.move(tmpBlob, blobPath, StandardCopyOption.REPLACE_EXISTING);
+          tmpBlob = null;
         }
+        blobReferences.merge(blob, 1, Integer::sum);
+      }
+    } finally {
+      if (tmpBlob != null) {
+        Files.deleteIfExists(tmpBlob);
+      }
+    }
+  }
 
-        Map<String, String> attributes = readAttributes(attrsPath);
-        long sizeBytes = Files.size(contentPath);
-        results.add(new VectorStoreFileSummary(fileId, sizeBytes, attributes, "ready"));
+  private void releaseBlob(String blob) {
+    if (blob == null) {
+      return;
+    }
+    synchronized (blobLock) {
+      Integer remaining = blobReferences.merge(blob, -1, (a, b) -> a + b == 0 ? null : a + b);
+      if (remaining != null) {
+        return;
+      }
+      try {
+        Files.deleteIfExists(blobPath(blob));
+      } catch (IOException ignored) {
+        // Unreferenced blobs are swept on the next load.
       }
-    } catch (IOException e) {
-      throw new IllegalStateException("Failed to list vector store files at " + root, e);
     }
+  }
 
-    results.sort(Comparator.comparing(VectorStoreFileSummary::fileId));
-    return results;
+  private String knownBlob(String hash) {
+    synchronized (blobLock) {
+      if (blobReferences.containsKey(hash + DEFLATE_SUFFIX)) {
+        return hash + DEFLATE_SUFFIX;
+      }
+      return blobReferences.containsKey(hash) ? hash : null;
+    }
   }
 
-  @Override
-  public void deleteFile(String fileId) {
-    validateFileId(fileId);
+  private boolean shouldCompress(long sizeBytes) {
+    return compress && sizeBytes > 0 && sizeBytes >= compressionMinBytes;
+  }
 
-    Path contentPath = root.resolve(fileId);
-    Path attrsPath = root.resolve(fileId + ".attrs.json");
+  private static boolean worthCompressing(long compressedBytes, long sizeBytes) {
+    return compressedBytes <= sizeBytes - sizeBytes / 8;
+  }
+
+  private static byte[] deflate(byte[] content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 2 + 64);
+    Deflater deflater = new Deflater();
+    try (OutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+      out.write(content);
+    } finally {
+      deflater.end();
+    }
+    return bytes.toByteArray();
+  }
+
+  private Path deflate(Path source) throws IOException {
+    Path target = newBlobTempFile();
+    Deflater deflater = new Deflater();
+    try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(target), deflater)) {
+      Files.copy(source, out);
+    } finally {
+      deflater.end();
+    }
+    return target;
+  }
+
+  private static void deleteTempQuietly(Path path) {
+    if (path == null) {
+      return;
+    }
     try {
-      Files.deleteIfExists(contentPath);
-      Files.deleteIfExists(attrsPath);
-    } catch (IOException e) {
-      throw new IllegalStateException("Failed to delete vector store file " + fileId + " from " + root, e);
+      Files.deleteIfExists(path);
+    } catch (IOException ignored) {
+      // Leftover temp files are swept on the next load.
     }
   }
 
-  private Map<String, String> readAttributes(Path attrsPath) throws IOException {
-    return objectMapper.readValue(Files.readAllBytes(attrsPath), STRING_MAP);
+  private Path newBlobTempFile() throws IOException {
+    Files.createDirectories(blobsRoot);
+    return Files.createTempFile(blobsRoot, "blob", ".tmp");
+  }
+
+  private Path blobPath(String blob) {
+    return blobsRoot.resolve(blob.substring(0, 2)).resolve(blob);
   }
 
-  private static boolean matchesRequired(
-      Map<String, String> attributes, Map<String, String> requiredAttributes) {
-    for (Map.Entry<String, String> entry : requiredAttributes.entrySet()) {
-      if (!entry.getValue().equals(attributes.get(entry.getKey()))) {
-        return false;
+  private VectorStoreManifest<ManifestEntry> manifest() {
+    VectorStoreManifest<ManifestEntry> loaded = manifest;
+    if (loaded == null) {
+      synchronized (this) {
+        loaded = manifest;
+        if (loaded == null) {
+          loaded = loadManifest();
+          manifest = loaded;
+        }
       }
     }
-    return true;
+    return loaded;
+  }
+
+  private VectorStoreManifest<ManifestEntry> loadManifest() {
+    VectorStoreManifest<ManifestEntry> loaded =
+        new VectorStoreManifest<>(ManifestEntry::attributes);
+    if (!Files.exists(root)) {
+      return loaded;
+    }
+
+    List<String> legacyFileIds = new ArrayList<>();
+    List<Path> staleTempDocs = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+      for (Path path : stream) {
+        String fileName = path.getFileName().toString();
+        if (fileName.endsWith(DOC_SUFFIX)) {
+          String fileId = fileName.substring(0, fileName.length() - DOC_SUFFIX.length());
+          if (isValidFileId(fileId)) {
+            StoredDocument document =
+                objectMapper.readValue(Files.readAllBytes(path), StoredDocument.class);
+            loaded.put(
+                fileId,
+                new ManifestEntry(
+                    VectorStoreManifest.copyOf(document.attributes()),
+                    document.sizeBytes(),
+                    document.blob()));
+          }
+        } else if (fileName.endsWith(ATTRS_SUFFIX)) {
+          legacyFileIds.add(fileName.substring(0, fileName.length() - ATTRS_SUFFIX.length()));
+        } else if (fileName.endsWith(DOC_TEMP_SUFFIX)) {
+          staleTempDocs.add(path);
+        }
+      }
+      for (Path staleTempDoc : staleTempDocs) {
+        Files.deleteIfExists(staleTempDoc);
+      }
+
+      for (String fileId : legacyFileIds) {
+        Path contentPath = root.resolve(fileId);
+        if (!isValidFileId(fileId) || loaded.get(fileId) != null || !Files.exists(contentPath)) {
+          continue;
+        }
+        Map<String, String> attributes =
+            VectorStoreManifest.copyOf(
+                objectMapper.readValue(
+                    Files.readAllBytes(root.resolve(fileId + ATTRS_SUFFIX)), STRING_MAP));
+        loaded.put(fileId, new ManifestEntry(attributes, Files.size(contentPath), null));
+      }
+
+      synchronized (blobLock) {
+        blobReferences.clear();
+        loaded.forEach(
+            (fileId, entry) -> {
+              if (entry.blob() != null) {
+                blobReferences.merge(entry.blob(), 1, Integer::sum);
+              }
+            });
+        sweepUnreferencedBlobs();
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to load vector store files at " + root, e);
+    }
+    return loaded;
+  }
+
+  private void sweepUnreferencedBlobs() throws IOException {
+    if (!Files.isDirectory(blobsRoot)) {
+      return;
+    }
+    try (DirectoryStream<Path> shards = Files.newDirectoryStream(blobsRoot)) {
+      for (Path shard : shards) {
+        if (!Files.isDirectory(shard)) {
+          Files.deleteIfExists(shard);
+          continue;
+        }
+        try (DirectoryStream<Path> blobs = Files.newDirectoryStream(shard)) {
+          for (Path blob : blobs) {
+            if (!blobReferences.containsKey(blob.getFileName().toString())) {
+              Files.deleteIfExists(blob);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static VectorStoreFileSummary summary(String fileId, ManifestEntry entry) {
+    return new VectorStoreFileSummary(fileId, entry.sizeBytes(), entry.attributes(), "ready");
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Missing SHA-256 MessageDigest.", e);
+    }
+  }
+
+  private static boolean isValidFileId(String fileId) {
+    return fileId.matches("[a-zA-Z0-9._-]+");
   }
 
   private static void validateFileId(String fileId) {
-    if (!fileId.matches("[a-zA-Z0-9._-]+")) {
+    if (!isValidFileId(fileId)) {
       throw new IllegalArgumentException("Invalid fileId: " + fileId);
     }
   }
+
+  @FunctionalInterface
+  private interface BlobSource {
+    Path write() throws IOException;
+  }
+
+  private record ManifestEntry(Map<String, String> attributes, long sizeBytes, String blob) {}
+
+  private record StoredDocument(String blob, long sizeBytes, Map<String, String> attributes) {}
 }
@@ -3,6 +3,7 @@ package app.platform.adapters.vectorstore;
 import app.core.vectorstore.VectorStoreFile;
 import app.core.vectorstore.VectorStoreFileSummary;
 import app.core.vectorstore.VectorStorePort;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -50,11 +51,25 @@ public class InMemoryVectorStoreAdapter implements VectorStorePort {
         .toList();
   }
 
+  @Override
+  public Optional<VectorStoreFileSummary> findFile(String fileId) {
+    return Optional.ofNullable(files.get(fileId))
+        .map(
+            file ->
+                new VectorStoreFileSummary(
+                    file.fileId(), file.content().length, file.attributes(), "ready"));
+  }
+
   @Override
   public void deleteFile(String fileId) {
     files.remove(fileId);
   }
 
+  @Override
+  public void deleteFiles(Collection<String> fileIds) {
+    files.keySet().removeAll(fileIds);
+  }
+
   private static boolean matchesRequired(
       Map<String, String> attributes, Map<String, String> requiredAttributes) {
     for (Map.Entry<String, String> entry : requiredAttributes.entrySet()) {
@@ -19,24 +19,52 @@ import com.openai.models.vectorstores.files.FileRetrieveParams;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
 public class OpenAIVectorStoreAdapter implements VectorStorePort {
+  private static final int DEFAULT_DELETE_CONCURRENCY = 8;
+
   private final OpenAIClient client;
   private final String vectorStoreId;
+  private final int deleteConcurrency;
+  private final boolean replaceExistingPaths;
 
   public OpenAIVectorStoreAdapter(OpenAIClient client, String vectorStoreId) {
+    this(client, vectorStoreId, DEFAULT_DELETE_CONCURRENCY);
+  }
+
+  public OpenAIVectorStoreAdapter(
+      OpenAIClient client, String vectorStoreId, int deleteConcurrency) {
+    this(client, vectorStoreId, deleteConcurrency, false);
+  }
+
+  public OpenAIVectorStoreAdapter(
+      OpenAIClient client,
+      String vectorStoreId,
+      int deleteConcurrency,
+      boolean replaceExistingPaths) {
     this.client = Objects.requireNonNull(client, "client must not be null.");
     if (vectorStoreId == null || vectorStoreId.trim().isBlank()) {
       throw new IllegalArgumentException("vectorStoreId must be non-blank.");
     }
+    if (deleteConcurrency <= 0) {
+      throw new IllegalArgumentException("deleteConcurrency must be > 0.");
+    }
     this.vectorStoreId = vectorStoreId.trim();
+    this.deleteConcurrency = deleteConcurrency;
+    this.replaceExistingPaths = replaceExistingPaths;
   }
 
   @Override
@@ -53,11 +81,20 @@ public class OpenAIVectorStoreAdapter implements VectorStorePort {
     if (content == null) {
       throw new IllegalArgumentException("content must not be null.");
     }
+    return createFile(fileId, new ByteArrayInputStream(content), content.length, attributes);
+  }
+
+  @Override
+  public String createFile(
+      String fileId, InputStream content, long length, Map<String, String> attributes) {
+    if (content == null) {
+      throw new IllegalArgumentException("content must not be null.");
+    }
 
     Map<String, String> safeAttributes = attributes == null ? Map.of() : attributes;
     String path = normalizeOptional(safeAttributes.get("path"));
-    if (path != null) {
-      deleteAllWithPath(path);
+    if (replaceExistingPaths && path != null) {
+      deleteAllWithPathAndChunk(path, chunkIndexOf(safeAttributes));
     }
 
     String filename = normalizeOptional(fileId);
@@ -69,7 +106,7 @@ public class OpenAIVectorStoreAdapter implements VectorStorePort {
     try {
       MultipartField<InputStream> fileField =
           MultipartField.<InputStream>builder()
-              .value(new ByteArrayInputStream(content))
+              .value(content)
               .filename(filename)
               .contentType("application/octet-stream")
               .build();
@@ -156,6 +193,38 @@ public class OpenAIVectorStoreAdapter implements VectorStorePort {
         .toList();
   }
 
+  @Override
+  public Optional<VectorStoreFileSummary> findFile(String fileId) {
+    if (fileId == null || fileId.isBlank()) {
+      throw new IllegalArgumentException("fileId must be non-blank.");
+    }
+    String trimmedId = fileId.trim();
+
+    com.openai.models.vectorstores.files.VectorStoreFile vectorStoreFile;
+    try {
+      vectorStoreFile =
+          client
+              .vectorStores()
+              .files()
+              .retrieve(
+                  FileRetrieveParams.builder()
+                      .vectorStoreId(vectorStoreId)
+                      .fileId(trimmedId)
+                      .build());
+    } catch (NotFoundException e) {
+      return Optional.empty();
+    } catch (RuntimeException e) {
+      throw new IllegalStateException("Failed to retrieve vector store file: " + trimmedId, e);
+    }
+
+    return Optional.of(
+        new VectorStoreFileSummary(
+            vectorStoreFile.id(),
+            vectorStoreFile.usageBytes(),
+            parseAttributes(vectorStoreFile),
+            normalizeStatus(vectorStoreFile.status())));
+  }
+
   @Override
   public void deleteFile(String fileId) {
     if (fileId == null || fileId.isBlank()) {
@@ -185,6 +254,50 @@ public class OpenAIVectorStoreAdapter implements VectorStorePort {
     }
   }
 
+  @Override
+  public void deleteFiles(Collection<String> fileIds) {
+    List<String> ids = fileIds.stream().distinct().toList();
+    if (ids.size() <= 1) {
+      ids.forEach(this::deleteFile);
+      return;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(deleteConcurrency, ids.size()));
+    try {
+      List<Future<?>> deletes = new ArrayList<>(ids.size());
+      for (String fileId : ids) {
+        deletes.add(executor.submit(() -> deleteFile(fileId)));
+      }
+
+      RuntimeException firstFailure = null;
+      int failed = 0;
+      for (Future<?> delete : deletes) {
+        try {
+          delete.get();
+        } catch (ExecutionException e) {
+          failed++;
+          if (firstFailure == null) {
+            firstFailure =
+                e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException(e.getCause());
+          }
+        }
+      }
+      if (firstFailure != null) {
+        throw new IllegalStateException(
+            "Failed to delete " + failed + " of " + ids.size() + " OpenAI vector store file(s).",
+            firstFailure);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while deleting OpenAI vector store files.", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private Stream<com.openai.models.vectorstores.files.VectorStoreFile> streamVectorStoreFiles() {
     return client
         .vectorStores()
@@ -194,11 +307,22 @@ public class OpenAIVectorStoreAdapter implements VectorStorePort {
         .stream();
   }
 
-  private void deleteAllWithPath(String path) {
-    streamVectorStoreFiles()
-        .filter(f -> path.equals(parseAttributes(f).get("path")))
-        .map(com.openai.models.vectorstores.files.VectorStoreFile::id)
-        .forEach(this::deleteFile);
+  private void deleteAllWithPathAndChunk(String path, String chunkIndex) {
+    deleteFiles(
+        streamVectorStoreFiles()
+            .filter(
+                f -> {
+                  Map<String, String> attributes = parseAttributes(f);
+                  return path.equals(attributes.get("path"))
+                      && chunkIndex.equals(chunkIndexOf(attributes));
+                })
+            .map(com.openai.models.vectorstores.files.VectorStoreFile::id)
+            .toList());
+  }
+
+  private static String chunkIndexOf(Map<String, String> attributes) {
+    String chunkIndex = normalizeOptional(attributes.get("chunkIndex"));
+    return chunkIndex == null ? "0" : chunkIndex;
   }
 
   private static boolean matchesRequired(Map<String, String> attributes, Map<String, String> requiredAttributes) {
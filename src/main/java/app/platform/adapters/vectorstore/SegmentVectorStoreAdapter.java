@@ -0,0 +1,596 @@
+package app.platform.adapters.vectorstore;
+
+import app.core.vectorstore.VectorStoreFile;
+import app.core.vectorstore.VectorStoreFileSummary;
+import app.core.vectorstore.VectorStorePort;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+public class SegmentVectorStoreAdapter implements VectorStorePort, AutoCloseable {
+  private static final TypeReference<Map<String, String>> STRING_MAP =
+      new TypeReference<>() {};
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final byte PUT = 1;
+  private static final byte DELETE = 2;
+  private static final int HEADER_BYTES = 1 + 4 + 4 + 8;
+  private static final int CRC_BYTES = 4;
+  private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+  private final ObjectMapper objectMapper;
+  private final Path root;
+  private final long segmentSizeBytes;
+  private final Object appendLock = new Object();
+  private final ReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final ConcurrentSkipListMap<Long, Segment> retiredSegments =
+      new ConcurrentSkipListMap<>();
+  private final Map<String, Set<Long>> putSegments = new HashMap<>();
+  private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+  private final ExecutorService compactor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "vectorstore-compactor");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private volatile VectorStoreManifest<Entry> manifest;
+  private volatile Segment active;
+
+  public SegmentVectorStoreAdapter(
+      ObjectMapper objectMapper, String rootPath, long segmentSizeBytes) {
+    if (segmentSizeBytes <= 0 || segmentSizeBytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("segmentSizeBytes out of range: " + segmentSizeBytes);
+    }
+    this.objectMapper = objectMapper;
+    this.root = Path.of(rootPath);
+    this.segmentSizeBytes = segmentSizeBytes;
+  }
+
+  @Override
+  public Optional<String> findByAttributes(Map<String, String> requiredAttributes) {
+    return manifest().find(requiredAttributes);
+  }
+
+  @Override
+  public String createFile(String fileId, byte[] content, Map<String, String> attributes) {
+    return createFile(fileId, new ByteArrayInputStream(content), content.length, attributes);
+  }
+
+  @Override
+  public String createFile(
+      String fileId, InputStream content, long length, Map<String, String> attributes) {
+    validateFileId(fileId);
+    if (length < 0) {
+      throw new IllegalArgumentException("length out of range: " + length);
+    }
+    VectorStoreManifest<Entry> files = manifest();
+
+    try {
+      synchronized (appendLock) {
+        Entry entry =
+            append(PUT, fileId, VectorStoreManifest.copyOf(attributes), content, length);
+        addGarbage(files.put(fileId, entry));
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to write vector store file " + fileId + " to " + root, e);
+    }
+    scheduleCompaction();
+    return fileId;
+  }
+
+  @Override
+  public VectorStoreFile readFile(String fileId) {
+    validateFileId(fileId);
+    VectorStoreManifest<Entry> files = manifest();
+
+    segmentsLock.readLock().lock();
+    try {
+      Entry entry = files.get(fileId);
+      if (entry == null) {
+        throw new IllegalStateException("Vector store file not found: " + fileId);
+      }
+      ByteBuffer slice =
+          segments
+              .get(entry.segmentId())
+              .slice(entry.offset() + entry.contentOffset(), (int) entry.contentLength());
+      byte[] content = new byte[slice.remaining()];
+      slice.get(content);
+      return new VectorStoreFile(fileId, content, entry.attributes());
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read vector store file " + fileId + " from " + root, e);
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<VectorStoreFileSummary> listFiles() {
+    List<VectorStoreFileSummary> results = new ArrayList<>();
+    manifest().forEach((fileId, entry) -> results.add(summary(fileId, entry)));
+    results.sort(Comparator.comparing(VectorStoreFileSummary::fileId));
+    return results;
+  }
+
+  @Override
+  public Optional<VectorStoreFileSummary> findFile(String fileId) {
+    validateFileId(fileId);
+
+    return Optional.ofNullable(manifest().get(fileId)).map(entry -> summary(fileId, entry));
+  }
+
+  @Override
+  public void deleteFile(String fileId) {
+    deleteFiles(List.of(fileId));
+  }
+
+  @Override
+  public void deleteFiles(Collection<String> fileIds) {
+    fileIds.forEach(SegmentVectorStoreAdapter::validateFileId);
+    if (fileIds.isEmpty()) {
+      return;
+    }
+    VectorStoreManifest<Entry> files = manifest();
+
+    synchronized (appendLock) {
+      for (String fileId : fileIds) {
+        if (files.get(fileId) == null) {
+          continue;
+        }
+        try {
+          addGarbage(append(DELETE, fileId, Map.of(), null, 0));
+        } catch (IOException e) {
+          throw new IllegalStateException(
+              "Failed to delete vector store file " + fileId + " from " + root, e);
+        }
+        addGarbage(files.remove(fileId));
+      }
+    }
+    scheduleCompaction();
+  }
+
+  @Override
+  public void close() {
+    compactor.shutdownNow();
+    segmentsLock.writeLock().lock();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.channel.force(false);
+        segment.channel.close();
+      }
+      segments.clear();
+      deleteRetiredSegments();
+      manifest = null;
+      active = null;
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to close vector store segments in " + root, e);
+    } finally {
+      segmentsLock.writeLock().unlock();
+    }
+  }
+
+  synchronized void compact() {
+    VectorStoreManifest<Entry> files = manifest();
+    deleteRetiredSegments();
+    for (Segment segment : List.copyOf(segments.values())) {
+      if (!isCompactable(segment)) {
+        continue;
+      }
+      try {
+        compactSegment(files, segment);
+      } catch (IOException e) {
+        throw new IllegalStateException(
+            "Failed to compact vector store segment " + segment.path, e);
+      }
+    }
+  }
+
+  int segmentCount() {
+    return segments.size();
+  }
+
+  private void compactSegment(VectorStoreManifest<Entry> files, Segment segment)
+      throws IOException {
+    long offset = 0;
+    while (offset < segment.size) {
+      Record record = readRecord(segment, offset, false);
+      if (record == null) {
+        throw new IllegalStateException(
+            "Corrupt vector store segment " + segment.path + " at offset " + offset);
+      }
+      synchronized (appendLock) {
+        Entry current = files.get(record.fileId());
+        if (record.kind() == PUT
+            && current != null
+            && current.segmentId() == segment.id
+            && current.offset() == offset) {
+          Entry copied = copyRecord(segment, current);
+          recordPut(segments.get(copied.segmentId()), record.fileId());
+          files.replace(record.fileId(), current, copied);
+        } else if (record.kind() == DELETE
+            && current == null
+            && shadowsOtherSegment(record.fileId(), segment.id)) {
+          addGarbage(copyRecord(segment, record.entry()));
+        }
+      }
+      offset += record.entry().recordLength();
+    }
+    synchronized (appendLock) {
+      active.channel.force(false);
+    }
+
+    segmentsLock.writeLock().lock();
+    try {
+      segments.remove(segment.id);
+      segment.channel.close();
+      segment.mapped = null;
+      retiredSegments.put(segment.id, segment);
+    } finally {
+      segmentsLock.writeLock().unlock();
+    }
+    deleteRetiredSegments();
+  }
+
+  private void deleteRetiredSegments() {
+    for (Segment retired : retiredSegments.values()) {
+      try {
+        Files.deleteIfExists(retired.path);
+        retiredSegments.remove(retired.id);
+        synchronized (appendLock) {
+          forgetPuts(retired);
+        }
+      } catch (IOException e) {
+        // Mapped files cannot be deleted on some platforms until the mapping is collected.
+      }
+    }
+  }
+
+  private void scheduleCompaction() {
+    for (Segment segment : segments.values()) {
+      if (isCompactable(segment)) {
+        if (compactionScheduled.compareAndSet(false, true)) {
+          compactor.execute(
+              () -> {
+                compactionScheduled.set(false);
+                compact();
+              });
+        }
+        return;
+      }
+    }
+  }
+
+  private void recordPut(Segment segment, String fileId) {
+    segment.putFileIds.add(fileId);
+    putSegments.computeIfAbsent(fileId, ignored -> new HashSet<>()).add(segment.id);
+  }
+
+  private void forgetPuts(Segment segment) {
+    for (String fileId : segment.putFileIds) {
+      Set<Long> segmentIds = putSegments.get(fileId);
+      if (segmentIds != null && segmentIds.remove(segment.id) && segmentIds.isEmpty()) {
+        putSegments.remove(fileId);
+      }
+    }
+  }
+
+  private boolean shadowsOtherSegment(String fileId, long segmentId) {
+    Set<Long> segmentIds = putSegments.get(fileId);
+    return segmentIds != null && (segmentIds.size() > 1 || !segmentIds.contains(segmentId));
+  }
+
+  private boolean isCompactable(Segment segment) {
+    return segment != active && segment.garbageBytes.get() * 2 >= segment.size;
+  }
+
+  private Entry append(
+      byte kind, String fileId, Map<String, String> attributes, InputStream content, long length)
+      throws IOException {
+    byte[] id = fileId.getBytes(StandardCharsets.UTF_8);
+    byte[] attrs = attributes.isEmpty() ? new byte[0] : objectMapper.writeValueAsBytes(attributes);
+    int contentOffset = HEADER_BYTES + id.length + attrs.length;
+    long recordLength = contentOffset + length + CRC_BYTES;
+    if (recordLength > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Vector store file too large: " + fileId);
+    }
+
+    Segment segment = activeSegment(recordLength);
+    long offset = segment.size;
+    ByteBuffer head = ByteBuffer.allocate(contentOffset);
+    head.put(kind).putInt(id.length).putInt(attrs.length).putLong(length).put(id).put(attrs);
+    head.flip();
+    CRC32C crc = new CRC32C();
+    crc.update(head.duplicate());
+    try {
+      long position = offset + writeFully(segment.channel, head, offset);
+      byte[] buffer = new byte[(int) Math.min(COPY_BUFFER_BYTES, Math.max(1, length))];
+      long remaining = length;
+      while (remaining > 0) {
+        int read = content.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+        if (read < 0) {
+          throw new IOException(
+              "Content of " + fileId + " ended after " + (length - remaining) + " bytes.");
+        }
+        crc.update(buffer, 0, read);
+        position += writeFully(segment.channel, ByteBuffer.wrap(buffer, 0, read), position);
+        remaining -= read;
+      }
+      ByteBuffer trailer = ByteBuffer.allocate(CRC_BYTES).putInt((int) crc.getValue());
+      writeFully(segment.channel, trailer.flip(), position);
+    } catch (IOException | RuntimeException e) {
+      segment.channel.truncate(offset);
+      throw e;
+    }
+    segment.size = offset + recordLength;
+    if (kind == PUT) {
+      recordPut(segment, fileId);
+    }
+    return new Entry(segment.id, offset, (int) recordLength, contentOffset, length, attributes);
+  }
+
+  private Entry copyRecord(Segment source, Entry entry) throws IOException {
+    Segment target = activeSegment(entry.recordLength());
+    long offset = target.size;
+    writeFully(target.channel, source.slice(entry.offset(), entry.recordLength()), offset);
+    target.size = offset + entry.recordLength();
+    return new Entry(
+        target.id,
+        offset,
+        entry.recordLength(),
+        entry.contentOffset(),
+        entry.contentLength(),
+        entry.attributes());
+  }
+
+  private Segment activeSegment(long recordLength) throws IOException {
+    Segment current = active;
+    if (current != null && (current.size == 0 || current.size + recordLength <= segmentSizeBytes)) {
+      return current;
+    }
+
+    if (current != null) {
+      current.channel.force(false);
+    }
+    Files.createDirectories(root);
+    long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+    Segment created = openSegment(id, root.resolve(String.format("%010d", id) + SEGMENT_SUFFIX));
+    segments.put(id, created);
+    active = created;
+    return created;
+  }
+
+  private void addGarbage(Entry entry) {
+    Segment segment = entry == null ? null : segments.get(entry.segmentId());
+    if (segment != null) {
+      segment.garbageBytes.addAndGet(entry.recordLength());
+    }
+  }
+
+  private VectorStoreManifest<Entry> manifest() {
+    VectorStoreManifest<Entry> loaded = manifest;
+    if (loaded == null) {
+      synchronized (this) {
+        loaded = manifest;
+        if (loaded == null) {
+          loaded = loadManifest();
+          manifest = loaded;
+        }
+      }
+    }
+    return loaded;
+  }
+
+  private VectorStoreManifest<Entry> loadManifest() {
+    VectorStoreManifest<Entry> loaded = new VectorStoreManifest<>(Entry::attributes);
+    if (!Files.isDirectory(root)) {
+      return loaded;
+    }
+
+    try {
+      List<Path> segmentFiles = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, "*" + SEGMENT_SUFFIX)) {
+        stream.forEach(segmentFiles::add);
+      }
+      segmentFiles.sort(Comparator.naturalOrder());
+      for (int i = 0; i < segmentFiles.size(); i++) {
+        Path path = segmentFiles.get(i);
+        String name = path.getFileName().toString();
+        Segment segment =
+            openSegment(
+                Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), path);
+        segments.put(segment.id, segment);
+        replay(loaded, segment, i == segmentFiles.size() - 1);
+      }
+    } catch (IOException | NumberFormatException e) {
+      throw new IllegalStateException("Failed to load vector store segments at " + root, e);
+    }
+    active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+    scheduleCompaction();
+    return loaded;
+  }
+
+  private void replay(VectorStoreManifest<Entry> loaded, Segment segment, boolean last)
+      throws IOException {
+    long offset = 0;
+    while (offset < segment.size) {
+      Record record = readRecord(segment, offset, last);
+      if (record == null) {
+        if (!last) {
+          throw new IllegalStateException(
+              "Corrupt vector store segment " + segment.path + " at offset " + offset);
+        }
+        segment.channel.truncate(offset);
+        segment.size = offset;
+        segment.mapped = null;
+        break;
+      }
+      if (record.kind() == PUT) {
+        recordPut(segment, record.fileId());
+        addGarbage(loaded.put(record.fileId(), record.entry()));
+      } else {
+        addGarbage(loaded.remove(record.fileId()));
+        addGarbage(record.entry());
+      }
+      offset += record.entry().recordLength();
+    }
+  }
+
+  private Record readRecord(Segment segment, long offset, boolean verify) throws IOException {
+    if (segment.size - offset < HEADER_BYTES + CRC_BYTES) {
+      return null;
+    }
+    ByteBuffer header = segment.slice(offset, HEADER_BYTES);
+    byte kind = header.get();
+    int idLength = header.getInt();
+    int attrsLength = header.getInt();
+    long contentLength = header.getLong();
+    if ((kind != PUT && kind != DELETE) || idLength <= 0 || attrsLength < 0 || contentLength < 0) {
+      return null;
+    }
+    long recordLength = HEADER_BYTES + (long) idLength + attrsLength + contentLength + CRC_BYTES;
+    if (recordLength > segment.size - offset) {
+      return null;
+    }
+    if (verify) {
+      CRC32C crc = new CRC32C();
+      crc.update(segment.slice(offset, (int) recordLength - CRC_BYTES));
+      if ((int) crc.getValue()
+          != segment.slice(offset + recordLength - CRC_BYTES, CRC_BYTES).getInt()) {
+        return null;
+      }
+    }
+
+    byte[] id = new byte[idLength];
+    segment.slice(offset + HEADER_BYTES, idLength).get(id);
+    Map<String, String> attributes = Map.of();
+    if (attrsLength > 0) {
+      byte[] attrs = new byte[attrsLength];
+      segment.slice(offset + HEADER_BYTES + idLength, attrsLength).get(attrs);
+      attributes = VectorStoreManifest.copyOf(objectMapper.readValue(attrs, STRING_MAP));
+    }
+    return new Record(
+        kind,
+        new String(id, StandardCharsets.UTF_8),
+        new Entry(
+            segment.id,
+            offset,
+            (int) recordLength,
+            HEADER_BYTES + idLength + attrsLength,
+            contentLength,
+            attributes));
+  }
+
+  private static Segment openSegment(long id, Path path) throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    Segment segment = new Segment(id, path, channel);
+    segment.size = channel.size();
+    if (segment.size > Integer.MAX_VALUE) {
+      channel.close();
+      throw new IllegalStateException("Vector store segment too large: " + path);
+    }
+    return segment;
+  }
+
+  private static int writeFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    int written = 0;
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer, position + written);
+    }
+    return written;
+  }
+
+  private static VectorStoreFileSummary summary(String fileId, Entry entry) {
+    return new VectorStoreFileSummary(fileId, entry.contentLength(), entry.attributes(), "ready");
+  }
+
+  private static void validateFileId(String fileId) {
+    if (!fileId.matches("[a-zA-Z0-9._-]+")) {
+      throw new IllegalArgumentException("Invalid fileId: " + fileId);
+    }
+  }
+
+  private record Entry(
+      long segmentId,
+      long offset,
+      int recordLength,
+      int contentOffset,
+      long contentLength,
+      Map<String, String> attributes) {}
+
+  private record Record(byte kind, String fileId, Entry entry) {}
+
+  private static final class Segment {
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final AtomicLong garbageBytes = new AtomicLong();
+    private final Set<String> putFileIds = new HashSet<>();
+    private volatile long size;
+    private volatile MappedByteBuffer mapped;
+
+    private Segment(long id, Path path, FileChannel channel) {
+      this.id = id;
+      this.path = path;
+      this.channel = channel;
+    }
+
+    private ByteBuffer slice(long offset, int length) throws IOException {
+      MappedByteBuffer current = mapped;
+      if (current == null || current.capacity() < offset + length) {
+        synchronized (this) {
+          current = mapped;
+          if (current == null
+              || (current.capacity() < offset + length && size >= 2L * current.capacity())) {
+            current = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped = current;
+          }
+        }
+        if (current.capacity() < offset + length) {
+          return read(offset, length);
+        }
+      }
+      return current.slice((int) offset, length);
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, offset + buffer.position()) < 0) {
+          throw new EOFException("Vector store segment " + path + " ended at " + offset);
+        }
+      }
+      return buffer.flip();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package app.platform.adapters.vectorstore;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+final class VectorStoreManifest<E> {
+  private final Function<E, Map<String, String>> attributesOf;
+  private final Map<String, E> entries = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, Set<String>>> attributeIndex = new ConcurrentHashMap<>();
+
+  VectorStoreManifest(Function<E, Map<String, String>> attributesOf) {
+    this.attributesOf = attributesOf;
+  }
+
+  E get(String fileId) {
+    return entries.get(fileId);
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  void forEach(BiConsumer<String, E> action) {
+    entries.forEach(action);
+  }
+
+  Optional<String> find(Map<String, String> requiredAttributes) {
+    Collection<String> candidates = entries.keySet();
+    for (Map.Entry<String, String> required : requiredAttributes.entrySet()) {
+      Map<String, Set<String>> values = attributeIndex.get(required.getKey());
+      Set<String> fileIds =
+          values == null || required.getValue() == null ? null : values.get(required.getValue());
+      if (fileIds == null) {
+        return Optional.empty();
+      }
+      if (fileIds.size() < candidates.size()) {
+        candidates = fileIds;
+      }
+    }
+    for (String fileId : candidates) {
+      E entry = entries.get(fileId);
+      if (entry != null && matchesRequired(attributesOf.apply(entry), requiredAttributes)) {
+        return Optional.of(fileId);
+      }
+    }
+    return Optional.empty();
+  }
+
+  synchronized E put(String fileId, E entry) {
+    E previous = remove(fileId);
+    entries.put(fileId, entry);
+    attributesOf
+        .apply(entry)
+        .forEach(
+            (key, value) -> {
+              if (value != null) {
+                attributeIndex
+                    .computeIfAbsent(key, ignored -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(value, ignored -> ConcurrentHashMap.newKeySet())
+                    .add(fileId);
+              }
+            });
+    return previous;
+  }
+
+  synchronized E replace(String fileId, E expected, E replacement) {
+    if (entries.get(fileId) != expected) {
+      return null;
+    }
+    entries.put(fileId, replacement);
+    return replacement;
+  }
+
+  synchronized E remove(String fileId) {
+    E previous = entries.remove(fileId);
+    if (previous == null) {
+      return null;
+    }
+    attributesOf
+        .apply(previous)
+        .forEach(
+            (key, value) -> {
+              Map<String, Set<String>> values = attributeIndex.get(key);
+              Set<String> fileIds = values == null || value == null ? null : values.get(value);
+              if (fileIds != null && fileIds.remove(fileId) && fileIds.isEmpty()) {
+                values.remove(value);
+              }
+            });
+    return previous;
+  }
+
+  static Map<String, String> copyOf(Map<String, String> attributes) {
+    return attributes == null
+        ? Map.of()
+        : Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+  }
+
+  private static boolean matchesRequired(
+      Map<String, String> attributes, Map<String, String> requiredAttributes) {
+    for (Map.Entry<String, String> entry : requiredAttributes.entrySet()) {
+      if (!entry.getValue().equals(attributes.get(entry.getKey()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
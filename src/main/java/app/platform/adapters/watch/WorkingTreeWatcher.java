@@ -0,0 +1,402 @@
+package app.platform.adapters.watch;
+
+import app.core.git.TrackedFilesSnapshot;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class WorkingTreeWatcher {
+  private static final String GIT_DIR = ".git";
+
+  private final Supplier<Optional<Path>> repoRootSupplier;
+  private final Supplier<TrackedFilesSnapshot> trackedFilesSupplier;
+  private final ChangeListener listener;
+  private final Mode mode;
+  private final Duration debounce;
+  private final Duration maxDelay;
+  private final Duration pollInterval;
+
+  private final Set<String> pendingPaths = new LinkedHashSet<>();
+  private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+  private final Set<Path> registeredDirectories = new HashSet<>();
+  private Set<String> trackedDirectories;
+  private long trackedVersion = -1;
+  private Map<String, FileStamp> snapshot = Map.of();
+  private Path repoRoot;
+  private WatchService watchService;
+  private boolean polling;
+  private long firstPendingAt;
+  private long lastPendingAt;
+  private volatile boolean running;
+  private Thread thread;
+
+  public WorkingTreeWatcher(
+      Supplier<Optional<Path>> repoRootSupplier,
+      Supplier<TrackedFilesSnapshot> trackedFilesSupplier,
+      ChangeListener listener,
+      Mode mode,
+      Duration debounce,
+      Duration maxDelay,
+      Duration pollInterval) {
+    this.repoRootSupplier = Objects.requireNonNull(repoRootSupplier);
+    this.trackedFilesSupplier = Objects.requireNonNull(trackedFilesSupplier);
+    this.listener = Objects.requireNonNull(listener);
+    this.mode = mode == null ? Mode.AUTO : mode;
+    this.debounce = requirePositive(debounce, "debounce");
+    this.maxDelay = requirePositive(maxDelay, "maxDelay");
+    this.pollInterval = requirePositive(pollInterval, "pollInterval");
+  }
+
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this::watchLoop, "index-watch");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  public synchronized void stop() {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+      thread = null;
+    }
+  }
+
+  private void watchLoop() {
+    try {
+      while (running) {
+        refreshRepoRoot();
+        if (repoRoot == null) {
+          Thread.sleep(pollInterval.toMillis());
+          continue;
+        }
+        if (polling) {
+          Thread.sleep(pollWaitMillis());
+          scanForChanges();
+        } else {
+          awaitEvents();
+          registerNewlyTrackedDirectories();
+        }
+        flushIfSettled();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      closeWatchService();
+    }
+  }
+
+  private void refreshRepoRoot() {
+    Path resolved;
+    try {
+      resolved = repoRootSupplier.get().filter(Files::isDirectory).orElse(null);
+    } catch (RuntimeException e) {
+      resolved = null;
+    }
+    if (Objects.equals(resolved, repoRoot)) {
+      return;
+    }
+
+    closeWatchService();
+    pendingPaths.clear();
+    repoRoot = resolved;
+    trackedDirectories = null;
+    trackedVersion = -1;
+    if (repoRoot == null) {
+      return;
+    }
+    refreshTrackedDirectories();
+
+    polling = mode == Mode.POLL || !openWatchService();
+    snapshot = polling ? takeSnapshot() : Map.of();
+  }
+
+  private boolean openWatchService() {
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      registerTree(repoRoot, false);
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      closeWatchService();
+      return false;
+    }
+  }
+
+  private void closeWatchService() {
+    watchedDirectories.clear();
+    registeredDirectories.clear();
+    if (watchService == null) {
+      return;
+    }
+    try {
+      watchService.close();
+    } catch (IOException ignored) {
+    }
+    watchService = null;
+  }
+
+  private void awaitEvents() throws InterruptedException {
+    WatchKey key = watchService.poll(pollWaitMillis(), TimeUnit.MILLISECONDS);
+    while (key != null) {
+      handleEvents(key);
+      key = watchService.poll();
+    }
+  }
+
+  private void handleEvents(WatchKey key) {
+    Path directory = watchedDirectories.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+        addAllFiles();
+        continue;
+      }
+      Path child = directory.resolve((Path) event.context());
+      if (isGitDirectory(child)) {
+        continue;
+      }
+      if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+          && Files.isDirectory(child)
+          && isPruned(child)) {
+        continue;
+      }
+      if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+        try {
+          registerTree(child, true);
+        } catch (IOException e) {
+          addAllFiles();
+        }
+        continue;
+      }
+      addPending(child);
+    }
+    if (!key.reset()) {
+      registeredDirectories.remove(watchedDirectories.remove(key));
+    }
+  }
+
+  private void registerNewlyTrackedDirectories() {
+    if (!refreshTrackedDirectories()) {
+      return;
+    }
+    try {
+      registerTree(repoRoot, true);
+    } catch (IOException e) {
+      addAllFiles();
+    }
+  }
+
+  private void registerTree(Path start, boolean markFilesChanged) throws IOException {
+    Set<Path> registered = new HashSet<>();
+    Files.walkFileTree(
+        start,
+        new SimpleFileVisitor<>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+              throws IOException {
+            if (isGitDirectory(dir) || isPruned(dir)) {
+              return FileVisitResult.SKIP_SUBTREE;
+            }
+            if (!registeredDirectories.add(dir)) {
+              return FileVisitResult.CONTINUE;
+            }
+            WatchKey key =
+                dir.register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchedDirectories.put(key, dir);
+            registered.add(dir);
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (markFilesChanged && registered.contains(file.getParent())) {
+              addPending(file);
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+
+  private void scanForChanges() {
+    Map<String, FileStamp> current = takeSnapshot();
+    for (Map.Entry<String, FileStamp> entry : current.entrySet()) {
+      if (!entry.getValue().equals(snapshot.get(entry.getKey()))) {
+        addPendingPath(entry.getKey());
+      }
+    }
+    for (String path : snapshot.keySet()) {
+      if (!current.containsKey(path)) {
+        addPendingPath(path);
+      }
+    }
+    snapshot = current;
+  }
+
+  private Map<String, FileStamp> takeSnapshot() {
+    refreshTrackedDirectories();
+    Map<String, FileStamp> files = new HashMap<>();
+    try {
+      Files.walkFileTree(
+          repoRoot,
+          new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+              return isGitDirectory(dir) || isPruned(dir)
+                  ? FileVisitResult.SKIP_SUBTREE
+                  : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+              files.put(
+                  relativize(file),
+                  new FileStamp(attrs.lastModifiedTime().toMillis(), attrs.size()));
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+              return FileVisitResult.CONTINUE;
+            }
+          });
+    } catch (IOException e) {
+      return snapshot;
+    }
+    return files;
+  }
+
+  private void addAllFiles() {
+    for (String path : takeSnapshot().keySet()) {
+      addPendingPath(path);
+    }
+  }
+
+  private void addPending(Path file) {
+    addPendingPath(relativize(file));
+  }
+
+  private void addPendingPath(String path) {
+    long now = System.nanoTime();
+    if (pendingPaths.isEmpty()) {
+      firstPendingAt = now;
+    }
+    lastPendingAt = now;
+    pendingPaths.add(path);
+  }
+
+  private void flushIfSettled() {
+    if (pendingPaths.isEmpty()) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (now - lastPendingAt < debounce.toNanos() && now - firstPendingAt < maxDelay.toNanos()) {
+      return;
+    }
+
+    Set<String> changed = new LinkedHashSet<>();
+    Set<String> deleted = new LinkedHashSet<>();
+    for (String path : pendingPaths) {
+      if (Files.exists(repoRoot.resolve(path))) {
+        changed.add(path);
+      } else {
+        deleted.add(path);
+      }
+    }
+    pendingPaths.clear();
+    try {
+      listener.onChanges(Set.copyOf(changed), Set.copyOf(deleted));
+    } catch (RuntimeException ignored) {
+    }
+  }
+
+  private long pollWaitMillis() {
+    long wait = pendingPaths.isEmpty() ? pollInterval.toMillis() : debounce.toMillis();
+    return Math.max(1, Math.min(wait, pollInterval.toMillis()));
+  }
+
+  private String relativize(Path file) {
+    return repoRoot.relativize(file).toString().replace('\\', '/');
+  }
+
+  private boolean refreshTrackedDirectories() {
+    TrackedFilesSnapshot tracked;
+    try {
+      tracked = trackedFilesSupplier.get();
+    } catch (RuntimeException e) {
+      tracked = null;
+    }
+    if (tracked == null || tracked.isEmpty()) {
+      boolean changed = trackedDirectories != null;
+      trackedDirectories = null;
+      trackedVersion = -1;
+      return changed;
+    }
+    if (trackedDirectories != null && tracked.version() == trackedVersion) {
+      return false;
+    }
+    Set<String> directories = new HashSet<>();
+    for (String path : tracked.paths()) {
+      int slash = path.lastIndexOf('/');
+      while (slash > 0 && directories.add(path.substring(0, slash))) {
+        slash = path.lastIndexOf('/', slash - 1);
+      }
+    }
+    trackedDirectories = directories;
+    trackedVersion = tracked.version();
+    return true;
+  }
+
+  private boolean isPruned(Path dir) {
+    return trackedDirectories != null
+        && !dir.equals(repoRoot)
+        && !trackedDirectories.contains(relativize(dir));
+  }
+
+  private boolean isGitDirectory(Path path) {
+    Path name = path.getFileName();
+    return name != null && GIT_DIR.equals(name.toString()) && !path.equals(repoRoot);
+  }
+
+  private static Duration requirePositive(Duration duration, String name) {
+    if (duration == null || duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException(name + " must be > 0.");
+    }
+    return duration;
+  }
+
+  public enum Mode {
+    AUTO,
+    POLL
+  }
+
+  @FunctionalInterface
+  public interface ChangeListener {
+    void onChanges(Set<String> changedPaths, Set<String> deletedPaths);
+  }
+
+  private record FileStamp(long lastModifiedMillis, long size) {}
+}
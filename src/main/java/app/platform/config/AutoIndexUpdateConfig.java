@@ -0,0 +1,74 @@
+package app.platform.config;
+
+import app.core.indexing.AutoIndexUpdateTrigger;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!test & !e2etest")
+@ConditionalOnExpression(
+    "${codeassistant.indexing.autoUpdate.pollEnabled:false}"
+        + " or ${codeassistant.indexing.autoUpdate.webhookEnabled:false}")
+public class AutoIndexUpdateConfig {
+  @Bean(destroyMethod = "close")
+  public AutoIndexUpdatePoller scheduleAutoIndexUpdates(
+      AutoIndexUpdateTrigger autoIndexUpdateTrigger,
+      @Value("${codeassistant.indexing.autoUpdate.pollEnabled:false}") boolean pollEnabled,
+      @Value("${codeassistant.indexing.autoUpdate.pollIntervalSeconds:30}") long pollIntervalSeconds) {
+    return new AutoIndexUpdatePoller(autoIndexUpdateTrigger, pollEnabled, pollIntervalSeconds);
+  }
+
+  static final class AutoIndexUpdatePoller
+      implements ApplicationListener<ApplicationReadyEvent>, AutoCloseable {
+    private final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "index-auto-update");
+              thread.setDaemon(true);
+              return thread;
+            });
+    private final AutoIndexUpdateTrigger autoIndexUpdateTrigger;
+    private final boolean pollEnabled;
+    private final long pollIntervalSeconds;
+
+    private AutoIndexUpdatePoller(
+        AutoIndexUpdateTrigger autoIndexUpdateTrigger,
+        boolean pollEnabled,
+        long pollIntervalSeconds) {
+      this.autoIndexUpdateTrigger = autoIndexUpdateTrigger;
+      this.pollEnabled = pollEnabled;
+      this.pollIntervalSeconds = pollIntervalSeconds;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+      scheduler.scheduleWithFixedDelay(
+          () -> {
+            try {
+              if (pollEnabled) {
+                autoIndexUpdateTrigger.pollHead();
+              } else {
+                autoIndexUpdateTrigger.flushPending();
+              }
+            } catch (RuntimeException ignored) {
+            }
+          },
+          pollIntervalSeconds,
+          pollIntervalSeconds,
+          TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() {
+      scheduler.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package app.platform.config;
+
+import app.core.git.GitPort;
+import app.core.git.TrackedFilesService;
+import app.core.projectconfig.ProjectConfigPort;
+import app.platform.adapters.git.LocalGitAdapter;
+import app.platform.adapters.git.ObjectDatabaseGitAdapter;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GitConfig {
+  @Bean
+  public GitPort gitPort(
+      ProjectConfigPort projectConfigPort,
+      @Value("${codeassistant.git.objectReader:process}") String objectReader,
+      @Value("${codeassistant.git.catFileProcesses:4}") int catFileProcesses) {
+    return createGitPort(projectConfigPort, objectReader, catFileProcesses);
+  }
+
+  @Bean
+  public TrackedFilesService trackedFilesService(GitPort gitPort) {
+    return new TrackedFilesService(gitPort);
+  }
+
+  static GitPort createGitPort(
+      ProjectConfigPort projectConfigPort, String objectReader, int catFileProcesses) {
+    LocalGitAdapter processAdapter = new LocalGitAdapter(projectConfigPort, catFileProcesses);
+    String normalized = objectReader == null ? "" : objectReader.trim().toLowerCase(Locale.ROOT);
+    return switch (normalized) {
+      case "", "process" -> processAdapter;
+      case "java" -> new ObjectDatabaseGitAdapter(processAdapter);
+      default ->
+          throw new IllegalStateException(
+              "codeassistant.git.objectReader must be one of: process, java.");
+    };
+  }
+}
@@ -0,0 +1,21 @@
+package app.platform.config;
+
+import app.core.indexing.IndexCheckpointPort;
+import app.platform.adapters.indexing.FileIndexCheckpointAdapter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!test & !e2etest")
+public class IndexCheckpointConfig {
+  @Bean
+  public IndexCheckpointPort fileIndexCheckpointAdapter(
+      ObjectMapper objectMapper,
+      @Value("${codeassistant.indexing.checkpointPath:.codeassistant/index-checkpoint.jsonl}")
+          String checkpointPath) {
+    return new FileIndexCheckpointAdapter(objectMapper, checkpointPath);
+  }
+}
@@ -1,28 +1,112 @@
 package app.platform.config;
 
 import app.core.git.GitPort;
+import app.core.git.TrackedFilesService;
+import app.core.indexing.AutoIndexUpdateTrigger;
+import app.core.indexing.FileScreeningSettings;
+import app.core.indexing.IndexCheckpointPort;
+import app.core.indexing.IndexSchedulerPort;
+import app.core.indexing.IndexingPipelineSettings;
 import app.core.indexing.StartInitialIndexUseCase;
 import app.core.indexing.TrackedFileClassifier;
+import app.core.projects.ProjectRegistry;
 import app.core.projectstate.ProjectStatePort;
 import app.core.vectorstore.VectorStorePort;
+import app.platform.adapters.indexing.MicrometerIndexMetricsAdapter;
+import app.platform.adapters.indexing.ScheduledExecutorIndexSchedulerAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
 
 @Configuration
 public class IndexingConfig {
+  @Bean
+  public IndexingPipelineSettings indexingPipelineSettings(
+      @Value("${codeassistant.indexing.classifyWorkers:1}") int classifyWorkers,
+      @Value("${codeassistant.indexing.readWorkers:4}") int readWorkers,
+      @Value("${codeassistant.indexing.uploadWorkers:4}") int uploadWorkers,
+      @Value("${codeassistant.indexing.queueCapacity:64}") int queueCapacity,
+      @Value("${codeassistant.indexing.streamingThresholdBytes:1048576}")
+          long streamingThresholdBytes,
+      @Value("${codeassistant.indexing.screening.maxFileSizeBytes:10485760}") long maxFileSizeBytes,
+      @Value("${codeassistant.indexing.screening.skipBinary:true}") boolean skipBinary,
+      @Value("${codeassistant.indexing.screening.skipMinified:true}") boolean skipMinified,
+      @Value("${codeassistant.indexing.screening.minifiedLineLength:1000}")
+          int minifiedLineLength) {
+    return new IndexingPipelineSettings(
+        classifyWorkers,
+        readWorkers,
+        uploadWorkers,
+        queueCapacity,
+        streamingThresholdBytes,
+        new FileScreeningSettings(
+            maxFileSizeBytes, skipBinary, skipMinified, minifiedLineLength));
+  }
+
+  @Bean
+  public Semaphore indexJobSlots(
+      @Value("${codeassistant.indexing.maxConcurrentJobs:2}") int maxConcurrentJobs) {
+    return new Semaphore(Math.max(1, maxConcurrentJobs), true);
+  }
+
+  @Bean(destroyMethod = "close")
+  public ScheduledExecutorIndexSchedulerAdapter indexIngestionScheduler() {
+    return new ScheduledExecutorIndexSchedulerAdapter("index-ingestion-scheduler");
+  }
+
   @Bean
   public StartInitialIndexUseCase startInitialIndexUseCase(
       GitPort gitPort,
+      TrackedFilesService trackedFilesService,
       ProjectStatePort projectStatePort,
       VectorStorePort vectorStorePort,
-      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+      IndexSchedulerPort indexIngestionScheduler,
+      IndexingPipelineSettings indexingPipelineSettings,
+      IndexCheckpointPort indexCheckpointPort,
+      @Qualifier("indexJobSlots") Semaphore indexJobSlots,
+      MeterRegistry meterRegistry) {
     return new StartInitialIndexUseCase(
         gitPort,
+        trackedFilesService,
         projectStatePort,
         vectorStorePort,
         new TrackedFileClassifier(projectStatePort),
-        taskExecutor);
+        taskExecutor,
+        indexIngestionScheduler,
+        indexingPipelineSettings,
+        indexCheckpointPort,
+        indexJobSlots,
+        new MicrometerIndexMetricsAdapter(meterRegistry, ProjectRegistry.DEFAULT_PROJECT));
+  }
+
+  @Bean
+  public AutoIndexUpdateTrigger autoIndexUpdateTrigger(
+      StartInitialIndexUseCase startInitialIndexUseCase,
+      GitPort gitPort,
+      ProjectStatePort projectStatePort,
+      @Value("${codeassistant.indexing.autoUpdate.ref:HEAD}") String ref,
+      @Value("${codeassistant.indexing.autoUpdate.minIntervalSeconds:60}") long minIntervalSeconds) {
+    return new AutoIndexUpdateTrigger(
+        startInitialIndexUseCase,
+        gitPort,
+        projectStatePort,
+        ref,
+        Duration.ofSeconds(minIntervalSeconds),
+        Clock.systemUTC());
+  }
+
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> resumeInterruptedIndexJob(
+      StartInitialIndexUseCase startInitialIndexUseCase) {
+    return (event) -> startInitialIndexUseCase.resumeInterruptedJob();
   }
 }
@@ -0,0 +1,221 @@
+package app.platform.config;
+
+import app.core.git.GitPort;
+import app.core.git.TrackedFilesService;
+import app.core.indexing.IndexSchedulerPort;
+import app.core.indexing.IndexingPipelineSettings;
+import app.core.indexing.StartInitialIndexUseCase;
+import app.core.indexing.TrackedFileClassifier;
+import app.core.observations.ObservationsPort;
+import app.core.projectconfig.ProjectConfig;
+import app.core.projectconfig.ProjectConfigMode;
+import app.core.projectconfig.ProjectConfigPort;
+import app.core.projects.ProjectRegistry;
+import app.core.projects.ProjectWorkspace;
+import app.core.projectstate.ProjectStatePort;
+import app.core.search.SemanticSearchPort;
+import app.core.search.TextSearchPort;
+import app.core.vectorstore.VectorStorePort;
+import app.platform.adapters.indexing.FileIndexCheckpointAdapter;
+import app.platform.adapters.indexing.MicrometerIndexMetricsAdapter;
+import app.platform.adapters.observations.VectorStoreObservationsAdapter;
+import app.platform.adapters.projectconfig.StaticProjectConfigAdapter;
+import app.platform.adapters.projectstate.VectorStoreProjectStateAdapter;
+import app.platform.adapters.search.LocalSemanticSearchAdapter;
+import app.platform.adapters.search.OpenAIResponsesSemanticSearchAdapter;
+import app.platform.adapters.search.RipgrepTextSearchAdapter;
+import app.platform.adapters.vectorstore.OpenAIVectorStoreAdapter;
+import app.platform.openai.OpenAISettingsResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openai.client.OpenAIClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+
+@Configuration
+public class ProjectsConfig {
+  private static final String PROJECTS_PROPERTY = "codeassistant.projects";
+  private static final String DEFAULT_PROJECTS_ROOT = ".codeassistant/projects";
+
+  @Bean
+  public ProjectRegistry projectRegistry(
+      ProjectConfigPort projectConfigPort,
+      GitPort gitPort,
+      TrackedFilesService trackedFilesService,
+      ProjectStatePort projectStatePort,
+      StartInitialIndexUseCase startInitialIndexUseCase,
+      TextSearchPort textSearchPort,
+      SemanticSearchPort semanticSearchPort,
+      ObservationsPort observationsPort,
+      Environment environment,
+      ObjectMapper objectMapper,
+      ObjectProvider<OpenAIClient> openAIClient,
+      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+      IndexSchedulerPort indexIngestionScheduler,
+      IndexingPipelineSettings indexingPipelineSettings,
+      @Qualifier("indexJobSlots") Semaphore indexJobSlots,
+      MeterRegistry meterRegistry,
+      @Value("${codeassistant.textsearch.forceJavaFallback:false}") boolean forceJavaFallback,
+      @Value("${codeassistant.allowKeyInUi:false}") boolean allowKeyInUi,
+      @Value("${codeassistant.vectorstore.deleteConcurrency:8}") int deleteConcurrency,
+      @Value("${codeassistant.vectorstore.format:files}") String vectorStoreFormat,
+      @Value("${codeassistant.vectorstore.segmentSizeBytes:134217728}") long segmentSizeBytes,
+      @Value("${codeassistant.vectorstore.compression:none}") String vectorStoreCompression,
+      @Value("${codeassistant.vectorstore.compressionMinBytes:1024}") long compressionMinBytes,
+      @Value("${codeassistant.git.objectReader:process}") String gitObjectReader,
+      @Value("${codeassistant.git.catFileProcesses:4}") int catFileProcesses) {
+    List<ProjectWorkspace> workspaces = new ArrayList<>();
+    workspaces.add(
+        new ProjectWorkspace(
+            ProjectRegistry.DEFAULT_PROJECT,
+            projectConfigPort,
+            gitPort,
+            trackedFilesService,
+            projectStatePort,
+            startInitialIndexUseCase,
+            textSearchPort,
+            semanticSearchPort,
+            observationsPort));
+
+    Map<String, NamedProjectProperties> namedProjects =
+        Binder.get(environment)
+            .bind(
+                PROJECTS_PROPERTY,
+                Bindable.mapOf(String.class, NamedProjectProperties.class))
+            .orElseGet(Map::of);
+    for (Map.Entry<String, NamedProjectProperties> entry :
+        new TreeMap<>(namedProjects).entrySet()) {
+      String key = entry.getKey();
+      NamedProjectProperties properties = entry.getValue();
+      if (ProjectRegistry.DEFAULT_PROJECT.equals(key)) {
+        throw new IllegalStateException(
+            "Project key `" + ProjectRegistry.DEFAULT_PROJECT + "` is reserved.");
+      }
+      if (properties == null || isBlank(properties.localRepoPath())) {
+        throw new IllegalStateException(
+            PROJECTS_PROPERTY + "." + key + ".localRepoPath must be configured.");
+      }
+
+      ProjectConfig config =
+          new ProjectConfig(
+              ProjectConfigMode.LOCAL,
+              null,
+              properties.localRepoPath().trim(),
+              null,
+              null,
+              OpenAISettingsResolver.normalizeOptional(properties.openaiModel()),
+              OpenAISettingsResolver.normalizeOptional(properties.openaiVectorStoreId()));
+      ProjectConfigPort namedConfigPort = new StaticProjectConfigAdapter(key, config);
+      GitPort namedGitPort =
+          GitConfig.createGitPort(namedConfigPort, gitObjectReader, catFileProcesses);
+      TrackedFilesService namedTrackedFiles = new TrackedFilesService(namedGitPort);
+
+      VectorStorePort namedVectorStore;
+      SemanticSearchPort namedSemanticSearch;
+      if (config.openaiVectorStoreId() != null) {
+        OpenAIClient client = openAIClient.getIfAvailable();
+        if (client == null) {
+          throw new IllegalStateException(
+              "Project " + key + " uses an OpenAI vector store but no OpenAI API key is set.");
+        }
+        namedVectorStore =
+            new OpenAIVectorStoreAdapter(client, config.openaiVectorStoreId(), deleteConcurrency);
+        namedSemanticSearch =
+            new OpenAIResponsesSemanticSearchAdapter(
+                client,
+                new OpenAISettingsResolver(environment, namedConfigPort, allowKeyInUi),
+                objectMapper);
+      } else {
+        namedVectorStore =
+            VectorStoreConfig.createLocalVectorStore(
+                objectMapper,
+                orDefault(properties.vectorStorePath(), key, "vectorstore"),
+                vectorStoreFormat,
+                segmentSizeBytes,
+                isBlank(properties.vectorStoreCompression())
+                    ? vectorStoreCompression
+                    : properties.vectorStoreCompression(),
+                compressionMinBytes);
+        namedSemanticSearch = new LocalSemanticSearchAdapter(namedConfigPort, namedVectorStore);
+      }
+
+      ProjectStatePort namedState =
+          new VectorStoreProjectStateAdapter(namedVectorStore, objectMapper, namedConfigPort);
+      StartInitialIndexUseCase namedIndexUseCase =
+          new StartInitialIndexUseCase(
+              namedGitPort,
+              namedTrackedFiles,
+              namedState,
+              namedVectorStore,
+              new TrackedFileClassifier(namedState),
+              taskExecutor,
+              indexIngestionScheduler,
+              indexingPipelineSettings,
+              new FileIndexCheckpointAdapter(
+                  objectMapper,
+                  orDefault(properties.checkpointPath(), key, "index-checkpoint.jsonl")),
+              indexJobSlots,
+              new MicrometerIndexMetricsAdapter(meterRegistry, key));
+
+      workspaces.add(
+          new ProjectWorkspace(
+              key,
+              namedConfigPort,
+              namedGitPort,
+              namedTrackedFiles,
+              namedState,
+              namedIndexUseCase,
+              new RipgrepTextSearchAdapter(
+                  namedConfigPort, namedGitPort, namedTrackedFiles, forceJavaFallback),
+              namedSemanticSearch,
+              new VectorStoreObservationsAdapter(namedVectorStore)));
+    }
+    return new ProjectRegistry(workspaces);
+  }
+
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> resumeInterruptedNamedProjectJobs(
+      ProjectRegistry projectRegistry) {
+    return (event) -> {
+      for (ProjectWorkspace workspace : projectRegistry.all()) {
+        if (!ProjectRegistry.DEFAULT_PROJECT.equals(workspace.key())) {
+          workspace.indexUseCase().resumeInterruptedJob();
+        }
+      }
+    };
+  }
+
+  private static String orDefault(String configured, String key, String fileName) {
+    if (!isBlank(configured)) {
+      return configured.trim();
+    }
+    return Path.of(DEFAULT_PROJECTS_ROOT, key, fileName).toString();
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  public record NamedProjectProperties(
+      String localRepoPath,
+      String vectorStorePath,
+      String vectorStoreCompression,
+      String checkpointPath,
+      String openaiVectorStoreId,
+      String openaiModel) {}
+}
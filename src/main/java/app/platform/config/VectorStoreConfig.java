@@ -4,9 +4,11 @@ import app.core.projectconfig.ProjectConfigPort;
 import app.core.vectorstore.VectorStorePort;
 import app.platform.adapters.vectorstore.FileSystemVectorStoreAdapter;
 import app.platform.adapters.vectorstore.OpenAIVectorStoreAdapter;
+import app.platform.adapters.vectorstore.SegmentVectorStoreAdapter;
 import app.platform.openai.OpenAISettingsResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openai.client.OpenAIClient;
+import java.util.Locale;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -25,20 +27,61 @@ public class VectorStoreConfig {
   @Bean
   @ConditionalOnBean(OpenAIClient.class)
   @Conditional(OpenAIVectorStoreIdConfiguredCondition.class)
-  public VectorStorePort openAIVectorStorePort(OpenAIClient client, OpenAISettingsResolver resolver) {
+  public VectorStorePort openAIVectorStorePort(
+      OpenAIClient client,
+      OpenAISettingsResolver resolver,
+      @Value("${codeassistant.vectorstore.deleteConcurrency:8}") int deleteConcurrency) {
     String vectorStoreId = resolver.resolve().vectorStoreId();
     if (vectorStoreId == null) {
       throw new IllegalStateException("openaiVectorStoreId expected but not configured.");
     }
-    return new OpenAIVectorStoreAdapter(client, vectorStoreId);
+    return new OpenAIVectorStoreAdapter(client, vectorStoreId, deleteConcurrency);
   }
 
   @Bean
   @ConditionalOnMissingBean(VectorStorePort.class)
   public VectorStorePort fileSystemVectorStorePort(
       ObjectMapper objectMapper,
-      @Value("${codeassistant.vectorstore.path:.codeassistant/vectorstore}") String rootPath) {
-    return new FileSystemVectorStoreAdapter(objectMapper, rootPath);
+      @Value("${codeassistant.vectorstore.path:.codeassistant/vectorstore}") String rootPath,
+      @Value("${codeassistant.vectorstore.format:files}") String format,
+      @Value("${codeassistant.vectorstore.segmentSizeBytes:134217728}") long segmentSizeBytes,
+      @Value("${codeassistant.vectorstore.compression:none}") String compression,
+      @Value("${codeassistant.vectorstore.compressionMinBytes:1024}") long compressionMinBytes) {
+    return createLocalVectorStore(
+        objectMapper, rootPath, format, segmentSizeBytes, compression, compressionMinBytes);
+  }
+
+  static VectorStorePort createLocalVectorStore(
+      ObjectMapper objectMapper,
+      String rootPath,
+      String format,
+      long segmentSizeBytes,
+      String compression,
+      long compressionMinBytes) {
+    String normalized = normalize(format);
+    return switch (normalized) {
+      case "", "files" ->
+          new FileSystemVectorStoreAdapter(
+              objectMapper, rootPath, isDeflate(compression), compressionMinBytes);
+      case "segments" -> new SegmentVectorStoreAdapter(objectMapper, rootPath, segmentSizeBytes);
+      default ->
+          throw new IllegalStateException(
+              "codeassistant.vectorstore.format must be one of: files, segments.");
+    };
+  }
+
+  private static boolean isDeflate(String compression) {
+    return switch (normalize(compression)) {
+      case "", "none" -> false;
+      case "deflate" -> true;
+      default ->
+          throw new IllegalStateException(
+              "codeassistant.vectorstore.compression must be one of: none, deflate.");
+    };
+  }
+
+  private static String normalize(String value) {
+    return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
   }
 
   static class OpenAIVectorStoreIdConfiguredCondition implements Condition {
@@ -0,0 +1,51 @@
+package app.platform.config;
+
+import app.core.git.TrackedFilesService;
+import app.core.indexing.StartInitialIndexUseCase;
+import app.core.projectconfig.ProjectConfig;
+import app.core.projectconfig.ProjectConfigPort;
+import app.platform.adapters.watch.WorkingTreeWatcher;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!test & !e2etest")
+@ConditionalOnProperty(name = "codeassistant.indexing.watch.enabled", havingValue = "true")
+public class WorkingTreeWatchConfig {
+  @Bean(destroyMethod = "stop")
+  public WorkingTreeWatcher workingTreeWatcher(
+      ProjectConfigPort projectConfigPort,
+      TrackedFilesService trackedFilesService,
+      StartInitialIndexUseCase startInitialIndexUseCase,
+      @Value("${codeassistant.indexing.watch.mode:AUTO}") WorkingTreeWatcher.Mode mode,
+      @Value("${codeassistant.indexing.watch.debounceMillis:500}") long debounceMillis,
+      @Value("${codeassistant.indexing.watch.maxDelayMillis:5000}") long maxDelayMillis,
+      @Value("${codeassistant.indexing.watch.pollIntervalMillis:1000}") long pollIntervalMillis) {
+    return new WorkingTreeWatcher(
+        () ->
+            projectConfigPort
+                .load()
+                .map(ProjectConfig::localRepoPath)
+                .filter(path -> !path.isBlank())
+                .map(Path::of),
+        trackedFilesService::snapshot,
+        startInitialIndexUseCase::syncWorkingTreeChanges,
+        mode,
+        Duration.ofMillis(debounceMillis),
+        Duration.ofMillis(maxDelayMillis),
+        Duration.ofMillis(pollIntervalMillis));
+  }
+
+  @Bean
+  public ApplicationListener<ApplicationReadyEvent> startWorkingTreeWatcher(
+      WorkingTreeWatcher workingTreeWatcher) {
+    return (event) -> workingTreeWatcher.start();
+  }
+}
@@ -1,6 +1,7 @@
 package app.platform.delivery.web;
 
 import app.core.git.GitPort;
+import app.core.git.TrackedFilesService;
 import app.core.projectconfig.ProjectConfigPort;
 import app.core.projectstate.ProjectMetadataState;
 import app.core.projectstate.ProjectStatePort;
@@ -10,8 +11,6 @@ import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
-import java.util.Set;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,12 +21,17 @@ public class FileViewerController {
   private final ProjectConfigPort projectConfigPort;
   private final ProjectStatePort projectStatePort;
   private final GitPort gitPort;
+  private final TrackedFilesService trackedFilesService;
 
   public FileViewerController(
-      ProjectConfigPort projectConfigPort, ProjectStatePort projectStatePort, GitPort gitPort) {
+      ProjectConfigPort projectConfigPort,
+      ProjectStatePort projectStatePort,
+      GitPort gitPort,
+      TrackedFilesService trackedFilesService) {
     this.projectConfigPort = projectConfigPort;
     this.projectStatePort = projectStatePort;
     this.gitPort = gitPort;
+    this.trackedFilesService = trackedFilesService;
   }
 
   @GetMapping("/file")
@@ -65,8 +69,7 @@ public class FileViewerController {
 
     model.addAttribute("path", normalizedPath);
 
-    Set<String> trackedFiles = new HashSet<>(gitPort.listTrackedFiles());
-    if (!trackedFiles.contains(normalizedPath)) {
+    if (!trackedFilesService.snapshot().contains(normalizedPath)) {
       model.addAttribute("error", "File is not tracked: " + normalizedPath);
       return "file";
     }
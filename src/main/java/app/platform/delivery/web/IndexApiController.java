@@ -1,39 +1,83 @@
 package app.platform.delivery.web;
 
-import app.core.git.GitPort;
+import app.core.indexing.AutoIndexUpdateTrigger;
 import app.core.indexing.IndexIngestionStatus;
+import app.core.indexing.IndexJobKind;
 import app.core.indexing.IndexJobState;
 import app.core.indexing.IndexJobStatus;
+import app.core.indexing.IndexJobsOverview;
 import app.core.indexing.StartInitialIndexUseCase;
+import app.core.projects.ProjectRegistry;
+import app.core.projects.ProjectWorkspace;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 public class IndexApiController {
-  private final StartInitialIndexUseCase startInitialIndexUseCase;
-  private final GitPort gitPort;
+  private static final Duration EVENTS_TIMEOUT = Duration.ofMinutes(30);
 
-  public IndexApiController(StartInitialIndexUseCase startInitialIndexUseCase, GitPort gitPort) {
-    this.startInitialIndexUseCase = startInitialIndexUseCase;
-    this.gitPort = gitPort;
+  private static final String SIGNATURE_HEADER = "X-Hub-Signature-256";
+  private static final String SIGNATURE_PREFIX = "sha256=";
+
+  private final ProjectRegistry projectRegistry;
+  private final AutoIndexUpdateTrigger autoIndexUpdateTrigger;
+  private final boolean webhookEnabled;
+  private final String webhookSecret;
+  private final Map<String, AutoIndexUpdateTrigger> projectTriggers = new ConcurrentHashMap<>();
+
+  public IndexApiController(
+      ProjectRegistry projectRegistry,
+      AutoIndexUpdateTrigger autoIndexUpdateTrigger,
+      @Value("${codeassistant.indexing.autoUpdate.webhookEnabled:false}") boolean webhookEnabled,
+      @Value("${codeassistant.indexing.autoUpdate.webhookSecret:}") String webhookSecret) {
+    this.projectRegistry = projectRegistry;
+    this.autoIndexUpdateTrigger = autoIndexUpdateTrigger;
+    this.webhookEnabled = webhookEnabled;
+    this.webhookSecret = webhookSecret == null ? "" : webhookSecret;
   }
 
   @PostMapping(path = "/api/index/initial", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<IndexJobState> startInitialIndex() {
-    return ResponseEntity.accepted().body(startInitialIndexUseCase.startInitialIndex());
+  public ResponseEntity<IndexJobState> startInitialIndex(
+      @RequestParam(name = "project", required = false) String project) {
+    StartInitialIndexUseCase useCase = indexUseCase(project);
+    if (useCase == null) {
+      return unknownProject(project);
+    }
+    return ResponseEntity.accepted().body(useCase.startInitialIndex());
   }
 
   @PostMapping(
       path = "/api/index/update",
       consumes = MediaType.APPLICATION_JSON_VALUE,
       produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<IndexJobState> startUpdateIndex(@RequestBody UpdateIndexRequest request) {
+  public ResponseEntity<IndexJobState> startUpdateIndex(
+      @RequestBody UpdateIndexRequest request,
+      @RequestParam(name = "project", required = false) String project) {
+    StartInitialIndexUseCase useCase = indexUseCase(project);
+    if (useCase == null) {
+      return unknownProject(project);
+    }
     if (request == null || request.commit() == null || request.commit().isBlank()) {
       return ResponseEntity.badRequest()
           .body(
@@ -48,7 +92,7 @@ public class IndexApiController {
 
     try {
       return ResponseEntity.accepted()
-          .body(startInitialIndexUseCase.startUpdateIndex(request.commit().trim()));
+          .body(useCase.startUpdateIndex(request.commit().trim()));
     } catch (IllegalArgumentException e) {
       return ResponseEntity.badRequest()
           .body(
@@ -66,7 +110,13 @@ public class IndexApiController {
       path = "/api/index/reload",
       consumes = MediaType.APPLICATION_JSON_VALUE,
       produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<IndexJobState> startReloadIndex(@RequestBody UpdateIndexRequest request) {
+  public ResponseEntity<IndexJobState> startReloadIndex(
+      @RequestBody UpdateIndexRequest request,
+      @RequestParam(name = "project", required = false) String project) {
+    StartInitialIndexUseCase useCase = indexUseCase(project);
+    if (useCase == null) {
+      return unknownProject(project);
+    }
     if (request == null || request.commit() == null || request.commit().isBlank()) {
       return ResponseEntity.badRequest()
           .body(
@@ -81,7 +131,7 @@ public class IndexApiController {
 
     try {
       return ResponseEntity.accepted()
-          .body(startInitialIndexUseCase.startFullReloadIndex(request.commit().trim()));
+          .body(useCase.startFullReloadIndex(request.commit().trim()));
     } catch (IllegalArgumentException e) {
       return ResponseEntity.badRequest()
           .body(
@@ -95,15 +145,189 @@ public class IndexApiController {
     }
   }
 
+  @PostMapping(
+      path = "/api/index/plan",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> planIndex(
+      @RequestBody IndexPlanRequest request,
+      @RequestParam(name = "project", required = false) String project) {
+    StartInitialIndexUseCase useCase = indexUseCase(project);
+    if (useCase == null) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(new ErrorResponse(SearchApiController.unknownProject(project)));
+    }
+    if (request == null || request.mode() == null || request.mode().isBlank()) {
+      return ResponseEntity.badRequest().body(new ErrorResponse("Field `mode` is required."));
+    }
+
+    IndexJobKind kind =
+        switch (request.mode().trim().toLowerCase(Locale.ROOT)) {
+          case "update" -> IndexJobKind.UPDATE;
+          case "reload" -> IndexJobKind.RELOAD;
+          default -> null;
+        };
+    if (kind == null) {
+      return ResponseEntity.badRequest()
+          .body(new ErrorResponse("Field `mode` must be one of: update, reload."));
+    }
+
+    try {
+      return ResponseEntity.ok(useCase.planIndex(kind, request.commit()));
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    }
+  }
+
+  @PostMapping(path = "/api/index/webhook/push", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<IndexJobState> handlePushWebhook(
+      @RequestParam(name = "project", required = false) String project,
+      @RequestHeader(name = SIGNATURE_HEADER, required = false) String signature,
+      @RequestBody(required = false) byte[] body) {
+    if (!webhookEnabled) {
+      return ResponseEntity.notFound().build();
+    }
+    if (webhookSecret.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    if (!isValidSignature(signature, body)) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+    ProjectWorkspace workspace = projectRegistry.find(project).orElse(null);
+    if (workspace == null) {
+      return unknownProject(project);
+    }
+
+    try {
+      autoIndexUpdateTrigger(workspace).requestUpdate();
+      return ResponseEntity.accepted().body(workspace.indexUseCase().getStatus());
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(
+              new IndexJobState(
+                  IndexJobStatus.FAILED,
+                  "Failed.",
+                  Instant.now(),
+                  Instant.now(),
+                  e.getMessage(),
+                  IndexIngestionStatus.empty()));
+    }
+  }
+
+  @PostMapping(path = "/api/index/cancel", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<IndexJobState> cancelIndexJob(
+      @RequestParam(name = "project", required = false) String project) {
+    StartInitialIndexUseCase useCase = indexUseCase(project);
+    if (useCase == null) {
+      return unknownProject(project);
+    }
+    return ResponseEntity.ok(useCase.cancelCurrentJob());
+  }
+
+  @GetMapping(path = "/api/index/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<IndexJobsOverview> getIndexJobs(
+      @RequestParam(name = "project", required = false) String project) {
+    StartInitialIndexUseCase useCase = indexUseCase(project);
+    if (useCase == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(useCase.getJobs());
+  }
+
   @GetMapping(path = "/api/index/status", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<IndexJobState> getIndexStatus() {
-    return ResponseEntity.ok(startInitialIndexUseCase.getStatus());
+  public ResponseEntity<IndexJobState> getIndexStatus(
+      @RequestParam(name = "project", required = false) String project) {
+    StartInitialIndexUseCase useCase = indexUseCase(project);
+    if (useCase == null) {
+      return unknownProject(project);
+    }
+    return ResponseEntity.ok(useCase.getStatus());
+  }
+
+  @GetMapping(path = "/api/index/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamIndexEvents(
+      @RequestParam(name = "project", required = false) String project) {
+    StartInitialIndexUseCase useCase = indexUseCase(project);
+    if (useCase == null) {
+      return ResponseEntity.notFound().build();
+    }
+
+    SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT.toMillis());
+    SseStateListener listener = new SseStateListener(emitter);
+    Runnable unsubscribe =
+        () -> {
+          listener.close();
+          useCase.removeStateListener(listener);
+        };
+    emitter.onCompletion(unsubscribe);
+    emitter.onTimeout(unsubscribe);
+    emitter.onError((e) -> unsubscribe.run());
+
+    useCase.addStateListener(listener);
+    listener.accept(useCase.getStatus());
+    return ResponseEntity.ok(emitter);
   }
 
   @GetMapping(path = "/api/index/tracked-files", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<List<String>> getTrackedFiles() {
-    return ResponseEntity.ok(gitPort.listTrackedFiles());
+  public ResponseEntity<List<String>> getTrackedFiles(
+      @RequestParam(name = "project", required = false) String project) {
+    return projectRegistry
+        .find(project)
+        .map(workspace -> ResponseEntity.ok(workspace.trackedFiles().snapshot().paths()))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  private AutoIndexUpdateTrigger autoIndexUpdateTrigger(ProjectWorkspace workspace) {
+    if (workspace == projectRegistry.getDefault()) {
+      return autoIndexUpdateTrigger;
+    }
+    return projectTriggers.computeIfAbsent(
+        workspace.key(),
+        key ->
+            autoIndexUpdateTrigger.forProject(
+                workspace.indexUseCase(), workspace.gitPort(), workspace.projectStatePort()));
+  }
+
+  private StartInitialIndexUseCase indexUseCase(String project) {
+    return projectRegistry.find(project).map(ProjectWorkspace::indexUseCase).orElse(null);
+  }
+
+  private static ResponseEntity<IndexJobState> unknownProject(String project) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+        .body(
+            new IndexJobState(
+                IndexJobStatus.FAILED,
+                "Failed.",
+                Instant.now(),
+                Instant.now(),
+                SearchApiController.unknownProject(project),
+                IndexIngestionStatus.empty()));
+  }
+
+  private boolean isValidSignature(String signature, byte[] body) {
+    if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+      return false;
+    }
+    byte[] expected;
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+      expected = mac.doFinal(body == null ? new byte[0] : body);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Missing HmacSHA256 Mac.", e);
+    }
+    byte[] actual;
+    try {
+      actual = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return MessageDigest.isEqual(expected, actual);
   }
 
   public record UpdateIndexRequest(String commit) {}
+
+  public record IndexPlanRequest(String mode, String commit) {}
+
+  public record ErrorResponse(String error) {}
 }
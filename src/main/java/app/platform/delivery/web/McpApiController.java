@@ -1,13 +1,12 @@
 package app.platform.delivery.web;
 
+import app.core.projects.ProjectRegistry;
+import app.core.projects.ProjectWorkspace;
 import app.core.search.InvalidRegexException;
-import app.core.search.SemanticSearchPort;
 import app.core.search.SemanticSearchResponse;
-import app.core.search.TextSearchPort;
 import app.core.search.TextSearchResponse;
 import app.core.observations.Observation;
 import app.core.observations.ObservationSubtype;
-import app.core.observations.ObservationsPort;
 import app.platform.mcp.api.McpSearchRequest;
 import app.platform.mcp.api.McpSearchResponse;
 import app.platform.mcp.api.McpWriteObservationRequest;
@@ -16,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Locale;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,19 +26,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class McpApiController {
   private final McpToolRegistry mcpToolRegistry;
-  private final TextSearchPort textSearchPort;
-  private final SemanticSearchPort semanticSearchPort;
-  private final ObservationsPort observationsPort;
+  private final ProjectRegistry projectRegistry;
 
-  public McpApiController(
-      McpToolRegistry mcpToolRegistry,
-      TextSearchPort textSearchPort,
-      SemanticSearchPort semanticSearchPort,
-      ObservationsPort observationsPort) {
+  public McpApiController(McpToolRegistry mcpToolRegistry, ProjectRegistry projectRegistry) {
     this.mcpToolRegistry = mcpToolRegistry;
-    this.textSearchPort = textSearchPort;
-    this.semanticSearchPort = semanticSearchPort;
-    this.observationsPort = observationsPort;
+    this.projectRegistry = projectRegistry;
   }
 
   @GetMapping(path = "/api/mcp/status", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -60,12 +52,16 @@ public class McpApiController {
     if (request.query() == null || request.query().isBlank()) {
       return ResponseEntity.badRequest().body(new ErrorResponse("Field `query` must not be blank."));
     }
+    ProjectWorkspace workspace = projectRegistry.find(request.project()).orElse(null);
+    if (workspace == null) {
+      return unknownProject(request.project());
+    }
 
     String mode = request.mode().trim().toLowerCase(java.util.Locale.ROOT);
     if ("text".equals(mode)) {
       boolean regex = Boolean.TRUE.equals(request.regex());
       try {
-        TextSearchResponse response = textSearchPort.search(request.query(), regex);
+        TextSearchResponse response = workspace.textSearchPort().search(request.query(), regex);
         return ResponseEntity.ok(new McpSearchResponse("text", response, null));
       } catch (InvalidRegexException e) {
         TextSearchResponse response = new TextSearchResponse(request.query(), List.of(), e.getMessage());
@@ -80,7 +76,8 @@ public class McpApiController {
       if (request.subtype() != null && !request.subtype().isBlank())
         filters.put("subtype", request.subtype().trim());
 
-      SemanticSearchResponse response = semanticSearchPort.search(request.query(), k, filters);
+      SemanticSearchResponse response =
+          workspace.semanticSearchPort().search(request.query(), k, filters);
       McpSearchResponse mcpResponse = new McpSearchResponse("semantic", null, response);
       if (response.error() != null) {
         return ResponseEntity.badRequest().body(mcpResponse);
@@ -102,6 +99,10 @@ public class McpApiController {
     if (request.text() == null || request.text().isBlank()) {
       return ResponseEntity.badRequest().body(new ErrorResponse("Field `text` must not be blank."));
     }
+    ProjectWorkspace workspace = projectRegistry.find(request.project()).orElse(null);
+    if (workspace == null) {
+      return unknownProject(request.project());
+    }
 
     ObservationSubtype parsedSubtype;
     try {
@@ -116,13 +117,18 @@ public class McpApiController {
     }
 
     try {
-      Observation saved = observationsPort.save(request.text(), parsedSubtype);
+      Observation saved = workspace.observationsPort().save(request.text(), parsedSubtype);
       return ResponseEntity.ok(saved);
     } catch (IllegalArgumentException e) {
       return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
     }
   }
 
+  private static ResponseEntity<ErrorResponse> unknownProject(String project) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+        .body(new ErrorResponse(SearchApiController.unknownProject(project)));
+  }
+
   public record McpStatusResponse(boolean running, List<String> tools) {}
 
   public record ErrorResponse(String error) {}
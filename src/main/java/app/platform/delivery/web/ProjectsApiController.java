@@ -0,0 +1,26 @@
+package app.platform.delivery.web;
+
+import app.core.indexing.IndexJobState;
+import app.core.projects.ProjectRegistry;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ProjectsApiController {
+  private final ProjectRegistry projectRegistry;
+
+  public ProjectsApiController(ProjectRegistry projectRegistry) {
+    this.projectRegistry = projectRegistry;
+  }
+
+  @GetMapping(path = "/api/projects", produces = MediaType.APPLICATION_JSON_VALUE)
+  public List<ProjectSummary> projects() {
+    return projectRegistry.all().stream()
+        .map(workspace -> new ProjectSummary(workspace.key(), workspace.indexUseCase().getStatus()))
+        .toList();
+  }
+
+  public record ProjectSummary(String key, IndexJobState index) {}
+}
@@ -1,13 +1,14 @@
 package app.platform.delivery.web;
 
+import app.core.projects.ProjectRegistry;
+import app.core.projects.ProjectWorkspace;
 import app.core.search.InvalidRegexException;
-import app.core.search.SemanticSearchPort;
 import app.core.search.SemanticSearchResponse;
-import app.core.search.TextSearchPort;
 import app.core.search.TextSearchResponse;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,20 +17,24 @@ import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class SearchApiController {
-  private final TextSearchPort textSearchPort;
-  private final SemanticSearchPort semanticSearchPort;
+  private final ProjectRegistry projectRegistry;
 
-  public SearchApiController(TextSearchPort textSearchPort, SemanticSearchPort semanticSearchPort) {
-    this.textSearchPort = textSearchPort;
-    this.semanticSearchPort = semanticSearchPort;
+  public SearchApiController(ProjectRegistry projectRegistry) {
+    this.projectRegistry = projectRegistry;
   }
 
   @GetMapping(path = "/api/search/text", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<TextSearchResponse> searchText(
       @RequestParam(name = "query", required = false) String query,
-      @RequestParam(name = "regex", required = false, defaultValue = "false") boolean regex) {
+      @RequestParam(name = "regex", required = false, defaultValue = "false") boolean regex,
+      @RequestParam(name = "project", required = false) String project) {
+    ProjectWorkspace workspace = projectRegistry.find(project).orElse(null);
+    if (workspace == null) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(new TextSearchResponse(query, List.of(), unknownProject(project)));
+    }
     try {
-      return ResponseEntity.ok(textSearchPort.search(query, regex));
+      return ResponseEntity.ok(workspace.textSearchPort().search(query, regex));
     } catch (InvalidRegexException e) {
       return ResponseEntity.badRequest().body(new TextSearchResponse(query, List.of(), e.getMessage()));
     }
@@ -40,15 +45,26 @@ public class SearchApiController {
       @RequestParam(name = "query", required = false) String query,
       @RequestParam(name = "k", required = false, defaultValue = "10") int k,
       @RequestParam(name = "type", required = false) String type,
-      @RequestParam(name = "subtype", required = false) String subtype) {
+      @RequestParam(name = "subtype", required = false) String subtype,
+      @RequestParam(name = "project", required = false) String project) {
+    ProjectWorkspace workspace = projectRegistry.find(project).orElse(null);
+    if (workspace == null) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(new SemanticSearchResponse(query, List.of(), unknownProject(project)));
+    }
+
     Map<String, String> filters = new HashMap<>();
     if (type != null && !type.isBlank()) filters.put("type", type.trim());
     if (subtype != null && !subtype.isBlank()) filters.put("subtype", subtype.trim());
 
-    SemanticSearchResponse response = semanticSearchPort.search(query, k, filters);
+    SemanticSearchResponse response = workspace.semanticSearchPort().search(query, k, filters);
     if (response.error() != null) {
       return ResponseEntity.badRequest().body(response);
     }
     return ResponseEntity.ok(response);
   }
+
+  static String unknownProject(String project) {
+    return "Unknown project: " + project.trim();
+  }
 }
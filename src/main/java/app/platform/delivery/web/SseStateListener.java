@@ -0,0 +1,79 @@
+package app.platform.delivery.web;
+
+import app.core.indexing.IndexJobState;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+final class SseStateListener implements Consumer<IndexJobState> {
+  private static final ExecutorService SENDERS =
+      Executors.newCachedThreadPool(
+          new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+              Thread thread =
+                  new Thread(runnable, "index-events-sender-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+
+  private final SseEmitter emitter;
+  private final AtomicReference<IndexJobState> latest = new AtomicReference<>();
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private volatile boolean closed;
+
+  SseStateListener(SseEmitter emitter) {
+    this.emitter = emitter;
+  }
+
+  @Override
+  public void accept(IndexJobState state) {
+    if (closed) {
+      throw new IllegalStateException("Index event stream is closed.");
+    }
+    latest.set(state);
+    if (draining.compareAndSet(false, true)) {
+      SENDERS.execute(this::drain);
+    }
+  }
+
+  void close() {
+    closed = true;
+  }
+
+  private void drain() {
+    do {
+      IndexJobState state;
+      while ((state = latest.getAndSet(null)) != null) {
+        if (!send(state)) {
+          return;
+        }
+      }
+      draining.set(false);
+    } while (latest.get() != null && draining.compareAndSet(false, true));
+  }
+
+  private boolean send(IndexJobState state) {
+    if (closed) {
+      return false;
+    }
+    try {
+      emitter.send(SseEmitter.event().name("state").data(state, MediaType.APPLICATION_JSON));
+      return true;
+    } catch (Exception e) {
+      closed = true;
+      latest.set(null);
+      emitter.completeWithError(e);
+      return false;
+    }
+  }
+}
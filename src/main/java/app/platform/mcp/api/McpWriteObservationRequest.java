@@ -1,4 +1,4 @@
 package app.platform.mcp.api;
 
-public record McpWriteObservationRequest(String text, String subtype) {}
+public record McpWriteObservationRequest(String text, String subtype, String project) {}
 
@@ -0,0 +1,53 @@
+package app.core.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TrackedFilesServiceTest {
+  private final GitPort gitPort = mock(GitPort.class);
+  private final TrackedFilesService service = new TrackedFilesService(gitPort);
+
+  @Test
+  void snapshot_reusesListUntilStampChanges() {
+    when(gitPort.trackedFilesStamp()).thenReturn("s1", "s1", "s2", "s3");
+    List<String> both = List.of("a.txt", "b.txt");
+    when(gitPort.listTrackedFiles())
+        .thenReturn(both)
+        .thenReturn(both)
+        .thenReturn(List.of("a.txt"));
+
+    TrackedFilesSnapshot first = service.snapshot();
+    assertSame(first, service.snapshot());
+    assertEquals(1, first.version());
+    assertTrue(first.contains("b.txt"));
+    verify(gitPort, times(1)).listTrackedFiles();
+
+    assertSame(first, service.snapshot());
+    verify(gitPort, times(2)).listTrackedFiles();
+
+    TrackedFilesSnapshot changed = service.snapshot();
+    assertEquals(2, changed.version());
+    assertFalse(changed.contains("b.txt"));
+    assertEquals(List.of("a.txt"), changed.paths());
+  }
+
+  @Test
+  void snapshot_withoutStampListsEveryTime() {
+    when(gitPort.listTrackedFiles()).thenReturn(List.of("a.txt"));
+
+    service.snapshot();
+    service.snapshot();
+
+    verify(gitPort, times(2)).listTrackedFiles();
+    assertEquals(1, service.snapshot().version());
+  }
+}
@@ -0,0 +1,132 @@
+package app.core.indexing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import app.core.git.GitPort;
+import app.core.projectstate.ProjectMetadata;
+import app.core.projectstate.ProjectMetadataState;
+import app.core.projectstate.ProjectStatePort;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class AutoIndexUpdateTriggerTest {
+  private final StartInitialIndexUseCase useCase = mock(StartInitialIndexUseCase.class);
+  private final GitPort gitPort = mock(GitPort.class);
+  private final ProjectStatePort projectStatePort = mock(ProjectStatePort.class);
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+  private final AutoIndexUpdateTrigger trigger =
+      new AutoIndexUpdateTrigger(
+          useCase, gitPort, projectStatePort, "HEAD", Duration.ofSeconds(60), clock);
+
+  @Test
+  void requestUpdate_withinMinInterval_coalescesIntoOneUpdateToLatestHead() {
+    indexedAt("a");
+    when(gitPort.getHeadCommit()).thenReturn("b");
+
+    assertEquals(Optional.of("b"), trigger.requestUpdate());
+
+    when(gitPort.getHeadCommit()).thenReturn("c", "d");
+    assertEquals(Optional.empty(), trigger.requestUpdate());
+    assertEquals(Optional.empty(), trigger.requestUpdate());
+    clock.advance(Duration.ofSeconds(61));
+
+    assertEquals(Optional.of("c"), trigger.flushPending());
+    assertEquals(Optional.empty(), trigger.flushPending());
+    verify(useCase).startUpdateIndex("b");
+    verify(useCase).startUpdateIndex("c");
+    verify(useCase, times(2)).startUpdateIndex(anyString());
+  }
+
+  @Test
+  void pollHead_triggersOnlyWhenHeadMovesPastIndexedCommit() {
+    indexedAt("a");
+    when(gitPort.getHeadCommit()).thenReturn("a");
+    trigger.pollHead();
+    verify(useCase, never()).startUpdateIndex(anyString());
+
+    when(gitPort.getHeadCommit()).thenReturn("b");
+    when(useCase.getStatus()).thenReturn(state(IndexJobStatus.RUNNING));
+    trigger.pollHead();
+    clock.advance(Duration.ofSeconds(61));
+    trigger.pollHead();
+
+    verify(useCase, times(1)).startUpdateIndex("b");
+  }
+
+  @Test
+  void pollHead_afterTriggeredJobFailed_retriesTheSameCommit() {
+    indexedAt("a");
+    when(gitPort.getHeadCommit()).thenReturn("b");
+    when(useCase.getStatus()).thenReturn(state(IndexJobStatus.RUNNING));
+    trigger.pollHead();
+    clock.advance(Duration.ofSeconds(61));
+    trigger.pollHead();
+    verify(useCase, times(1)).startUpdateIndex("b");
+
+    when(useCase.getStatus()).thenReturn(state(IndexJobStatus.FAILED));
+    trigger.pollHead();
+
+    verify(useCase, times(2)).startUpdateIndex("b");
+  }
+
+  @Test
+  void pollHead_withoutPriorIndex_doesNotStartUpdate() {
+    when(projectStatePort.readMetadata()).thenReturn(Optional.empty());
+    when(gitPort.getHeadCommit()).thenReturn("b");
+
+    trigger.pollHead();
+    trigger.requestUpdate();
+
+    verify(useCase, never()).startUpdateIndex(anyString());
+  }
+
+  private static IndexJobState state(IndexJobStatus status) {
+    return new IndexJobState(status, "", null, null, null, IndexIngestionStatus.empty());
+  }
+
+  private void indexedAt(String commit) {
+    ProjectMetadata metadata =
+        ProjectMetadata.initial().withIndexingUpdate(commit, Map.of(), Map.of());
+    when(projectStatePort.readMetadata())
+        .thenReturn(Optional.of(new ProjectMetadataState("metadata", metadata, Map.of())));
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
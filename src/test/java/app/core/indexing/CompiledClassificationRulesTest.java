@@ -0,0 +1,91 @@
+package app.core.indexing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.projectstate.ProjectMetadata;
+import app.core.projectstate.ProjectMetadata.ClassificationRule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CompiledClassificationRulesTest {
+  @Test
+  void classify_withDefaultRules_matchesFirstPrefixThenKnownExtensions() {
+    CompiledClassificationRules rules =
+        CompiledClassificationRules.compile(ProjectMetadata.defaultClassificationRules());
+
+    String corePath = "src/main/java/app/core/A.java";
+    assertEquals(
+        Map.of("type", "code", "subtype", "business_logic", "path", corePath),
+        rules.classify(corePath).orElseThrow().attributes());
+    assertEquals("readme", subtypeOf(rules, "./README.md"));
+    assertEquals(
+        Map.of("type", "code", "subtype", "other", "path", "scripts/build.sh"),
+        rules.classify("scripts\\build.sh").orElseThrow().attributes());
+    assertTrue(rules.classify("docs/image.png").isEmpty());
+  }
+
+  @Test
+  void classify_usesRuleOrderAcrossPrefixExtensionAndGlobRules() {
+    CompiledClassificationRules rules =
+        CompiledClassificationRules.compile(
+            List.of(
+                new ClassificationRule(null, null, null, "**/generated/**", true, null),
+                new ClassificationRule("docs/", "documentation", "guide", "*.md", null, null),
+                new ClassificationRule(null, "documentation", "markdown", "*.md", null, null),
+                new ClassificationRule("src/", "code", "source"),
+                new ClassificationRule(null, "code", "config", "**/*.{yml,yaml}", null, 100L)));
+
+    assertTrue(rules.classify("src/generated/Model.java").isEmpty());
+    assertEquals("guide", subtypeOf(rules, "docs/setup/intro.md"));
+    assertEquals("markdown", subtypeOf(rules, "src/notes.md"));
+    assertEquals("source", subtypeOf(rules, "src/app.yml"));
+
+    IndexUploadPipeline.FileClassification config = rules.classify("deploy/app.yaml").orElseThrow();
+    assertEquals("config", config.attributes().get("subtype"));
+    assertEquals(100L, config.maxSizeBytes());
+    assertEquals(
+        CompiledClassificationRules.NO_SIZE_LIMIT,
+        rules.classify("docs/intro.md").orElseThrow().maxSizeBytes());
+  }
+
+  @Test
+  void classify_skipsIncompleteRules() {
+    List<ClassificationRule> input = new ArrayList<>();
+    input.add(null);
+    input.add(new ClassificationRule("", "code", "empty"));
+    input.add(new ClassificationRule("src/", null, "missing-type"));
+    input.add(new ClassificationRule("src/", "code", "source"));
+
+    CompiledClassificationRules rules = CompiledClassificationRules.compile(input);
+
+    assertEquals("source", subtypeOf(rules, "src/A.txt"));
+  }
+
+  @Test
+  void classify_handlesManyPathsWithoutReloadingRules() {
+    List<ClassificationRule> input = new ArrayList<>(ProjectMetadata.defaultClassificationRules());
+    for (int i = 0; i < 200; i++) {
+      input.add(new ClassificationRule("modules/m" + i + "/", "code", "module" + i));
+    }
+    input.add(new ClassificationRule(null, null, null, "**/*.min.js", true, null));
+    CompiledClassificationRules rules = CompiledClassificationRules.compile(input);
+
+    int classified = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (rules.classify("modules/m" + (i % 250) + "/src/File" + i + ".java").isPresent()) {
+        classified++;
+      }
+    }
+
+    assertEquals(100_000, classified);
+    assertEquals("module7", subtypeOf(rules, "modules/m7/src/File.java"));
+    assertTrue(rules.classify("web/app.min.js").isEmpty());
+  }
+
+  private static String subtypeOf(CompiledClassificationRules rules, String path) {
+    return rules.classify(path).orElseThrow().attributes().get("subtype");
+  }
+}
@@ -0,0 +1,74 @@
+package app.core.indexing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class FileChunkerTest {
+  @Test
+  void chunk_whenContentFits_returnsSingleChunkWithLineRange() {
+    FileChunker chunker = new FileChunker(100, 10);
+
+    List<FileChunker.FileChunk> chunks =
+        chunker.chunk("one\ntwo\nthree\n".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(1, chunks.size());
+    assertEquals(0, chunks.get(0).index());
+    assertEquals(1, chunks.get(0).startLine());
+    assertEquals(3, chunks.get(0).endLine());
+    assertEquals(
+        Map.of("path", "a.txt", "chunkIndex", "0", "startLine", "1", "endLine", "3"),
+        chunks.get(0).attributes(Map.of("path", "a.txt")));
+  }
+
+  @Test
+  void chunk_whenContentExceedsLimit_splitsOnLinesWithOverlap() {
+    StringBuilder content = new StringBuilder();
+    for (int i = 1; i <= 10; i++) {
+      content.append("line").append(i < 10 ? "0" : "").append(i).append('\n');
+    }
+    FileChunker chunker = new FileChunker(28, 7);
+
+    List<FileChunker.FileChunk> chunks =
+        chunker.chunk(content.toString().getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(3, chunks.size());
+    assertEquals(1, chunks.get(0).startLine());
+    assertEquals(4, chunks.get(0).endLine());
+    assertEquals(4, chunks.get(1).startLine());
+    assertEquals(7, chunks.get(1).endLine());
+    assertEquals(7, chunks.get(2).startLine());
+    assertEquals(10, chunks.get(2).endLine());
+    for (FileChunker.FileChunk chunk : chunks) {
+      assertTrue(chunk.content().length <= 28, "Chunk too large: " + chunk.content().length);
+    }
+  }
+
+  @Test
+  void chunk_whenSingleLineExceedsLimit_splitsLine() {
+    FileChunker chunker = new FileChunker(10, 0);
+
+    List<FileChunker.FileChunk> chunks =
+        chunker.chunk("x".repeat(25).getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(3, chunks.size());
+    assertEquals(1, chunks.get(2).startLine());
+    assertEquals(5, chunks.get(2).content().length);
+  }
+
+  @Test
+  void chunk_whenBinary_returnsWholeContentWithoutLines() {
+    FileChunker chunker = new FileChunker(2, 0);
+
+    List<FileChunker.FileChunk> chunks = chunker.chunk(new byte[] {1, 0, 2, 3, 4});
+
+    assertEquals(1, chunks.size());
+    assertNull(chunks.get(0).startLine());
+    assertEquals(5, chunks.get(0).content().length);
+  }
+}
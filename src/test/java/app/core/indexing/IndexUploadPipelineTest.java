@@ -0,0 +1,458 @@
+package app.core.indexing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.git.GitFileStream;
+import app.core.git.GitTreeFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class IndexUploadPipelineTest {
+  @Test
+  void run_uploadsAllClassifiedFiles_andCountsSkipped() throws Exception {
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      paths.add("src/File" + i + (i % 4 == 0 ? ".bin" : ".java"));
+    }
+    AtomicInteger maxUploaded = new AtomicInteger();
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(2, 3, 4, 4),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> GitFileStream.of(path.getBytes(StandardCharsets.UTF_8)),
+            null,
+            (file, chunk) -> "id_" + file.path(),
+            null,
+            (uploaded, unchanged, total) -> maxUploaded.accumulateAndGet(uploaded, Math::max),
+            null,
+            null);
+
+    IndexUploadPipeline.Result result = pipeline.run(paths);
+
+    assertEquals(150, result.uploadedCount());
+    assertEquals(50, result.skippedCount());
+    assertEquals(0, result.failedCount());
+    assertEquals(150, result.pathToFileIds().size());
+    assertEquals(List.of("id_src/File1.java"), result.pathToFileIds().get("src/File1.java"));
+    assertEquals(150, maxUploaded.get());
+  }
+
+  @Test
+  void run_whenFileExceedsRuleSizeLimit_skipsItWithoutUploading() throws Exception {
+    List<String> uploads = new ArrayList<>();
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 2),
+            path ->
+                Optional.of(
+                    new IndexUploadPipeline.FileClassification(
+                        Map.of("type", "code", "subtype", "other", "path", path), 4)),
+            path -> GitFileStream.of(path.getBytes(StandardCharsets.UTF_8)),
+            null,
+            (file, chunk) -> {
+              uploads.add(file.path());
+              return "id_" + file.path();
+            },
+            null,
+            null,
+            null,
+            null);
+
+    IndexUploadPipeline.Result result = pipeline.run(List.of("a.js", "large.java"));
+
+    assertEquals(1, result.uploadedCount());
+    assertEquals(1, result.skippedCount());
+    assertEquals(List.of("a.js"), uploads);
+  }
+
+  @Test
+  void run_screensOversizedBinaryAndMinifiedFilesBeforeReadingThem() throws Exception {
+    Map<String, byte[]> contents =
+        Map.of(
+            "ok.java", "class Ok {}\n".getBytes(StandardCharsets.UTF_8),
+            "huge.java", new byte[64],
+            "image.java", new byte[] {'G', 'I', 'F', 0, 1},
+            "bundle.java", "x".repeat(40).getBytes(StandardCharsets.UTF_8));
+    List<String> opened = new ArrayList<>();
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(
+                1, 1, 1, 4, 1024, new FileScreeningSettings(48, true, true, 20)),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> {
+              synchronized (opened) {
+                opened.add(path);
+              }
+              return GitFileStream.of(contents.get(path));
+            },
+            null,
+            (file, chunk) -> "id_" + file.path(),
+            null,
+            null,
+            null,
+            null);
+
+    IndexUploadPipeline.Result result =
+        pipeline.run(
+            List.of("ok.java", "huge.java", "image.java", "bundle.java", "notes.txt"),
+            Map.of("huge.java", 64L));
+
+    assertEquals(1, result.uploadedCount());
+    assertEquals(4, result.skippedCount());
+    assertEquals(
+        Map.of("too_large", 1, "binary", 1, "minified", 1, "unclassified", 1),
+        result.skippedByReason());
+    assertTrue(!opened.contains("huge.java"));
+  }
+
+  @Test
+  void run_withPathSource_uploadsWhileEnumerationIsStillRunning() throws Exception {
+    CountDownLatch firstUploaded = new CountDownLatch(1);
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 2),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> GitFileStream.of(path.getBytes(StandardCharsets.UTF_8)),
+            null,
+            (file, chunk) -> {
+              firstUploaded.countDown();
+              return "id_" + file.path();
+            },
+            null,
+            null,
+            null,
+            null);
+
+    IndexUploadPipeline.Result result =
+        pipeline.run(
+            action -> {
+              action.accept(new GitTreeFile("first.java", null, 5L));
+              try {
+                assertTrue(firstUploaded.await(5, TimeUnit.SECONDS));
+              } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+              }
+              action.accept(new GitTreeFile("second.java", null, 100L));
+              action.accept(new GitTreeFile("notes.txt", null, null));
+            });
+
+    assertEquals(2, result.uploadedCount());
+    assertEquals(1, result.skippedCount());
+    assertEquals(Set.of("first.java", "second.java"), result.pathToFileIds().keySet());
+  }
+
+  @Test
+  void run_whenPathSourceFails_failsWholeRun() {
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 2),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> GitFileStream.of(path.getBytes(StandardCharsets.UTF_8)),
+            null,
+            (file, chunk) -> "id_" + file.path(),
+            null,
+            null,
+            null,
+            null);
+
+    IllegalStateException failure =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                pipeline.run(
+                    action -> {
+                      action.accept(new GitTreeFile("a.java", null, null));
+                      throw new IllegalStateException("git failed");
+                    }));
+    assertEquals("git failed", failure.getMessage());
+  }
+
+  @Test
+  void run_whenSomeUploadsFail_continuesWithRemainingFiles() throws Exception {
+    List<String> paths = List.of("a.java", "b.java", "c.java", "d.java");
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 2, 2, 1),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> GitFileStream.of(new byte[] {1}),
+            null,
+            (file, chunk) -> {
+              if (file.path().startsWith("b")) {
+                throw new IllegalStateException("boom");
+              }
+              return "id_" + file.path();
+            },
+            null,
+            null,
+            null,
+            null);
+
+    IndexUploadPipeline.Result result = pipeline.run(paths);
+
+    assertEquals(3, result.uploadedCount());
+    assertEquals(1, result.failedCount());
+    assertEquals("b.java", result.failures().get(0).path());
+    assertEquals("upload_failed", result.failures().get(0).status());
+    assertTrue(result.failedPaths().contains("b.java"));
+  }
+
+  @Test
+  void run_whenUploadFailsAfterSomeChunks_discardsTheChunksAlreadyStored() throws Exception {
+    byte[] text = "line1\nline2\nline3\n".getBytes(StandardCharsets.UTF_8);
+    List<String> discarded = new ArrayList<>();
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 4),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> GitFileStream.of(text),
+            new FileChunker(6, 0),
+            new IndexUploadPipeline.FileUploader() {
+              @Override
+              public String upload(
+                  IndexUploadPipeline.ClassifiedFile file, FileChunker.FileChunk chunk) {
+                if (chunk.index() == 2) {
+                  throw new IllegalStateException("boom");
+                }
+                return file.path() + "_" + chunk.index();
+              }
+
+              @Override
+              public void discard(List<String> fileIds) {
+                discarded.addAll(fileIds);
+              }
+            },
+            null,
+            null,
+            null,
+            null);
+
+    IndexUploadPipeline.Result result = pipeline.run(List.of("a.java"));
+
+    assertEquals(1, result.failedCount());
+    assertEquals(List.of("a.java_0", "a.java_1"), discarded);
+    assertTrue(result.pathToFileIds().isEmpty());
+  }
+
+  @Test
+  void run_whenContentHashMatchesPreviousIndex_reusesStoredFileIds() throws Exception {
+    byte[] unchangedContent = "same".getBytes(StandardCharsets.UTF_8);
+    String unchangedHash = IndexUploadPipeline.contentHash(unchangedContent);
+    AtomicInteger uploads = new AtomicInteger();
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 2),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path ->
+                GitFileStream.of(
+                    path.equals("a.java")
+                        ? unchangedContent
+                        : "changed".getBytes(StandardCharsets.UTF_8)),
+            null,
+            (file, chunk) -> {
+              uploads.incrementAndGet();
+              return "new_" + file.path();
+            },
+            (path, contentHash) -> unchangedHash.equals(contentHash) ? List.of("old_" + path) : null,
+            null,
+            null,
+            null);
+
+    IndexUploadPipeline.Result result = pipeline.run(List.of("a.java", "b.java"));
+
+    assertEquals(1, uploads.get());
+    assertEquals(1, result.uploadedCount());
+    assertEquals(1, result.unchangedCount());
+    assertEquals(List.of("old_a.java"), result.pathToFileIds().get("a.java"));
+    assertEquals(List.of("new_b.java"), result.pathToFileIds().get("b.java"));
+    assertEquals(unchangedHash, result.pathToContentHash().get("a.java"));
+    assertEquals(Map.of("new_b.java", "b.java"), result.fileIdToPath());
+  }
+
+  @Test
+  void runFiles_whenBlobIdMatchesPreviousIndex_reusesStoredFileIdsWithoutReading()
+      throws Exception {
+    List<String> opened = Collections.synchronizedList(new ArrayList<>());
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 2),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> {
+              opened.add(path);
+              return GitFileStream.of(path.getBytes(StandardCharsets.UTF_8));
+            },
+            null,
+            (file, chunk) -> "new_" + file.path(),
+            new IndexUploadPipeline.UnchangedFileLookup() {
+              @Override
+              public List<String> reusableFileIds(String path, String contentHash) {
+                return null;
+              }
+
+              @Override
+              public IndexUploadPipeline.UnchangedBlob unchangedBlob(String path, String blobId) {
+                return "blob-a".equals(blobId)
+                    ? new IndexUploadPipeline.UnchangedBlob(List.of("old_" + path), "hash-a")
+                    : null;
+              }
+            },
+            null,
+            null,
+            null);
+
+    IndexUploadPipeline.Result result =
+        pipeline.runFiles(
+            List.of(
+                new GitTreeFile("a.java", "blob-a", 6L),
+                new GitTreeFile("b.java", "blob-b", 6L),
+                new GitTreeFile("c.java", null, null)));
+
+    assertEquals(List.of("b.java", "c.java"), opened.stream().sorted().toList());
+    assertEquals(1, result.unchangedCount());
+    assertEquals(2, result.uploadedCount());
+    assertEquals(List.of("old_a.java"), result.pathToFileIds().get("a.java"));
+    assertEquals("hash-a", result.pathToContentHash().get("a.java"));
+    assertEquals(Map.of("a.java", "blob-a", "b.java", "blob-b"), result.pathToBlobId());
+  }
+
+  @Test
+  void run_whenCancelled_stopsUploadingRemainingFiles() throws Exception {
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      paths.add("File" + i + ".java");
+    }
+    AtomicBoolean cancelled = new AtomicBoolean();
+    AtomicInteger uploads = new AtomicInteger();
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 1),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> GitFileStream.of(new byte[] {1}),
+            null,
+            (file, chunk) -> {
+              if (uploads.incrementAndGet() == 5) {
+                cancelled.set(true);
+              }
+              return "id_" + file.path();
+            },
+            null,
+            null,
+            null,
+            cancelled::get);
+
+    IndexUploadPipeline.Result result = pipeline.run(paths);
+
+    assertEquals(5, uploads.get());
+    assertEquals(5, result.uploadedCount());
+  }
+
+  @Test
+  void run_whenClassificationThrows_failsWholeRun() {
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 1),
+            path -> {
+              throw new IllegalStateException("metadata unavailable");
+            },
+            path -> GitFileStream.of(new byte[0]),
+            null,
+            (file, chunk) -> "id",
+            null,
+            null,
+            null,
+            null);
+
+    IllegalStateException error =
+        assertThrows(IllegalStateException.class, () -> pipeline.run(List.of("a.java", "b.java")));
+    assertEquals("metadata unavailable", error.getMessage());
+  }
+
+  @Test
+  void run_whenFileExceedsStreamingThreshold_streamsChunksAndBinaryContent() throws Exception {
+    byte[] text = "line1\nline2\nline3\nline4\nline5\n".getBytes(StandardCharsets.UTF_8);
+    byte[] binary = new byte[40];
+    binary[3] = 0;
+    Map<String, byte[]> files = Map.of("text.java", text, "blob.java", binary);
+    AtomicInteger opens = new AtomicInteger();
+    List<String> chunkUploads = new ArrayList<>();
+    List<Long> streamUploads = new ArrayList<>();
+
+    IndexUploadPipeline pipeline =
+        new IndexUploadPipeline(
+            new IndexingPipelineSettings(1, 1, 1, 4, 16, FileScreeningSettings.disabled()),
+            IndexUploadPipelineTest::classifyJavaOnly,
+            path -> {
+              opens.incrementAndGet();
+              return GitFileStream.of(files.get(path));
+            },
+            new FileChunker(12, 0),
+            new IndexUploadPipeline.FileUploader() {
+              @Override
+              public String upload(
+                  IndexUploadPipeline.ClassifiedFile file, FileChunker.FileChunk chunk) {
+                chunkUploads.add(new String(chunk.content(), StandardCharsets.UTF_8));
+                return file.path() + "_" + chunk.index();
+              }
+
+              @Override
+              public String uploadStream(
+                  IndexUploadPipeline.ClassifiedFile file,
+                  FileChunker.FileChunk chunk,
+                  InputStream content,
+                  long length)
+                  throws IOException {
+                streamUploads.add(length);
+                content.readAllBytes();
+                return file.path() + "_stream";
+              }
+            },
+            null,
+            null,
+            null,
+            null);
+
+    IndexUploadPipeline.Result result = pipeline.run(List.of("text.java", "blob.java"));
+
+    assertEquals(2, result.uploadedCount());
+    assertEquals(4, opens.get());
+    assertEquals(List.of("line1\nline2\n", "line3\nline4\n", "line5\n"), chunkUploads);
+    assertEquals(List.of(40L), streamUploads);
+    assertEquals(
+        List.of("text.java_0", "text.java_1", "text.java_2"),
+        result.pathToFileIds().get("text.java"));
+    assertEquals(IndexUploadPipeline.contentHash(text), result.pathToContentHash().get("text.java"));
+    assertEquals(
+        IndexUploadPipeline.contentHash(binary), result.pathToContentHash().get("blob.java"));
+  }
+
+  private static Optional<IndexUploadPipeline.FileClassification> classifyJavaOnly(String path) {
+    if (!path.endsWith(".java")) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        IndexUploadPipeline.FileClassification.of(
+            Map.of("type", "code", "subtype", "other", "path", path)));
+  }
+}
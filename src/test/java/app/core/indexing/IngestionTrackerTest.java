@@ -0,0 +1,138 @@
+package app.core.indexing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.vectorstore.VectorStoreFile;
+import app.core.vectorstore.VectorStoreFileSummary;
+import app.core.vectorstore.VectorStorePort;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class IngestionTrackerTest {
+  @Test
+  void poll_queriesOnlyPendingFiles_untilAllSettle() {
+    StatusVectorStore vectorStore = new StatusVectorStore();
+    vectorStore.statuses.put("a", "in_progress");
+    vectorStore.statuses.put("b", "completed");
+    vectorStore.statuses.put("c", "failed");
+
+    IngestionTracker tracker =
+        new IngestionTracker(
+            vectorStore, uploadResult(Map.of("a", "a.java", "b", "b.java", "c", "c.java")));
+
+    IndexIngestionStatus first = tracker.poll();
+    assertEquals(3, first.uploaded());
+    assertEquals(1, first.processing());
+    assertEquals(1, first.ready());
+    assertEquals(1, first.failed());
+    assertFalse(tracker.isDone());
+
+    vectorStore.lookups.clear();
+    vectorStore.statuses.put("a", "completed");
+    IndexIngestionStatus second = tracker.poll();
+
+    assertEquals(List.of("a"), vectorStore.lookups);
+    assertEquals(0, second.processing());
+    assertEquals(2, second.ready());
+    assertEquals("c.java", second.failures().get(0).path());
+    assertTrue(tracker.isDone());
+  }
+
+  @Test
+  void poll_whenFileIsMissing_countsItAsFailed() {
+    IngestionTracker tracker =
+        new IngestionTracker(new StatusVectorStore(), uploadResult(Map.of("gone", "gone.java")));
+
+    IndexIngestionStatus status = tracker.poll();
+
+    assertEquals(1, status.failed());
+    assertEquals("missing", status.failures().get(0).status());
+    assertTrue(tracker.isDone());
+  }
+
+  @Test
+  void poll_whenManyFilesArePending_listsTheStoreOnceInsteadOfLookingUpEachFile() {
+    StatusVectorStore vectorStore = new StatusVectorStore();
+    Map<String, String> fileIdToPath = new HashMap<>();
+    for (int i = 0; i < 250; i++) {
+      fileIdToPath.put("f" + i, "f" + i + ".java");
+      vectorStore.statuses.put("f" + i, i < 200 ? "completed" : "in_progress");
+    }
+    fileIdToPath.put("gone", "gone.java");
+    IngestionTracker tracker = new IngestionTracker(vectorStore, uploadResult(fileIdToPath));
+
+    IndexIngestionStatus first = tracker.poll();
+
+    assertEquals(1, vectorStore.listings);
+    assertTrue(vectorStore.lookups.isEmpty());
+    assertEquals(200, first.ready());
+    assertEquals(50, first.processing());
+    assertEquals(1, first.failed());
+
+    tracker.poll();
+
+    assertEquals(1, vectorStore.listings);
+    assertEquals(50, vectorStore.lookups.size());
+  }
+
+  private static IndexUploadPipeline.Result uploadResult(Map<String, String> fileIdToPath) {
+    return new IndexUploadPipeline.Result(
+        Map.of(),
+        fileIdToPath,
+        Map.of(),
+        Map.of(),
+        fileIdToPath.size(),
+        0,
+        0,
+        Map.of(),
+        0,
+        List.of(),
+        Set.of(),
+        0);
+  }
+
+  private static final class StatusVectorStore implements VectorStorePort {
+    private final Map<String, String> statuses = new HashMap<>();
+    private final List<String> lookups = new ArrayList<>();
+    private int listings;
+
+    @Override
+    public Optional<String> findByAttributes(Map<String, String> requiredAttributes) {
+      return Optional.empty();
+    }
+
+    @Override
+    public String createFile(String fileId, byte[] content, Map<String, String> attributes) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public VectorStoreFile readFile(String fileId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<VectorStoreFileSummary> listFiles() {
+      listings++;
+      return statuses.entrySet().stream()
+          .map(e -> new VectorStoreFileSummary(e.getKey(), 1, Map.of(), e.getValue()))
+          .toList();
+    }
+
+    @Override
+    public Optional<VectorStoreFileSummary> findFile(String fileId) {
+      lookups.add(fileId);
+      String status = statuses.get(fileId);
+      return status == null
+          ? Optional.empty()
+          : Optional.of(new VectorStoreFileSummary(fileId, 1, Map.of(), status));
+    }
+  }
+}
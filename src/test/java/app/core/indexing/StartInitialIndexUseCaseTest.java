@@ -0,0 +1,632 @@
+package app.core.indexing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.git.GitDiffEntry;
+import app.core.git.GitPort;
+import app.core.git.GitTreeFile;
+import app.core.git.TrackedFilesService;
+import app.core.projectstate.ProjectMetadata;
+import app.core.projectstate.ProjectMetadataState;
+import app.core.projectstate.ProjectStatePort;
+import app.core.vectorstore.VectorStoreFile;
+import app.core.vectorstore.VectorStoreFileSummary;
+import app.core.vectorstore.VectorStorePort;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+
+class StartInitialIndexUseCaseTest {
+  private final ManualTaskExecutor taskExecutor = new ManualTaskExecutor();
+  private final IndexSchedulerPort ingestionScheduler = (task, delay) -> {};
+  private final MapVectorStore vectorStore = new MapVectorStore();
+  private final MemoryProjectState projectState = new MemoryProjectState();
+  private final FixedGitPort gitPort = new FixedGitPort();
+  private final StartInitialIndexUseCase useCase =
+      new StartInitialIndexUseCase(
+          gitPort,
+          new TrackedFilesService(gitPort),
+          projectState,
+          vectorStore,
+          new TrackedFileClassifier(projectState),
+          taskExecutor,
+          ingestionScheduler,
+          IndexingPipelineSettings.defaults(),
+          new NoOpCheckpoint(),
+          new Semaphore(Integer.MAX_VALUE),
+          IndexMetricsPort.noOp());
+
+  @Test
+  void startUpdateIndex_whileJobRuns_coalescesPendingUpdatesToNewestCommit() {
+    useCase.startFullReloadIndex("base");
+    useCase.startUpdateIndex("c1");
+    useCase.startUpdateIndex("c2");
+    useCase.startUpdateIndex("c3");
+
+    List<IndexJobRecord> queued = useCase.getJobs().queued();
+    assertEquals(1, queued.size());
+    assertEquals(IndexJobKind.UPDATE, queued.get(0).kind());
+    assertEquals("c3", queued.get(0).targetCommit());
+
+    taskExecutor.runAll();
+
+    List<IndexJobRecord> history = useCase.getJobs().history();
+    assertEquals(2, history.size());
+    assertEquals("c3", history.get(0).targetCommit());
+    assertEquals(IndexJobStatus.SUCCESS, history.get(0).status());
+    assertEquals(IndexJobKind.RELOAD, history.get(1).kind());
+    assertNotNull(history.get(1).durationMillis());
+    assertEquals("c3", projectState.metadata.indexing().lastIndexedCommit());
+    assertTrue(useCase.getJobs().queued().isEmpty());
+  }
+
+  @Test
+  void cancelCurrentJob_stopsJobBeforeUploading() {
+    useCase.startFullReloadIndex("base");
+
+    useCase.cancelCurrentJob();
+    taskExecutor.runAll();
+
+    assertEquals(IndexJobStatus.CANCELLED, useCase.getStatus().status());
+    assertEquals(IndexJobStatus.CANCELLED, useCase.getJobs().history().get(0).status());
+    assertTrue(vectorStore.files.isEmpty());
+    assertEquals(null, projectState.metadata.indexing().lastIndexedCommit());
+  }
+
+  @Test
+  void startJob_whenNoIndexingSlotIsFree_waitsForSlotAndCanBeCancelled() throws Exception {
+    Semaphore slots = new Semaphore(1);
+    slots.acquire();
+    FixedGitPort limitedGitPort = new FixedGitPort();
+    StartInitialIndexUseCase limited =
+        new StartInitialIndexUseCase(
+            limitedGitPort,
+            new TrackedFilesService(limitedGitPort),
+            projectState,
+            vectorStore,
+            new TrackedFileClassifier(projectState),
+            taskExecutor,
+            ingestionScheduler,
+            IndexingPipelineSettings.defaults(),
+            new NoOpCheckpoint(),
+            slots,
+            IndexMetricsPort.noOp());
+
+    limited.startFullReloadIndex("base");
+    Thread runner = new Thread(taskExecutor::runAll);
+    runner.start();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!"Waiting for an indexing slot…".equals(limited.getStatus().progress())
+        && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals("Waiting for an indexing slot…", limited.getStatus().progress());
+
+    limited.cancelCurrentJob();
+    runner.join(TimeUnit.SECONDS.toMillis(5));
+
+    assertEquals(IndexJobStatus.CANCELLED, limited.getStatus().status());
+    assertTrue(vectorStore.files.isEmpty());
+    assertEquals(0, slots.availablePermits());
+
+    slots.release();
+    limited.startFullReloadIndex("base");
+    taskExecutor.runAll();
+
+    assertEquals(IndexJobStatus.SUCCESS, limited.getStatus().status());
+    assertEquals(1, slots.availablePermits());
+  }
+
+  @Test
+  void planIndex_reportsWorkWithoutUploadingAndEstimatesFromEarlierJobs() {
+    IndexPlan firstPlan = useCase.planIndex(IndexJobKind.UPDATE, "base");
+
+    assertEquals(IndexJobKind.RELOAD, firstPlan.kind());
+    assertEquals(2, firstPlan.filesToUpload());
+    assertEquals(0, firstPlan.filesToDelete());
+    assertNull(firstPlan.estimatedDurationMillis());
+    assertTrue(vectorStore.files.isEmpty());
+
+    useCase.startFullReloadIndex("base");
+    taskExecutor.runAll();
+    int storedFiles = vectorStore.files.size();
+
+    IndexPlan updatePlan = useCase.planIndex(IndexJobKind.UPDATE, "next");
+
+    assertEquals(IndexJobKind.UPDATE, updatePlan.kind());
+    assertEquals("base", updatePlan.fromCommit());
+    assertEquals("next", updatePlan.targetCommit());
+    assertEquals(1, updatePlan.filesToUpload());
+    assertNotNull(updatePlan.estimatedDurationMillis());
+    assertEquals(storedFiles, vectorStore.files.size());
+    assertEquals("base", projectState.metadata.indexing().lastIndexedCommit());
+  }
+
+  @Test
+  void planIndex_countsUnchangedBlobsLikeTheJobThatRunsThePlan() {
+    useCase.startFullReloadIndex("base");
+    taskExecutor.runAll();
+
+    for (String target : List.of("next", "renamed")) {
+      IndexPlan plan = useCase.planIndex(IndexJobKind.RELOAD, target);
+      int createdBefore = vectorStore.created.get();
+      int copiesBefore = vectorStore.copies.get();
+      Set<String> indexedBefore = Set.copyOf(projectState.metadata.pathToFileIdsOrEmpty().keySet());
+      gitPort.reads.clear();
+
+      useCase.startFullReloadIndex(target);
+      taskExecutor.runAll();
+
+      Set<String> removed = new HashSet<>(indexedBefore);
+      removed.removeAll(projectState.metadata.pathToFileIdsOrEmpty().keySet());
+      assertEquals(gitPort.reads.size(), plan.filesToUpload(), target);
+      assertEquals(vectorStore.created.get() - createdBefore, plan.filesToUpload(), target);
+      assertEquals(
+          projectState.metadata.pathToFileIdsOrEmpty().size() - plan.filesToUpload(),
+          plan.filesUnchanged(),
+          target);
+      assertEquals(removed.size(), plan.filesToDelete(), target);
+      assertEquals(
+          target.equals("renamed") ? 1 : 0, vectorStore.copies.get() - copiesBefore, target);
+    }
+  }
+
+  @Test
+  void syncWorkingTreeChanges_uploadsChangedTrackedFilesAndDeletesRemovedOnes() {
+    useCase.startFullReloadIndex("base");
+    taskExecutor.runAll();
+    assertEquals(2, vectorStore.files.size());
+
+    useCase.syncWorkingTreeChanges(
+        Set.of("src/A.java", "build/Untracked.java"), Set.of("src/B.java"));
+    taskExecutor.runAll();
+
+    IndexJobRecord sync = useCase.getJobs().history().get(0);
+    assertEquals(IndexJobKind.WORKING_TREE, sync.kind());
+    assertEquals(IndexJobStatus.SUCCESS, sync.status());
+    assertEquals(2, useCase.getJobs().history().size());
+    assertEquals(Set.of("src/A.java"), projectState.metadata.pathToFileIdsOrEmpty().keySet());
+    assertEquals("base", projectState.metadata.indexing().lastIndexedCommit());
+    assertEquals(1, vectorStore.files.size());
+    assertEquals(0, vectorStore.listFilesCalls.get());
+    assertEquals(1, vectorStore.deleteBatches.get());
+    VectorStoreFile stored = vectorStore.files.values().iterator().next();
+    assertEquals("// edited src/A.java", new String(stored.content(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void syncWorkingTreeChanges_reusesCachedTrackedFilesAcrossFlushes() {
+    useCase.startFullReloadIndex("base");
+    taskExecutor.runAll();
+
+    useCase.syncWorkingTreeChanges(Set.of("src/A.java"), Set.of());
+    taskExecutor.runAll();
+    useCase.syncWorkingTreeChanges(Set.of("src/B.java"), Set.of());
+    taskExecutor.runAll();
+
+    assertEquals(IndexJobStatus.SUCCESS, useCase.getJobs().history().get(0).status());
+    assertEquals(1, gitPort.trackedListings.get());
+  }
+
+  @Test
+  void startFullReloadIndex_reusesStoredDocumentsForUnchangedBlobsWithoutReading() {
+    useCase.startFullReloadIndex("base");
+    taskExecutor.runAll();
+    String fileIdB = projectState.metadata.pathToFileIdsOrEmpty().get("src/B.java").get(0);
+    VectorStoreFile storedB = vectorStore.files.get(fileIdB);
+    gitPort.reads.clear();
+
+    useCase.startFullReloadIndex("next");
+    taskExecutor.runAll();
+
+    assertEquals(List.of("src/A.java"), gitPort.reads);
+    assertEquals(
+        Map.of("src/A.java", "blob-A-next", "src/B.java", "blob-B"),
+        projectState.metadata.pathToBlobIdOrEmpty());
+    assertEquals("next", projectState.metadata.indexing().lastIndexedCommit());
+    assertEquals(2, vectorStore.files.size());
+    assertSame(storedB, vectorStore.files.get(fileIdB));
+  }
+
+  @Test
+  void startFullReloadIndex_whenFileWasRenamed_copiesStoredDocumentsWithoutUploading() {
+    useCase.startFullReloadIndex("base");
+    taskExecutor.runAll();
+    int createdBefore = vectorStore.created.get();
+    gitPort.reads.clear();
+
+    useCase.startFullReloadIndex("renamed");
+    taskExecutor.runAll();
+
+    assertRenamedWithoutUploads(createdBefore);
+  }
+
+  @Test
+  void startUpdateIndex_whenFileWasRenamed_copiesStoredDocumentsWithoutUploading() {
+    useCase.startFullReloadIndex("base");
+    taskExecutor.runAll();
+    int createdBefore = vectorStore.created.get();
+    gitPort.reads.clear();
+
+    useCase.startUpdateIndex("renamed");
+    taskExecutor.runAll();
+
+    assertRenamedWithoutUploads(createdBefore);
+  }
+
+  private void assertRenamedWithoutUploads(int createdBefore) {
+    assertEquals(IndexJobStatus.SUCCESS, useCase.getStatus().status());
+    assertEquals(createdBefore, vectorStore.created.get());
+    assertEquals(1, vectorStore.copies.get());
+    assertTrue(gitPort.reads.isEmpty());
+    assertEquals(
+        Set.of("src/A.java", "src/C.java"), projectState.metadata.pathToFileIdsOrEmpty().keySet());
+    assertEquals("blob-B", projectState.metadata.pathToBlobIdOrEmpty().get("src/C.java"));
+    String copiedId = projectState.metadata.pathToFileIdsOrEmpty().get("src/C.java").get(0);
+    assertEquals("src/C.java", vectorStore.files.get(copiedId).attributes().get("path"));
+    assertEquals(2, vectorStore.files.size());
+  }
+
+  @Test
+  void startUpdateIndex_afterRestartWithInterruptedReload_resumesReloadBeforeRunningUpdate() {
+    MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+    checkpoint.begin(IndexJobKind.RELOAD, "base", Instant.parse("2026-01-01T00:00:00Z"));
+    StartInitialIndexUseCase restarted =
+        new StartInitialIndexUseCase(
+            gitPort,
+            new TrackedFilesService(gitPort),
+            projectState,
+            vectorStore,
+            new TrackedFileClassifier(projectState),
+            taskExecutor,
+            ingestionScheduler,
+            IndexingPipelineSettings.defaults(),
+            checkpoint,
+            new Semaphore(Integer.MAX_VALUE),
+            IndexMetricsPort.noOp());
+
+    List<String> progress = new CopyOnWriteArrayList<>();
+    restarted.addStateListener(state -> progress.add(state.progress()));
+
+    restarted.startUpdateIndex("c2");
+
+    List<IndexJobRecord> queued = restarted.getJobs().queued();
+    assertEquals(1, queued.size());
+    assertEquals("c2", queued.get(0).targetCommit());
+    assertTrue(checkpoint.load().orElseThrow().matches(IndexJobKind.RELOAD, "base"));
+    restarted.resumeInterruptedJob();
+    assertEquals(1, restarted.getJobs().queued().size());
+
+    taskExecutor.runAll();
+
+    assertTrue(progress.stream().anyMatch(p -> p.startsWith("Resuming: ")));
+    List<IndexJobRecord> history = restarted.getJobs().history();
+    assertEquals(2, history.size());
+    assertEquals(IndexJobKind.RELOAD, history.get(1).kind());
+    assertEquals(IndexJobStatus.SUCCESS, history.get(1).status());
+    assertEquals(IndexJobKind.UPDATE, history.get(0).kind());
+    assertEquals(IndexJobStatus.SUCCESS, history.get(0).status());
+    assertEquals(List.of(IndexJobKind.RELOAD, IndexJobKind.UPDATE), checkpoint.begun);
+    assertEquals("c2", projectState.metadata.indexing().lastIndexedCommit());
+  }
+
+  @Test
+  void cancelCurrentJob_afterUploadsWereJournaled_deletesThemBeforeClearingCheckpoint() {
+    MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+    StartInitialIndexUseCase cancellable = useCaseWith(checkpoint);
+    vectorStore.uniqueIds = true;
+    vectorStore.onCreate = cancellable::cancelCurrentJob;
+
+    cancellable.startFullReloadIndex("base");
+    taskExecutor.runAll();
+
+    assertEquals(IndexJobStatus.CANCELLED, cancellable.getStatus().status());
+    assertTrue(vectorStore.files.isEmpty());
+    assertTrue(checkpoint.load().isEmpty());
+  }
+
+  @Test
+  void startFullReloadIndex_afterFailedJobForOtherTarget_deletesItsJournaledUploadsFirst() {
+    MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+    StartInitialIndexUseCase failing = useCaseWith(checkpoint);
+    vectorStore.uniqueIds = true;
+    projectState.failSaves = 1;
+
+    failing.startFullReloadIndex("base");
+    taskExecutor.runAll();
+    assertEquals(IndexJobStatus.FAILED, failing.getStatus().status());
+    assertEquals(2, vectorStore.files.size());
+
+    failing.startFullReloadIndex("next");
+    taskExecutor.runAll();
+
+    assertEquals(IndexJobStatus.SUCCESS, failing.getStatus().status());
+    Set<String> referenced = new HashSet<>();
+    projectState.metadata.pathToFileIdsOrEmpty().values().forEach(referenced::addAll);
+    assertEquals(referenced, vectorStore.files.keySet());
+    assertEquals(2, vectorStore.files.size());
+  }
+
+  @Test
+  void startFullReloadIndex_loadsCheckpointOnWorkerThreadInsteadOfCaller() {
+    MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+    StartInitialIndexUseCase indexing = useCaseWith(checkpoint);
+    indexing.resumeInterruptedJob();
+    int loadsBeforeStart = checkpoint.loads.get();
+
+    indexing.startFullReloadIndex("base");
+    int loadsAfterStart = checkpoint.loads.get();
+    taskExecutor.runAll();
+
+    assertEquals(loadsBeforeStart, loadsAfterStart);
+    assertTrue(checkpoint.loads.get() > loadsAfterStart);
+    assertEquals(IndexJobStatus.SUCCESS, indexing.getStatus().status());
+  }
+
+  private StartInitialIndexUseCase useCaseWith(IndexCheckpointPort checkpoint) {
+    return new StartInitialIndexUseCase(
+        gitPort,
+        new TrackedFilesService(gitPort),
+        projectState,
+        vectorStore,
+        new TrackedFileClassifier(projectState),
+        taskExecutor,
+        ingestionScheduler,
+        IndexingPipelineSettings.defaults(),
+        checkpoint,
+        new Semaphore(Integer.MAX_VALUE),
+        IndexMetricsPort.noOp());
+  }
+
+  private static final class ManualTaskExecutor implements TaskExecutor {
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable task) {
+      tasks.add(task);
+    }
+
+    void runAll() {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+      }
+    }
+  }
+
+  private static final class FixedGitPort implements GitPort {
+    private final List<String> reads = new CopyOnWriteArrayList<>();
+    private final AtomicInteger trackedListings = new AtomicInteger();
+
+    @Override
+    public String getHeadCommit() {
+      return "head";
+    }
+
+    @Override
+    public String resolveCommit(String ref) {
+      return ref;
+    }
+
+    @Override
+    public List<String> listTrackedFiles() {
+      trackedListings.incrementAndGet();
+      return List.of("src/A.java", "src/B.java");
+    }
+
+    @Override
+    public String trackedFilesStamp() {
+      return "index";
+    }
+
+    @Override
+    public byte[] readWorkingTreeFile(String repoRelativePath) {
+      return ("// edited " + repoRelativePath).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public List<String> listTrackedFilesAtCommit(String commit) {
+      return commit.equals("renamed")
+          ? List.of("src/A.java", "src/C.java")
+          : List.of("src/A.java", "src/B.java");
+    }
+
+    @Override
+    public void forEachTrackedFileAtCommit(String commit, Consumer<GitTreeFile> action) {
+      for (String path : listTrackedFilesAtCommit(commit)) {
+        action.accept(new GitTreeFile(path, blobId(commit, path), null));
+      }
+    }
+
+    @Override
+    public byte[] readFileAtCommit(String commit, String repoRelativePath) {
+      reads.add(repoRelativePath);
+      return ("// " + repoRelativePath + " " + blobId(commit, repoRelativePath))
+          .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String blobId(String commit, String path) {
+      if (path.equals("src/B.java") || path.equals("src/C.java")) {
+        return "blob-B";
+      }
+      return "blob-A-" + (commit.equals("renamed") ? "base" : commit);
+    }
+
+    @Override
+    public List<GitDiffEntry> listChangedFiles(String fromCommit, String toCommit) {
+      if (toCommit.equals("renamed")) {
+        return List.of(new GitDiffEntry(GitDiffEntry.Type.RENAMED, "src/C.java", "src/B.java"));
+      }
+      return List.of(new GitDiffEntry(GitDiffEntry.Type.MODIFIED, "src/A.java", null));
+    }
+  }
+
+  private static final class MemoryProjectState implements ProjectStatePort {
+    private ProjectMetadata metadata = ProjectMetadata.initial();
+    private int failSaves;
+
+    @Override
+    public synchronized ProjectMetadataState getOrCreateMetadata() {
+      return new ProjectMetadataState("metadata", metadata, Map.of());
+    }
+
+    @Override
+    public synchronized Optional<ProjectMetadataState> readMetadata() {
+      return Optional.of(getOrCreateMetadata());
+    }
+
+    @Override
+    public synchronized ProjectMetadataState saveMetadata(ProjectMetadata metadata) {
+      if (failSaves > 0) {
+        failSaves--;
+        throw new IllegalStateException("save failed");
+      }
+      this.metadata = metadata;
+      return getOrCreateMetadata();
+    }
+  }
+
+  private static final class MapVectorStore implements VectorStorePort {
+    private final Map<String, VectorStoreFile> files = new ConcurrentHashMap<>();
+    private final AtomicInteger listFilesCalls = new AtomicInteger();
+    private final AtomicInteger deleteBatches = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger copies = new AtomicInteger();
+    private volatile boolean uniqueIds;
+    private volatile Runnable onCreate = () -> {};
+
+    @Override
+    public Optional<String> findByAttributes(Map<String, String> requiredAttributes) {
+      return Optional.empty();
+    }
+
+    @Override
+    public String createFile(String fileId, byte[] content, Map<String, String> attributes) {
+      int count = created.incrementAndGet();
+      String storedId = uniqueIds ? fileId + "-" + count : fileId;
+      files.put(storedId, new VectorStoreFile(storedId, content, attributes));
+      onCreate.run();
+      return storedId;
+    }
+
+    @Override
+    public String copyFile(String sourceFileId, String fileId, Map<String, String> attributes) {
+      VectorStoreFile source = files.get(sourceFileId);
+      Map<String, String> merged = new HashMap<>(source.attributes());
+      merged.putAll(attributes);
+      files.put(fileId, new VectorStoreFile(fileId, source.content(), merged));
+      copies.incrementAndGet();
+      return fileId;
+    }
+
+    @Override
+    public VectorStoreFile readFile(String fileId) {
+      return files.get(fileId);
+    }
+
+    @Override
+    public List<VectorStoreFileSummary> listFiles() {
+      listFilesCalls.incrementAndGet();
+      return files.values().stream().map(MapVectorStore::summary).toList();
+    }
+
+    @Override
+    public Optional<VectorStoreFileSummary> findFile(String fileId) {
+      return Optional.ofNullable(files.get(fileId)).map(MapVectorStore::summary);
+    }
+
+    @Override
+    public void deleteFile(String fileId) {
+      files.remove(fileId);
+    }
+
+    @Override
+    public void deleteFiles(Collection<String> fileIds) {
+      deleteBatches.incrementAndGet();
+      files.keySet().removeAll(fileIds);
+    }
+
+    private static VectorStoreFileSummary summary(VectorStoreFile file) {
+      return new VectorStoreFileSummary(
+          file.fileId(), file.content().length, file.attributes(), "ready");
+    }
+  }
+
+  private static final class NoOpCheckpoint implements IndexCheckpointPort {
+    @Override
+    public Optional<IndexCheckpoint> load() {
+      return Optional.empty();
+    }
+
+    @Override
+    public void begin(IndexJobKind kind, String targetCommit, Instant startedAt) {}
+
+    @Override
+    public void recordUpload(String path, List<String> fileIds, String contentHash) {}
+
+    @Override
+    public void recordDelete(String path) {}
+
+    @Override
+    public void clear() {}
+  }
+
+  private static final class MemoryCheckpoint implements IndexCheckpointPort {
+    private final List<IndexJobKind> begun = new ArrayList<>();
+    private final Map<String, List<String>> uploads = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private IndexCheckpoint checkpoint;
+
+    @Override
+    public synchronized Optional<IndexCheckpoint> load() {
+      loads.incrementAndGet();
+      return Optional.ofNullable(checkpoint)
+          .map(
+              c ->
+                  new IndexCheckpoint(
+                      c.kind(), c.targetCommit(), c.startedAt(), uploads, null, null));
+    }
+
+    @Override
+    public synchronized void begin(IndexJobKind kind, String targetCommit, Instant startedAt) {
+      begun.add(kind);
+      uploads.clear();
+      checkpoint = new IndexCheckpoint(kind, targetCommit, startedAt, null, null, null);
+    }
+
+    @Override
+    public synchronized void recordUpload(String path, List<String> fileIds, String contentHash) {
+      uploads.put(path, fileIds);
+    }
+
+    @Override
+    public void recordDelete(String path) {}
+
+    @Override
+    public synchronized void clear() {
+      uploads.clear();
+      checkpoint = null;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package app.platform.adapters.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GitCommandTest {
+  @TempDir Path repoDir;
+
+  @Test
+  void nulSeparatedReader_splitsRecordsAcrossBufferBoundaries() throws Exception {
+    List<String> expected =
+        List.of("a.txt", "x".repeat(70_000), "dir/ż.java", "y".repeat(65_535), "last");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (String record : expected) {
+      bytes.write(record.getBytes(StandardCharsets.UTF_8));
+      bytes.write(0);
+    }
+    bytes.write("unterminated".getBytes(StandardCharsets.UTF_8));
+
+    GitCommand.NulSeparatedReader reader =
+        new GitCommand.NulSeparatedReader(new ByteArrayInputStream(bytes.toByteArray()));
+    List<String> records = new ArrayList<>();
+    String record;
+    while ((record = reader.next()) != null) {
+      records.add(record);
+    }
+
+    List<String> all = new ArrayList<>(expected);
+    all.add("unterminated");
+    assertEquals(all, records);
+    assertNull(reader.next());
+  }
+
+  @Test
+  void forEachRecord_whenGitFails_reportsExitCodeAndStderr() {
+    IllegalStateException failure =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                GitCommand.forEachRecord(
+                    repoDir, Duration.ofSeconds(10), record -> {}, "ls-files", "-z"));
+
+    assertTrue(failure.getMessage().contains("git failed (exit="));
+    assertTrue(failure.getMessage().toLowerCase().contains("not a git repository"));
+  }
+}
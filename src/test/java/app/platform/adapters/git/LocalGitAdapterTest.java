@@ -0,0 +1,224 @@
+package app.platform.adapters.git;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.git.GitFileStream;
+import app.core.git.GitTreeFile;
+import app.core.projectconfig.ProjectConfig;
+import app.core.projectconfig.ProjectConfigMode;
+import app.core.projectconfig.ProjectConfigPort;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalGitAdapterTest {
+  @TempDir Path repoDir;
+
+  @Test
+  void listFileSizesAtCommit_returnsBlobSizesForWholeTree() throws Exception {
+    runGit("init");
+    runGit("config", "user.email", "test@example.com");
+    runGit("config", "user.name", "Test User");
+    Files.writeString(repoDir.resolve("README.md"), "hello", StandardCharsets.UTF_8);
+    Files.createDirectories(repoDir.resolve("src/my dir"));
+    Files.write(repoDir.resolve("src/my dir/data.bin"), new byte[1234]);
+    runGit("add", ".");
+    runGit("commit", "-m", "initial");
+
+    LocalGitAdapter adapter = new LocalGitAdapter(new FixedProjectConfig(repoDir));
+
+    Map<String, Long> sizes = adapter.listFileSizesAtCommit(adapter.getHeadCommit());
+
+    assertEquals(Map.of("README.md", 5L, "src/my dir/data.bin", 1234L), sizes);
+    List<GitTreeFile> files = new ArrayList<>();
+    adapter.forEachTrackedFileAtCommit(adapter.getHeadCommit(), files::add);
+    assertEquals(
+        new GitTreeFile("README.md", "b6fc4c620b67d95f953a5c1c1230aaab5db5a1b0", 5L),
+        files.get(0));
+  }
+
+  @Test
+  void openFileAtCommit_readsBlobsThroughReusedCatFileProcesses() throws Exception {
+    runGit("init");
+    runGit("config", "user.email", "test@example.com");
+    runGit("config", "user.name", "Test User");
+    byte[] large = new byte[200_000];
+    for (int i = 0; i < large.length; i++) {
+      large[i] = (byte) ('a' + i % 26);
+    }
+    Files.write(repoDir.resolve("large.txt"), large);
+    Files.writeString(repoDir.resolve("small.txt"), "small", StandardCharsets.UTF_8);
+    runGit("add", ".");
+    runGit("commit", "-m", "initial");
+
+    try (LocalGitAdapter adapter = new LocalGitAdapter(new FixedProjectConfig(repoDir), 1)) {
+      String head = adapter.getHeadCommit();
+      for (int i = 0; i < 50; i++) {
+        assertEquals(
+            "small",
+            new String(adapter.readFileAtCommit(head, "small.txt"), StandardCharsets.UTF_8));
+      }
+
+      try (GitFileStream opened = adapter.openFileAtCommit(head, "large.txt")) {
+        assertEquals(large.length, opened.size());
+        assertArrayEquals(Arrays.copyOf(large, 10), opened.content().readNBytes(10));
+      }
+      assertArrayEquals(large, adapter.readFileAtCommit(head, "large.txt"));
+
+      IllegalStateException missing =
+          assertThrows(
+              IllegalStateException.class, () -> adapter.readFileAtCommit(head, "missing.txt"));
+      assertTrue(missing.getMessage().contains("missing.txt"));
+      assertEquals(
+          "small", new String(adapter.readFileAtCommit(head, "small.txt"), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  void trackedFilesStamp_changesWhenIndexOrHeadChanges() throws Exception {
+    runGit("init");
+    runGit("config", "user.email", "test@example.com");
+    runGit("config", "user.name", "Test User");
+    Files.writeString(repoDir.resolve("a.txt"), "a", StandardCharsets.UTF_8);
+    runGit("add", ".");
+    runGit("commit", "-m", "initial");
+    LocalGitAdapter adapter = new LocalGitAdapter(new FixedProjectConfig(repoDir), 0);
+
+    String initial = adapter.trackedFilesStamp();
+    Files.writeString(repoDir.resolve("a.txt"), "changed", StandardCharsets.UTF_8);
+    assertEquals(initial, adapter.trackedFilesStamp());
+
+    Files.writeString(repoDir.resolve("b.txt"), "b", StandardCharsets.UTF_8);
+    runGit("add", "b.txt");
+    String staged = adapter.trackedFilesStamp();
+    assertNotEquals(initial, staged);
+
+    runGit("checkout", "-q", "-b", "feature");
+    assertNotEquals(staged, adapter.trackedFilesStamp());
+  }
+
+  @Test
+  void catFilePool_restartsProcessesThatDied() throws Exception {
+    runGit("init");
+    runGit("config", "user.email", "test@example.com");
+    runGit("config", "user.name", "Test User");
+    Files.writeString(repoDir.resolve("a.txt"), "a", StandardCharsets.UTF_8);
+    runGit("add", ".");
+    runGit("commit", "-m", "initial");
+
+    try (GitCatFilePool pool = new GitCatFilePool(repoDir, 2, Duration.ofSeconds(10))) {
+      try (GitFileStream opened = pool.open("HEAD:a.txt")) {
+        assertEquals("a", new String(opened.content().readAllBytes(), StandardCharsets.UTF_8));
+      }
+      assertEquals(1, pool.processCount());
+
+      ProcessHandle.current()
+          .children()
+          .filter(child -> child.info().commandLine().orElse("").contains("cat-file"))
+          .forEach(ProcessHandle::destroyForcibly);
+      Thread.sleep(200);
+
+      try (GitFileStream opened = pool.open("HEAD:a.txt")) {
+        assertEquals("a", new String(opened.content().readAllBytes(), StandardCharsets.UTF_8));
+      }
+      assertEquals(1, pool.processCount());
+    }
+  }
+
+  @Test
+  void catFilePool_releasesProcessesWhileReturnedStreamsAreStillOpen() throws Exception {
+    runGit("init");
+    runGit("config", "user.email", "test@example.com");
+    runGit("config", "user.name", "Test User");
+    byte[] large = new byte[3 * 1024 * 1024];
+    Arrays.fill(large, (byte) 'x');
+    Files.write(repoDir.resolve("large.bin"), large);
+    Files.writeString(repoDir.resolve("small.txt"), "small", StandardCharsets.UTF_8);
+    runGit("add", ".");
+    runGit("commit", "-m", "initial");
+
+    try (GitCatFilePool pool = new GitCatFilePool(repoDir, 2, Duration.ofMillis(500))) {
+      GitFileStream first = pool.open("HEAD:large.bin");
+      GitFileStream second = pool.open("HEAD:small.txt");
+      try {
+        assertTimeoutPreemptively(
+            Duration.ofSeconds(5),
+            () -> {
+              try (GitFileStream third = pool.open("HEAD:small.txt")) {
+                assertEquals(
+                    "small", new String(third.content().readAllBytes(), StandardCharsets.UTF_8));
+              }
+            });
+        assertArrayEquals(large, first.content().readAllBytes());
+        assertEquals("small", new String(second.content().readAllBytes(), StandardCharsets.UTF_8));
+      } finally {
+        first.close();
+        second.close();
+      }
+      assertTrue(pool.processCount() <= 2);
+    }
+  }
+
+  @Test
+  void catFilePool_whenTheBodyStalls_timesOutAndReplacesTheProcess() {
+    List<String> stalled =
+        List.of("sh", "-c", "read object; printf '0123 blob 10\\n12345'; exec sleep 30");
+
+    try (GitCatFilePool pool = new GitCatFilePool(repoDir, 1, Duration.ofMillis(300), stalled)) {
+      for (int attempt = 0; attempt < 2; attempt++) {
+        IllegalStateException failure =
+            assertTimeoutPreemptively(
+                Duration.ofSeconds(5),
+                () -> assertThrows(IllegalStateException.class, () -> pool.open("HEAD:a.txt")));
+
+        assertTrue(failure.getMessage().startsWith("Timed out while reading HEAD:a.txt"));
+        assertEquals(0, pool.processCount());
+      }
+    }
+  }
+
+  private void runGit(String... args) throws Exception {
+    String[] command = new String[args.length + 1];
+    command[0] = "git";
+    System.arraycopy(args, 0, command, 1, args.length);
+    Process process =
+        new ProcessBuilder(command)
+            .directory(repoDir.toFile())
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    if (!process.waitFor(10, TimeUnit.SECONDS) || process.exitValue() != 0) {
+      process.destroyForcibly();
+      throw new IOException("git " + String.join(" ", args) + " failed in " + repoDir);
+    }
+  }
+
+  private record FixedProjectConfig(Path repoDir) implements ProjectConfigPort {
+    @Override
+    public Optional<ProjectConfig> load() {
+      return Optional.of(
+          new ProjectConfig(
+              ProjectConfigMode.LOCAL, null, repoDir.toString(), null, null, null, null));
+    }
+
+    @Override
+    public void save(ProjectConfig config) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
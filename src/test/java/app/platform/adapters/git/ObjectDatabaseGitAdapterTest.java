@@ -0,0 +1,141 @@
+package app.platform.adapters.git;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.git.GitFileStream;
+import app.core.git.GitPort;
+import app.core.git.GitTreeFile;
+import app.core.projectconfig.ProjectConfig;
+import app.core.projectconfig.ProjectConfigMode;
+import app.core.projectconfig.ProjectConfigPort;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ObjectDatabaseGitAdapterTest {
+  @TempDir Path repoDir;
+
+  @Test
+  void readsLooseAndPackedObjectsLikeGitCli() throws Exception {
+    runGit("init", "-b", "main");
+    runGit("config", "user.email", "test@example.com");
+    runGit("config", "user.name", "Test User");
+    List<String> commits = new ArrayList<>();
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < 400; i++) {
+      source.append("line ").append(i).append(" of the evolving source file\n");
+    }
+    byte[] binary = new byte[70_000];
+    for (int i = 0; i < binary.length; i++) {
+      binary[i] = (byte) (i * 31);
+    }
+    Files.createDirectories(repoDir.resolve("src/main/deep/er"));
+    Files.write(repoDir.resolve("data.bin"), binary);
+    Files.writeString(repoDir.resolve("src/main/deep/er/My File+1.java"), "class A {}");
+    for (int i = 0; i < 6; i++) {
+      source.insert(0, "header " + i + "\n").append("footer ").append(i).append('\n');
+      Files.writeString(repoDir.resolve("src/main/App.java"), source);
+      Files.writeString(repoDir.resolve("src/main/v" + i + ".txt"), "version " + i);
+      runGit("add", ".");
+      runGit("commit", "-m", "commit " + i);
+      commits.add(cliHead());
+    }
+    runGit("tag", "-a", "v1", "-m", "release", commits.get(2));
+
+    LocalGitAdapter cli = new LocalGitAdapter(new FixedProjectConfig(repoDir), 0);
+    try (ObjectDatabaseGitAdapter adapter =
+        new ObjectDatabaseGitAdapter(new LocalGitAdapter(new FixedProjectConfig(repoDir), 0))) {
+      assertSameAsCli(cli, adapter, commits);
+
+      runGit("repack", "-a", "-d", "-f", "--depth=50", "--window=50");
+      runGit("pack-refs", "--all");
+      assertSameAsCli(cli, adapter, commits);
+
+      runGit("-c", "repack.useDeltaBaseOffset=false", "repack", "-a", "-d", "-f");
+      Files.writeString(repoDir.resolve("src/main/App.java"), source.append("loose\n"));
+      runGit("commit", "-am", "loose commit");
+      commits.add(cliHead());
+      assertSameAsCli(cli, adapter, commits);
+
+      assertEquals(commits.get(2), adapter.resolveCommit("v1"));
+      assertEquals(cli.resolveCommit("HEAD~2"), adapter.resolveCommit("HEAD~2"));
+      IllegalStateException missing =
+          assertThrows(
+              IllegalStateException.class,
+              () -> adapter.readFileAtCommit(commits.get(0), "src/missing.txt"));
+      assertTrue(missing.getMessage().contains("src/missing.txt"));
+    }
+  }
+
+  private void assertSameAsCli(
+      LocalGitAdapter cli, ObjectDatabaseGitAdapter adapter, List<String> commits)
+      throws IOException {
+    assertEquals(cli.getHeadCommit(), adapter.getHeadCommit());
+    assertEquals(cli.resolveCommit("main"), adapter.resolveCommit("main"));
+    for (String commit : commits) {
+      List<String> files = cli.listTrackedFilesAtCommit(commit);
+      assertEquals(files, adapter.listTrackedFilesAtCommit(commit));
+      assertEquals(cli.listFileSizesAtCommit(commit), adapter.listFileSizesAtCommit(commit));
+      assertEquals(treeFiles(cli, commit), treeFiles(adapter, commit));
+      files.parallelStream()
+          .forEach(
+              path ->
+                  assertArrayEquals(
+                      cli.readFileAtCommit(commit, path), adapter.readFileAtCommit(commit, path)));
+      try (GitFileStream opened = adapter.openFileAtCommit(commit, "data.bin")) {
+        assertEquals(70_000, opened.size());
+        assertEquals(70_000, opened.content().readAllBytes().length);
+      }
+    }
+  }
+
+  private static List<GitTreeFile> treeFiles(GitPort gitPort, String commit) {
+    List<GitTreeFile> files = new ArrayList<>();
+    gitPort.forEachTrackedFileAtCommit(commit, files::add);
+    return files;
+  }
+
+  private String cliHead() {
+    return new LocalGitAdapter(new FixedProjectConfig(repoDir), 0).getHeadCommit();
+  }
+
+  private void runGit(String... args) throws Exception {
+    String[] command = new String[args.length + 1];
+    command[0] = "git";
+    System.arraycopy(args, 0, command, 1, args.length);
+    Process process =
+        new ProcessBuilder(command)
+            .directory(repoDir.toFile())
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    if (!process.waitFor(30, TimeUnit.SECONDS) || process.exitValue() != 0) {
+      process.destroyForcibly();
+      throw new IOException("git " + String.join(" ", args) + " failed in " + repoDir);
+    }
+  }
+
+  private record FixedProjectConfig(Path repoDir) implements ProjectConfigPort {
+    @Override
+    public Optional<ProjectConfig> load() {
+      return Optional.of(
+          new ProjectConfig(
+              ProjectConfigMode.LOCAL, null, repoDir.toString(), null, null, null, null));
+    }
+
+    @Override
+    public void save(ProjectConfig config) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package app.platform.adapters.indexing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.indexing.IndexCheckpoint;
+import app.core.indexing.IndexJobKind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileIndexCheckpointAdapterTest {
+  @TempDir Path tempDir;
+
+  @Test
+  void load_afterRestart_returnsJournaledUploadsAndDeletes() throws Exception {
+    Path journal = tempDir.resolve("checkpoint.jsonl");
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    Instant startedAt = Instant.parse("2024-01-01T00:00:00Z");
+
+    FileIndexCheckpointAdapter writer = new FileIndexCheckpointAdapter(objectMapper, journal.toString());
+    writer.begin(IndexJobKind.RELOAD, "abc123", startedAt);
+    writer.recordUpload("a.java", List.of("repo_a", "repo_a_1"), "hash-a");
+    writer.recordDelete("old.java");
+    Files.writeString(journal, "{\"type\":\"upload\",\"pa", StandardOpenOption.APPEND);
+
+    IndexCheckpoint checkpoint =
+        new FileIndexCheckpointAdapter(objectMapper, journal.toString()).load().orElseThrow();
+
+    assertEquals(IndexJobKind.RELOAD, checkpoint.kind());
+    assertEquals("abc123", checkpoint.targetCommit());
+    assertEquals(startedAt, checkpoint.startedAt());
+    assertEquals(Map.of("a.java", List.of("repo_a", "repo_a_1")), checkpoint.uploadedPathToFileIds());
+    assertEquals(Map.of("a.java", "hash-a"), checkpoint.uploadedPathToContentHash());
+    assertEquals(Set.of("old.java"), checkpoint.deletedPaths());
+  }
+
+  @Test
+  void clear_removesJournal() {
+    Path journal = tempDir.resolve("checkpoint.jsonl");
+    FileIndexCheckpointAdapter adapter =
+        new FileIndexCheckpointAdapter(
+            new ObjectMapper().registerModule(new JavaTimeModule()), journal.toString());
+    adapter.begin(IndexJobKind.INITIAL, null, Instant.now());
+
+    adapter.clear();
+
+    assertTrue(adapter.load().isEmpty());
+    assertTrue(!Files.exists(journal), "Expected journal file to be deleted.");
+  }
+}
@@ -0,0 +1,213 @@
+package app.platform.adapters.vectorstore;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.vectorstore.VectorStoreFileSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSystemVectorStoreAdapterTest {
+  @TempDir Path storeDir;
+
+  @Test
+  void manifest_tracksCreatesAndDeletesAndReloadsFromDisk() throws Exception {
+    FileSystemVectorStoreAdapter adapter = newAdapter();
+    adapter.createFile("a", bytes("alpha"), Map.of("type", "code", "path", "src/A.java"));
+    adapter.createFile("b", bytes("beta!"), Map.of("type", "code", "path", "src/B.java"));
+    adapter.createFile("meta", bytes("{}"), Map.of("type", "metadata"));
+
+    assertEquals(Optional.of("b"), adapter.findByAttributes(Map.of("path", "src/B.java")));
+    assertEquals(
+        Optional.of("a"), adapter.findByAttributes(Map.of("type", "code", "path", "src/A.java")));
+    assertEquals(Optional.empty(), adapter.findByAttributes(Map.of("type", "docs")));
+
+    adapter.createFile("b", bytes("beta v2"), Map.of("type", "code", "path", "src/B2.java"));
+    adapter.deleteFile("a");
+
+    assertEquals(Optional.empty(), adapter.findByAttributes(Map.of("path", "src/B.java")));
+    assertEquals(Optional.empty(), adapter.findByAttributes(Map.of("path", "src/A.java")));
+    assertEquals(List.of("b", "meta"), fileIds(adapter.listFiles()));
+    assertEquals(7, adapter.findFile("b").orElseThrow().sizeBytes());
+    assertThrows(IllegalStateException.class, () -> adapter.readFile("a"));
+
+    Files.writeString(storeDir.resolve("orphan.attrs.json"), "{\"type\":\"code\"}");
+    FileSystemVectorStoreAdapter reloaded = newAdapter();
+
+    assertEquals(List.of("b", "meta"), fileIds(reloaded.listFiles()));
+    assertEquals(Optional.of("b"), reloaded.findByAttributes(Map.of("path", "src/B2.java")));
+    assertEquals(Optional.of("meta"), reloaded.findByAttributes(Map.of("type", "metadata")));
+    assertEquals("beta v2", new String(reloaded.readFile("b").content(), StandardCharsets.UTF_8));
+
+    reloaded.deleteFiles(List.of("b", "meta"));
+    assertTrue(reloaded.listFiles().isEmpty());
+    assertEquals(Optional.empty(), reloaded.findByAttributes(Map.of("type", "metadata")));
+  }
+
+  @Test
+  void blobs_areSharedBetweenIdenticalDocumentsAndCollectedWithTheLastReference()
+      throws Exception {
+    FileSystemVectorStoreAdapter adapter = newAdapter();
+    adapter.createFile("a", bytes("shared"), Map.of("path", "vendor/a/LICENSE"));
+    adapter.createFile("b", bytes("shared"), Map.of("path", "vendor/b/LICENSE"));
+
+    List<Path> blobs = blobFiles();
+    assertEquals(1, blobs.size());
+    assertEquals(
+        "shared", new String(adapter.readFile("b").content(), StandardCharsets.UTF_8));
+
+    FileTime written = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(storeDir.resolve("a.doc.json"), written);
+    adapter.createFile("a", bytes("shared"), Map.of("path", "vendor/a/LICENSE"));
+    assertEquals(written, Files.getLastModifiedTime(storeDir.resolve("a.doc.json")));
+
+    adapter.deleteFile("a");
+    assertEquals(blobs, blobFiles());
+    adapter.createFile("b", bytes("changed"), Map.of("path", "vendor/b/LICENSE"));
+    assertFalse(Files.exists(blobs.get(0)));
+    assertEquals(1, blobFiles().size());
+
+    Path orphan = storeDir.resolve("blobs").resolve("00").resolve("00orphan");
+    Files.createDirectories(orphan.getParent());
+    Files.writeString(orphan, "stale");
+    FileSystemVectorStoreAdapter reloaded = newAdapter();
+    assertEquals(7, reloaded.findFile("b").orElseThrow().sizeBytes());
+    assertFalse(Files.exists(orphan));
+  }
+
+  @Test
+  void copyFile_sharesTheSourceBlobAndOverridesAttributes() throws Exception {
+    FileSystemVectorStoreAdapter adapter = newAdapter();
+    adapter.createFile("b", bytes("beta"), Map.of("path", "src/B.java", "chunkIndex", "0"));
+
+    adapter.copyFile("b", "c", Map.of("path", "src/C.java"));
+    adapter.deleteFile("b");
+
+    assertEquals(1, blobFiles().size());
+    assertArrayEquals(bytes("beta"), adapter.readFile("c").content());
+    assertEquals(
+        Map.of("path", "src/C.java", "chunkIndex", "0"), adapter.readFile("c").attributes());
+    assertEquals(List.of("c"), fileIds(newAdapter().listFiles()));
+  }
+
+  @Test
+  void concurrentWritesToOneFileId_leaveTheManifestDocumentAndBlobsConsistent()
+      throws Exception {
+    FileSystemVectorStoreAdapter adapter = newAdapter();
+    ExecutorService writers = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> writes = new ArrayList<>();
+      for (int writer = 0; writer < 8; writer++) {
+        int first = writer;
+        writes.add(
+            writers.submit(
+                () -> {
+                  for (int i = first; i < first + 200; i++) {
+                    adapter.createFile("a", bytes("version " + i % 5), Map.of());
+                  }
+                }));
+      }
+      for (Future<?> write : writes) {
+        write.get();
+      }
+    } finally {
+      writers.shutdownNow();
+    }
+
+    byte[] content = adapter.readFile("a").content();
+    assertArrayEquals(content, newAdapter().readFile("a").content());
+    assertEquals(1, blobFiles().size());
+  }
+
+  @Test
+  void load_deletesTemporaryDocumentsLeftByAnInterruptedWrite() throws Exception {
+    newAdapter().createFile("a", bytes("alpha"), Map.of());
+    Path stale = storeDir.resolve("a12345.doc.tmp");
+    Files.writeString(stale, "{\"blob\":");
+
+    assertEquals(List.of("a"), fileIds(newAdapter().listFiles()));
+    assertFalse(Files.exists(stale));
+  }
+
+  @Test
+  void legacyDocuments_remainReadableAndMigrateWhenRewritten() throws Exception {
+    Files.writeString(storeDir.resolve("old"), "legacy");
+    Files.writeString(storeDir.resolve("old.attrs.json"), "{\"type\":\"code\"}");
+    FileSystemVectorStoreAdapter adapter = newAdapter();
+
+    assertEquals(Optional.of("old"), adapter.findByAttributes(Map.of("type", "code")));
+    assertEquals("legacy", new String(adapter.readFile("old").content(), StandardCharsets.UTF_8));
+
+    adapter.createFile("old", bytes("migrated"), Map.of("type", "code"));
+
+    assertFalse(Files.exists(storeDir.resolve("old")));
+    assertFalse(Files.exists(storeDir.resolve("old.attrs.json")));
+    assertEquals(
+        "migrated", new String(newAdapter().readFile("old").content(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void compression_deflatesLargeCompressibleContentAndReadsItBackTransparently()
+      throws Exception {
+    FileSystemVectorStoreAdapter adapter =
+        new FileSystemVectorStoreAdapter(new ObjectMapper(), storeDir.toString(), true, 64);
+    byte[] source = bytes("public final class Example {}\n".repeat(200));
+    byte[] noise = new byte[4096];
+    new Random(42).nextBytes(noise);
+
+    adapter.createFile("code", source, Map.of("type", "code"));
+    adapter.createFile(
+        "streamed", new ByteArrayInputStream(source), source.length, Map.of("type", "code"));
+    adapter.createFile("noise", noise, Map.of("type", "binary"));
+    adapter.createFile("tiny", bytes("x = 1"), Map.of("type", "code"));
+
+    List<Path> blobs = blobFiles();
+    assertEquals(3, blobs.size());
+    Path deflated =
+        blobs.stream().filter(p -> p.toString().endsWith(".deflate")).findFirst().orElseThrow();
+    assertTrue(Files.size(deflated) * 4 < source.length);
+    assertEquals(source.length, adapter.findFile("streamed").orElseThrow().sizeBytes());
+
+    FileSystemVectorStoreAdapter uncompressed = newAdapter();
+    assertArrayEquals(source, uncompressed.readFile("code").content());
+    assertArrayEquals(source, uncompressed.readFile("streamed").content());
+    assertArrayEquals(noise, uncompressed.readFile("noise").content());
+    assertArrayEquals(bytes("x = 1"), uncompressed.readFile("tiny").content());
+  }
+
+  private List<Path> blobFiles() throws Exception {
+    try (Stream<Path> files = Files.walk(storeDir.resolve("blobs"))) {
+      return files.filter(Files::isRegularFile).sorted().toList();
+    }
+  }
+
+  private FileSystemVectorStoreAdapter newAdapter() {
+    return new FileSystemVectorStoreAdapter(new ObjectMapper(), storeDir.toString());
+  }
+
+  private static List<String> fileIds(List<VectorStoreFileSummary> files) {
+    return files.stream().map(VectorStoreFileSummary::fileId).toList();
+  }
+
+  private static byte[] bytes(String content) {
+    return content.getBytes(StandardCharsets.UTF_8);
+  }
+}
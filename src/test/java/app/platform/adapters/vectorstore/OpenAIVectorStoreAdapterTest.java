@@ -2,9 +2,13 @@ package app.platform.adapters.vectorstore;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -25,6 +29,7 @@ import com.openai.services.blocking.FileService;
 import com.openai.services.blocking.VectorStoreService;
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -120,7 +125,22 @@ class OpenAIVectorStoreAdapterTest {
   }
 
   @Test
-  void createFile_whenAttributesContainPath_deletesExistingWithSamePathFirst() {
+  void createFile_byDefault_doesNotScanTheVectorStoreForOlderCopiesOfThePath() {
+    doReturn(fileObject("file_123")).when(fileService).create(any(FileCreateParams.class));
+    doReturn(vectorStoreFile("vsf_new", Map.of()))
+        .when(vectorStoreFileService)
+        .create(any(com.openai.models.vectorstores.files.FileCreateParams.class));
+
+    adapter.createFile(
+        "new.txt", "new".getBytes(StandardCharsets.UTF_8), Map.of("path", "src/Example.java"));
+
+    verify(vectorStoreFileService, never()).list(any(FileListParams.class));
+    verify(fileService, never()).delete(any(FileDeleteParams.class));
+  }
+
+  @Test
+  void createFile_whenReplacingExistingPaths_deletesExistingWithSamePathFirst() {
+    adapter = new OpenAIVectorStoreAdapter(client, VECTOR_STORE_ID, 8, true);
     String path = "src/main/java/app/Example.java";
     com.openai.models.vectorstores.files.VectorStoreFile existing =
         vectorStoreFile("file_old", Map.of("path", path));
@@ -159,6 +179,32 @@ class OpenAIVectorStoreAdapterTest {
     verify(fileService, times(1)).delete(any(FileDeleteParams.class));
   }
 
+  @Test
+  void deleteFiles_deletesEveryFileAndReportsFailuresAfterAttemptingAll() {
+    doAnswer(
+            invocation -> {
+              FileDeleteParams params = invocation.getArgument(0);
+              if ("file_2".equals(params.fileId().orElse(null))) {
+                throw new RuntimeException("boom");
+              }
+              return null;
+            })
+        .when(fileService)
+        .delete(any(FileDeleteParams.class));
+
+    OpenAIVectorStoreAdapter concurrentAdapter =
+        new OpenAIVectorStoreAdapter(client, VECTOR_STORE_ID, 2);
+    IllegalStateException error =
+        assertThrows(
+            IllegalStateException.class,
+            () -> concurrentAdapter.deleteFiles(List.of("file_1", "file_2", "file_3", "file_1")));
+
+    assertTrue(error.getMessage().contains("1 of 3"), error.getMessage());
+    verify(vectorStoreFileService, times(3))
+        .delete(any(com.openai.models.vectorstores.files.FileDeleteParams.class));
+    verify(fileService, times(3)).delete(any(FileDeleteParams.class));
+  }
+
   @Test
   void readFile_downloadsContentBytesAndParsesAttributes() {
     String fileId = "file_123";
@@ -0,0 +1,174 @@
+package app.platform.adapters.vectorstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.vectorstore.VectorStoreFileSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentVectorStoreAdapterTest {
+  @TempDir Path storeDir;
+
+  @Test
+  void appendsAcrossSegmentsAndReplaysLogOnReopen() {
+    try (SegmentVectorStoreAdapter adapter = newAdapter()) {
+      for (int i = 0; i < 20; i++) {
+        adapter.createFile("doc" + i, bytes("content " + i), Map.of("path", "src/F" + i + ".java"));
+      }
+      adapter.createFile(
+          "doc3", new ByteArrayInputStream(bytes("streamed v2")), 11, Map.of("path", "moved"));
+      adapter.deleteFiles(List.of("doc4", "missing"));
+      adapter.createFile("meta", bytes("{}"), Map.of("type", "metadata"));
+
+      assertTrue(adapter.segmentCount() > 1);
+      assertEquals("streamed v2", text(adapter, "doc3"));
+      assertEquals(Optional.of("doc3"), adapter.findByAttributes(Map.of("path", "moved")));
+      assertEquals(Optional.empty(), adapter.findByAttributes(Map.of("path", "src/F3.java")));
+      assertThrows(IllegalStateException.class, () -> adapter.readFile("doc4"));
+    }
+
+    try (SegmentVectorStoreAdapter reopened = newAdapter()) {
+      assertEquals(20, reopened.listFiles().size());
+      assertEquals("content 7", text(reopened, "doc7"));
+      assertEquals("streamed v2", text(reopened, "doc3"));
+      assertEquals(11, reopened.findFile("doc3").orElseThrow().sizeBytes());
+      assertEquals(Optional.empty(), reopened.findFile("doc4"));
+      assertEquals(Optional.of("meta"), reopened.findByAttributes(Map.of("type", "metadata")));
+    }
+  }
+
+  @Test
+  void compactionDropsDeletedRecordsWithoutResurrectingThem() throws Exception {
+    List<String> kept = new ArrayList<>();
+    try (SegmentVectorStoreAdapter adapter = newAdapter()) {
+      List<String> deleted = new ArrayList<>();
+      for (int i = 0; i < 60; i++) {
+        String fileId = "doc" + i;
+        adapter.createFile(fileId, bytes("content " + i), Map.of("index", String.valueOf(i)));
+        (i % 5 == 0 ? kept : deleted).add(fileId);
+      }
+      long sizeBefore = storeSize();
+      adapter.deleteFiles(deleted);
+      adapter.createFile("last", bytes("last"), Map.of());
+      kept.add("last");
+
+      adapter.compact();
+
+      assertTrue(storeSize() < sizeBefore);
+      assertEquals(kept.stream().sorted().toList(), fileIds(adapter.listFiles()));
+      assertEquals("content 10", text(adapter, "doc10"));
+    }
+
+    try (SegmentVectorStoreAdapter reopened = newAdapter()) {
+      assertEquals(kept.stream().sorted().toList(), fileIds(reopened.listFiles()));
+      assertEquals("content 55", text(reopened, "doc55"));
+      assertEquals(Optional.of("doc15"), reopened.findByAttributes(Map.of("index", "15")));
+      assertEquals(Optional.empty(), reopened.findByAttributes(Map.of("index", "16")));
+    }
+  }
+
+  @Test
+  void compaction_keepsTombstoneWhileAnOlderSegmentStillHoldsAStaleRecord() {
+    try (SegmentVectorStoreAdapter adapter = newAdapter()) {
+      adapter.createFile("x", bytes("v1"), Map.of());
+      adapter.createFile("keep", bytes("k".repeat(180)), Map.of());
+      adapter.createFile("x", bytes("x".repeat(150)), Map.of());
+      adapter.deleteFile("x");
+      adapter.createFile("roll", bytes("r".repeat(100)), Map.of());
+
+      adapter.compact();
+
+      assertEquals(List.of("keep", "roll"), fileIds(adapter.listFiles()));
+    }
+
+    try (SegmentVectorStoreAdapter reopened = newAdapter()) {
+      assertEquals(List.of("keep", "roll"), fileIds(reopened.listFiles()));
+      assertEquals(Optional.empty(), reopened.findFile("x"));
+    }
+  }
+
+  @Test
+  void compaction_dropsTombstonesOnceTheShadowedSegmentsAreGone() throws Exception {
+    try (SegmentVectorStoreAdapter adapter = newAdapter()) {
+      adapter.createFile("pinned", bytes("p".repeat(200)), Map.of());
+      for (int round = 0; round < 30; round++) {
+        List<String> fileIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          String fileId = "r" + round + "-" + i;
+          adapter.createFile(fileId, bytes("content " + i), Map.of());
+          fileIds.add(fileId);
+        }
+        adapter.deleteFiles(fileIds);
+        adapter.createFile("live", bytes("l".repeat(200)), Map.of());
+        adapter.compact();
+        adapter.compact();
+      }
+
+      assertTrue(storeSize() <= 4 * 256, "store size " + storeSize());
+      assertEquals(List.of("live", "pinned"), fileIds(adapter.listFiles()));
+    }
+
+    try (SegmentVectorStoreAdapter reopened = newAdapter()) {
+      assertEquals(List.of("live", "pinned"), fileIds(reopened.listFiles()));
+    }
+  }
+
+  @Test
+  void reopen_truncatesTornRecordAtEndOfLastSegment() throws Exception {
+    try (SegmentVectorStoreAdapter adapter = newAdapter()) {
+      adapter.createFile("a", bytes("alpha"), Map.of());
+    }
+    Path segment;
+    try (Stream<Path> files = Files.list(storeDir)) {
+      segment = files.sorted().reduce((first, second) -> second).orElseThrow();
+    }
+    long intactSize = Files.size(segment);
+    Files.write(segment, new byte[] {1, 0, 0, 0, 9, 0}, StandardOpenOption.APPEND);
+
+    try (SegmentVectorStoreAdapter reopened = newAdapter()) {
+      assertEquals(List.of("a"), fileIds(reopened.listFiles()));
+      assertEquals(intactSize, Files.size(segment));
+      reopened.createFile("b", bytes("beta"), Map.of());
+      assertEquals("beta", text(reopened, "b"));
+    }
+  }
+
+  private SegmentVectorStoreAdapter newAdapter() {
+    return new SegmentVectorStoreAdapter(new ObjectMapper(), storeDir.toString(), 256);
+  }
+
+  private long storeSize() throws Exception {
+    try (Stream<Path> files = Files.list(storeDir)) {
+      long size = 0;
+      for (Path file : files.toList()) {
+        size += Files.size(file);
+      }
+      return size;
+    }
+  }
+
+  private static String text(SegmentVectorStoreAdapter adapter, String fileId) {
+    return new String(adapter.readFile(fileId).content(), StandardCharsets.UTF_8);
+  }
+
+  private static List<String> fileIds(List<VectorStoreFileSummary> files) {
+    return files.stream().map(VectorStoreFileSummary::fileId).toList();
+  }
+
+  private static byte[] bytes(String content) {
+    return content.getBytes(StandardCharsets.UTF_8);
+  }
+}
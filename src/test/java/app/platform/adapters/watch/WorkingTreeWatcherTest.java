@@ -0,0 +1,146 @@
+package app.platform.adapters.watch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.git.TrackedFilesSnapshot;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WorkingTreeWatcherTest {
+  @TempDir Path repoRoot;
+
+  @Test
+  void pollMode_reportsDebouncedChangesAndDeletesOutsideGitDir() throws Exception {
+    Files.createDirectories(repoRoot.resolve(".git"));
+    Files.createDirectories(repoRoot.resolve("src"));
+    Files.writeString(repoRoot.resolve("src/Old.java"), "class Old {}");
+    BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+    WorkingTreeWatcher watcher = watcher(WorkingTreeWatcher.Mode.POLL, List.of(), changes);
+
+    watcher.start();
+    try {
+      Thread.sleep(200);
+      Files.writeString(repoRoot.resolve("src/A.java"), "class A {}");
+      Files.writeString(repoRoot.resolve(".git/index"), "ignored");
+      Files.delete(repoRoot.resolve("src/Old.java"));
+
+      Change change = changes.poll(5, TimeUnit.SECONDS);
+      assertNotNull(change);
+      assertEquals(Set.of("src/A.java"), change.changed());
+      assertEquals(Set.of("src/Old.java"), change.deleted());
+    } finally {
+      watcher.stop();
+    }
+  }
+
+  @Test
+  void autoMode_reportsFilesCreatedInNewDirectories() throws Exception {
+    BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+    WorkingTreeWatcher watcher = watcher(WorkingTreeWatcher.Mode.AUTO, List.of(), changes);
+
+    watcher.start();
+    try {
+      Thread.sleep(200);
+      Files.createDirectories(repoRoot.resolve("docs"));
+      Thread.sleep(100);
+      Files.writeString(repoRoot.resolve("docs/Guide.md"), "# Guide");
+
+      Set<String> changed = new HashSet<>();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (!changed.contains("docs/Guide.md") && System.nanoTime() < deadline) {
+        Change change = changes.poll(100, TimeUnit.MILLISECONDS);
+        if (change != null) {
+          changed.addAll(change.changed());
+        }
+      }
+      assertTrue(changed.contains("docs/Guide.md"));
+    } finally {
+      watcher.stop();
+    }
+  }
+
+  @Test
+  void pollMode_skipsDirectoriesWithoutTrackedFiles() throws Exception {
+    writeTrackedAndBuildOutput();
+    BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+    WorkingTreeWatcher watcher =
+        watcher(WorkingTreeWatcher.Mode.POLL, List.of("src/A.java"), changes);
+
+    watcher.start();
+    try {
+      Thread.sleep(200);
+      Files.writeString(repoRoot.resolve("target/classes/B.class"), "new");
+      Files.writeString(repoRoot.resolve("src/A.java"), "class A { int x; }");
+
+      Change change = changes.poll(5, TimeUnit.SECONDS);
+      assertNotNull(change);
+      assertEquals(Set.of("src/A.java"), change.changed());
+      assertEquals(Set.of(), change.deleted());
+    } finally {
+      watcher.stop();
+    }
+  }
+
+  @Test
+  void autoMode_doesNotReportChangesInDirectoriesWithoutTrackedFiles() throws Exception {
+    writeTrackedAndBuildOutput();
+    BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+    WorkingTreeWatcher watcher =
+        watcher(WorkingTreeWatcher.Mode.AUTO, List.of("src/A.java"), changes);
+
+    watcher.start();
+    try {
+      Thread.sleep(200);
+      Files.writeString(repoRoot.resolve("target/classes/B.class"), "new");
+      Files.createDirectories(repoRoot.resolve("node_modules/lib"));
+      Files.writeString(repoRoot.resolve("node_modules/lib/index.js"), "x");
+      Thread.sleep(100);
+      Files.writeString(repoRoot.resolve("src/A.java"), "class A { int x; }");
+
+      Set<String> changed = new HashSet<>();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (!changed.contains("src/A.java") && System.nanoTime() < deadline) {
+        Change change = changes.poll(100, TimeUnit.MILLISECONDS);
+        if (change != null) {
+          changed.addAll(change.changed());
+        }
+      }
+      assertEquals(Set.of("src/A.java"), changed);
+    } finally {
+      watcher.stop();
+    }
+  }
+
+  private void writeTrackedAndBuildOutput() throws Exception {
+    Files.createDirectories(repoRoot.resolve("src"));
+    Files.createDirectories(repoRoot.resolve("target/classes"));
+    Files.writeString(repoRoot.resolve("src/A.java"), "class A {}");
+    Files.writeString(repoRoot.resolve("target/classes/A.class"), "compiled");
+  }
+
+  private WorkingTreeWatcher watcher(
+      WorkingTreeWatcher.Mode mode, List<String> trackedFiles, BlockingQueue<Change> changes) {
+    return new WorkingTreeWatcher(
+        () -> Optional.of(repoRoot),
+        () -> TrackedFilesSnapshot.of(1, trackedFiles),
+        (changed, deleted) -> changes.add(new Change(changed, deleted)),
+        mode,
+        Duration.ofMillis(100),
+        Duration.ofSeconds(2),
+        Duration.ofMillis(50));
+  }
+
+  private record Change(Set<String> changed, Set<String> deleted) {}
+}
@@ -0,0 +1,92 @@
+package app.platform.delivery.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import app.core.indexing.AutoIndexUpdateTrigger;
+import app.core.projects.ProjectRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(
+    properties = {
+      "codeassistant.indexing.autoUpdate.webhookEnabled=true",
+      "codeassistant.indexing.autoUpdate.webhookSecret=s3cret"
+    })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IndexWebhookApiTest {
+  private static final String PAYLOAD = "{\"ref\":\"refs/heads/main\"}";
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void pushWebhook_withInvalidSignature_isRejected() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/index/webhook/push")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Hub-Signature-256", "sha256=00")
+                .content(PAYLOAD))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void pushWebhook_withValidSignature_isAccepted() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/index/webhook/push")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Hub-Signature-256", sign(PAYLOAD))
+                .content(PAYLOAD))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.status").value("IDLE"));
+  }
+
+  @Test
+  void pushWebhook_forUnknownProject_isNotFound() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/index/webhook/push")
+                .param("project", "missing")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Hub-Signature-256", sign(PAYLOAD))
+                .content(PAYLOAD))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void pushWebhook_withoutConfiguredSecret_isRefused() {
+    ProjectRegistry registry = mock(ProjectRegistry.class);
+    AutoIndexUpdateTrigger trigger = mock(AutoIndexUpdateTrigger.class);
+    IndexApiController controller = new IndexApiController(registry, trigger, true, "");
+
+    assertEquals(
+        HttpStatus.FORBIDDEN,
+        controller
+            .handlePushWebhook(null, null, PAYLOAD.getBytes(StandardCharsets.UTF_8))
+            .getStatusCode());
+    verifyNoInteractions(registry, trigger);
+  }
+
+  private static String sign(String payload) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec("s3cret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    return "sha256="
+        + HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+  }
+}
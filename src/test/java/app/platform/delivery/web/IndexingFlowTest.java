@@ -8,6 +8,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import app.core.indexing.IndexJobState;
@@ -19,7 +20,9 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
@@ -46,7 +49,7 @@ class IndexingFlowTest {
   @TempDir Path tempDir;
 
   @Test
-  void initialIndexJob_updatesProgress_andWritesLastIndexedCommit() throws Exception {
+  void initialIndexJob_writesLastIndexedCommit() throws Exception {
     Path repoDir = tempDir.resolve("repo");
     Files.createDirectories(repoDir);
     initTempGitRepo(repoDir);
@@ -65,12 +68,8 @@ class IndexingFlowTest {
         .andExpect(jsonPath("$.status").value("RUNNING"))
         .andExpect(jsonPath("$.progress").exists());
 
-    Set<String> observedProgressWhileRunning = new HashSet<>();
-    IndexJobState finalState = pollUntilFinished(observedProgressWhileRunning);
+    IndexJobState finalState = pollUntilFinished(new HashSet<>());
 
-    assertTrue(
-        observedProgressWhileRunning.size() >= 2,
-        "Expected progress to change while RUNNING, got: " + observedProgressWhileRunning);
     assertTrue(finalState.status() == IndexJobStatus.SUCCESS, "Expected SUCCESS, got " + finalState);
     assertTrue(finalState.ingestion() != null, "Expected ingestion status to be present.");
     assertTrue(
@@ -90,6 +89,85 @@ class IndexingFlowTest {
         .andExpect(content().string(not(containsString("Not indexed"))));
   }
 
+  @Test
+  void initialIndexJob_reportsPhaseMetricsOnStateAndThroughActuator() throws Exception {
+    Path repoDir = tempDir.resolve("repo");
+    Files.createDirectories(repoDir);
+    initTempGitRepo(repoDir);
+
+    mockMvc
+        .perform(
+            post("/setup")
+                .param("mode", "LOCAL")
+                .param("localRepoPath", repoDir.toString()))
+        .andExpect(status().is3xxRedirection());
+
+    mockMvc.perform(post("/api/index/initial")).andExpect(status().isAccepted());
+    IndexJobState finalState = pollUntilFinished(new HashSet<>());
+
+    assertTrue(finalState.status() == IndexJobStatus.SUCCESS, "Expected SUCCESS, got " + finalState);
+    assertTrue(finalState.metrics() != null, "Expected job metrics on the finished state.");
+    assertTrue(
+        finalState.metrics().phases().keySet().containsAll(
+            Set.of("enumerate", "classify", "read", "upload", "metadata_save")),
+        "Unexpected phases " + finalState.metrics().phases().keySet());
+    assertTrue(finalState.metrics().phases().get("read").bytes() > 0);
+
+    mockMvc
+        .perform(
+            get("/actuator/metrics/codeassistant.indexing.phase.duration")
+                .param("tag", "phase:upload"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.availableTags[*].tag", hasItem("project")));
+    mockMvc
+        .perform(get("/actuator/metrics/codeassistant.indexing.throughput.files"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void indexEvents_streamProgressChangesUntilJobFinishes() throws Exception {
+    Path repoDir = tempDir.resolve("repo");
+    Files.createDirectories(repoDir);
+    initTempGitRepo(repoDir);
+
+    mockMvc
+        .perform(
+            post("/setup")
+                .param("mode", "LOCAL")
+                .param("localRepoPath", repoDir.toString()))
+        .andExpect(status().is3xxRedirection());
+
+    MvcResult events =
+        mockMvc.perform(get("/api/index/events")).andExpect(request().asyncStarted()).andReturn();
+
+    mockMvc.perform(post("/api/index/initial")).andExpect(status().isAccepted());
+
+    List<IndexJobState> states = new ArrayList<>();
+    long deadlineNanos = System.nanoTime() + POLL_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadlineNanos) {
+      states = parseStateEvents(events.getResponse().getContentAsString(StandardCharsets.UTF_8));
+      if (!states.isEmpty() && states.get(states.size() - 1).status() == IndexJobStatus.SUCCESS) {
+        break;
+      }
+      Thread.sleep(20);
+    }
+
+    assertTrue(!states.isEmpty(), "Expected state events.");
+    IndexJobState finalState = states.get(states.size() - 1);
+    assertTrue(finalState.status() == IndexJobStatus.SUCCESS, "Expected SUCCESS, got " + finalState);
+    assertTrue(finalState.ingestion().uploaded() > 0, "Expected ingestion uploaded count to be > 0.");
+
+    Set<String> progressWhileRunning = new HashSet<>();
+    for (IndexJobState state : states) {
+      if (state.status() == IndexJobStatus.RUNNING && state.progress() != null) {
+        progressWhileRunning.add(state.progress());
+      }
+    }
+    assertTrue(
+        progressWhileRunning.size() >= 2,
+        "Expected progress to change while RUNNING, got: " + progressWhileRunning);
+  }
+
   @Test
   void initialIndexJob_uploadsCodeAndSpecFilesToVectorStore_withExpectedAttributes() throws Exception {
     Path repoDir = tempDir.resolve("repo");
@@ -123,6 +201,47 @@ class IndexingFlowTest {
         .andExpect(jsonPath("$.metadata.indexing.lastIndexedCommit").value(expectedHead));
   }
 
+  @Test
+  void initialIndexJob_splitsLargeFilesIntoLineRangedChunks() throws Exception {
+    Path repoDir = tempDir.resolve("repo");
+    Files.createDirectories(repoDir);
+    runGit(repoDir, "init");
+    runGit(repoDir, "config", "user.email", "test@example.com");
+    runGit(repoDir, "config", "user.name", "Test User");
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      large.append("line ").append(i).append(" of a long specification document\n");
+    }
+    Files.createDirectories(repoDir.resolve("spec"));
+    Files.writeString(repoDir.resolve("spec/Large.md"), large.toString(), StandardCharsets.UTF_8);
+    runGit(repoDir, "add", ".");
+    runGit(repoDir, "commit", "-m", "initial");
+
+    mockMvc
+        .perform(
+            post("/setup")
+                .param("mode", "LOCAL")
+                .param("localRepoPath", repoDir.toString()))
+        .andExpect(status().is3xxRedirection());
+
+    mockMvc.perform(post("/api/index/initial")).andExpect(status().isAccepted());
+    IndexJobState finalState = pollUntilFinished(new HashSet<>());
+    assertTrue(finalState.status() == IndexJobStatus.SUCCESS, "Expected SUCCESS, got " + finalState);
+
+    mockMvc
+        .perform(get("/api/vectorstore/files"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$..attributes.chunkIndex", hasItem("0")))
+        .andExpect(jsonPath("$..attributes.chunkIndex", hasItem("2")))
+        .andExpect(jsonPath("$..attributes.startLine", hasItem("1")))
+        .andExpect(jsonPath("$..attributes.endLine", hasItem("1000")));
+
+    mockMvc
+        .perform(get("/api/metadata"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.metadata.pathToOpenAiFileIds['spec/Large.md'].length()").value(4));
+  }
+
   private IndexJobState pollUntilFinished(Set<String> observedProgressWhileRunning) throws Exception {
     long deadlineNanos = System.nanoTime() + POLL_TIMEOUT.toNanos();
     while (System.nanoTime() < deadlineNanos) {
@@ -143,6 +262,20 @@ class IndexingFlowTest {
     throw new AssertionError("Timed out while waiting for indexing job to finish");
   }
 
+  private List<IndexJobState> parseStateEvents(String body) throws IOException {
+    List<IndexJobState> states = new ArrayList<>();
+    int complete = body.lastIndexOf('\n');
+    if (complete < 0) {
+      return states;
+    }
+    for (String line : body.substring(0, complete).split("\n")) {
+      if (line.startsWith("data:")) {
+        states.add(objectMapper.readValue(line.substring(5), IndexJobState.class));
+      }
+    }
+    return states;
+  }
+
   private static void initTempGitRepo(Path repoDir) throws Exception {
     runGit(repoDir, "init");
     runGit(repoDir, "config", "user.email", "test@example.com");
@@ -59,7 +59,7 @@ class McpSearchApiTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(
                     objectMapper.writeValueAsBytes(
-                        new McpSearchRequest("text", token, false, null, null, null))))
+                        new McpSearchRequest("text", token, false, null, null, null, null))))
         .andExpect(status().isOk())
         .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
         .andExpect(jsonPath("$.mode").value("text"))
@@ -83,7 +83,7 @@ class McpSearchApiTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(
                     objectMapper.writeValueAsBytes(
-                        new McpSearchRequest("semantic", query, null, 5, null, null))))
+                        new McpSearchRequest("semantic", query, null, 5, null, null, null))))
         .andExpect(status().isOk())
         .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
         .andExpect(jsonPath("$.mode").value("semantic"))
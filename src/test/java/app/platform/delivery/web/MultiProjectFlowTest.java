@@ -0,0 +1,192 @@
+package app.platform.delivery.web;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import app.core.indexing.IndexJobState;
+import app.core.indexing.IndexJobStatus;
+import app.platform.mcp.api.McpSearchRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class MultiProjectFlowTest {
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(10);
+  private static final String TOKEN = "other-project-token";
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+
+  @DynamicPropertySource
+  static void namedProject(DynamicPropertyRegistry registry) throws Exception {
+    Path root = Files.createTempDirectory("codeassistant-projects");
+    Path repoDir = root.resolve("repo");
+    Files.createDirectories(repoDir);
+    initTempGitRepo(repoDir);
+
+    registry.add("codeassistant.projects.other.localRepoPath", repoDir::toString);
+    registry.add(
+        "codeassistant.projects.other.vectorStorePath",
+        () -> root.resolve("vectorstore").toString());
+    registry.add(
+        "codeassistant.projects.other.checkpointPath",
+        () -> root.resolve("index-checkpoint.jsonl").toString());
+  }
+
+  @Test
+  void projects_listsDefaultAndNamedProjects() throws Exception {
+    mockMvc
+        .perform(get("/api/projects"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].key", hasItem("default")))
+        .andExpect(jsonPath("$[*].key", hasItem("other")))
+        .andExpect(jsonPath("$[1].index.status").value("IDLE"));
+  }
+
+  @Test
+  void namedProject_indexesAndSearchesIndependentlyOfDefaultProject() throws Exception {
+    mockMvc
+        .perform(post("/api/index/initial").param("project", "other"))
+        .andExpect(status().isAccepted());
+
+    IndexJobState state = pollUntilFinished("other");
+    assertEquals(IndexJobStatus.SUCCESS, state.status(), "Unexpected state " + state);
+
+    mockMvc
+        .perform(get("/api/index/status"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("IDLE"));
+
+    mockMvc
+        .perform(get("/api/index/tracked-files").param("project", "other"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasItem("src/Other.java")));
+
+    mockMvc
+        .perform(get("/api/search/text").param("query", TOKEN).param("project", "other"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.files[*].path", hasItem("src/Other.java")));
+
+    mockMvc
+        .perform(
+            get("/api/search/semantic")
+                .param("query", "other project token")
+                .param("project", "other"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results.length()").value(greaterThan(0)));
+
+    mockMvc
+        .perform(
+            post("/api/mcp/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsBytes(
+                        new McpSearchRequest("text", TOKEN, false, null, null, null, "other"))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.text.files[*].path", hasItem("src/Other.java")));
+  }
+
+  @Test
+  void unknownProject_returnsNotFound() throws Exception {
+    mockMvc
+        .perform(get("/api/index/status").param("project", "missing"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.error").value("Unknown project: missing"));
+
+    mockMvc
+        .perform(get("/api/search/text").param("query", TOKEN).param("project", "missing"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.error").value("Unknown project: missing"));
+
+    mockMvc
+        .perform(
+            post("/api/mcp/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsBytes(
+                        new McpSearchRequest("text", TOKEN, false, null, null, null, "missing"))))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.error").value("Unknown project: missing"));
+  }
+
+  private IndexJobState pollUntilFinished(String project) throws Exception {
+    long deadlineNanos = System.nanoTime() + POLL_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadlineNanos) {
+      MvcResult result =
+          mockMvc.perform(get("/api/index/status").param("project", project)).andReturn();
+      IndexJobState state =
+          objectMapper.readValue(
+              result.getResponse().getContentAsByteArray(), IndexJobState.class);
+      if (state.status() == IndexJobStatus.SUCCESS || state.status() == IndexJobStatus.FAILED) {
+        return state;
+      }
+      Thread.sleep(100);
+    }
+    throw new AssertionError("Timed out while waiting for indexing job to finish");
+  }
+
+  private static void initTempGitRepo(Path repoDir) throws Exception {
+    runGit(repoDir, "init");
+    runGit(repoDir, "config", "user.email", "test@example.com");
+    runGit(repoDir, "config", "user.name", "Test User");
+    Files.createDirectories(repoDir.resolve("src"));
+    Files.writeString(
+        repoDir.resolve("src/Other.java"),
+        "class Other {\n  // " + TOKEN + " other project\n}\n",
+        StandardCharsets.UTF_8);
+    runGit(repoDir, "add", ".");
+    runGit(repoDir, "commit", "-m", "initial");
+  }
+
+  private static String runGit(Path repoDir, String... args) throws Exception {
+    String[] command = new String[args.length + 1];
+    command[0] = "git";
+    System.arraycopy(args, 0, command, 1, args.length);
+    Process process = new ProcessBuilder(command).directory(repoDir.toFile()).start();
+    if (!process.waitFor(10, TimeUnit.SECONDS)) {
+      process.destroyForcibly();
+      throw new IllegalStateException("Timed out while running git in " + repoDir);
+    }
+    String stdout = readAll(process.getInputStream());
+    String stderr = readAll(process.getErrorStream());
+    if (process.exitValue() != 0) {
+      throw new IllegalStateException("git failed in " + repoDir + ": " + stderr.trim());
+    }
+    return stdout;
+  }
+
+  private static String readAll(java.io.InputStream inputStream) {
+    try (inputStream) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      inputStream.transferTo(output);
+      return output.toString(StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read process output.", e);
+    }
+  }
+}
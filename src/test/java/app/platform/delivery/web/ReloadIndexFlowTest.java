@@ -9,15 +9,22 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import app.core.indexing.IndexCheckpointPort;
+import app.core.indexing.IndexJobKind;
 import app.core.indexing.IndexJobState;
 import app.core.indexing.IndexJobStatus;
+import app.core.indexing.StartInitialIndexUseCase;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
@@ -40,6 +47,8 @@ class ReloadIndexFlowTest {
 
   @Autowired private MockMvc mockMvc;
   @Autowired private ObjectMapper objectMapper;
+  @Autowired private StartInitialIndexUseCase startInitialIndexUseCase;
+  @Autowired private IndexCheckpointPort indexCheckpointPort;
 
   @TempDir Path tempDir;
 
@@ -91,6 +100,123 @@ class ReloadIndexFlowTest {
         .andExpect(jsonPath("$.metadata.indexing.lastIndexedCommit").value(commits.commitX()));
   }
 
+  @Test
+  void planIndex_reportsReloadWithoutStartingJob() throws Exception {
+    Path repoDir = tempDir.resolve("repo");
+    Files.createDirectories(repoDir);
+    RepoCommits commits = initTempGitRepoWithCommitsAandX(repoDir);
+
+    mockMvc
+        .perform(
+            post("/setup")
+                .param("mode", "LOCAL")
+                .param("localRepoPath", repoDir.toString()))
+        .andExpect(status().is3xxRedirection());
+
+    mockMvc
+        .perform(
+            post("/api/index/plan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsBytes(
+                        Map.of("mode", "update", "commit", commits.commitX()))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.kind").value("RELOAD"))
+        .andExpect(jsonPath("$.targetCommit").value(commits.commitX()))
+        .andExpect(jsonPath("$.filesToUpload").value(1))
+        .andExpect(jsonPath("$.totalBytes").value(1))
+        .andExpect(jsonPath("$.filesToDelete").value(0));
+
+    mockMvc
+        .perform(get("/api/index/status"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("IDLE"));
+
+    mockMvc
+        .perform(
+            post("/api/index/plan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("mode", "initial"))))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("Field `mode` must be one of: update, reload."));
+  }
+
+  @Test
+  void reloadIndex_atAlreadyIndexedCommit_skipsUnchangedFiles() throws Exception {
+    Path repoDir = tempDir.resolve("repo");
+    Files.createDirectories(repoDir);
+    RepoCommits commits = initTempGitRepoWithCommitsAandX(repoDir);
+
+    mockMvc
+        .perform(
+            post("/setup")
+                .param("mode", "LOCAL")
+                .param("localRepoPath", repoDir.toString()))
+        .andExpect(status().is3xxRedirection());
+
+    mockMvc.perform(post("/api/index/initial")).andExpect(status().isAccepted());
+    IndexJobState initialFinalState = pollUntilFinished();
+    assertTrue(
+        initialFinalState.status() == IndexJobStatus.SUCCESS,
+        "Expected SUCCESS, got " + initialFinalState);
+    assertTrue(
+        initialFinalState.ingestion().uploaded() > 0,
+        "Expected initial index to upload files, got " + initialFinalState.ingestion());
+
+    mockMvc
+        .perform(
+            post("/api/index/reload")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(Map.of("commit", commits.commitX()))))
+        .andExpect(status().isAccepted());
+
+    IndexJobState reloadFinalState = pollUntilFinished();
+    assertTrue(
+        reloadFinalState.status() == IndexJobStatus.SUCCESS,
+        "Expected SUCCESS, got " + reloadFinalState);
+    assertTrue(
+        reloadFinalState.ingestion().uploaded() == 0,
+        "Expected unchanged files to be skipped, got " + reloadFinalState.ingestion());
+
+    mockMvc
+        .perform(get("/api/metadata"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.metadata.pathToOpenAiFileIds['README.md']").exists())
+        .andExpect(jsonPath("$.metadata.pathToContentHash['README.md']").exists());
+  }
+
+  @Test
+  void resumeInterruptedJob_reusesCheckpointedUploads() throws Exception {
+    Path repoDir = tempDir.resolve("repo");
+    Files.createDirectories(repoDir);
+    RepoCommits commits = initTempGitRepoWithCommitsAandX(repoDir);
+
+    mockMvc
+        .perform(
+            post("/setup")
+                .param("mode", "LOCAL")
+                .param("localRepoPath", repoDir.toString()))
+        .andExpect(status().is3xxRedirection());
+
+    indexCheckpointPort.begin(IndexJobKind.RELOAD, commits.commitX(), Instant.now());
+    indexCheckpointPort.recordUpload(
+        "README.md", List.of("repo_checkpointed"), sha256Hex("X".getBytes(StandardCharsets.UTF_8)));
+
+    assertTrue(startInitialIndexUseCase.resumeInterruptedJob().isPresent());
+    IndexJobState finalState = pollUntilFinished();
+    assertTrue(finalState.status() == IndexJobStatus.SUCCESS, "Expected SUCCESS, got " + finalState);
+    assertTrue(
+        finalState.ingestion().uploaded() == 0,
+        "Expected checkpointed upload to be reused, got " + finalState.ingestion());
+    assertTrue(indexCheckpointPort.load().isEmpty(), "Expected checkpoint to be cleared.");
+
+    mockMvc
+        .perform(get("/api/metadata"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.metadata.indexing.lastIndexedCommit").value(commits.commitX()))
+        .andExpect(jsonPath("$.metadata.pathToOpenAiFileIds['README.md'][0]").value("repo_checkpointed"));
+  }
+
   @Test
   void indexPage_rendersReloadControl() throws Exception {
     mockMvc
@@ -168,6 +294,10 @@ class ReloadIndexFlowTest {
     return stdout;
   }
 
+  private static String sha256Hex(byte[] content) throws Exception {
+    return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+  }
+
   private static String[] buildGitCommand(String... args) {
     String[] command = new String[args.length + 1];
     command[0] = "git";
@@ -0,0 +1,74 @@
+package app.platform.delivery.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.core.indexing.IndexIngestionStatus;
+import app.core.indexing.IndexJobState;
+import app.core.indexing.IndexJobStatus;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseStateListenerTest {
+  @Test
+  void accept_doesNotWaitForAStalledEmitterAndSendsTheLatestStateOnceItRecovers()
+      throws Exception {
+    CountDownLatch stalled = new CountDownLatch(1);
+    CountDownLatch firstSendStarted = new CountDownLatch(1);
+    List<IndexJobState> sent = new CopyOnWriteArrayList<>();
+    SseEmitter emitter =
+        new SseEmitter() {
+          @Override
+          public void send(SseEventBuilder builder) throws IOException {
+            firstSendStarted.countDown();
+            try {
+              stalled.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            builder.build().stream()
+                .map(data -> data.getData())
+                .filter(IndexJobState.class::isInstance)
+                .map(IndexJobState.class::cast)
+                .forEach(sent::add);
+          }
+        };
+    SseStateListener listener = new SseStateListener(emitter);
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(2),
+        () -> {
+          listener.accept(running("first"));
+          assertTrue(firstSendStarted.await(2, TimeUnit.SECONDS));
+          for (int i = 0; i < 1000; i++) {
+            listener.accept(running("progress " + i));
+          }
+        });
+
+    stalled.countDown();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+    while (sent.size() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(50);
+    assertEquals(2, sent.size());
+    assertEquals("first", sent.get(0).progress());
+    assertEquals("progress 999", sent.get(1).progress());
+
+    listener.close();
+    assertThrows(IllegalStateException.class, () -> listener.accept(running("late")));
+  }
+
+  private static IndexJobState running(String progress) {
+    return new IndexJobState(
+        IndexJobStatus.RUNNING, progress, null, null, null, IndexIngestionStatus.empty());
+  }
+}